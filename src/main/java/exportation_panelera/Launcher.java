@@ -0,0 +1,84 @@
+package exportation_panelera;
+
+import exportation_panelera.View.SignInForm;
+import exportation_panelera.controller.AppStartup;
+import exportation_panelera.db.DatabaseManager;
+import exportation_panelera.metrics.EdtWatchdog;
+import exportation_panelera.metrics.StartupTimer;
+
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
+
+/**
+ * Application entry point: shows the sign-in form as early as possible and
+ * logs how long each startup phase took.
+ *
+ * Nothing on the way to the first frame touches the database, the JDBC
+ * driver or JCalendar; {@link AppStartup#warmUp()} loads those in the
+ * background once the form is on screen. With
+ * {@code -Dapp.startup.training=true} the application starts in offline mode,
+ * so it never connects to, migrates or seeds a database, and exits as soon as
+ * that warm-up is done. This is the training run for the AppCDS archive built
+ * by the {@code appcds} Maven profile.
+ */
+public class Launcher {
+
+    private static final Logger logger = Logger.getLogger(Launcher.class.getName());
+
+    private static final boolean TRAINING_RUN = Boolean.getBoolean("app.startup.training");
+
+    // Prevent instantiation of utility class
+    private Launcher() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated");
+    }
+
+    public static void main(String[] args) {
+        StartupTimer.mark("main");
+
+        // A build step must not touch a database; the warm-up still loads the driver classes
+        if (TRAINING_RUN) {
+            DatabaseManager.setOfflineMode(true);
+        }
+
+        // Set system look and feel
+        try {
+            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Could not set system look and feel", e);
+        }
+        StartupTimer.mark("look and feel");
+
+        EdtWatchdog.install();
+        StartupTimer.mark("EDT watchdog");
+
+        SwingUtilities.invokeLater(() -> {
+            StartupTimer.mark("EDT started");
+            SignInForm form = new SignInForm();
+            StartupTimer.mark("sign-in form built");
+            form.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowOpened(WindowEvent e) {
+                    StartupTimer.mark("first frame shown");
+                    StartupTimer.report();
+                    if (TRAINING_RUN) {
+                        exitAfterWarmUp();
+                    }
+                }
+            });
+            form.setVisible(true);
+        });
+    }
+
+    /**
+     * End the training run once the background warm-up has loaded its
+     * classes, so the archive holds them too
+     */
+    private static void exitAfterWarmUp() {
+        logger.info("Training run: exiting after startup warm-up");
+        AppStartup.warmUp().whenComplete((ignored, error) -> System.exit(0));
+    }
+}
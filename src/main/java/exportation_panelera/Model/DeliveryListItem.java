@@ -0,0 +1,190 @@
+package exportation_panelera.Model;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Date;
+
+/**
+ * Read-only row of the delivery list: the delivery columns the grid shows
+ * plus destination, customer and value of its exportation, loaded together
+ * by one JOIN. Open the full {@link Delivery_InfDTO} only to edit a delivery.
+ *
+ * Kept small because a list may hold every delivery: dates are epoch
+ * milliseconds, the amount is its minor units, the display ids are derived
+ * from the stored ids on request, and status, currency and destination
+ * (a handful of distinct values) are shared strings rather than one copy
+ * per row.
+ */
+public final class DeliveryListItem {
+
+    /** Epoch milliseconds standing for a missing date */
+    public static final long NO_DATE = Long.MIN_VALUE;
+
+    private final int id;
+    private final String exportationId; // as stored, without the EXP prefix
+    private final String trackingNumber;
+    private final String notes;
+    private final long deliveryDate;
+    private final String status;
+    private final long createdAt;
+    private final long updatedAt;
+    private final String destination;
+    private final String customerName;
+    private final long amountMinor;
+    private final String currency; // null when the amount is unknown
+
+    /**
+     * @param exportationId exportation_id as stored, without the EXP prefix
+     * @param deliveryDate epoch milliseconds, or {@link #NO_DATE}
+     * @param amount quantity times unit price, or null if unknown
+     */
+    public DeliveryListItem(int id, String exportationId, String trackingNumber, String notes,
+                            long deliveryDate, String status, long createdAt, long updatedAt,
+                            String destination, String customerName, Money amount) {
+        this.id = id;
+        this.exportationId = exportationId;
+        this.trackingNumber = trackingNumber;
+        this.notes = notes;
+        this.deliveryDate = deliveryDate;
+        this.status = canonicalStatus(status);
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.destination = destination != null ? destination.intern() : null;
+        this.customerName = customerName;
+        this.amountMinor = amount != null ? amount.getMinorUnits() : 0;
+        this.currency = amount != null ? amount.getCurrency().intern() : null;
+    }
+
+    /**
+     * Read a row of a delivery list query. Expects the columns id,
+     * exportation_id, tracking_number, notes, delivery_date, status,
+     * created_at, updated_at, destination, customer_name, total_value and
+     * currency.
+     */
+    public static DeliveryListItem fromResultSet(ResultSet rs) throws SQLException {
+        String exportationId = trimToNull(rs.getString("exportation_id"));
+        String currency = trimToNull(rs.getString("currency"));
+        return new DeliveryListItem(
+            rs.getInt("id"),
+            exportationId,
+            rs.getString("tracking_number"),
+            rs.getString("notes"),
+            millis(rs.getDate("delivery_date")),
+            rs.getString("status"),
+            millis(rs.getTimestamp("created_at")),
+            millis(rs.getTimestamp("updated_at")),
+            rs.getString("destination"),
+            rs.getString("customer_name"),
+            Money.fromResultSet(rs, "total_value", currency != null ? currency : "USD"));
+    }
+
+    /**
+     * Epoch milliseconds of a date, or {@link #NO_DATE} for null
+     */
+    public static long millis(Date date) {
+        return date != null ? date.getTime() : NO_DATE;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /** Display id, e.g. "DEL000042" */
+    public String getDeliveryId() {
+        return "DEL" + String.format("%06d", id);
+    }
+
+    /** Display export id, e.g. "EXP42", or null without an exportation */
+    public String getExportId() {
+        return exportationId != null ? "EXP" + exportationId : null;
+    }
+
+    /** exportation_id as stored, without the EXP prefix */
+    public String getExportationId() {
+        return exportationId;
+    }
+
+    public String getTrackingNumber() {
+        return trackingNumber;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    /** New Date on every call; see {@link #getDeliveryDateMillis()} */
+    public Date getDeliveryDate() {
+        return toDate(deliveryDate);
+    }
+
+    public long getDeliveryDateMillis() {
+        return deliveryDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Date getCreatedAt() {
+        return toDate(createdAt);
+    }
+
+    public long getCreatedAtMillis() {
+        return createdAt;
+    }
+
+    public Date getUpdatedAt() {
+        return toDate(updatedAt);
+    }
+
+    public long getUpdatedAtMillis() {
+        return updatedAt;
+    }
+
+    /** Destination of the exportation, null if the exportation is missing */
+    public String getDestination() {
+        return destination;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    /** Quantity times unit price of the exportation, null if unknown */
+    public Money getAmount() {
+        return currency != null ? Money.ofMinor(amountMinor, currency) : null;
+    }
+
+    private static Date toDate(long millis) {
+        return millis != NO_DATE ? new Date(millis) : null;
+    }
+
+    /**
+     * Display name for known statuses, otherwise the text as one shared copy
+     */
+    private static String canonicalStatus(String status) {
+        if (status == null) {
+            return null;
+        }
+        DeliveryStatus parsed = DeliveryStatus.parse(status);
+        return parsed != null ? parsed.getDisplayName() : status.intern();
+    }
+
+    private static String trimToNull(String text) {
+        if (text == null) {
+            return null;
+        }
+        String trimmed = text.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    @Override
+    public String toString() {
+        return "DeliveryListItem{" +
+                "deliveryId='" + getDeliveryId() + '\'' +
+                ", exportId='" + getExportId() + '\'' +
+                ", status='" + status + '\'' +
+                ", destination='" + destination + '\'' +
+                '}';
+    }
+}
@@ -2,6 +2,8 @@ package exportation_panelera.Model;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.Objects;
 import java.util.StringJoiner;
 
@@ -23,6 +25,7 @@ public class DeliverySearchCriteria {
     private String exportId;
     private String carrierName;
     private String status;
+    private final EnumSet<DeliveryStatus> statuses = EnumSet.noneOf(DeliveryStatus.class);
     private LocalDate startDate;  // Modern date handling
     private LocalDate endDate;
     private String trackingNumber;
@@ -34,6 +37,10 @@ public class DeliverySearchCriteria {
     private String contactPhone;
     private Boolean isActive;  // Using Boolean (nullable) instead of boolean
     
+    // Fields of the delivery's exportation
+    private String destination;
+    private String customerName;
+    
     /**
      * Default constructor creates an empty search criteria
      */
@@ -118,6 +125,19 @@ public class DeliverySearchCriteria {
         return this;
     }
     
+    /**
+     * Restricts the search to any of the given statuses
+     * @param statuses the statuses to include (null or empty means no filter)
+     * @return this criteria object for method chaining
+     */
+    public DeliverySearchCriteria withStatuses(Collection<DeliveryStatus> statuses) {
+        this.statuses.clear();
+        if (statuses != null) {
+            this.statuses.addAll(statuses);
+        }
+        return this;
+    }
+    
     /**
      * Sets a date range for filtering deliveries
      * @param startDate the earliest date to include (null means no start limit)
@@ -182,6 +202,26 @@ public class DeliverySearchCriteria {
         return this;
     }
     
+    /**
+     * Sets the destination to search for
+     * @param destination text the exportation's destination contains (null or empty means no filter)
+     * @return this criteria object for method chaining
+     */
+    public DeliverySearchCriteria withDestination(String destination) {
+        this.destination = cleanString(destination);
+        return this;
+    }
+    
+    /**
+     * Sets the customer name to search for
+     * @param customerName text the exportation's customer name contains (null or empty means no filter)
+     * @return this criteria object for method chaining
+     */
+    public DeliverySearchCriteria withCustomerName(String customerName) {
+        this.customerName = cleanString(customerName);
+        return this;
+    }
+    
     /**
      * Sets whether to filter for active/inactive deliveries
      * @param isActive true for active deliveries, false for inactive, null for all
@@ -203,11 +243,14 @@ public class DeliverySearchCriteria {
                hasValue(exportId) ||
                hasValue(carrierName) ||
                hasValue(status) ||
+               !statuses.isEmpty() ||
                hasValue(trackingNumber) ||
                hasValue(contactPerson) ||
                hasValue(shippingMethod) ||
                hasValue(deliveryAddress) ||
                hasValue(contactPhone) ||
+               hasValue(destination) ||
+               hasValue(customerName) ||
                startDate != null ||
                endDate != null ||
                isActive != null;
@@ -230,11 +273,14 @@ public class DeliverySearchCriteria {
                !hasValue(exportId) && 
                !hasValue(carrierName) && 
                !hasValue(status) &&
+               statuses.isEmpty() &&
                !hasValue(trackingNumber) && 
                !hasValue(contactPerson) && 
                !hasValue(shippingMethod) &&
                !hasValue(deliveryAddress) && 
                !hasValue(contactPhone) &&
+               !hasValue(destination) &&
+               !hasValue(customerName) &&
                startDate == null && 
                endDate == null && 
                isActive == null;
@@ -248,6 +294,38 @@ public class DeliverySearchCriteria {
         return startDate != null || endDate != null;
     }
     
+    /**
+     * Checks if this search filters on fields of the delivery's exportation
+     * @return true if a destination or customer name is specified
+     */
+    public boolean hasExportationFilter() {
+        return hasValue(destination) || hasValue(customerName);
+    }
+    
+    /**
+     * Statuses to include, combining {@link #withStatuses} and a parsable
+     * {@link #withStatus(String)}; empty means any status
+     * @return a new set that callers may modify
+     */
+    public EnumSet<DeliveryStatus> getStatusFilter() {
+        EnumSet<DeliveryStatus> filter = EnumSet.copyOf(statuses);
+        DeliveryStatus parsed = DeliveryStatus.parse(status);
+        if (parsed != null) {
+            filter.add(parsed);
+        }
+        return filter;
+    }
+    
+    /**
+     * Checks whether a status passes the status filter
+     * @param deliveryStatus the status to check (null for unknown)
+     * @return true if no status filter is set or the status is included
+     */
+    public boolean matchesStatus(DeliveryStatus deliveryStatus) {
+        EnumSet<DeliveryStatus> filter = getStatusFilter();
+        return filter.isEmpty() || filter.contains(deliveryStatus);
+    }
+    
     /**
      * Resets all search criteria to empty/null values
      * @return this criteria object for method chaining
@@ -257,6 +335,7 @@ public class DeliverySearchCriteria {
         exportId = null;
         carrierName = null;
         status = null;
+        statuses.clear();
         startDate = null;
         endDate = null;
         trackingNumber = null;
@@ -265,6 +344,8 @@ public class DeliverySearchCriteria {
         deliveryAddress = null;
         contactPhone = null;
         isActive = null;
+        destination = null;
+        customerName = null;
         return this;
     }
     
@@ -278,6 +359,7 @@ public class DeliverySearchCriteria {
         copy.exportId = this.exportId;
         copy.carrierName = this.carrierName;
         copy.status = this.status;
+        copy.statuses.addAll(this.statuses);
         copy.startDate = this.startDate;
         copy.endDate = this.endDate;
         copy.trackingNumber = this.trackingNumber;
@@ -286,6 +368,8 @@ public class DeliverySearchCriteria {
         copy.deliveryAddress = this.deliveryAddress;
         copy.contactPhone = this.contactPhone;
         copy.isActive = this.isActive;
+        copy.destination = this.destination;
+        copy.customerName = this.customerName;
         return copy;
     }
     
@@ -369,6 +453,12 @@ public class DeliverySearchCriteria {
     public Boolean getIsActive() { return isActive; }
     public void setIsActive(Boolean isActive) { this.isActive = isActive; }
     
+    public String getDestination() { return destination; }
+    public void setDestination(String destination) { this.destination = cleanString(destination); }
+    
+    public String getCustomerName() { return customerName; }
+    public void setCustomerName(String customerName) { this.customerName = cleanString(customerName); }
+    
     // ============= OBJECT METHODS =============
     
     @Override
@@ -381,6 +471,7 @@ public class DeliverySearchCriteria {
                Objects.equals(exportId, that.exportId) &&
                Objects.equals(carrierName, that.carrierName) &&
                Objects.equals(status, that.status) &&
+               statuses.equals(that.statuses) &&
                Objects.equals(startDate, that.startDate) &&
                Objects.equals(endDate, that.endDate) &&
                Objects.equals(trackingNumber, that.trackingNumber) &&
@@ -388,14 +479,16 @@ public class DeliverySearchCriteria {
                Objects.equals(shippingMethod, that.shippingMethod) &&
                Objects.equals(deliveryAddress, that.deliveryAddress) &&
                Objects.equals(contactPhone, that.contactPhone) &&
-               Objects.equals(isActive, that.isActive);
+               Objects.equals(isActive, that.isActive) &&
+               Objects.equals(destination, that.destination) &&
+               Objects.equals(customerName, that.customerName);
     }
     
     @Override
     public int hashCode() {
-        return Objects.hash(deliveryId, exportId, carrierName, status, startDate, endDate, 
+        return Objects.hash(deliveryId, exportId, carrierName, status, statuses, startDate, endDate, 
                            trackingNumber, contactPerson, shippingMethod, deliveryAddress, 
-                           contactPhone, isActive);
+                           contactPhone, isActive, destination, customerName);
     }
     
     @Override
@@ -407,11 +500,14 @@ public class DeliverySearchCriteria {
         if (hasValue(exportId)) joiner.add("exportId='" + exportId + "'");
         if (hasValue(carrierName)) joiner.add("carrierName='" + carrierName + "'");
         if (hasValue(status)) joiner.add("status='" + status + "'");
+        if (!statuses.isEmpty()) joiner.add("statuses=" + statuses);
         if (hasValue(trackingNumber)) joiner.add("trackingNumber='" + trackingNumber + "'");
         if (hasValue(contactPerson)) joiner.add("contactPerson='" + contactPerson + "'");
         if (hasValue(shippingMethod)) joiner.add("shippingMethod='" + shippingMethod + "'");
         if (hasValue(deliveryAddress)) joiner.add("deliveryAddress='" + deliveryAddress + "'");
         if (hasValue(contactPhone)) joiner.add("contactPhone='" + contactPhone + "'");
+        if (hasValue(destination)) joiner.add("destination='" + destination + "'");
+        if (hasValue(customerName)) joiner.add("customerName='" + customerName + "'");
         if (startDate != null) joiner.add("startDate=" + startDate);
         if (endDate != null) joiner.add("endDate=" + endDate);
         if (isActive != null) joiner.add("isActive=" + isActive);
@@ -439,11 +535,14 @@ public class DeliverySearchCriteria {
         if (hasValue(exportId)) description.add("export ID = '" + exportId + "'");
         if (hasValue(carrierName)) description.add("carrier name contains '" + carrierName + "'");
         if (hasValue(status)) description.add("status = '" + status + "'");
+        if (!statuses.isEmpty()) description.add("status in " + statuses);
         if (hasValue(trackingNumber)) description.add("tracking number = '" + trackingNumber + "'");
         if (hasValue(contactPerson)) description.add("contact person contains '" + contactPerson + "'");
         if (hasValue(shippingMethod)) description.add("shipping method = '" + shippingMethod + "'");
         if (hasValue(deliveryAddress)) description.add("address contains '" + deliveryAddress + "'");
         if (hasValue(contactPhone)) description.add("phone contains '" + contactPhone + "'");
+        if (hasValue(destination)) description.add("destination contains '" + destination + "'");
+        if (hasValue(customerName)) description.add("customer contains '" + customerName + "'");
         
         if (startDate != null && endDate != null) {
             description.add("delivery date between " + startDate + " and " + endDate);
@@ -0,0 +1,278 @@
+package exportation_panelera.Model;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Sort order of the delivery list, applied by the database.
+ *
+ * Up to {@link #MAX_KEYS} columns, always followed by the delivery id so the
+ * order is total and a {@link Cursor} taken from a row identifies exactly
+ * where the next or previous page starts. Immutable.
+ */
+public final class DeliverySort {
+
+    public static final int MAX_KEYS = 3;
+
+    /** Default order: oldest delivery first */
+    public static final DeliverySort BY_ID = new DeliverySort(Collections.emptyList());
+
+    /**
+     * Sortable columns of the delivery grid. Notes and amount are left out:
+     * no index can order them. So are destination and customer: they come
+     * from exportations through the join, and no deliveries index can
+     * order the joined rows.
+     */
+    public enum Column {
+        ID(0),
+        EXPORT_ID(1),
+        TRACKING_NUMBER(2),
+        DELIVERY_DATE(4),
+        STATUS(5),
+        CREATED_AT(6),
+        UPDATED_AT(7);
+
+        private final int gridColumn;
+
+        Column(int gridColumn) {
+            this.gridColumn = gridColumn;
+        }
+
+        /** Model index of the column in the delivery grid */
+        public int getGridColumn() {
+            return gridColumn;
+        }
+
+        /**
+         * Column shown at a model index of the delivery grid, or null if that
+         * column cannot be sorted
+         */
+        public static Column forGridColumn(int gridColumn) {
+            for (Column column : values()) {
+                if (column.gridColumn == gridColumn) {
+                    return column;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Value of this column for a row, typed for binding as a JDBC parameter
+         */
+        public Object valueOf(DeliveryListItem item) {
+            switch (this) {
+                case ID:
+                    return item.getId();
+                case EXPORT_ID:
+                    return item.getExportationId();
+                case TRACKING_NUMBER:
+                    return item.getTrackingNumber();
+                case DELIVERY_DATE:
+                    return toSqlDate(item.getDeliveryDateMillis());
+                case STATUS:
+                    // status_code is NULL without a status and 0 for unrecognised text
+                    if (item.getStatus() == null) {
+                        return null;
+                    }
+                    DeliveryStatus status = DeliveryStatus.parse(item.getStatus());
+                    return status != null ? status.getCode() : 0;
+                case CREATED_AT:
+                    return toTimestamp(item.getCreatedAtMillis());
+                case UPDATED_AT:
+                    return toTimestamp(item.getUpdatedAtMillis());
+                default:
+                    throw new IllegalStateException("Unknown column " + this);
+            }
+        }
+    }
+
+    /**
+     * One sort column and its direction
+     */
+    public static final class Key {
+        private final Column column;
+        private final boolean ascending;
+
+        public Key(Column column, boolean ascending) {
+            this.column = Objects.requireNonNull(column, "column");
+            this.ascending = ascending;
+        }
+
+        public Column getColumn() {
+            return column;
+        }
+
+        public boolean isAscending() {
+            return ascending;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return ascending == key.ascending && column == key.column;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(column, ascending);
+        }
+
+        @Override
+        public String toString() {
+            return column + (ascending ? " ASC" : " DESC");
+        }
+    }
+
+    /**
+     * Position in a sorted list: the sort values of a row. A forward cursor
+     * selects rows after that row, a backward one rows before it. Only valid
+     * for the sort it was taken with.
+     */
+    public static final class Cursor {
+        private final DeliverySort sort;
+        private final List<Object> values;
+        private final boolean forward;
+
+        private Cursor(DeliverySort sort, List<Object> values, boolean forward) {
+            this.sort = sort;
+            this.values = Collections.unmodifiableList(values);
+            this.forward = forward;
+        }
+
+        public DeliverySort getSort() {
+            return sort;
+        }
+
+        /** Sort values of the row, one per {@link DeliverySort#getKeys()} entry */
+        public List<Object> getValues() {
+            return values;
+        }
+
+        public boolean isForward() {
+            return forward;
+        }
+    }
+
+    private final List<Key> keys;
+
+    private DeliverySort(List<Key> keys) {
+        this.keys = Collections.unmodifiableList(new ArrayList<>(keys));
+    }
+
+    /**
+     * Sort by a single column
+     */
+    public static DeliverySort by(Column column, boolean ascending) {
+        return new DeliverySort(Collections.singletonList(new Key(column, ascending)));
+    }
+
+    /**
+     * Sort keys in order, ending with the id tie-breaker
+     */
+    public List<Key> getKeys() {
+        List<Key> all = new ArrayList<>(keys);
+        if (all.isEmpty() || all.get(all.size() - 1).column != Column.ID) {
+            boolean ascending = all.isEmpty() || all.get(0).ascending;
+            all.add(new Key(Column.ID, ascending));
+        }
+        return all;
+    }
+
+    /**
+     * Columns the user chose, without the implicit id tie-breaker
+     */
+    public List<Key> getUserKeys() {
+        return keys;
+    }
+
+    /**
+     * Sort for a plain header click: the clicked column becomes the only key,
+     * and clicking the current primary column again flips its direction
+     */
+    public DeliverySort toggled(Column column) {
+        boolean ascending = true;
+        if (!keys.isEmpty() && keys.get(0).column == column) {
+            ascending = !keys.get(0).ascending;
+        }
+        return new DeliverySort(Collections.singletonList(new Key(column, ascending)));
+    }
+
+    /**
+     * Sort for a shift-click: adds the column as the last key, or flips its
+     * direction if it is already a key. With {@link #MAX_KEYS} keys the last
+     * one is replaced.
+     */
+    public DeliverySort thenBy(Column column) {
+        List<Key> next = new ArrayList<>(keys);
+        for (int i = 0; i < next.size(); i++) {
+            if (next.get(i).column == column) {
+                next.set(i, new Key(column, !next.get(i).ascending));
+                return new DeliverySort(next);
+            }
+        }
+        if (next.size() >= MAX_KEYS) {
+            next.remove(next.size() - 1);
+        }
+        next.add(new Key(column, true));
+        return new DeliverySort(next);
+    }
+
+    /**
+     * Cursor for the page after the given (last shown) row
+     */
+    public Cursor after(DeliveryListItem item) {
+        return new Cursor(this, valuesOf(item), true);
+    }
+
+    /**
+     * Cursor for the page before the given (first shown) row
+     */
+    public Cursor before(DeliveryListItem item) {
+        return new Cursor(this, valuesOf(item), false);
+    }
+
+    /**
+     * Whether this is the default order
+     */
+    public boolean isDefault() {
+        return keys.isEmpty() || (keys.size() == 1 && keys.get(0).equals(new Key(Column.ID, true)));
+    }
+
+    private List<Object> valuesOf(DeliveryListItem item) {
+        List<Object> values = new ArrayList<>();
+        for (Key key : getKeys()) {
+            values.add(key.column.valueOf(item));
+        }
+        return values;
+    }
+
+    private static java.sql.Date toSqlDate(long millis) {
+        return millis != DeliveryListItem.NO_DATE ? new java.sql.Date(millis) : null;
+    }
+
+    private static Timestamp toTimestamp(long millis) {
+        return millis != DeliveryListItem.NO_DATE ? new Timestamp(millis) : null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DeliverySort)) return false;
+        return getKeys().equals(((DeliverySort) o).getKeys());
+    }
+
+    @Override
+    public int hashCode() {
+        return getKeys().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "DeliverySort" + getKeys();
+    }
+}
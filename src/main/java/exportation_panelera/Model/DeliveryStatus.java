@@ -0,0 +1,126 @@
+package exportation_panelera.Model;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Delivery status. Stored as {@link #getCode()} in deliveries.status_code and
+ * as {@link #getDisplayName()} in the legacy status column.
+ */
+public enum DeliveryStatus {
+    PENDING(1, "Pending", false),
+    IN_TRANSIT(2, "In Transit", false),
+    DELIVERED(3, "Delivered", true),
+    CANCELLED(4, "Cancelled", true);
+
+    private static final DeliveryStatus[] BY_CODE = new DeliveryStatus[5];
+    private static final Map<String, DeliveryStatus> BY_KEY = new HashMap<>();
+
+    static {
+        for (DeliveryStatus status : values()) {
+            BY_CODE[status.code] = status;
+            BY_KEY.put(key(status.name()), status);
+        }
+        // Spellings found in older rows
+        BY_KEY.put("TRANSIT", IN_TRANSIT);
+        BY_KEY.put("SHIPPED", IN_TRANSIT);
+        BY_KEY.put("COMPLETED", DELIVERED);
+        BY_KEY.put("CANCELED", CANCELLED);
+    }
+
+    private final int code;
+    private final String displayName;
+    private final boolean terminal;
+
+    DeliveryStatus(int code, String displayName, boolean terminal) {
+        this.code = code;
+        this.displayName = displayName;
+        this.terminal = terminal;
+    }
+
+    /**
+     * Parse a status as written by any client: case, spaces, hyphens and
+     * underscores are ignored, so "In Transit", "IN_TRANSIT" and "in-transit"
+     * are the same
+     *
+     * @return the status, or null for null, blank or unknown text
+     */
+    public static DeliveryStatus parse(String text) {
+        if (text == null) {
+            return null;
+        }
+        String key = key(text);
+        return key.isEmpty() ? null : BY_KEY.get(key);
+    }
+
+    /**
+     * Parse a status, falling back to a default for blank or unknown text
+     */
+    public static DeliveryStatus parse(String text, DeliveryStatus defaultStatus) {
+        DeliveryStatus status = parse(text);
+        return status != null ? status : defaultStatus;
+    }
+
+    /**
+     * Status for a status_code value; null for 0 or unknown codes
+     */
+    public static DeliveryStatus fromCode(int code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+
+    /**
+     * Statuses that are never left again
+     */
+    public static Set<DeliveryStatus> terminalStatuses() {
+        EnumSet<DeliveryStatus> terminal = EnumSet.noneOf(DeliveryStatus.class);
+        for (DeliveryStatus status : values()) {
+            if (status.terminal) {
+                terminal.add(status);
+            }
+        }
+        return terminal;
+    }
+
+    /**
+     * Display names in combo-box order
+     */
+    public static String[] displayNames() {
+        DeliveryStatus[] all = values();
+        String[] names = new String[all.length];
+        for (int i = 0; i < all.length; i++) {
+            names[i] = all[i].displayName;
+        }
+        return names;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public boolean isTerminal() {
+        return terminal;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+
+    private static String key(String text) {
+        StringBuilder key = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                key.append(c);
+            }
+        }
+        return key.toString().toUpperCase(Locale.ROOT);
+    }
+}
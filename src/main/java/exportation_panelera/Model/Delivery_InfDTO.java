@@ -7,6 +7,8 @@ import java.util.Date;
  * Updated with relaxed validation to match current database structure
  */
 public class Delivery_InfDTO {
+    private static final Money NO_SHIPPING_COST = Money.zero("USD"); // immutable, shared by every DTO
+
     private String deliveryId;
     private String exportId;
     private String exportationId; // For compatibility with older code
@@ -21,7 +23,7 @@ public class Delivery_InfDTO {
     private String status; // For compatibility with older code
     private String notes;
     private String shippingMethod;
-    private double shippingCost;
+    private Money shippingCost;
     private String shippingCurrency = "USD"; // Default to USD
     
     // Additional fields
@@ -38,7 +40,7 @@ public class Delivery_InfDTO {
         this.contactPerson = "Not specified";
         this.contactPhone = "Not specified";
         this.shippingMethod = "Standard";
-        this.shippingCost = 0.0;
+        this.shippingCost = NO_SHIPPING_COST;
         this.shippingCurrency = "USD";
         this.createdAt = new Date();
         this.updatedAt = new Date();
@@ -204,12 +206,15 @@ public class Delivery_InfDTO {
         this.shippingMethod = shippingMethod != null ? shippingMethod : "Standard";
     }
 
-    public double getShippingCost() {
+    public Money getShippingCost() {
         return shippingCost;
     }
 
-    public void setShippingCost(double shippingCost) {
+    public void setShippingCost(Money shippingCost) {
         this.shippingCost = shippingCost;
+        if (shippingCost != null) {
+            this.shippingCurrency = shippingCost.getCurrency(); // Keep in sync
+        }
     }
 
     public String getShippingCurrency() {
@@ -0,0 +1,139 @@
+package exportation_panelera.Model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Destination countries we ship to, with the two-letter code used in
+ * tracking numbers and the coordinates (capital city) used for distance
+ * estimates. Ordinals index the precomputed distance matrix, so append new
+ * countries before {@link #OTHER} rather than reordering.
+ */
+public enum Destination {
+    UNITED_STATES("United States", "US", 38.9072, -77.0369, false),
+    CANADA("Canada", "CA", 45.4215, -75.6972, false),
+    MEXICO("Mexico", "MX", 19.4326, -99.1332, false),
+    BRAZIL("Brazil", "BR", -15.7939, -47.8828, true),
+    COLOMBIA("Colombia", "CO", 4.7110, -74.0721, true),
+    UNITED_KINGDOM("United Kingdom", "UK", 51.5074, -0.1278, false),
+    FRANCE("France", "FR", 48.8566, 2.3522, false),
+    GERMANY("Germany", "DE", 52.5200, 13.4050, false),
+    SPAIN("Spain", "ES", 40.4168, -3.7038, false),
+    ITALY("Italy", "IT", 41.9028, 12.4964, false),
+    CHINA("China", "CN", 39.9042, 116.4074, false),
+    JAPAN("Japan", "JP", 35.6762, 139.6503, false),
+    SOUTH_KOREA("South Korea", "KR", 37.5665, 126.9780, false),
+    AUSTRALIA("Australia", "AU", -35.2809, 149.1300, false),
+    NETHERLANDS("Netherlands", "NL", 52.3676, 4.9041, false),
+    BELGIUM("Belgium", "BE", 50.8503, 4.3517, false),
+    SWITZERLAND("Switzerland", "CH", 46.9480, 7.4474, false),
+    SWEDEN("Sweden", "SE", 59.3293, 18.0686, false),
+    NORWAY("Norway", "NO", 59.9139, 10.7522, false),
+    DENMARK("Denmark", "DK", 55.6761, 12.5683, false),
+    FINLAND("Finland", "FI", 60.1699, 24.9384, false),
+    POLAND("Poland", "PL", 52.2297, 21.0122, false),
+    CZECH_REPUBLIC("Czech Republic", "CZ", 50.0755, 14.4378, false),
+    HUNGARY("Hungary", "HU", 47.4979, 19.0402, false),
+    GREECE("Greece", "GR", 37.9838, 23.7275, false),
+    PORTUGAL("Portugal", "PT", 38.7223, -9.1393, false),
+    TURKEY("Turkey", "TR", 39.9334, 32.8597, false),
+    RUSSIA("Russia", "RU", 55.7558, 37.6173, false),
+    INDIA("India", "IN", 28.6139, 77.2090, false),
+    THAILAND("Thailand", "TH", 13.7563, 100.5018, false),
+    SINGAPORE("Singapore", "SG", 1.3521, 103.8198, false),
+    MALAYSIA("Malaysia", "MY", 3.1390, 101.6869, false),
+    INDONESIA("Indonesia", "ID", -6.2088, 106.8456, false),
+    PHILIPPINES("Philippines", "PH", 14.5995, 120.9842, false),
+    VIETNAM("Vietnam", "VN", 21.0278, 105.8342, false),
+    SOUTH_AFRICA("South Africa", "ZA", -25.7479, 28.2293, false),
+    EGYPT("Egypt", "EG", 30.0444, 31.2357, false),
+    NIGERIA("Nigeria", "NG", 9.0765, 7.3986, false),
+    ARGENTINA("Argentina", "AR", -34.6037, -58.3816, true),
+    CHILE("Chile", "CL", -33.4489, -70.6693, true),
+    PERU("Peru", "PE", -12.0464, -77.0428, true),
+    ECUADOR("Ecuador", "EC", -0.1807, -78.4678, true),
+    URUGUAY("Uruguay", "UY", -34.9011, -56.1645, true),
+    VENEZUELA("Venezuela", "VE", 10.4806, -66.9036, true),
+    COSTA_RICA("Costa Rica", "CR", 9.9281, -84.0907, false),
+    PANAMA("Panama", "PA", 8.9824, -79.5199, false),
+    GUATEMALA("Guatemala", "GT", 14.6349, -90.5069, false),
+    HONDURAS("Honduras", "HN", 14.0723, -87.1921, false),
+    EL_SALVADOR("El Salvador", "SV", 13.6929, -89.2182, false),
+    NICARAGUA("Nicaragua", "NI", 12.1150, -86.2362, false),
+    /** Unlisted country: no coordinates, code "XX" */
+    OTHER("Other", "XX", Double.NaN, Double.NaN, false);
+
+    private static final Map<String, Destination> BY_NAME = new HashMap<>();
+
+    static {
+        for (Destination destination : values()) {
+            BY_NAME.put(destination.displayName, destination);
+        }
+    }
+
+    private final String displayName;
+    private final String code;
+    private final double latitude;
+    private final double longitude;
+    private final boolean overland;
+
+    Destination(String displayName, String code, double latitude, double longitude, boolean overland) {
+        this.displayName = displayName;
+        this.code = code;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.overland = overland;
+    }
+
+    /**
+     * Country for a display name as stored in exportations.destination;
+     * unknown or null names give {@link #OTHER}
+     */
+    public static Destination fromName(String name) {
+        Destination destination = name != null ? BY_NAME.get(name.trim()) : null;
+        return destination != null ? destination : OTHER;
+    }
+
+    /**
+     * Display names in combo-box order
+     */
+    public static String[] displayNames() {
+        Destination[] all = values();
+        String[] names = new String[all.length];
+        for (int i = 0; i < all.length; i++) {
+            names[i] = all[i].displayName;
+        }
+        return names;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /** Two-letter code used in tracking numbers */
+    public String getCode() {
+        return code;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public boolean hasLocation() {
+        return !Double.isNaN(latitude);
+    }
+
+    /** Reachable by road or rail from Colombia */
+    public boolean isOverland() {
+        return overland;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -17,14 +17,14 @@ public class Exportation_InfDTO {
     private String destination;
     private Date exportationDate;
     private Date exportDate;     // Added for compatibility
-    private BigDecimal unitPrice;
+    private Money unitPrice;
     private String currency;
     private boolean hasDelivery;
     private String status;
     private String notes;
     private Date createdAt;
     private Date updatedAt;
-    private double totalValue;
+    private Money totalValue;
     private String customerName;
     private String customerEmail;
     private String customerPhone;
@@ -148,12 +148,15 @@ public class Exportation_InfDTO {
         this.exportationDate = exportDate; // Keep in sync
     }
     
-    public BigDecimal getUnitPrice() {
+    public Money getUnitPrice() {
         return unitPrice;
     }
     
-    public void setUnitPrice(BigDecimal unitPrice) {
+    public void setUnitPrice(Money unitPrice) {
         this.unitPrice = unitPrice;
+        if (unitPrice != null) {
+            this.currency = unitPrice.getCurrency(); // Keep in sync
+        }
         calculateTotalValue();
     }
     
@@ -163,6 +166,11 @@ public class Exportation_InfDTO {
     
     public void setCurrency(String currency) {
         this.currency = currency;
+        // The price is entered in this currency, so re-tag it (no conversion)
+        if (unitPrice != null && currency != null && !currency.equals(unitPrice.getCurrency())) {
+            unitPrice = Money.ofMinor(unitPrice.getMinorUnits(), currency);
+            calculateTotalValue();
+        }
     }
     
     public boolean isHasDelivery() {
@@ -205,11 +213,11 @@ public class Exportation_InfDTO {
         this.updatedAt = updatedAt;
     }
     
-    public double getTotalValue() {
+    public Money getTotalValue() {
         return totalValue;
     }
     
-    public void setTotalValue(double totalValue) {
+    public void setTotalValue(Money totalValue) {
         this.totalValue = totalValue;
     }
     
@@ -279,7 +287,9 @@ public class Exportation_InfDTO {
     private void calculateTotalValue() {
         if (unitPrice != null && (amount > 0 || quantity > 0)) {
             double qty = amount > 0 ? amount : quantity;
-            this.totalValue = unitPrice.doubleValue() * qty;
+            this.totalValue = qty == Math.rint(qty)
+                    ? unitPrice.times((long) qty)
+                    : unitPrice.times(BigDecimal.valueOf(qty));
         }
     }
     
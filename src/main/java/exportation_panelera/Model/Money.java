@@ -0,0 +1,210 @@
+package exportation_panelera.Model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+
+/**
+ * Immutable amount of money: a long count of minor units (cents) plus an
+ * ISO currency code. Every amount has two decimals, matching the
+ * DECIMAL(10,2) money columns, so sums are exact and need no BigDecimal.
+ * Arithmetic throws ArithmeticException on overflow and
+ * IllegalArgumentException when currencies differ.
+ */
+public final class Money implements Comparable<Money> {
+
+    /** Decimal places of every amount */
+    public static final int SCALE = 2;
+
+    // Largest value a DECIMAL(10,2) column can hold, in minor units
+    private static final long MAX_DECIMAL_10_2 = 99_999_999_99L;
+
+    private final long minorUnits;
+    private final String currency;
+
+    private Money(long minorUnits, String currency) {
+        this.minorUnits = minorUnits;
+        this.currency = Objects.requireNonNull(currency, "currency");
+    }
+
+    // ============= FACTORIES =============
+
+    public static Money ofMinor(long minorUnits, String currency) {
+        return new Money(minorUnits, currency);
+    }
+
+    public static Money zero(String currency) {
+        return new Money(0, currency);
+    }
+
+    /**
+     * Amount rounded half-even to two decimals
+     */
+    public static Money of(BigDecimal amount, String currency) {
+        return new Money(amount.setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact(), currency);
+    }
+
+    /**
+     * Parse a plain number such as "1234.5" or "-12". Grouping separators
+     * and currency symbols are not accepted.
+     *
+     * @throws NumberFormatException if the text is not a plain number
+     */
+    public static Money parse(String text, String currency) {
+        if (text == null) {
+            throw new NumberFormatException("null");
+        }
+        return of(new BigDecimal(text.trim()), currency);
+    }
+
+    /**
+     * Read a DECIMAL column; SQL NULL gives null
+     */
+    public static Money fromResultSet(ResultSet rs, String column, String currency) throws SQLException {
+        BigDecimal value = rs.getBigDecimal(column);
+        return value != null ? of(value, currency) : null;
+    }
+
+    // ============= ARITHMETIC =============
+
+    public Money plus(Money other) {
+        checkCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        checkCurrency(other);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money times(long factor) {
+        return new Money(Math.multiplyExact(minorUnits, factor), currency);
+    }
+
+    /**
+     * Multiply by a non-integer factor, e.g. a fractional quantity,
+     * rounding half-even to the cent
+     */
+    public Money times(BigDecimal factor) {
+        return of(toBigDecimal().multiply(factor), currency);
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(minorUnits), currency);
+    }
+
+    /**
+     * Total of several amounts, all in the given currency
+     */
+    public static Money sum(Iterable<Money> amounts, String currency) {
+        long total = 0;
+        for (Money amount : amounts) {
+            if (!currency.equals(amount.currency)) {
+                throw new IllegalArgumentException("Currency mismatch: " + amount.currency + " vs " + currency);
+            }
+            total = Math.addExact(total, amount.minorUnits);
+        }
+        return new Money(total, currency);
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0;
+    }
+
+    // ============= ACCESSORS AND CONVERSION =============
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    /**
+     * Exact decimal value with scale 2
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * Bind to a DECIMAL(10,2) parameter
+     *
+     * @throws SQLException if the amount does not fit the column
+     */
+    public void bind(PreparedStatement stmt, int index) throws SQLException {
+        if (Math.abs(minorUnits) > MAX_DECIMAL_10_2) {
+            throw new SQLException("Amount " + toPlainString() + " " + currency + " exceeds DECIMAL(10,2)");
+        }
+        stmt.setBigDecimal(index, toBigDecimal());
+    }
+
+    /**
+     * Plain number without grouping, e.g. "-1234.50"
+     */
+    public String toPlainString() {
+        return appendNumber(new StringBuilder(16), false).toString();
+    }
+
+    /**
+     * Display form with grouping and currency code, e.g. "1,234.50 USD"
+     */
+    public String format() {
+        return appendNumber(new StringBuilder(20), true).append(' ').append(currency).toString();
+    }
+
+    private StringBuilder appendNumber(StringBuilder sb, boolean grouping) {
+        if (minorUnits < 0) {
+            sb.append('-');
+        }
+        // Work on the negative value so Long.MIN_VALUE needs no special case
+        long negative = minorUnits < 0 ? minorUnits : -minorUnits;
+        String whole = Long.toString(-(negative / 100));
+        int cents = (int) -(negative % 100);
+        for (int i = 0; i < whole.length(); i++) {
+            if (grouping && i > 0 && (whole.length() - i) % 3 == 0) {
+                sb.append(',');
+            }
+            sb.append(whole.charAt(i));
+        }
+        return sb.append('.').append((char) ('0' + cents / 10)).append((char) ('0' + cents % 10));
+    }
+
+    private void checkCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " vs " + other.currency);
+        }
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        checkCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Money)) return false;
+        Money other = (Money) o;
+        return minorUnits == other.minorUnits && currency.equals(other.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(minorUnits) + currency.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toPlainString() + " " + currency;
+    }
+}
@@ -0,0 +1,58 @@
+package exportation_panelera.Model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a larger result
+ *
+ * @param <T> row type
+ */
+public final class Page<T> {
+    private final List<T> items;
+    private final int offset;
+    private final int pageSize;
+    private final int totalCount;
+
+    public Page(List<T> items, int offset, int pageSize, int totalCount) {
+        this.items = Collections.unmodifiableList(items);
+        this.offset = offset;
+        this.pageSize = pageSize;
+        this.totalCount = totalCount;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /** Index of the first row of this page in the full result */
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /** Rows in the full result */
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    /** Zero-based page number */
+    public int getPageNumber() {
+        return pageSize > 0 ? offset / pageSize : 0;
+    }
+
+    public int getPageCount() {
+        return pageSize > 0 ? Math.max(1, (totalCount + pageSize - 1) / pageSize) : 1;
+    }
+
+    public boolean hasPrevious() {
+        return offset > 0;
+    }
+
+    public boolean hasNext() {
+        return offset + items.size() < totalCount;
+    }
+}
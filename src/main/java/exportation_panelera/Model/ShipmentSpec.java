@@ -0,0 +1,69 @@
+package exportation_panelera.Model;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Immutable description of a shipment to be priced by the shipping rate engine
+ */
+public final class ShipmentSpec {
+    private final String shippingMethod;
+    private final BigDecimal weightKg;
+    private final BigDecimal distanceKm;
+    private final String destination;
+    private final Money additionalCosts;
+
+    /**
+     * @param shippingMethod method name as in the rate cards, e.g. "Air Freight"
+     * @param weightKg weight in kilograms
+     * @param distanceKm distance in kilometres
+     * @param destination destination country, may be null
+     * @param additionalCosts extra costs added to the quote, may be null
+     */
+    public ShipmentSpec(String shippingMethod, BigDecimal weightKg, BigDecimal distanceKm,
+                        String destination, Money additionalCosts) {
+        this.shippingMethod = Objects.requireNonNull(shippingMethod, "shippingMethod");
+        this.weightKg = Objects.requireNonNull(weightKg, "weightKg");
+        this.distanceKm = Objects.requireNonNull(distanceKm, "distanceKm");
+        if (weightKg.signum() < 0 || distanceKm.signum() < 0) {
+            throw new IllegalArgumentException("Weight and distance must not be negative");
+        }
+        this.destination = destination;
+        this.additionalCosts = additionalCosts;
+    }
+
+    public ShipmentSpec(String shippingMethod, BigDecimal weightKg, BigDecimal distanceKm, String destination) {
+        this(shippingMethod, weightKg, distanceKm, destination, null);
+    }
+
+    public String getShippingMethod() {
+        return shippingMethod;
+    }
+
+    public BigDecimal getWeightKg() {
+        return weightKg;
+    }
+
+    public BigDecimal getDistanceKm() {
+        return distanceKm;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public Money getAdditionalCosts() {
+        return additionalCosts;
+    }
+
+    @Override
+    public String toString() {
+        return "ShipmentSpec{" +
+                "shippingMethod='" + shippingMethod + '\'' +
+                ", weightKg=" + weightKg +
+                ", distanceKm=" + distanceKm +
+                ", destination='" + destination + '\'' +
+                ", additionalCosts=" + additionalCosts +
+                '}';
+    }
+}
@@ -0,0 +1,46 @@
+package exportation_panelera.Model;
+
+/**
+ * Immutable price of one shipment, as computed by the shipping rate engine
+ */
+public final class ShippingQuote {
+    private final ShipmentSpec shipment;
+    private final Money baseCost;
+    private final Money surcharges;
+    private final Money total;
+
+    public ShippingQuote(ShipmentSpec shipment, Money baseCost, Money surcharges, Money total) {
+        this.shipment = shipment;
+        this.baseCost = baseCost;
+        this.surcharges = surcharges;
+        this.total = total;
+    }
+
+    public ShipmentSpec getShipment() {
+        return shipment;
+    }
+
+    /** Weight and distance charges */
+    public Money getBaseCost() {
+        return baseCost;
+    }
+
+    /** Method and destination surcharges */
+    public Money getSurcharges() {
+        return surcharges;
+    }
+
+    /** Base cost plus surcharges plus the shipment's additional costs */
+    public Money getTotal() {
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "ShippingQuote{" +
+                "baseCost=" + baseCost +
+                ", surcharges=" + surcharges +
+                ", total=" + total +
+                '}';
+    }
+}
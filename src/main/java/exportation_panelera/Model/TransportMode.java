@@ -0,0 +1,69 @@
+package exportation_panelera.Model;
+
+import java.util.Locale;
+
+/**
+ * Means of transport, with the factors used to turn a great-circle distance
+ * into a route distance and a transit-time estimate
+ */
+public enum TransportMode {
+    AIR(1.10, 2, 9000, false),
+    SEA(1.35, 6, 650, false),
+    ROAD(1.30, 1, 550, true),
+    RAIL(1.40, 2, 450, true),
+    EXPRESS(1.10, 1, 12000, false);
+
+    private final double routeFactor;
+    private final int handlingDays;
+    private final int kmPerDay;
+    private final boolean overland;
+
+    TransportMode(double routeFactor, int handlingDays, int kmPerDay, boolean overland) {
+        this.routeFactor = routeFactor;
+        this.handlingDays = handlingDays;
+        this.kmPerDay = kmPerDay;
+        this.overland = overland;
+    }
+
+    /**
+     * Mode for a shipping method name such as "Air Freight" or
+     * "Express Courier"; null if the name does not say
+     */
+    public static TransportMode fromShippingMethod(String method) {
+        if (method == null) {
+            return null;
+        }
+        String name = method.toLowerCase(Locale.ROOT);
+        if (name.contains("express") || name.contains("courier")) {
+            return EXPRESS;
+        } else if (name.contains("air")) {
+            return AIR;
+        } else if (name.contains("sea") || name.contains("ocean")) {
+            return SEA;
+        } else if (name.contains("rail")) {
+            return RAIL;
+        } else if (name.contains("road") || name.contains("truck")) {
+            return ROAD;
+        }
+        return null;
+    }
+
+    /** Route distance divided by great-circle distance */
+    public double getRouteFactor() {
+        return routeFactor;
+    }
+
+    /** Days for pick-up, customs and delivery, independent of distance */
+    public int getHandlingDays() {
+        return handlingDays;
+    }
+
+    public int getKmPerDay() {
+        return kmPerDay;
+    }
+
+    /** Only reaches destinations connected to Colombia by land */
+    public boolean isOverland() {
+        return overland;
+    }
+}
@@ -0,0 +1,65 @@
+package exportation_panelera.View;
+
+import java.awt.Component;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import javax.swing.JTable;
+import javax.swing.table.DefaultTableCellRenderer;
+
+/**
+ * Table renderer for date and timestamp cells with a cache of formatted text.
+ *
+ * The default date renderer formats every visible cell on every paint. Here
+ * each formatted value is kept in a small direct-mapped cache keyed by the
+ * time in milliseconds, so scrolling back and forth over the same rows
+ * formats nothing and allocates nothing. A changed row holds a new time and
+ * simply misses the cache. Formatting only happens on the EDT, so the cache
+ * and the (not thread-safe) formatter need no locking.
+ */
+final class DateCellRenderer extends DefaultTableCellRenderer {
+
+    private static final int CACHE_BITS = 10; // 1024 entries, a few screens of rows
+    private static final int CACHE_SIZE = 1 << CACHE_BITS;
+
+    private final SimpleDateFormat format;
+    private final String prototype;
+    private final long[] cachedTimes = new long[CACHE_SIZE];
+    private final String[] cachedTexts = new String[CACHE_SIZE];
+
+    /**
+     * @param pattern SimpleDateFormat pattern; every formatted value has the
+     *                same width, so the column can have a fixed width
+     */
+    DateCellRenderer(String pattern) {
+        this.format = new SimpleDateFormat(pattern);
+        this.prototype = format.format(new Date(0)).replaceAll("\\d", "0");
+    }
+
+    /**
+     * Text as wide as any formatted value, for sizing the column
+     */
+    String getPrototype() {
+        return prototype;
+    }
+
+    @Override
+    public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                   boolean hasFocus, int row, int column) {
+        return super.getTableCellRendererComponent(table, textOf(value), isSelected, hasFocus, row, column);
+    }
+
+    private String textOf(Object value) {
+        if (!(value instanceof Date)) {
+            return value != null ? value.toString() : "";
+        }
+        long time = ((Date) value).getTime();
+        int slot = (int) (time ^ (time >>> 32)) * 0x9E3779B9 >>> (32 - CACHE_BITS);
+        String text = cachedTexts[slot];
+        if (text == null || cachedTimes[slot] != time) {
+            text = format.format((Date) value);
+            cachedTimes[slot] = time;
+            cachedTexts[slot] = text;
+        }
+        return text;
+    }
+}
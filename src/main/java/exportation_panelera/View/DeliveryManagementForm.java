@@ -1,14 +1,27 @@
 package exportation_panelera.View;
 
-import exportation_panelera.Model.Delivery_InfDTO;
+import exportation_panelera.Model.DeliveryListItem;
+import exportation_panelera.Model.DeliverySearchCriteria;
+import exportation_panelera.Model.DeliverySort;
+import exportation_panelera.Model.DeliveryStatus;
+import exportation_panelera.Model.Page;
+import exportation_panelera.concurrent.TaskScope;
+import exportation_panelera.concurrent.TaskType;
+import exportation_panelera.controller.AppStartup;
 import exportation_panelera.controller.DeliveryController;
+import exportation_panelera.dao.DeliveryDAO;
 import exportation_panelera.db.DatabaseManager;
+import exportation_panelera.metrics.EdtWatchdog;
+import exportation_panelera.metrics.PerformanceMetrics;
+import exportation_panelera.service.DeliveryLookupIndex;
+import exportation_panelera.service.DeliveryStatusCounter;
 import java.util.logging.Logger;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Font;
+import java.awt.FontMetrics;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
@@ -16,34 +29,49 @@ import java.awt.event.MouseEvent;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Date;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import javax.swing.SwingWorker;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
+import javax.swing.DefaultListModel;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
 import javax.swing.JFileChooser;
 import javax.swing.JLabel;
+import javax.swing.JList;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JPopupMenu;
 import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.JTextField;
+import javax.swing.JToggleButton;
 import javax.swing.JToolBar;
 import javax.swing.ListSelectionModel;
 import javax.swing.SwingUtilities;
 import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableCellRenderer;
+import javax.swing.table.TableColumn;
+import javax.swing.table.TableColumnModel;
 import javax.swing.table.TableRowSorter;
 
 /**
@@ -72,6 +100,17 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
     // Search and performance constants
     private static final int CONNECTION_CHECK_INTERVAL = 30; // seconds
     private static final int SEARCH_DELAY = 500; // milliseconds for search debouncing
+    static final int PAGE_SIZE = Math.max(1, Integer.getInteger("app.deliveries.page.size", 200));
+    private static final int TEXT_SEARCH_LIMIT = Math.max(1, Integer.getInteger("app.deliveries.text.search.limit", 500));
+    
+    // Typical widest value of each grid column, for sizing; date columns use their renderer's
+    private static final String[] COLUMN_PROTOTYPES = {
+        "DEL000000", "EXP000000", "TRK0000000000", "Sample delivery notes - Express shipping to port",
+        "", "In Transit", "", "", "United Kingdom", "Sample Customer Name", "000,000.00 USD"
+    };
+    private static final int COLUMN_PADDING = 16;
+    private static final int SUGGESTION_LIMIT = 8;
+    private static final int SUGGESTION_MIN_CHARS = 2;
     
     // UI Components - existing
     private JTable tblDeliveries;
@@ -86,13 +125,28 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
     private JComboBox<String> cmbSearchField;
     private JProgressBar progressBar;
     private JLabel lblRecordCount;
+    private JButton btnPreviousPage, btnNextPage;
+    private JLabel lblPage;
+    private final Map<DeliveryStatus, JToggleButton> statusButtons = new EnumMap<>(DeliveryStatus.class);
+    private JLabel lblStatusTotal;
     private Timer searchTimer; // For debounced search
+    private JPopupMenu suggestionPopup; // Autocomplete for txtSearch
+    private final DefaultListModel<String> suggestionModel = new DefaultListModel<>();
+    private JList<String> suggestionList;
+    private String acceptedSuggestion; // shown in txtSearch, no need to suggest it again
     
     // Controller and background services
     private DeliveryController controller;
-    private ScheduledExecutorService connectionChecker;
+    private final TaskScope backgroundTasks = new TaskScope("DeliveryManagementForm");
     private boolean previousConnectionStatus = false;
-    private TableRowSorter<DefaultTableModel> tableSorter; // For table sorting
+    private int pageOffset = 0; // first row of the page shown
+    private final EnumSet<DeliveryStatus> statusFilter = EnumSet.noneOf(DeliveryStatus.class); // empty = all
+    private final Runnable statusCountListener = () -> SwingUtilities.invokeLater(this::updateStatusSummary);
+    private TableRowSorter<DefaultTableModel> tableSorter; // Sorting disabled; the database sorts
+    private DeliverySort sort = DeliverySort.BY_ID;
+    private Page<DeliveryListItem> currentPage; // page shown, for keyset paging
+    private LocalFilterIndex filterIndex; // rows shown when they are the complete list, else null
+    private boolean columnsSized = false;
 
     /**
      * Enhanced constructor with new features initialization
@@ -152,7 +206,7 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
         // Enhanced search components
         cmbSearchField = new JComboBox<>(new String[]{
             "All Fields", "Delivery ID", "Export ID", "Tracking Number", 
-            "Notes", "Status", "Delivery Date"
+            "Notes", "Status", "Delivery Date", "Destination", "Customer"
         });
         cmbSearchField.setFont(BUTTON_FONT);
         
@@ -187,7 +241,58 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
         toolBar.add(Box.createHorizontalStrut(5));
         toolBar.add(btnSearch);
         
-        add(toolBar, BorderLayout.NORTH);
+        JPanel northPanel = new JPanel(new BorderLayout());
+        northPanel.add(toolBar, BorderLayout.CENTER);
+        northPanel.add(createStatusSummaryBar(), BorderLayout.SOUTH);
+        add(northPanel, BorderLayout.NORTH);
+    }
+    
+    /**
+     * Status summary bar: one toggle per status showing its live count.
+     * Selected toggles filter the table to those statuses.
+     */
+    private JPanel createStatusSummaryBar() {
+        JPanel summaryBar = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 4));
+        summaryBar.setBackground(BACKGROUND_COLOR);
+        
+        for (DeliveryStatus status : DeliveryStatus.values()) {
+            JToggleButton button = new JToggleButton(status.getDisplayName());
+            button.setFont(BUTTON_FONT);
+            button.setFocusPainted(false);
+            button.setToolTipText("Show only " + status.getDisplayName() + " deliveries");
+            button.addActionListener(e -> {
+                if (button.isSelected()) {
+                    statusFilter.add(status);
+                } else {
+                    statusFilter.remove(status);
+                }
+                showPage(0);
+            });
+            statusButtons.put(status, button);
+            summaryBar.add(button);
+        }
+        
+        lblStatusTotal = new JLabel();
+        lblStatusTotal.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        summaryBar.add(Box.createHorizontalStrut(10));
+        summaryBar.add(lblStatusTotal);
+        
+        DeliveryStatusCounter.addListener(statusCountListener);
+        updateStatusSummary();
+        return summaryBar;
+    }
+    
+    /**
+     * Show the current per-status counts; reads counters only, no query
+     */
+    private void updateStatusSummary() {
+        for (Map.Entry<DeliveryStatus, JToggleButton> entry : statusButtons.entrySet()) {
+            entry.getValue().setText(entry.getKey().getDisplayName() + ": "
+                    + DeliveryStatusCounter.get(entry.getKey()));
+        }
+        long other = DeliveryStatusCounter.getOther();
+        lblStatusTotal.setText("Total: " + DeliveryStatusCounter.getTotal()
+                + (other > 0 ? " (" + other + " other)" : ""));
     }
     
     /**
@@ -236,6 +341,12 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
         tblDeliveries.setGridColor(new Color(200, 200, 200));
         tblDeliveries.setSelectionBackground(new Color(52, 152, 219, 50));
         
+        // Dates are formatted once per value, not on every paint
+        TableColumnModel columns = tblDeliveries.getColumnModel();
+        columns.getColumn(4).setCellRenderer(new DateCellRenderer("yyyy-MM-dd"));          // Delivery Date
+        columns.getColumn(6).setCellRenderer(new DateCellRenderer("yyyy-MM-dd HH:mm:ss")); // Created At
+        columns.getColumn(7).setCellRenderer(new DateCellRenderer("yyyy-MM-dd HH:mm:ss")); // Updated At
+        
         // Double-click to edit
         tblDeliveries.addMouseListener(new MouseAdapter() {
             @Override
@@ -252,12 +363,58 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
     }
     
     /**
-     * Setup table sorting functionality
+     * Setup table sorting: header clicks re-query the database in the new
+     * order, the row sorter never re-sorts the loaded rows. Shift-click adds
+     * a secondary sort column.
      */
     private void setupTableSorting() {
         DefaultTableModel model = (DefaultTableModel) tblDeliveries.getModel();
         tableSorter = new TableRowSorter<>(model);
+        for (int i = 0; i < model.getColumnCount(); i++) {
+            tableSorter.setSortable(i, false);
+        }
         tblDeliveries.setRowSorter(tableSorter);
+        
+        tblDeliveries.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int viewColumn = tblDeliveries.columnAtPoint(e.getPoint());
+                if (viewColumn < 0 || !SwingUtilities.isLeftMouseButton(e)) {
+                    return;
+                }
+                DeliverySort.Column column = DeliverySort.Column.forGridColumn(
+                        tblDeliveries.convertColumnIndexToModel(viewColumn));
+                if (column == null) {
+                    updateStatus("This column cannot be sorted", COLOR_LOADING);
+                    return;
+                }
+                sort = e.isShiftDown() ? sort.thenBy(column) : sort.toggled(column);
+                updateSortIndicators();
+                showPage(0);
+            }
+        });
+    }
+    
+    /**
+     * Mark the sort columns in the header: an arrow, plus the key position
+     * when sorting by several columns
+     */
+    private void updateSortIndicators() {
+        DefaultTableModel model = (DefaultTableModel) tblDeliveries.getModel();
+        List<DeliverySort.Key> keys = sort.getUserKeys();
+        for (int i = 0; i < model.getColumnCount(); i++) {
+            String header = model.getColumnName(i);
+            for (int k = 0; k < keys.size(); k++) {
+                if (keys.get(k).getColumn().getGridColumn() == i) {
+                    header += keys.get(k).isAscending() ? " \u25B2" : " \u25BC";
+                    if (keys.size() > 1) {
+                        header += (k + 1);
+                    }
+                }
+            }
+            tblDeliveries.getColumnModel().getColumn(tblDeliveries.convertColumnIndexToView(i)).setHeaderValue(header);
+        }
+        tblDeliveries.getTableHeader().repaint();
     }
     
     /**
@@ -280,14 +437,28 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
         progressBar.setVisible(false);
         progressBar.setPreferredSize(new Dimension(200, 20));
         
-        // Right side - record counter
+        // Right side - paging and record counter
+        btnPreviousPage = createStyledButton("<", PRIMARY_COLOR);
+        btnNextPage = createStyledButton(">", PRIMARY_COLOR);
+        btnPreviousPage.setEnabled(false);
+        btnNextPage.setEnabled(false);
+        lblPage = new JLabel("Page 1 of 1");
+        lblPage.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        
         lblRecordCount = new JLabel("Records: 0");
         lblRecordCount.setFont(new Font("Segoe UI", Font.BOLD, 12));
         lblRecordCount.setBorder(BorderFactory.createEmptyBorder(8, 10, 8, 10));
         
+        JPanel pagingPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+        pagingPanel.setOpaque(false);
+        pagingPanel.add(btnPreviousPage);
+        pagingPanel.add(lblPage);
+        pagingPanel.add(btnNextPage);
+        pagingPanel.add(lblRecordCount);
+        
         statusPanel.add(statusLabel, BorderLayout.WEST);
         statusPanel.add(progressBar, BorderLayout.CENTER);
-        statusPanel.add(lblRecordCount, BorderLayout.EAST);
+        statusPanel.add(pagingPanel, BorderLayout.EAST);
         
         add(statusPanel, BorderLayout.SOUTH);
     }
@@ -300,7 +471,12 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
         btnAdd.addActionListener(e -> addDelivery());
         btnEdit.addActionListener(e -> editSelectedDelivery());
         btnDelete.addActionListener(e -> deleteSelectedDelivery());
-        btnRefresh.addActionListener(e -> loadDeliveriesAsync());
+        btnRefresh.addActionListener(e -> {
+            refreshStatusCountsAsync();
+            loadDeliveriesAsync();
+        });
+        btnPreviousPage.addActionListener(e -> showPreviousPage());
+        btnNextPage.addActionListener(e -> showNextPage());
         btnTestConnection.addActionListener(e -> testConnection());
         btnSearch.addActionListener(e -> performAdvancedSearch());
         
@@ -336,6 +512,140 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
                 searchTimer.restart();
             }
         });
+        
+        setupAutocomplete();
+    }
+    
+    /**
+     * Suggest delivery IDs, export IDs and tracking numbers while typing,
+     * from the in-memory lookup index
+     */
+    private void setupAutocomplete() {
+        suggestionList = new JList<>(suggestionModel);
+        suggestionList.setFont(BUTTON_FONT);
+        suggestionList.setFocusable(false);
+        suggestionList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        suggestionList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                acceptSuggestion(suggestionList.locationToIndex(e.getPoint()));
+            }
+        });
+        
+        suggestionPopup = new JPopupMenu();
+        suggestionPopup.setFocusable(false);
+        suggestionPopup.add(suggestionList);
+        
+        txtSearch.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                SwingUtilities.invokeLater(DeliveryManagementForm.this::updateSuggestions);
+            }
+            
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                SwingUtilities.invokeLater(DeliveryManagementForm.this::updateSuggestions);
+            }
+            
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                // Attribute changes only
+            }
+        });
+        
+        txtSearch.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (!suggestionPopup.isVisible()) {
+                    return;
+                }
+                int selected = suggestionList.getSelectedIndex();
+                switch (e.getKeyCode()) {
+                    case KeyEvent.VK_DOWN:
+                        suggestionList.setSelectedIndex(Math.min(selected + 1, suggestionModel.size() - 1));
+                        e.consume();
+                        break;
+                    case KeyEvent.VK_UP:
+                        suggestionList.setSelectedIndex(Math.max(selected - 1, 0));
+                        e.consume();
+                        break;
+                    case KeyEvent.VK_ENTER:
+                        if (selected >= 0) {
+                            acceptSuggestion(selected);
+                            e.consume();
+                        }
+                        break;
+                    case KeyEvent.VK_ESCAPE:
+                        suggestionPopup.setVisible(false);
+                        e.consume();
+                        break;
+                    default:
+                        break;
+                }
+            }
+        });
+    }
+    
+    /**
+     * Show the identifiers starting with the search text, for the fields
+     * the lookup index covers
+     */
+    private void updateSuggestions() {
+        String text = txtSearch.getText().trim();
+        if (text.equals(acceptedSuggestion)) {
+            return;
+        }
+        String field = (String) cmbSearchField.getSelectedItem();
+        boolean indexedField = "All Fields".equals(field) || "Delivery ID".equals(field)
+                || "Export ID".equals(field) || "Tracking Number".equals(field);
+        if (!indexedField || text.length() < SUGGESTION_MIN_CHARS || !txtSearch.isShowing()) {
+            suggestionPopup.setVisible(false);
+            return;
+        }
+        
+        suggestionModel.clear();
+        // Ask for extra candidates, some may belong to another field
+        for (String suggestion : DeliveryLookupIndex.complete(text, SUGGESTION_LIMIT * 3)) {
+            if (suggestionModel.size() < SUGGESTION_LIMIT && matchesSuggestionField(suggestion, field)
+                    && !suggestion.equalsIgnoreCase(text)) {
+                suggestionModel.addElement(suggestion);
+            }
+        }
+        if (suggestionModel.isEmpty()) {
+            suggestionPopup.setVisible(false);
+            return;
+        }
+        suggestionList.setVisibleRowCount(suggestionModel.size());
+        suggestionPopup.pack();
+        if (!suggestionPopup.isVisible()) {
+            suggestionPopup.show(txtSearch, 0, txtSearch.getHeight());
+        }
+    }
+    
+    private static boolean matchesSuggestionField(String suggestion, String field) {
+        switch (field) {
+            case "Delivery ID":
+                return suggestion.startsWith("DEL");
+            case "Export ID":
+                return suggestion.startsWith("EXP");
+            case "Tracking Number":
+                return !suggestion.startsWith("DEL") && !suggestion.startsWith("EXP");
+            default:
+                return true;
+        }
+    }
+    
+    /**
+     * Put a suggestion in the search field and search for it
+     */
+    private void acceptSuggestion(int index) {
+        if (index < 0 || index >= suggestionModel.size()) {
+            return;
+        }
+        acceptedSuggestion = suggestionModel.get(index);
+        txtSearch.setText(acceptedSuggestion);
+        suggestionPopup.setVisible(false);
+        searchTimer.restart();
     }
     
     /**
@@ -376,6 +686,10 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
      */
     private void initializeAsyncOperations() {
         // Start initial data loading in background
+        DeliveryLookupIndex.warmUp();
+        if (!DeliveryStatusCounter.isLoaded()) {
+            refreshStatusCountsAsync(); // else prefetched at sign-in and kept current since
+        }
         loadDeliveriesAsync();
         
         // Start connection monitoring
@@ -388,7 +702,8 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
     private void createTableModel() {
         DefaultTableModel model = new DefaultTableModel(
             new Object[][] {}, 
-            new String[] {"ID", "Export ID", "Tracking #", "Notes", "Delivery Date", "Status", "Created At", "Updated At"}
+            new String[] {"ID", "Export ID", "Tracking #", "Notes", "Delivery Date", "Status", "Created At", "Updated At",
+                          "Destination", "Customer", "Amount"}
         ) {
             @Override
             public boolean isCellEditable(int row, int column) {
@@ -523,45 +838,222 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
         String searchText = txtSearch.getText().trim().toLowerCase();
         String selectedField = (String) cmbSearchField.getSelectedItem();
         
+        // Every row is already loaded: filter them in place, no query needed
+        if (filterIndex != null) {
+            applyLocalFilter(searchText, selectedField);
+            return;
+        }
+        
         if (searchText.isEmpty()) {
             loadDeliveriesAsync(); // Load all if empty
             return;
         }
         
-        try {
-            showProgressBar("Searching...");
-            
-            // Get all deliveries
-            List<Delivery_InfDTO> allDeliveries = controller.getAllDeliveries();
-            
-            if (allDeliveries == null || allDeliveries.isEmpty()) {
+        showProgressBar("Searching...");
+        
+        // Search on the server in the background; results are shown on the EDT
+        backgroundTasks.submit(TaskType.DB_IO,
+            () -> searchServer(searchText, selectedField),
+            filteredDeliveries -> {
                 hideProgressBar();
-                showMessage("No deliveries available to search", JOptionPane.WARNING_MESSAGE);
-                return;
-            }
-            
-            // Filter based on selected field
-            List<Delivery_InfDTO> filteredDeliveries = allDeliveries.stream()
-                .filter(delivery -> delivery != null && matchesSearchCriteria(delivery, searchText, selectedField))
-                .collect(Collectors.toList());
-            
-            // Update table with results
-            SwingUtilities.invokeLater(() -> {
                 displaySearchResults(filteredDeliveries, searchText, selectedField);
+            },
+            ex -> {
                 hideProgressBar();
+                logger.log(Level.SEVERE, "Error in advanced search", ex);
+                showMessage("Search error: " + ex.getMessage(), JOptionPane.ERROR_MESSAGE);
             });
-            
-        } catch (Exception ex) {
-            hideProgressBar();
-            logger.log(Level.SEVERE, "Error in advanced search", ex);
-            showMessage("Search error: " + ex.getMessage(), JOptionPane.ERROR_MESSAGE);
+    }
+    
+    /**
+     * Search the database when not every row is loaded: identifiers by prefix
+     * through the lookup index, notes through the full-text search and the
+     * other fields through a server-side filter. Each source returns at most
+     * {@link #TEXT_SEARCH_LIMIT} rows. Runs off the EDT.
+     */
+    private List<DeliveryListItem> searchServer(String searchText, String field) {
+        switch (field) {
+            case "Delivery ID":
+                return findByIdentifier(withPrefix(searchText, "del"), searchText, field,
+                        new DeliverySearchCriteria().withDeliveryId(searchText));
+            case "Export ID":
+                return findByIdentifier(withPrefix(searchText, "exp"), searchText, field,
+                        new DeliverySearchCriteria().withExportId(searchText));
+            case "Tracking Number":
+                return findByIdentifier(searchText, searchText, field,
+                        new DeliverySearchCriteria().withTrackingNumber(searchText));
+            case "Notes":
+                return searchNotes(searchText);
+            case "Status":
+                return searchStatus(searchText);
+            case "Delivery Date":
+                LocalDate[] range = dateRangeOf(searchText);
+                return range != null
+                        ? filterPage(new DeliverySearchCriteria().withDateRange(range[0], range[1]))
+                        : new ArrayList<>();
+            case "Destination":
+                return filterPage(new DeliverySearchCriteria().withDestination(searchText));
+            case "Customer":
+                return filterPage(new DeliverySearchCriteria().withCustomerName(searchText));
+            case "All Fields":
+            default:
+                // Field matches first, then text matches by relevance
+                Map<Integer, DeliveryListItem> matches = new LinkedHashMap<>();
+                if (DeliveryLookupIndex.isLoaded()) {
+                    addAll(matches, controller.getDeliveriesByIds(
+                            DeliveryLookupIndex.findDeliveryIds(searchText, TEXT_SEARCH_LIMIT)));
+                } else {
+                    addAll(matches, filterPage(new DeliverySearchCriteria().withExportId(searchText)));
+                    addAll(matches, filterPage(new DeliverySearchCriteria().withTrackingNumber(searchText)));
+                }
+                addAll(matches, searchStatus(searchText));
+                addAll(matches, filterPage(new DeliverySearchCriteria().withDestination(searchText)));
+                addAll(matches, filterPage(new DeliverySearchCriteria().withCustomerName(searchText)));
+                addAll(matches, searchNotes(searchText));
+                return new ArrayList<>(matches.values());
+        }
+    }
+    
+    /**
+     * Deliveries with an identifier starting with a prefix, from the lookup
+     * index; through the server filter while the index is still loading
+     */
+    private List<DeliveryListItem> findByIdentifier(String prefix, String searchText, String field,
+                                                    DeliverySearchCriteria fallback) {
+        if (!DeliveryLookupIndex.isLoaded()) {
+            return filterPage(fallback);
+        }
+        List<DeliveryListItem> matches = controller.getDeliveriesByIds(
+                DeliveryLookupIndex.findDeliveryIds(prefix, TEXT_SEARCH_LIMIT));
+        // The index holds every kind of identifier; keep those of the field
+        matches.removeIf(delivery -> !matchesSearchCriteria(delivery, searchText, field));
+        return matches;
+    }
+    
+    private List<DeliveryListItem> searchNotes(String searchText) {
+        return DeliveryDAO.isTextSearchable(searchText)
+                ? new DeliveryDAO().searchText(searchText, 0, TEXT_SEARCH_LIMIT).getItems()
+                : new ArrayList<>();
+    }
+    
+    private List<DeliveryListItem> searchStatus(String searchText) {
+        // "in transit", "IN_TRANSIT" and "In-Transit" all name the same status
+        EnumSet<DeliveryStatus> statuses = EnumSet.noneOf(DeliveryStatus.class);
+        DeliveryStatus wanted = DeliveryStatus.parse(searchText);
+        if (wanted != null) {
+            statuses.add(wanted);
+        } else {
+            for (DeliveryStatus status : DeliveryStatus.values()) {
+                if (containsIgnoreCase(status.getDisplayName(), searchText)) {
+                    statuses.add(status);
+                }
+            }
+        }
+        return statuses.isEmpty()
+                ? new ArrayList<>()
+                : filterPage(new DeliverySearchCriteria().withStatuses(statuses));
+    }
+    
+    private List<DeliveryListItem> filterPage(DeliverySearchCriteria criteria) {
+        return controller.getDeliveryPage(0, TEXT_SEARCH_LIMIT, criteria).getItems();
+    }
+    
+    private static void addAll(Map<Integer, DeliveryListItem> matches, List<DeliveryListItem> deliveries) {
+        for (DeliveryListItem delivery : deliveries) {
+            matches.putIfAbsent(delivery.getId(), delivery);
+        }
+    }
+    
+    /**
+     * Identifier with its prefix ("del", "exp"), as the lookup index keys it
+     */
+    private static String withPrefix(String searchText, String prefix) {
+        return searchText.startsWith(prefix) ? searchText : prefix + searchText;
+    }
+    
+    /**
+     * Date range of a typed year, month or day ("2024", "2024-05",
+     * "2024-05-17")
+     *
+     * @return {first, last} day, or null if the text is no such date
+     */
+    private static LocalDate[] dateRangeOf(String text) {
+        try {
+            switch (text.length()) {
+                case 4:
+                    Year year = Year.parse(text);
+                    return new LocalDate[] {year.atDay(1), year.atMonth(12).atEndOfMonth()};
+                case 7:
+                    YearMonth month = YearMonth.parse(text);
+                    return new LocalDate[] {month.atDay(1), month.atEndOfMonth()};
+                case 10:
+                    LocalDate day = LocalDate.parse(text);
+                    return new LocalDate[] {day, day};
+                default:
+                    return null;
+            }
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Filter the loaded rows through the local filter index; same matching
+     * rules as {@link #matchesSearchCriteria}
+     */
+    private void applyLocalFilter(String searchText, String field) {
+        long start = System.nanoTime();
+        if (searchText.isEmpty()) {
+            tableSorter.setRowFilter(null);
+        } else {
+            tableSorter.setRowFilter(LocalFilterIndex.asRowFilter(localMatches(searchText, field)));
+        }
+        PerformanceMetrics.recordLatency("deliveries.localFilter", System.nanoTime() - start, false);
+        
+        int shown = tblDeliveries.getRowCount();
+        updateRecordCount(shown);
+        if (searchText.isEmpty()) {
+            updateStatus("Showing all " + shown + " deliveries", COLOR_CONNECTED);
+        } else {
+            updateStatus("Found " + shown + " matches for '" + searchText + "' in " + field,
+                    shown > 0 ? COLOR_CONNECTED : COLOR_DISCONNECTED);
+        }
+    }
+    
+    /**
+     * Loaded rows matching the search text in a field, by model index
+     */
+    private BitSet localMatches(String searchText, String field) {
+        switch (field) {
+            case "Delivery ID":
+                return filterIndex.matchContains(searchText, 0);
+            case "Export ID":
+                return filterIndex.matchContains(searchText, 1);
+            case "Tracking Number":
+                return filterIndex.matchContains(searchText, 2);
+            case "Notes":
+                return filterIndex.matchContains(searchText, 3);
+            case "Status":
+                DeliveryStatus wanted = DeliveryStatus.parse(searchText);
+                return wanted != null
+                        ? filterIndex.matchEquals(wanted.getDisplayName(), 5)
+                        : filterIndex.matchContains(searchText, 5);
+            case "Delivery Date":
+                return filterIndex.matchContains(searchText, 4);
+            case "Destination":
+                return filterIndex.matchContains(searchText, 8);
+            case "Customer":
+                return filterIndex.matchContains(searchText, 9);
+            case "All Fields":
+            default:
+                return filterIndex.matchContains(searchText, 0, 1, 2, 3, 5, 8, 9);
         }
     }
     
     /**
      * Check if delivery matches search criteria for specific field
      */
-    private boolean matchesSearchCriteria(Delivery_InfDTO delivery, String searchText, String field) {
+    private boolean matchesSearchCriteria(DeliveryListItem delivery, String searchText, String field) {
         switch (field) {
             case "Delivery ID":
                 return containsIgnoreCase(delivery.getDeliveryId(), searchText);
@@ -572,28 +1064,39 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
             case "Notes":
                 return containsIgnoreCase(delivery.getNotes(), searchText);
             case "Status":
-                return containsIgnoreCase(delivery.getStatus(), searchText);
+                // "in transit", "IN_TRANSIT" and "In-Transit" all name the same status
+                DeliveryStatus wanted = DeliveryStatus.parse(searchText);
+                return wanted != null
+                        ? wanted == DeliveryStatus.parse(delivery.getStatus())
+                        : containsIgnoreCase(delivery.getStatus(), searchText);
             case "Delivery Date":
-                Date deliveryDate = delivery.getDeliveryDate() != null ? 
-                    delivery.getDeliveryDate() : delivery.getDate();
+                Date deliveryDate = delivery.getDeliveryDate();
                 return deliveryDate != null && 
                     deliveryDate.toString().toLowerCase().contains(searchText);
+            case "Destination":
+                return containsIgnoreCase(delivery.getDestination(), searchText);
+            case "Customer":
+                return containsIgnoreCase(delivery.getCustomerName(), searchText);
             case "All Fields":
             default:
                 return containsIgnoreCase(delivery.getDeliveryId(), searchText) ||
                        containsIgnoreCase(delivery.getExportId(), searchText) ||
                        containsIgnoreCase(delivery.getTrackingNumber(), searchText) ||
                        containsIgnoreCase(delivery.getNotes(), searchText) ||
-                       containsIgnoreCase(delivery.getStatus(), searchText);
+                       containsIgnoreCase(delivery.getStatus(), searchText) ||
+                       containsIgnoreCase(delivery.getDestination(), searchText) ||
+                       containsIgnoreCase(delivery.getCustomerName(), searchText);
         }
     }
     
     /**
      * Display search results in table
      */
-    private void displaySearchResults(List<Delivery_InfDTO> results, String searchText, String field) {
+    private void displaySearchResults(List<DeliveryListItem> results, String searchText, String field) {
         DefaultTableModel model = (DefaultTableModel) tblDeliveries.getModel();
+        clearLocalFilter();
         model.setRowCount(0);
+        updatePagingControls(null);
         
         if (results.isEmpty()) {
             updateStatus("No matches found for '" + searchText + "' in " + field, COLOR_DISCONNECTED);
@@ -602,18 +1105,8 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
         }
         
         // Add results to table
-        for (Delivery_InfDTO delivery : results) {
-            Object[] rowData = {
-                delivery.getDeliveryId(),
-                delivery.getExportId(),
-                delivery.getTrackingNumber(),
-                delivery.getNotes(),
-                delivery.getDeliveryDate() != null ? delivery.getDeliveryDate() : delivery.getDate(),
-                delivery.getStatus(),
-                delivery.getCreatedAt(),
-                delivery.getUpdatedAt()
-            };
-            model.addRow(rowData);
+        for (DeliveryListItem delivery : results) {
+            model.addRow(toRowData(delivery));
         }
         
         adjustColumnWidths();
@@ -627,80 +1120,173 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
      * NEW FEATURE: Asynchronous data loading with progress indication
      */
     private void loadDeliveriesAsync() {
-        // Create background worker for data loading
-        SwingWorker<List<Delivery_InfDTO>, Void> worker = new SwingWorker<List<Delivery_InfDTO>, Void>() {
-            @Override
-            protected List<Delivery_InfDTO> doInBackground() throws Exception {
-                // Show progress bar
-                SwingUtilities.invokeLater(() -> showProgressBar("Loading deliveries..."));
-                
-                // Check connection
-                boolean connected = controller.tryReconnect();
+        loadDeliveriesAsync(null);
+    }
+    
+    /**
+     * Load the page at pageOffset, seeking from a cursor on the page next to
+     * it if there is one
+     */
+    private void loadDeliveriesAsync(DeliverySort.Cursor cursor) {
+        showProgressBar("Loading deliveries...");
+        int offset = pageOffset;
+        EnumSet<DeliveryStatus> filter = EnumSet.copyOf(statusFilter);
+        DeliverySort order = sort;
+        
+        // Load data on the shared DB executor
+        backgroundTasks.submit(TaskType.DB_IO,
+            () -> {
+                // Check connection; only reconnect a connection that is gone
+                boolean connected = DatabaseManager.isConnected() || controller.tryReconnect();
                 SwingUtilities.invokeLater(() -> updateConnectionStatus(connected));
                 
-                // Get deliveries
-                return controller.getAllDeliveries();
-            }
-            
-            @Override
-            protected void done() {
-                try {
-                    List<Delivery_InfDTO> deliveries = get();
-                    displayDeliveries(deliveries);
-                } catch (Exception ex) {
-                    logger.log(Level.SEVERE, "Error in async data loading", ex);
-                    showMessage("Error loading deliveries: " + ex.getMessage(), JOptionPane.ERROR_MESSAGE);
-                    loadSampleDataAsFallback();
-                } finally {
-                    hideProgressBar();
+                // First open after sign-in: the page may already be prefetched
+                if (offset == 0 && cursor == null && filter.isEmpty() && order.isDefault()) {
+                    Page<DeliveryListItem> prefetched = AppStartup.takeFirstPage(PAGE_SIZE);
+                    if (prefetched != null) {
+                        return prefetched;
+                    }
                 }
-            }
-        };
-        
-        worker.execute();
+                
+                // Get one page of the list projection, sorted by the database
+                return controller.getDeliveryPage(offset, PAGE_SIZE,
+                        new DeliverySearchCriteria().withStatuses(filter), order, cursor);
+            },
+            page -> {
+                hideProgressBar();
+                displayDeliveryPage(page);
+            },
+            ex -> {
+                hideProgressBar();
+                logger.log(Level.SEVERE, "Error in async data loading", ex);
+                showMessage("Error loading deliveries: " + ex.getMessage(), JOptionPane.ERROR_MESSAGE);
+                loadSampleDataAsFallback();
+            });
+    }
+    
+    /**
+     * Recount deliveries per status in the background; the summary bar
+     * updates through the counter listener
+     */
+    private void refreshStatusCountsAsync() {
+        backgroundTasks.submit(TaskType.DB_IO,
+            () -> controller.refreshStatusCounts(),
+            counts -> { },
+            ex -> logger.log(Level.WARNING, "Error counting deliveries per status", ex));
+    }
+    
+    /**
+     * Load the page starting at the given row
+     */
+    private void showPage(int offset) {
+        pageOffset = Math.max(0, offset);
+        loadDeliveriesAsync();
+    }
+    
+    /**
+     * Load the next page, seeking past the last row shown
+     */
+    private void showNextPage() {
+        List<DeliveryListItem> items = currentPage != null ? currentPage.getItems() : List.of();
+        if (items.isEmpty()) {
+            showPage(pageOffset + PAGE_SIZE);
+            return;
+        }
+        pageOffset = currentPage.getOffset() + PAGE_SIZE;
+        loadDeliveriesAsync(sort.after(items.get(items.size() - 1)));
+    }
+    
+    /**
+     * Load the previous page, seeking back from the first row shown
+     */
+    private void showPreviousPage() {
+        List<DeliveryListItem> items = currentPage != null ? currentPage.getItems() : List.of();
+        if (items.isEmpty() || currentPage.getOffset() <= PAGE_SIZE) {
+            // The first page is cheapest by offset and lines up exactly
+            showPage(pageOffset - PAGE_SIZE);
+            return;
+        }
+        pageOffset = currentPage.getOffset() - PAGE_SIZE;
+        loadDeliveriesAsync(sort.before(items.get(0)));
     }
     
     /**
-     * Display deliveries in table (extracted from loadDeliveries for reuse)
+     * Display one page of deliveries in the table
      */
-    private void displayDeliveries(List<Delivery_InfDTO> deliveries) {
+    private void displayDeliveryPage(Page<DeliveryListItem> page) {
         DefaultTableModel model = (DefaultTableModel) tblDeliveries.getModel();
+        clearLocalFilter();
         model.setRowCount(0);
+        currentPage = page;
         
-        if (deliveries == null || deliveries.isEmpty()) {
+        // The list shrank below the current page, e.g. after deletes
+        if (page.getItems().isEmpty() && page.hasPrevious()) {
+            showPage(Math.max(0, page.getTotalCount() - 1) / PAGE_SIZE * PAGE_SIZE);
+            return;
+        }
+        
+        updatePagingControls(page);
+        
+        if (page.getItems().isEmpty()) {
             updateStatus("No deliveries found", COLOR_DISCONNECTED);
             updateRecordCount(0);
             return;
         }
         
         // Add deliveries to table
-        int successCount = 0;
-        for (Delivery_InfDTO delivery : deliveries) {
-            if (delivery == null) continue;
-            
-            try {
-                Object[] rowData = {
-                    delivery.getDeliveryId(),
-                    delivery.getExportId(),
-                    delivery.getTrackingNumber(),
-                    delivery.getNotes(),
-                    delivery.getDeliveryDate() != null ? delivery.getDeliveryDate() : delivery.getDate(),
-                    delivery.getStatus(),
-                    delivery.getCreatedAt(),
-                    delivery.getUpdatedAt()
-                };
-                model.addRow(rowData);
-                successCount++;
-            } catch (Exception e) {
-                logger.log(Level.WARNING, "Error adding delivery to table", e);
-            }
+        for (DeliveryListItem delivery : page.getItems()) {
+            model.addRow(toRowData(delivery));
+        }
+        
+        // The whole list fits on this page, so searches can filter it locally
+        if (!page.hasPrevious() && !page.hasNext()) {
+            filterIndex = LocalFilterIndex.build(model);
         }
         
         adjustColumnWidths();
-        updateRecordCount(successCount);
-        updateStatus("Loaded " + successCount + " deliveries successfully", COLOR_CONNECTED);
+        updateRecordCount(page.getTotalCount());
+        updateStatus("Loaded deliveries " + (page.getOffset() + 1) + "-"
+                + (page.getOffset() + page.getItems().size()) + " successfully", COLOR_CONNECTED);
         
-        logger.info("Successfully displayed " + successCount + " deliveries");
+        logger.info("Successfully displayed " + page.getItems().size() + " deliveries");
+    }
+    
+    /**
+     * Drop the local filter before the table rows change
+     */
+    private void clearLocalFilter() {
+        filterIndex = null;
+        tableSorter.setRowFilter(null);
+    }
+    
+    /**
+     * Table row for a delivery, in column order
+     */
+    private Object[] toRowData(DeliveryListItem delivery) {
+        return new Object[] {
+            delivery.getDeliveryId(),
+            delivery.getExportId(),
+            delivery.getTrackingNumber(),
+            delivery.getNotes(),
+            delivery.getDeliveryDate(),
+            delivery.getStatus(),
+            delivery.getCreatedAt(),
+            delivery.getUpdatedAt(),
+            delivery.getDestination(),
+            delivery.getCustomerName(),
+            delivery.getAmount() != null ? delivery.getAmount().format() : null
+        };
+    }
+    
+    /**
+     * Enable the page buttons for a page; null disables them, e.g. for search results
+     */
+    private void updatePagingControls(Page<?> page) {
+        btnPreviousPage.setEnabled(page != null && page.hasPrevious());
+        btnNextPage.setEnabled(page != null && page.hasNext());
+        lblPage.setText(page != null
+                ? "Page " + (page.getPageNumber() + 1) + " of " + page.getPageCount()
+                : "Search results");
     }
     
     /**
@@ -765,13 +1351,14 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
         try {
             logger.info("Loading sample data as fallback");
             DefaultTableModel model = (DefaultTableModel) tblDeliveries.getModel();
+            clearLocalFilter();
             model.setRowCount(0);
             
             Object[][] sampleData = {
-                {"DEL001", "EXP001", "TRK123456", "Sample delivery 1 - Express shipping", new Date(), "DELIVERED", new Date(), new Date()},
-                {"DEL002", "EXP002", "TRK789012", "Sample delivery 2 - Standard shipping", new Date(), "IN_TRANSIT", new Date(), new Date()},
-                {"DEL003", "EXP003", "TRK345678", "Sample delivery 3 - Priority mail", new Date(), "PENDING", new Date(), new Date()},
-                {"DEL004", "EXP004", "TRK901234", "Sample delivery 4 - Overnight delivery", new Date(), "PROCESSING", new Date(), new Date()}
+                {"DEL001", "EXP001", "TRK123456", "Sample delivery 1 - Express shipping", new Date(), "DELIVERED", new Date(), new Date(), "United States", "Sample Customer 1", "1,200.00 USD"},
+                {"DEL002", "EXP002", "TRK789012", "Sample delivery 2 - Standard shipping", new Date(), "IN_TRANSIT", new Date(), new Date(), "Germany", "Sample Customer 2", "1,450.00 USD"},
+                {"DEL003", "EXP003", "TRK345678", "Sample delivery 3 - Priority mail", new Date(), "PENDING", new Date(), new Date(), "Japan", "Sample Customer 3", "1,700.00 USD"},
+                {"DEL004", "EXP004", "TRK901234", "Sample delivery 4 - Overnight delivery", new Date(), "PROCESSING", new Date(), new Date(), "Canada", "Sample Customer 4", "1,950.00 USD"}
             };
             
             for (Object[] row : sampleData) {
@@ -780,6 +1367,7 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
             
             adjustColumnWidths();
             updateRecordCount(sampleData.length);
+            updatePagingControls(null);
             updateStatus("Showing sample data (database connection issue)", Color.ORANGE);
             logger.info("Sample data loaded successfully");
             
@@ -794,34 +1382,45 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
         return value != null && value.toString().toLowerCase().contains(searchText);
     }
     
+    /**
+     * Size the columns from prototype values instead of measuring the rows.
+     * Runs once: widths do not depend on the data, and the user's own
+     * resizing survives later loads.
+     */
     private void adjustColumnWidths() {
+        if (columnsSized) {
+            return;
+        }
         try {
-            tblDeliveries.getColumnModel().getColumn(0).setPreferredWidth(80);  // ID
-            tblDeliveries.getColumnModel().getColumn(1).setPreferredWidth(80);  // Export
-            tblDeliveries.getColumnModel().getColumn(2).setPreferredWidth(120); // Tracking #
-           tblDeliveries.getColumnModel().getColumn(3).setPreferredWidth(250); // Notes (wider for better readability)
-           tblDeliveries.getColumnModel().getColumn(4).setPreferredWidth(120); // Delivery Date
-           tblDeliveries.getColumnModel().getColumn(5).setPreferredWidth(100); // Status
-           tblDeliveries.getColumnModel().getColumn(6).setPreferredWidth(140); // Created At
-           tblDeliveries.getColumnModel().getColumn(7).setPreferredWidth(140); // Updated At
-           
-           logger.fine("Column widths adjusted successfully");
-       } catch (Exception e) {
-           logger.log(Level.WARNING, "Error adjusting column widths", e);
-       }
-   }
-   
+            TableColumnModel columns = tblDeliveries.getColumnModel();
+            FontMetrics metrics = tblDeliveries.getFontMetrics(tblDeliveries.getFont());
+            FontMetrics headerMetrics = tblDeliveries.getFontMetrics(tblDeliveries.getTableHeader().getFont());
+            for (int i = 0; i < COLUMN_PROTOTYPES.length && i < columns.getColumnCount(); i++) {
+                TableColumn column = columns.getColumn(tblDeliveries.convertColumnIndexToView(i));
+                TableCellRenderer renderer = column.getCellRenderer();
+                String prototype = renderer instanceof DateCellRenderer
+                        ? ((DateCellRenderer) renderer).getPrototype() : COLUMN_PROTOTYPES[i];
+                // Room for the header and its sort arrow too
+                int width = Math.max(metrics.stringWidth(prototype), headerMetrics.stringWidth(
+                        String.valueOf(column.getHeaderValue()) + " \u25B20")) + COLUMN_PADDING;
+                column.setPreferredWidth(width);
+                if (renderer instanceof DateCellRenderer) {
+                    // Every value has the same width
+                    column.setMinWidth(width);
+                }
+            }
+            columnsSized = true;
+            logger.fine("Column widths adjusted successfully");
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Error adjusting column widths", e);
+        }
+    }
+    
    /**
     * Enhanced connection checker with better error handling
     */
    private void startConnectionChecker() {
-       connectionChecker = Executors.newSingleThreadScheduledExecutor(r -> {
-           Thread t = new Thread(r, "ConnectionChecker");
-           t.setDaemon(true); // Make it daemon thread
-           return t;
-       });
-       
-       connectionChecker.scheduleAtFixedRate(() -> {
+       backgroundTasks.scheduleAtFixedRate(TaskType.DB_IO, () -> {
            try {
                final boolean connected = controller.tryReconnect();
                
@@ -853,7 +1452,7 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
            } catch (Exception ex) {
                logger.log(Level.WARNING, "Error in connection checker", ex);
            }
-       }, 0, CONNECTION_CHECK_INTERVAL, TimeUnit.SECONDS);
+       }, CONNECTION_CHECK_INTERVAL, CONNECTION_CHECK_INTERVAL, TimeUnit.SECONDS);
    }
    
    /**
@@ -864,17 +1463,10 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
        btnTestConnection.setEnabled(false);
        showProgressBar("Testing connection...");
        
-       SwingWorker<Boolean, Void> testWorker = new SwingWorker<Boolean, Void>() {
-           @Override
-           protected Boolean doInBackground() throws Exception {
-               return controller.tryReconnect();
-           }
-           
-           @Override
-           protected void done() {
+       backgroundTasks.submit(TaskType.DB_IO,
+           () -> controller.tryReconnect(),
+           connected -> {
                try {
-                   boolean connected = get();
-                   
                    if (connected) {
                        JOptionPane.showMessageDialog(
                            DeliveryManagementForm.this,
@@ -901,22 +1493,22 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
                        
                        updateConnectionStatus(false);
                    }
-               } catch (Exception ex) {
-                   logger.log(Level.SEVERE, "Error in connection test", ex);
-                   JOptionPane.showMessageDialog(
-                       DeliveryManagementForm.this,
-                       "Connection test error: " + ex.getMessage(),
-                       "Test Error",
-                       JOptionPane.ERROR_MESSAGE
-                   );
                } finally {
                    hideProgressBar();
                    btnTestConnection.setEnabled(true);
                }
-           }
-       };
-       
-       testWorker.execute();
+           },
+           ex -> {
+               hideProgressBar();
+               btnTestConnection.setEnabled(true);
+               logger.log(Level.SEVERE, "Error in connection test", ex);
+               JOptionPane.showMessageDialog(
+                   DeliveryManagementForm.this,
+                   "Connection test error: " + ex.getMessage(),
+                   "Test Error",
+                   JOptionPane.ERROR_MESSAGE
+               );
+           });
    }
    
    /**
@@ -993,17 +1585,10 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
            showProgressBar("Loading delivery details...");
            
            // Load delivery data in background
-           SwingWorker<Delivery_InfDTO, Void> loadWorker = new SwingWorker<Delivery_InfDTO, Void>() {
-               @Override
-               protected Delivery_InfDTO doInBackground() throws Exception {
-                   return controller.getDeliveryById(deliveryId);
-               }
-               
-               @Override
-               protected void done() {
+           backgroundTasks.submit(TaskType.DB_IO,
+               () -> controller.getDeliveryById(deliveryId),
+               deliveryToEdit -> {
                    try {
-                       Delivery_InfDTO deliveryToEdit = get();
-                       
                        if (deliveryToEdit == null) {
                            showMessage("Cannot find the selected delivery in the database", JOptionPane.ERROR_MESSAGE);
                            return;
@@ -1023,15 +1608,17 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
                        });
                        
                    } catch (Exception ex) {
-                       logger.log(Level.SEVERE, "Error loading delivery for edit", ex);
+                       logger.log(Level.SEVERE, "Error opening delivery for edit", ex);
                        showMessage("Error loading delivery: " + ex.getMessage(), JOptionPane.ERROR_MESSAGE);
                    } finally {
                        hideProgressBar();
                    }
-               }
-           };
-           
-           loadWorker.execute();
+               },
+               ex -> {
+                   hideProgressBar();
+                   logger.log(Level.SEVERE, "Error loading delivery for edit", ex);
+                   showMessage("Error loading delivery: " + ex.getMessage(), JOptionPane.ERROR_MESSAGE);
+               });
            
        } catch (Exception ex) {
            hideProgressBar();
@@ -1087,45 +1674,33 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
            showProgressBar("Deleting delivery...");
            
            // Delete in background
-           SwingWorker<Boolean, Void> deleteWorker = new SwingWorker<Boolean, Void>() {
-               @Override
-               protected Boolean doInBackground() throws Exception {
-                   return controller.deleteDelivery(deliveryId);
-               }
-               
-               @Override
-               protected void done() {
-                   try {
-                       boolean success = get();
-                       
-                       if (success) {
-                           JOptionPane.showMessageDialog(
-                               DeliveryManagementForm.this,
-                               "✓ Delivery deleted successfully!\n\n" +
-                               "Deleted: " + deliveryId,
-                               "Delete Successful",
-                               JOptionPane.INFORMATION_MESSAGE
-                           );
-                           logger.info("Successfully deleted delivery: " + deliveryId);
-                           loadDeliveriesAsync(); // Refresh table
-                       } else {
-                           showMessage(
-                               "Failed to delete delivery.\n" +
-                               "Please check the logs for details.",
-                               JOptionPane.ERROR_MESSAGE
-                           );
-                       }
-                       
-                   } catch (Exception ex) {
-                       logger.log(Level.SEVERE, "Error in delete operation", ex);
-                       showMessage("Delete error: " + ex.getMessage(), JOptionPane.ERROR_MESSAGE);
-                   } finally {
-                       hideProgressBar();
+           backgroundTasks.submit(TaskType.DB_IO,
+               () -> controller.deleteDelivery(deliveryId),
+               success -> {
+                   hideProgressBar();
+                   if (success) {
+                       JOptionPane.showMessageDialog(
+                           DeliveryManagementForm.this,
+                           "✓ Delivery deleted successfully!\n\n" +
+                           "Deleted: " + deliveryId,
+                           "Delete Successful",
+                           JOptionPane.INFORMATION_MESSAGE
+                       );
+                       logger.info("Successfully deleted delivery: " + deliveryId);
+                       loadDeliveriesAsync(); // Refresh table
+                   } else {
+                       showMessage(
+                           "Failed to delete delivery.\n" +
+                           "Please check the logs for details.",
+                           JOptionPane.ERROR_MESSAGE
+                       );
                    }
-               }
-           };
-           
-           deleteWorker.execute();
+               },
+               ex -> {
+                   hideProgressBar();
+                   logger.log(Level.SEVERE, "Error in delete operation", ex);
+                   showMessage("Delete error: " + ex.getMessage(), JOptionPane.ERROR_MESSAGE);
+               });
            
        } catch (Exception ex) {
            hideProgressBar();
@@ -1144,9 +1719,13 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
            if (searchTimer != null && searchTimer.isRunning()) {
                searchTimer.stop();
            }
+           if (suggestionPopup != null) {
+               suggestionPopup.setVisible(false);
+           }
            
-           // Stop connection checker
-           stopConnectionChecker();
+           // Cancel the connection checker and any loads still in flight
+           backgroundTasks.close();
+           DeliveryStatusCounter.removeListener(statusCountListener);
            
            logger.info("DeliveryManagementForm disposed successfully");
        } catch (Exception e) {
@@ -1156,25 +1735,6 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
        }
    }
    
-   /**
-    * Enhanced connection checker shutdown
-    */
-   private void stopConnectionChecker() {
-       if (connectionChecker != null && !connectionChecker.isShutdown()) {
-           connectionChecker.shutdown();
-           try {
-               if (!connectionChecker.awaitTermination(5, TimeUnit.SECONDS)) {
-                   connectionChecker.shutdownNow();
-                   logger.info("Connection checker shut down forcefully");
-               }
-           } catch (InterruptedException e) {
-               connectionChecker.shutdownNow();
-               Thread.currentThread().interrupt();
-               logger.warning("Connection checker shutdown interrupted");
-           }
-       }
-   }
-
    /**
     * Enhanced main method with better error handling
     */
@@ -1188,6 +1748,8 @@ public class DeliveryManagementForm extends javax.swing.JFrame {
                .log(Level.WARNING, "Could not set system look and feel", ex);
        }
 
+       EdtWatchdog.install();
+
        // Create and display the enhanced form
        java.awt.EventQueue.invokeLater(() -> {
            try {
@@ -1,9 +1,23 @@
 package exportation_panelera.View;
 
 import exportation_panelera.controller.DeliveryController;
+import exportation_panelera.Model.DeliveryStatus;
 import exportation_panelera.Model.Delivery_InfDTO;
+import exportation_panelera.Model.Destination;
 import exportation_panelera.Model.Exportation_InfDTO;
+import exportation_panelera.Model.Money;
+import exportation_panelera.Model.ShipmentSpec;
+import exportation_panelera.Model.ShippingQuote;
+import exportation_panelera.Model.TransportMode;
+import exportation_panelera.concurrent.AppExecutors;
+import exportation_panelera.concurrent.TaskType;
 import exportation_panelera.db.DatabaseManager;
+import exportation_panelera.metrics.EdtWatchdog;
+import exportation_panelera.service.ExchangeRateService;
+import exportation_panelera.service.IdAllocator;
+import exportation_panelera.service.ShippingDistanceService;
+import exportation_panelera.service.ShippingRateService;
+import exportation_panelera.service.TrackingNumberService;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -15,14 +29,9 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.text.DecimalFormat;
 import java.util.Date;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Random;
 import java.sql.*;
 
 // Additional import for SwingUtilities
@@ -44,76 +53,15 @@ public class ExportationDelivery extends JFrame {
     private static final Font LABEL_FONT = new Font("Segoe UI", Font.BOLD, 14);
     private static final Font INPUT_FONT = new Font("Segoe UI", Font.PLAIN, 14);
     
-    // Exchange rates (currency code -> rate to USD)
-    private static final Map<String, BigDecimal> EXCHANGE_RATES = new HashMap<>();
+    private static final String NEW_TITLE = "Exportation & Delivery Management";
     
-    // Country abbreviations for tracking numbers
-    private static final Map<String, String> COUNTRY_ABBREVIATIONS = new HashMap<>();
+    // Shown in the delivery ID field until the database assigns the ID
+    private static final String NEW_DELIVERY_ID_TEXT = "(assigned on save)";
     
-    // Initialize with common exchange rates
-    static {
-        // Base currency is USD (1.0)
-        EXCHANGE_RATES.put("USD", BigDecimal.ONE);
-        EXCHANGE_RATES.put("EUR", new BigDecimal("0.91")); // 1 USD = 0.91 EUR
-        EXCHANGE_RATES.put("GBP", new BigDecimal("0.78")); // 1 USD = 0.78 GBP
-        EXCHANGE_RATES.put("CAD", new BigDecimal("1.35")); // 1 USD = 1.35 CAD
-        EXCHANGE_RATES.put("COP", new BigDecimal("3900")); // 1 USD = 3900 COP (Colombian Peso)
-        EXCHANGE_RATES.put("MXN", new BigDecimal("17.50")); // 1 USD = 17.50 MXN
-        EXCHANGE_RATES.put("JPY", new BigDecimal("107.8")); // 1 USD = 107.8 JPY
-        
-        // Initialize country abbreviations for tracking numbers
-        COUNTRY_ABBREVIATIONS.put("United States", "US");
-        COUNTRY_ABBREVIATIONS.put("Canada", "CA");
-        COUNTRY_ABBREVIATIONS.put("Mexico", "MX");
-        COUNTRY_ABBREVIATIONS.put("Brazil", "BR");
-        COUNTRY_ABBREVIATIONS.put("Colombia", "CO");
-        COUNTRY_ABBREVIATIONS.put("United Kingdom", "UK");
-        COUNTRY_ABBREVIATIONS.put("France", "FR");
-        COUNTRY_ABBREVIATIONS.put("Germany", "DE");
-        COUNTRY_ABBREVIATIONS.put("Spain", "ES");
-        COUNTRY_ABBREVIATIONS.put("Italy", "IT");
-        COUNTRY_ABBREVIATIONS.put("China", "CN");
-        COUNTRY_ABBREVIATIONS.put("Japan", "JP");
-        COUNTRY_ABBREVIATIONS.put("South Korea", "KR");
-        COUNTRY_ABBREVIATIONS.put("Australia", "AU");
-        COUNTRY_ABBREVIATIONS.put("Netherlands", "NL");
-        COUNTRY_ABBREVIATIONS.put("Belgium", "BE");
-        COUNTRY_ABBREVIATIONS.put("Switzerland", "CH");
-        COUNTRY_ABBREVIATIONS.put("Sweden", "SE");
-        COUNTRY_ABBREVIATIONS.put("Norway", "NO");
-        COUNTRY_ABBREVIATIONS.put("Denmark", "DK");
-        COUNTRY_ABBREVIATIONS.put("Finland", "FI");
-        COUNTRY_ABBREVIATIONS.put("Poland", "PL");
-        COUNTRY_ABBREVIATIONS.put("Czech Republic", "CZ");
-        COUNTRY_ABBREVIATIONS.put("Hungary", "HU");
-        COUNTRY_ABBREVIATIONS.put("Greece", "GR");
-        COUNTRY_ABBREVIATIONS.put("Portugal", "PT");
-        COUNTRY_ABBREVIATIONS.put("Turkey", "TR");
-        COUNTRY_ABBREVIATIONS.put("Russia", "RU");
-        COUNTRY_ABBREVIATIONS.put("India", "IN");
-        COUNTRY_ABBREVIATIONS.put("Thailand", "TH");
-        COUNTRY_ABBREVIATIONS.put("Singapore", "SG");
-        COUNTRY_ABBREVIATIONS.put("Malaysia", "MY");
-        COUNTRY_ABBREVIATIONS.put("Indonesia", "ID");
-        COUNTRY_ABBREVIATIONS.put("Philippines", "PH");
-        COUNTRY_ABBREVIATIONS.put("Vietnam", "VN");
-        COUNTRY_ABBREVIATIONS.put("South Africa", "ZA");
-        COUNTRY_ABBREVIATIONS.put("Egypt", "EG");
-        COUNTRY_ABBREVIATIONS.put("Nigeria", "NG");
-        COUNTRY_ABBREVIATIONS.put("Argentina", "AR");
-        COUNTRY_ABBREVIATIONS.put("Chile", "CL");
-        COUNTRY_ABBREVIATIONS.put("Peru", "PE");
-        COUNTRY_ABBREVIATIONS.put("Ecuador", "EC");
-        COUNTRY_ABBREVIATIONS.put("Uruguay", "UY");
-        COUNTRY_ABBREVIATIONS.put("Venezuela", "VE");
-        COUNTRY_ABBREVIATIONS.put("Costa Rica", "CR");
-        COUNTRY_ABBREVIATIONS.put("Panama", "PA");
-        COUNTRY_ABBREVIATIONS.put("Guatemala", "GT");
-        COUNTRY_ABBREVIATIONS.put("Honduras", "HN");
-        COUNTRY_ABBREVIATIONS.put("El Salvador", "SV");
-        COUNTRY_ABBREVIATIONS.put("Nicaragua", "NI");
-        COUNTRY_ABBREVIATIONS.put("Other", "XX"); // Default for "Other"
-    }
+    // Tab indexes; the delivery and shipping tabs are built on first use
+    private static final int EXPORTATION_TAB = 0;
+    private static final int DELIVERY_TAB = 1;
+    private static final int SHIPPING_TAB = 2;
     
     // Controllers
     private DeliveryController exportationController;
@@ -175,26 +123,32 @@ public class ExportationDelivery extends JFrame {
     
     // Shared data
     private String currentExportationId;
+    private Money calculatedShippingCost;
+    // Distance last filled in from the distance matrix; typed values are kept
+    private String estimatedDistance = "";
     private boolean isEditMode = false;
+    private boolean generatingTracking = false;
     
     /**
      * Default constructor - Create a new form for adding a new exportation and delivery
      */
     public ExportationDelivery() {
+        // The controller holds no state, one serves both tabs
         exportationController = new DeliveryController();
-        deliveryController = new DeliveryController();
+        deliveryController = exportationController;
         
         initComponents();
         customizeUI();
         setupEventHandlers();
+        updateEstimatedDistance();
         
-        setTitle("Exportation & Delivery Management");
+        setTitle(NEW_TITLE);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         setSize(1000, 700);
         setLocationRelativeTo(null);
         
-        // Generate a new exportation ID
-        generateExportationId();
+        // Load existing tracking numbers while the user fills in the form
+        TrackingNumberService.warmUp();
     }
     
     /**
@@ -252,9 +206,12 @@ public class ExportationDelivery extends JFrame {
     
     /**
      * NEW: Generate automatic tracking number based on selected destination
-     * Format: TRK + 9 digits + Country Code (e.g., TRK123456789US, TRK345678901JP)
+     * Format: TRK + 8-digit serial + UPU S10 (mod 11) check digit + 2-letter
+     * country code, "XX" if unknown (e.g., TRK482139075US: serial 48213907,
+     * check digit 5). Generated in the background; the field is filled when done.
      */
     private void generateTrackingNumber() {
+        ensureDeliveryTab();
         String selectedCountry = (String) cmbDestination.getSelectedItem();
         
         if (selectedCountry == null || selectedCountry.trim().isEmpty()) {
@@ -265,49 +222,52 @@ public class ExportationDelivery extends JFrame {
             return;
         }
         
-        // Get country abbreviation
-        String countryCode = COUNTRY_ABBREVIATIONS.get(selectedCountry);
-        if (countryCode == null) {
-            countryCode = "XX"; // Default for unknown countries
-        }
-        
-        // Generate tracking number format: TRK + 9 random digits + Country Code
-        // Example: TRK123456789US, TRK345678901JP, etc.
-        
-        // Generate 9 random digits
-        Random random = new Random();
-        StringBuilder nineDigits = new StringBuilder();
-        
-        // First digit should not be 0 to ensure we always have 9 digits
-        nineDigits.append(random.nextInt(9) + 1); // 1-9
-        
-        // Remaining 8 digits can be 0-9
-        for (int i = 0; i < 8; i++) {
-            nineDigits.append(random.nextInt(10)); // 0-9
+        if (generatingTracking) {
+            return;
         }
         
-        // Create the tracking number: TRK + 9digits + CountryCode
-        String trackingNumber = "TRK" + nineDigits.toString() + countryCode;
-        
-        // Set the tracking number in the field
-        txtTrackingNumber.setText(trackingNumber);
-        
-        logger.info("Generated tracking number: " + trackingNumber + " for country: " + selectedCountry);
-        
-        // Show confirmation message
-        JOptionPane.showMessageDialog(this,
-                "Tracking number generated successfully!\n\n" +
-                "Country: " + selectedCountry + " (" + countryCode + ")\n" +
-                "Tracking Number: " + trackingNumber +
-                "\n\nFormat: TRK + 9 digits + Country Code",
-                "Tracking Number Generated",
-                JOptionPane.INFORMATION_MESSAGE);
+        // Get country abbreviation ("XX" for unknown countries)
+        String countryCode = Destination.fromName(selectedCountry).getCode();
+        
+        // The first call loads the saved tracking numbers and every call may
+        // query the database, so generate in the background
+        generatingTracking = true;
+        btnGenerateTracking.setEnabled(false);
+        AppExecutors.submit(TaskType.DB_IO, () -> TrackingNumberService.generate(countryCode),
+                trackingNumber -> {
+                    generatingTracking = false;
+                    btnGenerateTracking.setEnabled(true);
+                    
+                    // Set the tracking number in the field
+                    txtTrackingNumber.setText(trackingNumber);
+                    
+                    logger.info("Generated tracking number: " + trackingNumber + " for country: " + selectedCountry);
+                    
+                    // Show confirmation message
+                    JOptionPane.showMessageDialog(this,
+                            "Tracking number generated successfully!\n\n" +
+                            "Country: " + selectedCountry + " (" + countryCode + ")\n" +
+                            "Tracking Number: " + trackingNumber +
+                            "\n\nFormat: TRK + 8 digits + check digit + Country Code",
+                            "Tracking Number Generated",
+                            JOptionPane.INFORMATION_MESSAGE);
+                },
+                error -> {
+                    generatingTracking = false;
+                    btnGenerateTracking.setEnabled(true);
+                    logger.log(Level.WARNING, "Could not generate a tracking number", error);
+                    JOptionPane.showMessageDialog(this,
+                            "Could not generate a tracking number:\n" + error.getMessage(),
+                            "Tracking Number Error",
+                            JOptionPane.ERROR_MESSAGE);
+                });
     }
     
     /**
      * NEW: Auto-generate tracking number when destination changes
      */
     private void onDestinationChanged() {
+        ensureDeliveryTab();
         String selectedCountry = (String) cmbDestination.getSelectedItem();
         
         // Only auto-generate if tracking number is empty or user confirms
@@ -330,37 +290,11 @@ public class ExportationDelivery extends JFrame {
      * Convert currency using our exchange rates
      * 
      * @param amount The amount to convert
-     * @param fromCurrency The source currency code
      * @param toCurrency The target currency code
-     * @return The converted amount
+     * @return The converted amount, rounded to the cent
      */
-    private BigDecimal convertCurrency(BigDecimal amount, String fromCurrency, String toCurrency) {
-        // If same currency, return the amount
-        if (fromCurrency.equals(toCurrency)) {
-            return amount;
-        }
-        
-        // Validate currencies
-        if (!EXCHANGE_RATES.containsKey(fromCurrency) || !EXCHANGE_RATES.containsKey(toCurrency)) {
-            throw new IllegalArgumentException("Unsupported currency");
-        }
-        
-        // Convert to USD first (if not already in USD)
-        BigDecimal amountInUSD;
-        if (fromCurrency.equals("USD")) {
-            amountInUSD = amount;
-        } else {
-            BigDecimal fromRate = EXCHANGE_RATES.get(fromCurrency);
-            amountInUSD = amount.divide(fromRate, 10, RoundingMode.HALF_UP);
-        }
-        
-        // Convert from USD to target currency
-        if (toCurrency.equals("USD")) {
-            return amountInUSD;
-        } else {
-            BigDecimal toRate = EXCHANGE_RATES.get(toCurrency);
-            return amountInUSD.multiply(toRate);
-        }
+    private Money convertCurrency(Money amount, String toCurrency) {
+        return ExchangeRateService.convert(amount, toCurrency);
     }
     
     /**
@@ -371,20 +305,7 @@ public class ExportationDelivery extends JFrame {
      * @return The exchange rate
      */
     private BigDecimal getExchangeRate(String fromCurrency, String toCurrency) {
-        // Validate currencies
-        if (!EXCHANGE_RATES.containsKey(fromCurrency) || !EXCHANGE_RATES.containsKey(toCurrency)) {
-            throw new IllegalArgumentException("Unsupported currency");
-        }
-        
-        // If same currency, rate is 1:1
-        if (fromCurrency.equals(toCurrency)) {
-            return BigDecimal.ONE;
-        }
-        
-        BigDecimal fromRate = EXCHANGE_RATES.get(fromCurrency);
-        BigDecimal toRate = EXCHANGE_RATES.get(toCurrency);
-        
-        return toRate.divide(fromRate, 10, RoundingMode.HALF_UP);
+        return ExchangeRateService.getRate(fromCurrency, toCurrency);
     }
     
     /**
@@ -394,15 +315,14 @@ public class ExportationDelivery extends JFrame {
         // Set up the main layout
         tabbedPane = new JTabbedPane();
         
-        // Create the panels
+        // Only the first tab is built now; the others when first selected or needed
         exportationPanel = createExportationPanel();
-        deliveryPanel = createDeliveryPanel();
-        shippingCostPanel = createShippingCostPanel();
         
         // Add panels to tabbed pane
         tabbedPane.addTab("Exportation Details", null, exportationPanel, "Enter exportation details");
-        tabbedPane.addTab("Delivery Details", null, deliveryPanel, "Enter delivery details");
-        tabbedPane.addTab("Shipping Cost", null, shippingCostPanel, "Calculate shipping costs");
+        tabbedPane.addTab("Delivery Details", null, createPlaceholderPanel(), "Enter delivery details");
+        tabbedPane.addTab("Shipping Cost", null, createPlaceholderPanel(), "Calculate shipping costs");
+        tabbedPane.addChangeListener(e -> ensureTab(tabbedPane.getSelectedIndex()));
         
         // Create action buttons panel
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
@@ -420,6 +340,95 @@ public class ExportationDelivery extends JFrame {
         add(buttonPanel, BorderLayout.SOUTH);
     }
     
+    /**
+     * Empty stand-in for a tab that has not been built yet
+     */
+    private JPanel createPlaceholderPanel() {
+        JPanel panel = new JPanel();
+        panel.setBackground(BACKGROUND_COLOR);
+        return panel;
+    }
+    
+    /**
+     * Build a tab if it is still a placeholder
+     */
+    private void ensureTab(int index) {
+        if (index == DELIVERY_TAB) {
+            ensureDeliveryTab();
+        } else if (index == SHIPPING_TAB) {
+            ensureShippingTab();
+        }
+    }
+    
+    /**
+     * Build the delivery tab: components, styling, events and a new delivery ID
+     */
+    private void ensureDeliveryTab() {
+        if (deliveryPanel != null) {
+            return;
+        }
+        deliveryPanel = createDeliveryPanel();
+        
+        customizeTextField(txtDeliveryID);
+        customizeTextField(txtCarrierName);
+        customizeTextField(txtTrackingNumber);
+        customizeTextField(txtContactPerson);
+        customizeTextField(txtContactPhone);
+        customizeComboBox(cmbStatus);
+        customizeTextArea(txtAddress);
+        customizeTextArea(txtNotes);
+        customizeDateChooser(dateDelivery);
+        customizeButton(btnGenerateTracking);
+        
+        btnGenerateTracking.addActionListener(e -> generateTrackingNumber());
+        
+        dateDelivery.setDate(new Date());
+        generateDeliveryId();
+        
+        tabbedPane.setComponentAt(DELIVERY_TAB, deliveryPanel);
+    }
+    
+    /**
+     * Build the shipping cost tab: components, styling, events and the
+     * estimated distance
+     */
+    private void ensureShippingTab() {
+        if (shippingCostPanel != null) {
+            return;
+        }
+        shippingCostPanel = createShippingCostPanel();
+        
+        customizeTextField(txtWeight);
+        customizeTextField(txtDistance);
+        customizeTextField(txtBaseCost);
+        customizeTextField(txtAdditionalCosts);
+        customizeTextField(txtTotalShippingCost);
+        customizeTextField(txtShippingConvertedCost);
+        customizeComboBox(cmbShippingMethod);
+        customizeComboBox(cmbShippingCurrency);
+        customizeButton(btnCalculateShipping);
+        
+        cmbShippingCurrency.addActionListener(e -> updateShippingConvertedCost());
+        cmbShippingMethod.addActionListener(e -> updateEstimatedDistance());
+        btnCalculateShipping.addActionListener(e -> calculateShippingCost());
+        
+        updateEstimatedDistance();
+        
+        tabbedPane.setComponentAt(SHIPPING_TAB, shippingCostPanel);
+    }
+    
+    /**
+     * Make the form ready for a new entry, for reusing it instead of
+     * building another: fields cleared, new IDs, first tab, not editing
+     */
+    public void resetForNewEntry() {
+        isEditMode = false;
+        currentExportationId = null;
+        clearAllFields();
+        tabbedPane.setSelectedIndex(EXPORTATION_TAB);
+        setTitle(NEW_TITLE);
+    }
+    
     /**
      * Create the exportation panel
      */
@@ -445,24 +454,12 @@ public class ExportationDelivery extends JFrame {
             "Panela", "Syrup", "Sugar", "Wine", "Ethanol"
         });
         txtQuantity = new JTextField(10);
-        cmbDestination = new JComboBox<>(new String[] {
-            "United States", "Canada", "Mexico", "Brazil", "Colombia", 
-            "United Kingdom", "France", "Germany", "Spain", "Italy", 
-            "China", "Japan", "South Korea", "Australia", "Netherlands",
-            "Belgium", "Switzerland", "Sweden", "Norway", "Denmark",
-            "Finland", "Poland", "Czech Republic", "Hungary", "Greece",
-            "Portugal", "Turkey", "Russia", "India", "Thailand",
-            "Singapore", "Malaysia", "Indonesia", "Philippines", "Vietnam",
-            "South Africa", "Egypt", "Nigeria", "Argentina", "Chile",
-            "Peru", "Ecuador", "Uruguay", "Venezuela", "Costa Rica",
-            "Panama", "Guatemala", "Honduras", "El Salvador", "Nicaragua",
-            "Other"
-        });
+        cmbDestination = new JComboBox<>(Destination.displayNames());
         dateExport = new com.toedter.calendar.JDateChooser();
         dateExport.setDateFormatString("yyyy-MM-dd");
         
         txtUnitPrice = new JTextField(10);
-        cmbCurrency = new JComboBox<>(EXCHANGE_RATES.keySet().toArray(new String[0]));
+        cmbCurrency = new JComboBox<>(ExchangeRateService.getCurrencies().toArray(new String[0]));
         txtTotalPrice = new JTextField(15);
         txtTotalPrice.setEditable(false);
         
@@ -478,7 +475,7 @@ public class ExportationDelivery extends JFrame {
                 SECONDARY_COLOR));
         
         lblConvertedPrice = new JLabel("Converted Price:");
-        cmbTargetCurrency = new JComboBox<>(EXCHANGE_RATES.keySet().toArray(new String[0]));
+        cmbTargetCurrency = new JComboBox<>(ExchangeRateService.getCurrencies().toArray(new String[0]));
         cmbTargetCurrency.setSelectedItem("EUR"); // Default target currency
         txtConvertedPrice = new JTextField(15);
         txtConvertedPrice.setEditable(false);
@@ -662,9 +659,7 @@ public class ExportationDelivery extends JFrame {
         dateDelivery = new com.toedter.calendar.JDateChooser();
         dateDelivery.setDateFormatString("yyyy-MM-dd");
         
-        cmbStatus = new JComboBox<>(new String[] {
-            "Pending", "In Transit", "Delivered", "Cancelled"
-        });
+        cmbStatus = new JComboBox<>(DeliveryStatus.displayNames());
         
         txtNotes = new JTextArea(3, 20);
         JScrollPane scrollNotes = new JScrollPane(txtNotes);
@@ -833,9 +828,7 @@ public class ExportationDelivery extends JFrame {
         JLabel lblTotalShippingCost = new JLabel("Total Shipping Cost:");
         JLabel lblShippingCurrency = new JLabel("Currency:");
         
-        cmbShippingMethod = new JComboBox<>(new String[] {
-            "Air Freight", "Sea Freight", "Road Transport", "Rail Transport", "Express Courier"
-        });
+        cmbShippingMethod = new JComboBox<>(ShippingRateService.getMethods().toArray(new String[0]));
         txtWeight = new JTextField(10);
         txtDistance = new JTextField(10);
         txtBaseCost = new JTextField(10);
@@ -844,7 +837,7 @@ public class ExportationDelivery extends JFrame {
         txtTotalShippingCost = new JTextField(15);
         txtTotalShippingCost.setEditable(false);
         
-        cmbShippingCurrency = new JComboBox<>(EXCHANGE_RATES.keySet().toArray(new String[0]));
+        cmbShippingCurrency = new JComboBox<>(ExchangeRateService.getCurrencies().toArray(new String[0]));
         cmbShippingCurrency.setSelectedItem("USD"); // Default to USD
         
         lblShippingConvertedCost = new JLabel("Converted Cost:");
@@ -1022,62 +1015,35 @@ public class ExportationDelivery extends JFrame {
     private void customizeUI() {
         // Set panel background colors
         exportationPanel.setBackground(BACKGROUND_COLOR);
-        deliveryPanel.setBackground(BACKGROUND_COLOR);
-        shippingCostPanel.setBackground(BACKGROUND_COLOR);
         
         // Style tabbed pane
         tabbedPane.setFont(HEADER_FONT);
         tabbedPane.setBackground(Color.WHITE);
         tabbedPane.setForegroundAt(0, PRIMARY_COLOR);
         
-        // Style all text fields
+        // Style the exportation tab; the other tabs are styled when built
         customizeTextField(txtExportationID);
         customizeTextField(txtQuantity);
         customizeTextField(txtUnitPrice);
         customizeTextField(txtTotalPrice);
         customizeTextField(txtConvertedPrice);
-        customizeTextField(txtDeliveryID);
-        customizeTextField(txtCarrierName);
-        customizeTextField(txtTrackingNumber);
-        customizeTextField(txtContactPerson);
-        customizeTextField(txtContactPhone);
-        customizeTextField(txtWeight);
-        customizeTextField(txtDistance);
-        customizeTextField(txtBaseCost);
-        customizeTextField(txtAdditionalCosts);
-        customizeTextField(txtTotalShippingCost);
-        customizeTextField(txtShippingConvertedCost);
         
-        // Style all combo boxes
         customizeComboBox(cmbProductType);
         customizeComboBox(cmbDestination);
         customizeComboBox(cmbCurrency);
         customizeComboBox(cmbTargetCurrency);
-        customizeComboBox(cmbStatus);
-        customizeComboBox(cmbShippingMethod);
-        customizeComboBox(cmbShippingCurrency);
         
-        // Style all text areas
-        customizeTextArea(txtAddress);
-        customizeTextArea(txtNotes);
-        
-        // Style date choosers
         customizeDateChooser(dateExport);
-        customizeDateChooser(dateDelivery);
         
         // Style buttons
         customizeButton(btnSaveAll);
         customizeButton(btnClear);
-        customizeButton(btnCalculateShipping);
-        customizeButton(btnGenerateTracking);
         
         // Set default dates
         dateExport.setDate(new Date());
-        dateDelivery.setDate(new Date());
         
-        // Generate IDs
+        // Generate IDs; the delivery ID comes with the delivery tab
         generateExportationId();
-        generateDeliveryId();
     }
     
     /**
@@ -1204,18 +1170,13 @@ public class ExportationDelivery extends JFrame {
         // NEW: Destination change event for automatic tracking number generation
         cmbDestination.addActionListener(e -> {
             // Only auto-generate tracking number if we're in the delivery tab and tracking field is empty
-            if (tabbedPane.getSelectedIndex() == 1 && txtTrackingNumber.getText().trim().isEmpty()) {
+            if (tabbedPane.getSelectedIndex() == DELIVERY_TAB && txtTrackingNumber.getText().trim().isEmpty()) {
                 generateTrackingNumber();
             }
+            updateEstimatedDistance();
         });
         
-        // NEW: Generate tracking number button event
-        btnGenerateTracking.addActionListener(e -> generateTrackingNumber());
-        
-        // Shipping cost calculation events
-        cmbShippingCurrency.addActionListener(e -> updateShippingConvertedCost());
-        
-        btnCalculateShipping.addActionListener(e -> calculateShippingCost());
+        // Delivery and shipping tab events are wired when those tabs are built
         
         // Save button
         btnSaveAll.addActionListener(e -> saveAllData());
@@ -1225,37 +1186,33 @@ public class ExportationDelivery extends JFrame {
     }
     
     /**
-     * Generate a unique exportation ID that fits in your database
+     * Assign a new exportation ID from the shared sequence. The field stays
+     * empty (and the save is refused) if the database cannot be reached.
      */
     private void generateExportationId() {
-        // Generate a smaller, manageable ID instead of using full timestamp
-        long timestamp = System.currentTimeMillis();
-        
-        // Use last 6 digits of timestamp
-        int smallId = (int) (timestamp % 999999) + 1; // Ensures 1-999999
-        String id = "EXP" + String.format("%06d", smallId);
+        txtExportationID.setEditable(false);
+        long numericId;
+        try {
+            numericId = IdAllocator.EXPORTATIONS.nextId();
+        } catch (IllegalStateException e) {
+            logger.log(Level.WARNING, "Could not assign an exportation ID", e);
+            txtExportationID.setText("");
+            return;
+        }
+        String id = "EXP" + String.format("%06d", numericId);
         
         txtExportationID.setText(id);
-        txtExportationID.setEditable(false);
         
-        logger.info("Generated Exportation ID: " + id + " (numeric part: " + smallId + ")");
+        logger.info("Generated Exportation ID: " + id);
     }
     
     /**
-     * Generate a unique delivery ID that fits in your database
+     * Show that a new delivery gets its ID from the database when saved
+     * (the ID is the AUTO_INCREMENT key, shown as DELnnnnnn)
      */
     private void generateDeliveryId() {
-        // Generate a smaller, manageable ID instead of using full timestamp
-        long timestamp = System.currentTimeMillis();
-        
-        // Use last 6 digits of timestamp + offset to avoid conflicts
-        int smallId = (int) ((timestamp + 1000) % 999999) + 1; // Ensures 1-999999
-        String id = "DEL" + String.format("%06d", smallId);
-        
-        txtDeliveryID.setText(id);
+        txtDeliveryID.setText(NEW_DELIVERY_ID_TEXT);
         txtDeliveryID.setEditable(false);
-        
-        logger.info("Generated Delivery ID: " + id + " (numeric part: " + smallId + ")");
     }
     
     /**
@@ -1264,19 +1221,17 @@ public class ExportationDelivery extends JFrame {
     private void updateExportTotalPrice() {
         try {
             if (!txtUnitPrice.getText().trim().isEmpty() && !txtQuantity.getText().trim().isEmpty()) {
-                BigDecimal unitPrice = new BigDecimal(txtUnitPrice.getText().trim());
-                int quantity = Integer.parseInt(txtQuantity.getText().trim());
-                
-                BigDecimal totalPrice = unitPrice.multiply(new BigDecimal(quantity));
                 String currencyCode = (String) cmbCurrency.getSelectedItem();
+                Money unitPrice = Money.parse(txtUnitPrice.getText(), currencyCode);
+                int quantity = Integer.parseInt(txtQuantity.getText().trim());
                 
-                DecimalFormat df = new DecimalFormat("#,##0.00");
-                txtTotalPrice.setText(df.format(totalPrice) + " " + currencyCode);
+                Money totalPrice = unitPrice.times(quantity);
+                txtTotalPrice.setText(totalPrice.format());
                 
                 // Also update converted price
-                updateConvertedPrice(totalPrice, currencyCode);
+                updateConvertedPrice(totalPrice);
             }
-        } catch (NumberFormatException e) {
+        } catch (NumberFormatException | ArithmeticException e) {
             txtTotalPrice.setText("Invalid input");
         }
     }
@@ -1284,20 +1239,47 @@ public class ExportationDelivery extends JFrame {
     /**
      * Update the converted price
      */
-    private void updateConvertedPrice(BigDecimal amount, String fromCurrency) {
+    private void updateConvertedPrice(Money amount) {
         try {
             String toCurrency = (String) cmbTargetCurrency.getSelectedItem();
             
             // Convert currency
-            BigDecimal convertedAmount = convertCurrency(amount, fromCurrency, toCurrency);
-            
-            DecimalFormat df = new DecimalFormat("#,##0.00");
-            txtConvertedPrice.setText(df.format(convertedAmount) + " " + toCurrency);
+            txtConvertedPrice.setText(convertCurrency(amount, toCurrency).format());
         } catch (Exception e) {
             txtConvertedPrice.setText("Conversion error");
         }
     }
     
+    /**
+     * Fill in the distance for the selected destination and shipping method,
+     * unless the user has typed a distance of their own
+     */
+    private void updateEstimatedDistance() {
+        if (shippingCostPanel == null) {
+            return; // estimated when the shipping tab is built
+        }
+        String current = txtDistance.getText().trim();
+        if (!current.isEmpty() && !current.equals(estimatedDistance)) {
+            return;
+        }
+        Destination destination = Destination.fromName((String) cmbDestination.getSelectedItem());
+        TransportMode mode = TransportMode.fromShippingMethod((String) cmbShippingMethod.getSelectedItem());
+        int distance = mode != null ? ShippingDistanceService.distanceKm(destination, mode)
+                : ShippingDistanceService.NO_ROUTE;
+        
+        if (distance == ShippingDistanceService.NO_ROUTE) {
+            estimatedDistance = "";
+            txtDistance.setText("");
+            txtDistance.setToolTipText(null);
+        } else {
+            estimatedDistance = String.valueOf(distance);
+            txtDistance.setText(estimatedDistance);
+            txtDistance.setToolTipText("Estimated from " + ShippingDistanceService.nearestOrigin(destination, mode)
+                    .getDisplayName() + ", about " + ShippingDistanceService.transitDays(destination, mode)
+                    + " days in transit");
+        }
+    }
+    
     /**
      * Calculate shipping cost based on inputs
      */
@@ -1312,46 +1294,37 @@ public class ExportationDelivery extends JFrame {
                 return;
             }
             
-            double weight = Double.parseDouble(txtWeight.getText().trim());
-            double distance = Double.parseDouble(txtDistance.getText().trim());
+            BigDecimal weight = new BigDecimal(txtWeight.getText().trim());
+            BigDecimal distance = new BigDecimal(txtDistance.getText().trim());
             String method = (String) cmbShippingMethod.getSelectedItem();
             
-            // Calculate base cost based on shipping method and weight
-            double baseCost = 0;
-            if ("Air Freight".equals(method)) {
-                baseCost = 12.5 * weight + 0.75 * distance;
-            } else if ("Sea Freight".equals(method)) {
-                baseCost = 5.0 * weight + 0.2 * distance;
-            } else if ("Road Transport".equals(method)) {
-                baseCost = 2.5 * weight + 0.5 * distance;
-            } else if ("Rail Transport".equals(method)) {
-                baseCost = 3.0 * weight + 0.4 * distance;
-            } else if ("Express Courier".equals(method)) {
-                baseCost = 20.0 * weight + 1.0 * distance;
-            }
-            
             // Get additional costs
-            double additionalCosts = 0;
+            Money additionalCosts = null;
             if (!txtAdditionalCosts.getText().trim().isEmpty()) {
-                additionalCosts = Double.parseDouble(txtAdditionalCosts.getText().trim());
+                additionalCosts = Money.parse(txtAdditionalCosts.getText(), ShippingRateService.CURRENCY);
             }
             
-            // Calculate total cost
-            double totalCost = baseCost + additionalCosts;
+            ShippingQuote quote = ShippingRateService.quote(new ShipmentSpec(method, weight, distance,
+                    (String) cmbDestination.getSelectedItem(), additionalCosts));
+            calculatedShippingCost = quote.getTotal();
             
-            // Display results
-            DecimalFormat df = new DecimalFormat("#,##0.00");
-            txtBaseCost.setText(df.format(baseCost) + " USD");
-            txtTotalShippingCost.setText(df.format(totalCost) + " USD");
+            // Display results; surcharges are part of the base cost shown
+            txtBaseCost.setText(quote.getBaseCost().plus(quote.getSurcharges()).format());
+            txtTotalShippingCost.setText(calculatedShippingCost.format());
             
             // Update converted cost
             updateShippingConvertedCost();
             
-        } catch (NumberFormatException e) {
+        } catch (NumberFormatException | ArithmeticException e) {
             JOptionPane.showMessageDialog(this,
                     "Please enter valid numeric values for weight, distance, and costs",
                     "Invalid Input",
                     JOptionPane.ERROR_MESSAGE);
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this,
+                    e.getMessage(),
+                    "Invalid Input",
+                    JOptionPane.ERROR_MESSAGE);
         }
     }
     
@@ -1360,19 +1333,9 @@ public class ExportationDelivery extends JFrame {
      */
     private void updateShippingConvertedCost() {
         try {
-            if (!txtTotalShippingCost.getText().isEmpty() && !txtTotalShippingCost.getText().equals("Invalid input")) {
-                // Extract the numeric part from the shipping cost
-                String totalCostText = txtTotalShippingCost.getText();
-                String amountStr = totalCostText.replace(",", "").replace(" USD", "");
-                
-                BigDecimal totalCost = new BigDecimal(amountStr);
+            if (calculatedShippingCost != null) {
                 String toCurrency = (String) cmbShippingCurrency.getSelectedItem();
-                
-                // Convert from USD to selected currency
-                BigDecimal convertedCost = convertCurrency(totalCost, "USD", toCurrency);
-                
-                DecimalFormat df = new DecimalFormat("#,##0.00");
-                txtShippingConvertedCost.setText(df.format(convertedCost) + " " + toCurrency);
+                txtShippingConvertedCost.setText(convertCurrency(calculatedShippingCost, toCurrency).format());
             }
         } catch (Exception e) {
             txtShippingConvertedCost.setText("Conversion error");
@@ -1384,16 +1347,19 @@ public class ExportationDelivery extends JFrame {
      * Enhanced save method that handles large IDs properly
      */
     private void saveAllData() {
+        // Saving reads every tab, so build any the user never opened
+        ensureDeliveryTab();
+        ensureShippingTab();
         try {
             // Validate exportation data
             if (!validateExportationData()) {
-                tabbedPane.setSelectedIndex(0); // Switch to exportation tab
+                tabbedPane.setSelectedIndex(EXPORTATION_TAB);
                 return;
             }
             
             // Validate delivery data
             if (!validateDeliveryData()) {
-                tabbedPane.setSelectedIndex(1); // Switch to delivery tab
+                tabbedPane.setSelectedIndex(DELIVERY_TAB);
                 return;
             }
             
@@ -1410,12 +1376,10 @@ public class ExportationDelivery extends JFrame {
             exportation.setDestination((String) cmbDestination.getSelectedItem());
             exportation.setExportationDate(dateExport.getDate());
             
+            exportation.setCurrency((String) cmbCurrency.getSelectedItem());
             if (!txtUnitPrice.getText().trim().isEmpty()) {
-                BigDecimal unitPrice = new BigDecimal(txtUnitPrice.getText().trim());
-                exportation.setUnitPrice(unitPrice);
+                exportation.setUnitPrice(Money.parse(txtUnitPrice.getText(), exportation.getCurrency()));
             }
-            
-            exportation.setCurrency((String) cmbCurrency.getSelectedItem());
             exportation.setHasDelivery(true);
             
             // Create delivery DTO
@@ -1446,21 +1410,9 @@ public class ExportationDelivery extends JFrame {
             delivery.setNotes(txtNotes.getText().trim());
             
             // Save shipping cost information if calculated
-            if (!txtTotalShippingCost.getText().trim().isEmpty() && 
-                !txtTotalShippingCost.getText().equals("Invalid input")) {
-                
-                // Extract shipping cost value
-                String totalCostText = txtTotalShippingCost.getText();
-                String amountStr = totalCostText.replace(",", "").replace(" USD", "");
-                
-                try {
-                    double shippingCost = Double.parseDouble(amountStr);
-                    delivery.setShippingCost(shippingCost);
-                    delivery.setShippingMethod((String) cmbShippingMethod.getSelectedItem());
-                    delivery.setShippingCurrency("USD"); // Default currency
-                } catch (NumberFormatException e) {
-                    logger.log(Level.WARNING, "Error parsing shipping cost", e);
-                }
+            if (calculatedShippingCost != null) {
+                delivery.setShippingCost(calculatedShippingCost);
+                delivery.setShippingMethod((String) cmbShippingMethod.getSelectedItem());
             }
             
             logger.info("Attempting to save:");
@@ -1518,9 +1470,13 @@ public class ExportationDelivery extends JFrame {
     private boolean validateExportationData() {
         StringBuilder errors = new StringBuilder();
         
-        // Check required fields
+        // Check required fields; retry the ID if the database was down when
+        // the form opened
+        if (txtExportationID.getText().trim().isEmpty() && !isEditMode) {
+            generateExportationId();
+        }
         if (txtExportationID.getText().trim().isEmpty()) {
-            errors.append("Exportation ID is required\n");
+            errors.append("Exportation ID is required (is the database reachable?)\n");
         }
         
         if (txtQuantity.getText().trim().isEmpty()) {
@@ -1645,29 +1601,37 @@ public class ExportationDelivery extends JFrame {
         txtConvertedPrice.setText("");
         cmbTargetCurrency.setSelectedIndex(0);
         
-        // Clear delivery fields
-        txtDeliveryID.setText("");
-        txtCarrierName.setText("");
-        txtTrackingNumber.setText("");
-        txtAddress.setText("");
-        txtContactPerson.setText("");
-        txtContactPhone.setText("");
-        dateDelivery.setDate(new Date());
-        cmbStatus.setSelectedIndex(0);
-        txtNotes.setText("");
+        // Clear delivery fields; a tab not built yet has nothing to clear
+        if (deliveryPanel != null) {
+            txtDeliveryID.setText("");
+            txtCarrierName.setText("");
+            txtTrackingNumber.setText("");
+            txtAddress.setText("");
+            txtContactPerson.setText("");
+            txtContactPhone.setText("");
+            dateDelivery.setDate(new Date());
+            cmbStatus.setSelectedIndex(0);
+            txtNotes.setText("");
+        }
         
         // Clear shipping cost fields
-        txtWeight.setText("");
-        txtDistance.setText("");
-        txtBaseCost.setText("");
-        txtAdditionalCosts.setText("");
-        txtTotalShippingCost.setText("");
-        txtShippingConvertedCost.setText("");
-        cmbShippingCurrency.setSelectedIndex(0);
+        calculatedShippingCost = null;
+        if (shippingCostPanel != null) {
+            txtWeight.setText("");
+            txtDistance.setText("");
+            updateEstimatedDistance();
+            txtBaseCost.setText("");
+            txtAdditionalCosts.setText("");
+            txtTotalShippingCost.setText("");
+            txtShippingConvertedCost.setText("");
+            cmbShippingCurrency.setSelectedIndex(0);
+        }
         
         // Generate new IDs
         generateExportationId();
-        generateDeliveryId();
+        if (deliveryPanel != null) {
+            generateDeliveryId();
+        }
     }
     
     /**
@@ -1693,7 +1657,7 @@ public class ExportationDelivery extends JFrame {
         }
         
         if (dto.getUnitPrice() != null) {
-            txtUnitPrice.setText(dto.getUnitPrice().toString());
+            txtUnitPrice.setText(dto.getUnitPrice().toPlainString());
         }
         
         if (dto.getCurrency() != null) {
@@ -1710,6 +1674,9 @@ public class ExportationDelivery extends JFrame {
     private void populateDeliveryFields(Delivery_InfDTO dto) {
         if (dto == null) return;
         
+        ensureDeliveryTab();
+        ensureShippingTab();
+        
         txtDeliveryID.setText(dto.getDeliveryId());
         txtCarrierName.setText(dto.getCarrierName());
         txtTrackingNumber.setText(dto.getTrackingNumber());
@@ -1723,10 +1690,13 @@ public class ExportationDelivery extends JFrame {
             dateDelivery.setDate(dto.getDate());
         }
         
-        if (dto.getDeliveryStatus() != null) {
-            cmbStatus.setSelectedItem(dto.getDeliveryStatus());
-        } else if (dto.getStatus() != null) {
-            cmbStatus.setSelectedItem(dto.getStatus());
+        // Stored spellings vary ("PENDING", "In Transit"); select the matching entry
+        DeliveryStatus status = DeliveryStatus.parse(dto.getDeliveryStatus());
+        if (status == null) {
+            status = DeliveryStatus.parse(dto.getStatus());
+        }
+        if (status != null) {
+            cmbStatus.setSelectedItem(status.getDisplayName());
         }
         
         if (dto.getNotes() != null) {
@@ -1738,9 +1708,9 @@ public class ExportationDelivery extends JFrame {
             cmbShippingMethod.setSelectedItem(dto.getShippingMethod());
         }
         
-        if (dto.getShippingCost() > 0) {
-            DecimalFormat df = new DecimalFormat("#,##0.00");
-            txtTotalShippingCost.setText(df.format(dto.getShippingCost()) + " USD");
+        if (dto.getShippingCost() != null && dto.getShippingCost().signum() > 0) {
+            calculatedShippingCost = dto.getShippingCost();
+            txtTotalShippingCost.setText(calculatedShippingCost.format());
             updateShippingConvertedCost();
         }
     }
@@ -1750,25 +1720,29 @@ public class ExportationDelivery extends JFrame {
      */
     public void testTrackingGeneration() {
         logger.info("Testing tracking number generation...");
-        logger.info("Format: TRK + 9 digits + Country Code");
+        ensureDeliveryTab();
+        logger.info("Format: TRK + 8 digits + check digit + Country Code");
         
         String[] testCountries = {"United States", "Canada", "Mexico", "United Kingdom", "Germany", "Japan", "Other"};
         
-        for (String country : testCountries) {
-            cmbDestination.setSelectedItem(country);
-            generateTrackingNumber();
-            String trackingNumber = txtTrackingNumber.getText();
-            logger.info("Country: " + country + " -> Tracking: " + trackingNumber);
-            
-            // Validate format
-            String countryCode = COUNTRY_ABBREVIATIONS.get(country);
-            if (countryCode == null) countryCode = "XX";
-            
-            boolean validFormat = trackingNumber.startsWith("TRK") && 
-                                trackingNumber.endsWith(countryCode) && 
-                                trackingNumber.length() == (3 + 9 + countryCode.length());
-            logger.info("Format validation: " + (validFormat ? "PASS" : "FAIL"));
-        }
+        // Generation may query the database, so keep it off the EDT
+        AppExecutors.submit(TaskType.DB_IO, () -> {
+            for (String country : testCountries) {
+                String countryCode = Destination.fromName(country).getCode();
+                String trackingNumber = TrackingNumberService.generate(countryCode);
+                logger.info("Country: " + country + " -> Tracking: " + trackingNumber);
+                
+                // Validate format
+                boolean validFormat = TrackingNumberService.isValid(trackingNumber) && 
+                                    trackingNumber.endsWith(countryCode);
+                logger.info("Format validation: " + (validFormat ? "PASS" : "FAIL"));
+            }
+            return null;
+        }).whenComplete((ignored, error) -> {
+            if (error != null) {
+                logger.log(Level.WARNING, "Tracking number test failed", AppExecutors.unwrap(error));
+            }
+        });
     }
     
     /**
@@ -1776,6 +1750,7 @@ public class ExportationDelivery extends JFrame {
      */
     public static void main(String args[]) {
         // No look and feel setting - just start the application
+        EdtWatchdog.install();
         SwingUtilities.invokeLater(new Runnable() {
             @Override
             public void run() {
@@ -0,0 +1,180 @@
+package exportation_panelera.View;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import javax.swing.RowFilter;
+import javax.swing.table.TableModel;
+
+/**
+ * Substring filter over the rows loaded in a table.
+ *
+ * Built once per load: every cell is lowercased into per-column arrays, and
+ * every trigram of every row is recorded in a posting list of row numbers.
+ * A filter of three or more characters only checks the rows holding all of
+ * its trigrams; shorter filters scan the prepared arrays. Either way no cell
+ * is converted or lowercased per keystroke. Immutable; build a new index
+ * whenever the table rows change.
+ */
+final class LocalFilterIndex {
+
+    private final int rowCount;
+    private final String[][] columns; // [column][row], lowercased, never null
+    private final Map<Long, int[]> postings;
+
+    private LocalFilterIndex(int rowCount, String[][] columns, Map<Long, int[]> postings) {
+        this.rowCount = rowCount;
+        this.columns = columns;
+        this.postings = postings;
+    }
+
+    /**
+     * Index the current rows of a table model
+     */
+    static LocalFilterIndex build(TableModel model) {
+        int rows = model.getRowCount();
+        int columnCount = model.getColumnCount();
+        String[][] columns = new String[columnCount][rows];
+        Map<Long, IntList> lists = new HashMap<>();
+        for (int row = 0; row < rows; row++) {
+            for (int c = 0; c < columnCount; c++) {
+                Object value = model.getValueAt(row, c);
+                String text = value != null ? value.toString().toLowerCase(Locale.ROOT) : "";
+                columns[c][row] = text;
+                for (int i = 0; i + 3 <= text.length(); i++) {
+                    lists.computeIfAbsent(trigram(text, i), k -> new IntList()).addOnce(row);
+                }
+            }
+        }
+        Map<Long, int[]> postings = new HashMap<>(lists.size() * 4 / 3 + 1);
+        for (Map.Entry<Long, IntList> entry : lists.entrySet()) {
+            postings.put(entry.getKey(), entry.getValue().toArray());
+        }
+        return new LocalFilterIndex(rows, columns, postings);
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Rows where any of the given columns contains the text, ignoring case
+     */
+    BitSet matchContains(String text, int... columnIndexes) {
+        String query = text.toLowerCase(Locale.ROOT);
+        BitSet result = new BitSet(rowCount);
+        for (int row : candidates(query)) {
+            for (int c : columnIndexes) {
+                if (columns[c][row].contains(query)) {
+                    result.set(row);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Rows whose column equals the text, ignoring case
+     */
+    BitSet matchEquals(String text, int columnIndex) {
+        String query = text.toLowerCase(Locale.ROOT);
+        BitSet result = new BitSet(rowCount);
+        for (int row : candidates(query)) {
+            if (columns[columnIndex][row].equals(query)) {
+                result.set(row);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Row filter showing the rows of a match
+     */
+    static RowFilter<TableModel, Integer> asRowFilter(BitSet rows) {
+        return new RowFilter<TableModel, Integer>() {
+            @Override
+            public boolean include(Entry<? extends TableModel, ? extends Integer> entry) {
+                return rows.get(entry.getIdentifier());
+            }
+        };
+    }
+
+    // ============= HELPERS =============
+
+    /**
+     * Rows that may contain the text: the intersection of its trigram
+     * posting lists, or every row for shorter text
+     */
+    private int[] candidates(String query) {
+        if (query.length() < 3) {
+            int[] all = new int[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        int[][] lists = new int[query.length() - 2][];
+        for (int i = 0; i + 3 <= query.length(); i++) {
+            int[] list = postings.get(trigram(query, i));
+            if (list == null) {
+                return new int[0];
+            }
+            lists[i] = list;
+        }
+        // Shortest list first keeps every intersection small
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+        int[] result = lists[0];
+        for (int i = 1; i < lists.length && result.length > 0; i++) {
+            result = intersect(result, lists[i]);
+        }
+        return result;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static long trigram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+
+    /**
+     * Ascending row numbers; rows are added in order, so duplicates are adjacent
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size = 0;
+
+        void addOnce(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -11,6 +11,12 @@ import java.util.logging.Logger;
 import exportation_panelera.View.ExportationDelivery;
 import exportation_panelera.View.SignInForm;
 import exportation_panelera.View.DeliveryManagementForm;
+import exportation_panelera.concurrent.AppExecutors;
+import exportation_panelera.concurrent.TaskType;
+import exportation_panelera.metrics.EdtWatchdog;
+import exportation_panelera.metrics.PerformanceMetrics;
+import exportation_panelera.service.AuthenticationService;
+import exportation_panelera.service.DeliveryArchiveService;
 
 /**
  * Main View for the Exportation Panelera Management System
@@ -32,8 +38,12 @@ public class MainView extends JFrame {
     private JLabel lblTitle;
     private JButton btnExportation;
     private JButton btnDelivery;
+    private JButton btnDiagnostics;
     private JButton btnSignout;
     
+    // Built on first open, then hidden and reset instead of rebuilt
+    private ExportationDelivery exportationForm;
+    
     // Constructor
     public MainView() {
         setTitle("Exportation Panelera");
@@ -41,6 +51,8 @@ public class MainView extends JFrame {
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
         initComponents();
+        PerformanceMetrics.startSampling();
+        DeliveryArchiveService.scheduleArchiving();
         logger.log(Level.INFO, "Main View initialized");
     }
     
@@ -67,15 +79,17 @@ public class MainView extends JFrame {
         JPanel navigationPanel = new JPanel();
         navigationPanel.setBackground(PANEL_COLOR);
         navigationPanel.setBorder(BorderFactory.createEmptyBorder(30, 30, 30, 30));
-        navigationPanel.setLayout(new GridLayout(3, 1, 0, 20));
+        navigationPanel.setLayout(new GridLayout(4, 1, 0, 20));
         
         // Create buttons
         btnExportation = createNavigationButton("Exportation Information", "View and manage exportation data");
         btnDelivery = createNavigationButton("Delivery Information", "Track and manage deliveries");
+        btnDiagnostics = createNavigationButton("Performance Diagnostics", "Show live performance metrics");
         btnSignout = createNavigationButton("Sign Out", "Exit the application");
         
         navigationPanel.add(btnExportation);
         navigationPanel.add(btnDelivery);
+        navigationPanel.add(btnDiagnostics);
         navigationPanel.add(btnSignout);
         
         // Add to main panel
@@ -97,6 +111,13 @@ public class MainView extends JFrame {
             }
         });
         
+        btnDiagnostics.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                openPerformanceDashboard();
+            }
+        });
+        
         btnSignout.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
@@ -135,9 +156,22 @@ public class MainView extends JFrame {
         // Open the exportation information form
         try {
             logger.log(Level.INFO, "Opening Exportation Information form");
+            long start = System.nanoTime();
             // Use the unified ExportationDelivery form
-            ExportationDelivery exportationForm = new ExportationDelivery();
+            if (exportationForm == null) {
+                exportationForm = new ExportationDelivery();
+                exportationForm.setDefaultCloseOperation(JFrame.HIDE_ON_CLOSE);
+                exportationForm.addComponentListener(new java.awt.event.ComponentAdapter() {
+                    @Override
+                    public void componentHidden(java.awt.event.ComponentEvent e) {
+                        setVisible(true); // Back to the main view
+                    }
+                });
+            } else {
+                exportationForm.resetForNewEntry();
+            }
             exportationForm.setVisible(true);
+            PerformanceMetrics.recordLatency("ui.openExportationForm", System.nanoTime() - start, false);
             this.setVisible(false); // Hide main view
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error opening Exportation Information", e);
@@ -162,6 +196,19 @@ public class MainView extends JFrame {
         }
     }
     
+    private void openPerformanceDashboard() {
+        // Diagnostics window stays open alongside the main view
+        try {
+            logger.log(Level.INFO, "Opening Performance Diagnostics");
+            PerformanceDashboard.showDashboard();
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error opening Performance Diagnostics", e);
+            JOptionPane.showMessageDialog(this, 
+                "Error opening Performance Diagnostics: " + e.getMessage(),
+                "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+    
     private void signOut() {
         // Sign out and return to login screen
         int option = JOptionPane.showConfirmDialog(this,
@@ -170,6 +217,17 @@ public class MainView extends JFrame {
             
         if (option == JOptionPane.YES_OPTION) {
             logger.log(Level.INFO, "User signing out");
+            // Write pending last_login updates, then stop background work of
+            // this session; executors restart on next use
+            AppExecutors.submit(TaskType.DB_IO, () -> {
+                AuthenticationService.flushLastLogins();
+                return null;
+            });
+            AppExecutors.shutdown();
+            if (exportationForm != null) {
+                exportationForm.dispose();
+                exportationForm = null;
+            }
             SignInForm signingForm = new SignInForm();
             signingForm.setVisible(true);
             this.dispose(); // Close main view
@@ -193,6 +251,8 @@ public class MainView extends JFrame {
             Logger.getLogger(MainView.class.getName()).log(Level.SEVERE, "Error setting look and feel", e);
         }
         
+        EdtWatchdog.install();
+        
         java.awt.EventQueue.invokeLater(new Runnable() {
             public void run() {
                 new MainView().setVisible(true);
@@ -0,0 +1,326 @@
+package exportation_panelera.View;
+
+import exportation_panelera.metrics.LatencyRecorder;
+import exportation_panelera.metrics.MetricsSnapshot;
+import exportation_panelera.metrics.PerformanceMetrics;
+
+import java.awt.BasicStroke;
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GridLayout;
+import java.awt.RenderingHints;
+import java.awt.Toolkit;
+import java.awt.datatransfer.StringSelection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JSplitPane;
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import javax.swing.WindowConstants;
+import javax.swing.table.DefaultTableModel;
+
+/**
+ * Diagnostics window showing live performance metrics.
+ * Data is collected by the {@link PerformanceMetrics} background sampler;
+ * this window only renders the latest sample and the recent history.
+ */
+public class PerformanceDashboard extends JFrame {
+    private static final Logger logger = Logger.getLogger(PerformanceDashboard.class.getName());
+
+    private static final Color PRIMARY_COLOR = new Color(24, 53, 103);
+    private static final Color BACKGROUND_COLOR = new Color(245, 245, 245);
+    private static final Color HEAP_COLOR = new Color(0, 119, 182);
+    private static final Color GC_COLOR = new Color(231, 76, 60);
+    private static final Font VALUE_FONT = new Font("Segoe UI", Font.BOLD, 14);
+    private static final Font TITLE_FONT = new Font("Segoe UI", Font.PLAIN, 11);
+
+    private static PerformanceDashboard instance;
+
+    private JLabel lblPool;
+    private JLabel lblLatency;
+    private JLabel lblCache;
+    private JLabel lblEdt;
+    private JLabel lblHeap;
+    private JLabel lblGc;
+    private DefaultTableModel latencyModel;
+    private DefaultTableModel counterModel;
+    private HistoryChart historyChart;
+
+    private final Consumer<MetricsSnapshot> sampleListener =
+            snapshot -> SwingUtilities.invokeLater(this::refresh);
+
+    /**
+     * Show the dashboard, reusing the open window if there is one
+     */
+    public static void showDashboard() {
+        if (instance == null || !instance.isDisplayable()) {
+            instance = new PerformanceDashboard();
+        }
+        instance.setVisible(true);
+        instance.toFront();
+    }
+
+    private PerformanceDashboard() {
+        setTitle("Performance Diagnostics");
+        setSize(900, 650);
+        setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+        setLocationRelativeTo(null);
+        initComponents();
+
+        PerformanceMetrics.startSampling();
+        PerformanceMetrics.addSampleListener(sampleListener);
+        refresh();
+        logger.info("Performance dashboard opened");
+    }
+
+    private void initComponents() {
+        JPanel mainPanel = new JPanel(new BorderLayout(10, 10));
+        mainPanel.setBackground(BACKGROUND_COLOR);
+        mainPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        // Summary tiles
+        JPanel summaryPanel = new JPanel(new GridLayout(2, 3, 10, 10));
+        summaryPanel.setOpaque(false);
+        lblPool = new JLabel();
+        lblLatency = new JLabel();
+        lblCache = new JLabel();
+        lblEdt = new JLabel();
+        lblHeap = new JLabel();
+        lblGc = new JLabel();
+        summaryPanel.add(createTile("Connections (total / active / idle / waiting)", lblPool));
+        summaryPanel.add(createTile("Slowest operation (p95)", lblLatency));
+        summaryPanel.add(createTile("Cache hit ratio", lblCache));
+        summaryPanel.add(createTile("EDT lag / blocked total", lblEdt));
+        summaryPanel.add(createTile("Heap used / max", lblHeap));
+        summaryPanel.add(createTile("GC collections / pause (last interval)", lblGc));
+
+        // Latency table
+        latencyModel = new DefaultTableModel(new Object[] {
+            "Operation", "Count", "Errors", "Mean ms", "p50 ms", "p95 ms", "p99 ms", "Max ms"
+        }, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JTable latencyTable = new JTable(latencyModel);
+        latencyTable.setFillsViewportHeight(true);
+        latencyTable.getColumnModel().getColumn(0).setPreferredWidth(200);
+        JScrollPane latencyScroll = new JScrollPane(latencyTable);
+        latencyScroll.setBorder(BorderFactory.createTitledBorder("Query latency by operation"));
+
+        // Caches and counters table
+        counterModel = new DefaultTableModel(new Object[] {"Metric", "Value"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JTable counterTable = new JTable(counterModel);
+        counterTable.setFillsViewportHeight(true);
+        JScrollPane counterScroll = new JScrollPane(counterTable);
+        counterScroll.setBorder(BorderFactory.createTitledBorder("Caches and counters"));
+
+        historyChart = new HistoryChart();
+        historyChart.setBorder(BorderFactory.createTitledBorder("Heap (blue) and GC pauses (red), last 5 minutes"));
+
+        JSplitPane bottomSplit = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, counterScroll, historyChart);
+        bottomSplit.setResizeWeight(0.4);
+        JSplitPane centerSplit = new JSplitPane(JSplitPane.VERTICAL_SPLIT, latencyScroll, bottomSplit);
+        centerSplit.setResizeWeight(0.55);
+
+        // Buttons
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.setOpaque(false);
+        JButton btnCopy = new JButton("Copy Report");
+        btnCopy.setToolTipText("Copy a text report to the clipboard for support requests");
+        btnCopy.addActionListener(e -> copyReport());
+        JButton btnClose = new JButton("Close");
+        btnClose.addActionListener(e -> dispose());
+        buttonPanel.add(btnCopy);
+        buttonPanel.add(btnClose);
+
+        mainPanel.add(summaryPanel, BorderLayout.NORTH);
+        mainPanel.add(centerSplit, BorderLayout.CENTER);
+        mainPanel.add(buttonPanel, BorderLayout.SOUTH);
+        setContentPane(mainPanel);
+    }
+
+    private JPanel createTile(String title, JLabel valueLabel) {
+        JPanel tile = new JPanel(new BorderLayout());
+        tile.setBackground(Color.WHITE);
+        tile.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(new Color(220, 220, 220)),
+                BorderFactory.createEmptyBorder(6, 8, 6, 8)));
+        JLabel lblTitle = new JLabel(title);
+        lblTitle.setFont(TITLE_FONT);
+        lblTitle.setForeground(Color.GRAY);
+        valueLabel.setFont(VALUE_FONT);
+        valueLabel.setForeground(PRIMARY_COLOR);
+        tile.add(lblTitle, BorderLayout.NORTH);
+        tile.add(valueLabel, BorderLayout.CENTER);
+        return tile;
+    }
+
+    /**
+     * Update all panels from the latest metrics. Runs on the EDT.
+     */
+    private void refresh() {
+        MetricsSnapshot latest = PerformanceMetrics.getLatestSnapshot();
+        if (latest != null) {
+            lblPool.setText(latest.getPoolTotal() + " / " + latest.getPoolActive() + " / "
+                    + latest.getPoolIdle() + " / " + latest.getPoolWaiting());
+            lblEdt.setText(latest.getEdtLagMillis() + " ms / " + latest.getEdtBlockedMillis() + " ms");
+            lblHeap.setText(PerformanceMetrics.toMegabytes(latest.getHeapUsed()) + " MB / "
+                    + (latest.getHeapMax() < 0 ? "unbounded" : PerformanceMetrics.toMegabytes(latest.getHeapMax()) + " MB"));
+            lblGc.setText(latest.getGcCount() + " / " + latest.getGcPauseMillisSinceLast() + " ms");
+        }
+
+        double ratio = PerformanceMetrics.getCacheHitRatio();
+        lblCache.setText(ratio < 0 ? "n/a" : String.format("%.1f%%", ratio * 100));
+
+        List<LatencyRecorder.Stats> stats = PerformanceMetrics.getLatencyStats();
+        latencyModel.setRowCount(0);
+        LatencyRecorder.Stats slowest = null;
+        for (LatencyRecorder.Stats s : stats) {
+            latencyModel.addRow(new Object[] {
+                s.getOperation(), s.getCount(), s.getErrors(),
+                formatMillis(s.getMeanNanos()), formatMillis(s.getP50Nanos()),
+                formatMillis(s.getP95Nanos()), formatMillis(s.getP99Nanos()),
+                formatMillis(s.getMaxNanos())
+            });
+            if (slowest == null || s.getP95Nanos() > slowest.getP95Nanos()) {
+                slowest = s;
+            }
+        }
+        lblLatency.setText(slowest == null ? "no queries yet"
+                : slowest.getOperation() + " " + formatMillis(slowest.getP95Nanos()) + " ms");
+
+        counterModel.setRowCount(0);
+        for (Map.Entry<String, long[]> entry : PerformanceMetrics.getCacheStats().entrySet()) {
+            long hits = entry.getValue()[0];
+            long misses = entry.getValue()[1];
+            long total = hits + misses;
+            counterModel.addRow(new Object[] {
+                "cache." + entry.getKey(),
+                hits + " hits / " + misses + " misses"
+                    + (total > 0 ? String.format(" (%.1f%%)", hits * 100.0 / total) : "")
+            });
+        }
+        for (Map.Entry<String, Long> entry : PerformanceMetrics.getCounters().entrySet()) {
+            counterModel.addRow(new Object[] {entry.getKey(), entry.getValue()});
+        }
+        for (Map.Entry<String, Long> entry : PerformanceMetrics.getGauges().entrySet()) {
+            counterModel.addRow(new Object[] {entry.getKey(), entry.getValue()});
+        }
+
+        historyChart.setHistory(PerformanceMetrics.getHistory());
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format("%.1f", PerformanceMetrics.toMillis(nanos));
+    }
+
+    private void copyReport() {
+        String report = PerformanceMetrics.formatReport();
+        Toolkit.getDefaultToolkit().getSystemClipboard().setContents(new StringSelection(report), null);
+        logger.info(report);
+        JOptionPane.showMessageDialog(this, "Performance report copied to the clipboard.",
+                "Performance Diagnostics", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    @Override
+    public void dispose() {
+        PerformanceMetrics.removeSampleListener(sampleListener);
+        if (instance == this) {
+            instance = null;
+        }
+        super.dispose();
+    }
+
+    /**
+     * Simple line chart of heap usage with GC pause bars
+     */
+    private static class HistoryChart extends JPanel {
+        private List<MetricsSnapshot> history = java.util.Collections.emptyList();
+
+        HistoryChart() {
+            setBackground(Color.WHITE);
+            setPreferredSize(new Dimension(400, 180));
+        }
+
+        void setHistory(List<MetricsSnapshot> history) {
+            this.history = history;
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            if (history.size() < 2) {
+                return;
+            }
+            Graphics2D g2 = (Graphics2D) g.create();
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+            int left = 10;
+            int top = 25;
+            int width = getWidth() - 20;
+            int height = getHeight() - 35;
+            if (width <= 0 || height <= 0) {
+                g2.dispose();
+                return;
+            }
+
+            long maxHeap = 1;
+            long maxPause = 1;
+            for (MetricsSnapshot s : history) {
+                maxHeap = Math.max(maxHeap, s.getHeapMax() > 0 ? s.getHeapMax() : s.getHeapCommitted());
+                maxPause = Math.max(maxPause, s.getGcPauseMillisSinceLast());
+            }
+
+            double step = (double) width / (history.size() - 1);
+
+            // GC pause bars
+            g2.setColor(GC_COLOR);
+            for (int i = 0; i < history.size(); i++) {
+                long pause = history.get(i).getGcPauseMillisSinceLast();
+                if (pause > 0) {
+                    int barHeight = (int) Math.max(1, pause * (height / 3.0) / maxPause);
+                    g2.fillRect(left + (int) (i * step), top + height - barHeight, 2, barHeight);
+                }
+            }
+
+            // Heap line
+            g2.setColor(HEAP_COLOR);
+            g2.setStroke(new BasicStroke(1.5f));
+            int prevX = -1;
+            int prevY = -1;
+            for (int i = 0; i < history.size(); i++) {
+                int x = left + (int) (i * step);
+                int y = top + height - (int) (history.get(i).getHeapUsed() * (double) height / maxHeap);
+                if (prevX >= 0) {
+                    g2.drawLine(prevX, prevY, x, y);
+                }
+                prevX = x;
+                prevY = y;
+            }
+            g2.dispose();
+        }
+    }
+}
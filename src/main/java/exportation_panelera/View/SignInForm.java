@@ -1,7 +1,11 @@
     package exportation_panelera.View;
 
+    import exportation_panelera.Launcher;
     import exportation_panelera.Model.LoginDTO;
-    import exportation_panelera.dao.UserDAO;
+    import exportation_panelera.concurrent.AppExecutors;
+    import exportation_panelera.concurrent.TaskType;
+    import exportation_panelera.controller.AppStartup;
+    import exportation_panelera.service.AuthenticationService;
 
     import javax.swing.*;
     import javax.swing.border.CompoundBorder;
@@ -53,19 +57,28 @@
         private JProgressBar progressBar;
         private JCheckBox chkShowPassword;
 
-        // Data and controllers
-        private UserDAO userDAO;
+        // State
         private boolean isAuthenticating = false;
+        private boolean showingStartupProgress = false;
 
         /**
          * Creates new Sign In form
          */
         public SignInForm() {
-            userDAO = new UserDAO();
             initComponents();
             customizeUI();
             setupEventHandlers();
             setLocationRelativeTo(null); // Center on screen
+
+            // Connect and load the main windows while the user types, once
+            // the form is on screen so none of it delays the first frame
+            addWindowListener(new java.awt.event.WindowAdapter() {
+                @Override
+                public void windowOpened(java.awt.event.WindowEvent e) {
+                    AppStartup.warmUp(message -> SwingUtilities.invokeLater(() -> showStartupProgress(message)))
+                            .whenComplete((ignored, error) -> SwingUtilities.invokeLater(() -> clearStartupProgress()));
+                }
+            });
         }
 
         /**
@@ -337,43 +350,41 @@
             setButtonsEnabled(false);
             showProgress("Authenticating...");
 
-            // Use SwingWorker for background authentication
-            SwingWorker<Boolean, Void> authWorker = new SwingWorker<Boolean, Void>() {
-                @Override
-                protected Boolean doInBackground() throws Exception {
-                    // Simulate some processing time for better UX
-                    Thread.sleep(1000);
-
-                    // Perform actual authentication
-                    return userDAO.authenticateUser(loginDTO.getUsername(), loginDTO.getPassword());
-                }
-
-                @Override
-                protected void done() {
-                    try {
-                        boolean authenticated = get();
-                        handleAuthenticationResult(authenticated, loginDTO);
-                    } catch (Exception e) {
+            AppExecutors.submit(TaskType.DB_IO,
+                    () -> AuthenticationService.authenticate(loginDTO.getUsername(), loginDTO.getPassword()),
+                    result -> {
+                        try {
+                            handleAuthenticationResult(result, loginDTO);
+                        } finally {
+                            finishAuthentication();
+                        }
+                    },
+                    e -> {
                         logger.log(Level.SEVERE, "Authentication error", e);
                         showError("Authentication failed: " + e.getMessage());
-                    } finally {
-                        isAuthenticating = false;
-                        setButtonsEnabled(true);
-                        hideProgress();
-                    }
-                }
-            };
+                        finishAuthentication();
+                    });
+        }
 
-            authWorker.execute();
+        /**
+         * Restore the form after an authentication attempt
+         */
+        private void finishAuthentication() {
+            isAuthenticating = false;
+            setButtonsEnabled(true);
+            hideProgress();
         }
 
         /**
          * Handle the result of authentication attempt
          */
-        private void handleAuthenticationResult(boolean authenticated, LoginDTO loginDTO) {
-            if (authenticated) {
+        private void handleAuthenticationResult(AuthenticationService.Result result, LoginDTO loginDTO) {
+            if (result == AuthenticationService.Result.SUCCESS) {
                 showSuccess("Sign in successful!");
 
+                // Load the delivery grid's first data while the success message shows
+                AppStartup.prefetch(DeliveryManagementForm.PAGE_SIZE);
+
                 // Clear sensitive data
                 // Clear sensitive data
                loginDTO.clearSensitiveData();
@@ -386,6 +397,10 @@
                timer.setRepeats(false);
                timer.start();
 
+           } else if (result == AuthenticationService.Result.LOCKED_OUT) {
+               showError("Too many failed attempts. Try again in "
+                   + AuthenticationService.getLockoutRemainingSeconds(loginDTO.getUsername()) + " seconds");
+               txtPassword.setText("");
            } else {
                showError("Invalid username or password");
                txtPassword.setText("");
@@ -486,10 +501,35 @@
            progressBar.setVisible(false);
        }
 
+       /**
+        * Show database migration progress unless a sign-in is running or
+        * its outcome is on screen
+        */
+       private void showStartupProgress(String message) {
+           if (isAuthenticating || (!showingStartupProgress && !lblStatus.getText().trim().isEmpty())) {
+               return;
+           }
+           lblStatus.setText(message);
+           lblStatus.setForeground(SECONDARY_COLOR);
+           lblStatus.setIcon(null);
+           showingStartupProgress = true;
+       }
+
+       /**
+        * Remove the migration progress once the startup work is done
+        */
+       private void clearStartupProgress() {
+           if (showingStartupProgress && !isAuthenticating) {
+               clearStatus();
+           }
+           showingStartupProgress = false;
+       }
+
        /**
         * Clear status message
         */
        private void clearStatus() {
+           showingStartupProgress = false;
            lblStatus.setText(" ");
            lblStatus.setIcon(null);
            hideProgress();
@@ -634,17 +674,6 @@
         * Main method for testing the sign in form
         */
        public static void main(String[] args) {
-           // Set system look and feel
-           try {
-               UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
-           } catch (Exception e) {
-               Logger.getLogger(SignInForm.class.getName())
-                     .log(Level.WARNING, "Could not set system look and feel", e);
-           }
-
-           // Create and show the form
-           SwingUtilities.invokeLater(() -> {
-               new SignInForm().setVisible(true);
-           });
+           Launcher.main(args);
        }
     }
\ No newline at end of file
@@ -0,0 +1,340 @@
+package exportation_panelera.concurrent;
+
+import exportation_panelera.metrics.PerformanceMetrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Central executor for all background work in the application.
+ * Replaces per-action SwingWorkers and private schedulers with shared,
+ * named and bounded executors, one per {@link TaskType}.
+ *
+ * On JDKs with virtual threads (21+) DB I/O tasks run on virtual threads
+ * (see {@link VirtualThreads}), limited by a semaphore; otherwise (Java 11
+ * baseline) they run on a bounded platform thread pool. CPU tasks always use a platform pool sized to the cores.
+ * Set {@code -Dapp.executor.virtual=false} to force platform threads.
+ *
+ * Executors are created lazily and can be shut down and recreated, so signing
+ * out and back in gets a fresh set of threads.
+ */
+public class AppExecutors {
+
+    private static final Logger logger = Logger.getLogger(AppExecutors.class.getName());
+
+    private static final int QUEUE_CAPACITY = 500;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+    private static final boolean VIRTUAL_THREADS_ALLOWED =
+            Boolean.parseBoolean(System.getProperty("app.executor.virtual", "true"));
+
+    // Statistics survive executor restarts
+    private static final Map<TaskType, AtomicInteger> activeTasks = new EnumMap<>(TaskType.class);
+    private static final Map<TaskType, AtomicInteger> queuedTasks = new EnumMap<>(TaskType.class);
+
+    private static Pools pools = null;
+
+    static {
+        for (TaskType type : TaskType.values()) {
+            AtomicInteger active = new AtomicInteger();
+            AtomicInteger queued = new AtomicInteger();
+            activeTasks.put(type, active);
+            queuedTasks.put(type, queued);
+            PerformanceMetrics.registerGauge("executor." + type.getThreadPrefix() + ".active", active::get);
+            PerformanceMetrics.registerGauge("executor." + type.getThreadPrefix() + ".queued", queued::get);
+        }
+    }
+
+    // Prevent instantiation of utility class
+    private AppExecutors() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated");
+    }
+
+    // ============= SUBMISSION =============
+
+    /**
+     * Run a task in the background
+     *
+     * @param type kind of work, selects the executor and concurrency limit
+     * @param task the work to run
+     * @return future completed with the task result; cancelling it interrupts the task
+     */
+    public static <T> CompletableFuture<T> submit(TaskType type, Callable<T> task) {
+        Pools current = pools();
+        String prefix = "executor." + type.getThreadPrefix();
+        TaskFuture<T> future = new TaskFuture<>();
+        AtomicInteger queued = queuedTasks.get(type);
+        AtomicInteger active = activeTasks.get(type);
+        Semaphore limit = current.limits.get(type);
+        long submittedAt = System.nanoTime();
+
+        Runnable wrapped = () -> {
+            queued.decrementAndGet();
+            if (future.isDone()) {
+                return;
+            }
+            boolean acquired = false;
+            try {
+                if (limit != null) {
+                    limit.acquire();
+                    acquired = true;
+                }
+                active.incrementAndGet();
+                PerformanceMetrics.recordLatency(prefix + ".queueWait", System.nanoTime() - submittedAt, false);
+                try {
+                    future.complete(task.call());
+                    PerformanceMetrics.incrementCounter(prefix + ".completed");
+                } finally {
+                    active.decrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.completeExceptionally(e);
+                PerformanceMetrics.incrementCounter(prefix + ".cancelled");
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+                PerformanceMetrics.incrementCounter(prefix + ".failed");
+            } finally {
+                if (acquired) {
+                    limit.release();
+                }
+            }
+        };
+
+        queued.incrementAndGet();
+        try {
+            future.underlying = current.executors.get(type).submit(wrapped);
+            PerformanceMetrics.incrementCounter(prefix + ".submitted");
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            PerformanceMetrics.incrementCounter(prefix + ".rejected");
+            logger.warning("Background task rejected by " + type + " executor: " + e.getMessage());
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Run a task in the background and deliver its outcome on the Event Dispatch Thread.
+     * Callbacks are skipped if the future is cancelled.
+     *
+     * @param type kind of work
+     * @param task the work to run
+     * @param onSuccess receives the result on the EDT
+     * @param onFailure receives the cause on the EDT
+     * @return future for the task
+     */
+    public static <T> CompletableFuture<T> submit(TaskType type, Callable<T> task,
+                                                  Consumer<? super T> onSuccess,
+                                                  Consumer<? super Throwable> onFailure) {
+        CompletableFuture<T> future = submit(type, task);
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                return;
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (error != null) {
+                    onFailure.accept(unwrap(error));
+                } else {
+                    onSuccess.accept(result);
+                }
+            });
+        });
+        return future;
+    }
+
+    /**
+     * Run a task once after a delay. The scheduler thread only hands the task
+     * to the executor for its type.
+     */
+    public static ScheduledFuture<?> schedule(TaskType type, Runnable task, long delay, TimeUnit unit) {
+        return pools().scheduler.schedule(() -> {
+            submit(type, () -> {
+                task.run();
+                return null;
+            }).whenComplete((result, error) -> {
+                if (error != null) {
+                    logger.log(Level.WARNING, "Error in scheduled task", unwrap(error));
+                }
+            });
+        }, delay, unit);
+    }
+
+    /**
+     * Run a task periodically. The scheduler thread only hands the task to the
+     * executor for its type; a run is skipped while the previous one is still going.
+     */
+    public static ScheduledFuture<?> scheduleAtFixedRate(TaskType type, Runnable task,
+                                                         long initialDelay, long period, TimeUnit unit) {
+        AtomicBoolean running = new AtomicBoolean(false);
+        return pools().scheduler.scheduleAtFixedRate(() -> {
+            if (!running.compareAndSet(false, true)) {
+                return;
+            }
+            submit(type, () -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    logger.log(Level.WARNING, "Error in scheduled task", e);
+                } finally {
+                    running.set(false);
+                }
+                return null;
+            }).whenComplete((result, error) -> running.set(false));
+        }, initialDelay, period, unit);
+    }
+
+    /**
+     * Unwrap the exception wrappers added by futures
+     */
+    public static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    // ============= LIFECYCLE =============
+
+    /**
+     * Whether DB I/O tasks currently run on virtual threads
+     */
+    public static boolean isUsingVirtualThreads() {
+        return pools().virtual;
+    }
+
+    /**
+     * Orderly shutdown: stop accepting work, let running tasks finish for up to
+     * five seconds, then interrupt what is left. Draining happens on a separate
+     * thread so the caller (usually the EDT) is not blocked; new submissions
+     * after this call start a fresh set of executors.
+     */
+    public static void shutdown() {
+        final Pools old;
+        synchronized (AppExecutors.class) {
+            old = pools;
+            pools = null;
+        }
+        if (old == null) {
+            return;
+        }
+
+        // Cancel periodic tasks too, so their owners see them as done and
+        // can schedule them again on the next generation of executors
+        for (Runnable pending : old.scheduler.shutdownNow()) {
+            if (pending instanceof Future) {
+                ((Future<?>) pending).cancel(false);
+            }
+        }
+        for (ExecutorService executor : old.executors.values()) {
+            executor.shutdown();
+        }
+
+        Thread drainer = new Thread(() -> {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SHUTDOWN_TIMEOUT_SECONDS);
+            for (Map.Entry<TaskType, ExecutorService> entry : old.executors.entrySet()) {
+                try {
+                    long remaining = deadline - System.nanoTime();
+                    if (!entry.getValue().awaitTermination(Math.max(0, remaining), TimeUnit.NANOSECONDS)) {
+                        entry.getValue().shutdownNow();
+                        logger.warning(entry.getKey() + " executor shut down forcefully");
+                    }
+                } catch (InterruptedException e) {
+                    entry.getValue().shutdownNow();
+                    Thread.currentThread().interrupt();
+                }
+            }
+            logger.info("Application executors shut down");
+        }, "app-executor-shutdown");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    private static synchronized Pools pools() {
+        if (pools == null) {
+            pools = new Pools();
+        }
+        return pools;
+    }
+
+    /**
+     * One generation of executors
+     */
+    private static final class Pools {
+        private final Map<TaskType, ExecutorService> executors = new EnumMap<>(TaskType.class);
+        private final Map<TaskType, Semaphore> limits = new EnumMap<>(TaskType.class);
+        private final ScheduledExecutorService scheduler;
+        private final boolean virtual;
+
+        Pools() {
+            ExecutorService virtualExecutor = VIRTUAL_THREADS_ALLOWED
+                    ? VirtualThreads.newThreadPerTaskExecutor(TaskType.DB_IO.getThreadPrefix()) : null;
+            virtual = virtualExecutor != null;
+
+            for (TaskType type : TaskType.values()) {
+                if (type == TaskType.DB_IO && virtualExecutor != null) {
+                    executors.put(type, virtualExecutor);
+                    limits.put(type, new Semaphore(type.getMaxConcurrency()));
+                } else {
+                    executors.put(type, createBoundedPool(type));
+                }
+            }
+            scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("scheduler"));
+
+            logger.info("Application executors started (DB I/O on "
+                    + (virtual ? "virtual threads" : "platform threads")
+                    + ", limit " + TaskType.DB_IO.getMaxConcurrency()
+                    + "; CPU limit " + TaskType.CPU.getMaxConcurrency()
+                    + "; hashing limit " + TaskType.HASHING.getMaxConcurrency() + ")");
+        }
+
+        private static ExecutorService createBoundedPool(TaskType type) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                    type.getMaxConcurrency(), type.getMaxConcurrency(),
+                    60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(QUEUE_CAPACITY),
+                    new NamedThreadFactory(type.getThreadPrefix()));
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+
+    /**
+     * Future that also cancels (and interrupts) the underlying executor task
+     */
+    private static final class TaskFuture<T> extends CompletableFuture<T> {
+        private volatile Future<?> underlying;
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            Future<?> task = underlying;
+            if (task != null) {
+                task.cancel(mayInterruptIfRunning);
+            }
+            return cancelled;
+        }
+    }
+}
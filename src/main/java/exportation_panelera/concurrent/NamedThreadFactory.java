@@ -0,0 +1,31 @@
+package exportation_panelera.concurrent;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Thread factory producing daemon threads named "app-&lt;prefix&gt;-&lt;n&gt;",
+ * so background work is easy to identify in stack dumps and the EDT watchdog log.
+ */
+public class NamedThreadFactory implements ThreadFactory {
+
+    private static final Logger logger = Logger.getLogger(NamedThreadFactory.class.getName());
+
+    private final String prefix;
+    private final AtomicInteger counter = new AtomicInteger(1);
+
+    public NamedThreadFactory(String prefix) {
+        this.prefix = "app-" + prefix + "-";
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, prefix + counter.getAndIncrement());
+        thread.setDaemon(true);
+        thread.setUncaughtExceptionHandler((t, e) ->
+                logger.log(Level.SEVERE, "Uncaught exception in " + t.getName(), e));
+        return thread;
+    }
+}
@@ -0,0 +1,101 @@
+package exportation_panelera.concurrent;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Tracks the background tasks started by one window so they can be cancelled
+ * together when the window closes. Callbacks of a closed scope are dropped,
+ * so tasks finishing late never touch disposed components.
+ */
+public class TaskScope implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(TaskScope.class.getName());
+
+    private final String name;
+    private final Set<Future<?>> tasks = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed = false;
+
+    public TaskScope(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Run a task in the background and deliver its outcome on the EDT
+     *
+     * @see AppExecutors#submit(TaskType, Callable, Consumer, Consumer)
+     */
+    public <T> CompletableFuture<T> submit(TaskType type, Callable<T> task,
+                                           Consumer<? super T> onSuccess,
+                                           Consumer<? super Throwable> onFailure) {
+        if (closed) {
+            CompletableFuture<T> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(new RejectedExecutionException("Task scope " + name + " is closed"));
+            return rejected;
+        }
+        CompletableFuture<T> future = AppExecutors.submit(type, task,
+                result -> {
+                    if (!closed) {
+                        onSuccess.accept(result);
+                    }
+                },
+                error -> {
+                    if (!closed) {
+                        onFailure.accept(error);
+                    }
+                });
+        tasks.add(future);
+        future.whenComplete((result, error) -> tasks.remove(future));
+        return future;
+    }
+
+    /**
+     * Run a task periodically until the scope is closed
+     *
+     * @see AppExecutors#scheduleAtFixedRate(TaskType, Runnable, long, long, TimeUnit)
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(TaskType type, Runnable task,
+                                                  long initialDelay, long period, TimeUnit unit) {
+        if (closed) {
+            throw new RejectedExecutionException("Task scope " + name + " is closed");
+        }
+        ScheduledFuture<?> future = AppExecutors.scheduleAtFixedRate(type, () -> {
+            if (!closed) {
+                task.run();
+            }
+        }, initialDelay, period, unit);
+        tasks.add(future);
+        return future;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Cancel all pending and running tasks of this scope
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        int cancelled = 0;
+        for (Future<?> task : tasks) {
+            if (task.cancel(true)) {
+                cancelled++;
+            }
+        }
+        tasks.clear();
+        logger.fine("Task scope " + name + " closed, " + cancelled + " task(s) cancelled");
+    }
+}
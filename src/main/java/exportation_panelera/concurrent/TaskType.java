@@ -0,0 +1,35 @@
+package exportation_panelera.concurrent;
+
+/**
+ * Kinds of background work, each with its own concurrency limit.
+ * DB_IO tasks mostly wait on the network; CPU tasks keep a core busy.
+ * HASHING gets its own small pool so a burst of logins cannot take every core.
+ */
+public enum TaskType {
+    /** Database and other blocking I/O */
+    DB_IO("db-io", Integer.getInteger("app.executor.db.limit", 8)),
+
+    /** Calculations, parsing, file generation */
+    CPU("cpu", Integer.getInteger("app.executor.cpu.limit",
+            Math.max(2, Runtime.getRuntime().availableProcessors()))),
+
+    /** Password hashing and verification, deliberately slow */
+    HASHING("hash", Integer.getInteger("app.executor.hash.limit",
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2)));
+
+    private final String threadPrefix;
+    private final int maxConcurrency;
+
+    TaskType(String threadPrefix, int maxConcurrency) {
+        this.threadPrefix = threadPrefix;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+    }
+
+    public String getThreadPrefix() {
+        return threadPrefix;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+}
@@ -0,0 +1,48 @@
+package exportation_panelera.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Logger;
+
+/**
+ * Access to virtual threads from the Java 11 code base.
+ *
+ * This is the base version of a multi-release class: it looks the API up
+ * reflectively and works on any JDK. Builds on JDK 21+ also compile
+ * {@code src/main/java21}, whose version of this class calls the API
+ * directly and is picked up from {@code META-INF/versions/21} at runtime.
+ */
+final class VirtualThreads {
+
+    private static final Logger logger = Logger.getLogger(VirtualThreads.class.getName());
+
+    // Prevent instantiation of utility class
+    private VirtualThreads() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated");
+    }
+
+    /**
+     * Create a thread-per-task executor backed by virtual threads
+     * named "app-&lt;prefix&gt;-v&lt;n&gt;"
+     *
+     * @return the executor, or null if this JDK has no virtual threads
+     */
+    static ExecutorService newThreadPerTaskExecutor(String prefix) {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = ofVirtual.invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class)
+                    .invoke(builder, "app-" + prefix + "-v", 1L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.fine("Virtual threads not available: " + e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package exportation_panelera.controller;
+
+import exportation_panelera.Model.DeliveryListItem;
+import exportation_panelera.Model.DeliverySearchCriteria;
+import exportation_panelera.Model.DeliverySort;
+import exportation_panelera.Model.Page;
+import exportation_panelera.concurrent.AppExecutors;
+import exportation_panelera.concurrent.TaskType;
+import exportation_panelera.db.DatabaseManager;
+import exportation_panelera.metrics.PerformanceMetrics;
+import exportation_panelera.service.DeliveryLookupIndex;
+import exportation_panelera.service.IdAllocator;
+import exportation_panelera.service.PasswordHasher;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Startup work done ahead of the windows that need it.
+ *
+ * While the sign-in form is shown, {@link #warmUp()} connects and migrates
+ * the database (loading the JDBC driver), loads the password hashing
+ * provider and loads the classes of the main windows, all in parallel.
+ * Once a user signs in, {@link #prefetch(int)} loads the first delivery
+ * page, the status counts and the lookup index, so the delivery grid opens
+ * with its data already there, and reserves the first exportation ID block
+ * so the exportation form never waits for the sequences table.
+ */
+public class AppStartup {
+
+    private static final Logger logger = Logger.getLogger(AppStartup.class.getName());
+
+    /** Prefetched page older than this is loaded again, in seconds */
+    private static final int PREFETCH_MAX_AGE_SECONDS = Integer.getInteger("app.startup.prefetch.max.age", 60);
+
+    /** Longest the grid waits for a prefetch still running, in milliseconds */
+    private static final int PREFETCH_WAIT_MILLIS = Integer.getInteger("app.startup.prefetch.wait", 3000);
+
+    // Loaded in the background instead of on the EDT at first use; JCalendar
+    // is only needed by the exportation form. The JDBC driver is listed so
+    // an offline AppCDS training run still archives it.
+    private static final String[] PRELOAD_CLASSES = {
+        "com.mysql.cj.jdbc.Driver",
+        "exportation_panelera.View.MainView",
+        "exportation_panelera.View.DeliveryManagementForm",
+        "exportation_panelera.View.ExportationDelivery",
+        "com.toedter.calendar.JDateChooser"
+    };
+
+    // Guarded by the class lock
+    private static CompletableFuture<Page<DeliveryListItem>> firstPage;
+    private static int firstPageSize;
+    private static long firstPageStart;
+    private static CompletableFuture<Void> warmUp;
+
+    // Prevent instantiation of utility class
+    private AppStartup() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated");
+    }
+
+    // ============= BEFORE SIGN-IN =============
+
+    /**
+     * Start the warm-up tasks in the background (once)
+     *
+     * @return completes when all warm-up tasks have finished, failed or not
+     */
+    public static CompletableFuture<Void> warmUp() {
+        return warmUp(message -> { });
+    }
+
+    /**
+     * Start the warm-up tasks in the background (once)
+     *
+     * @param progress receives schema migration progress on a background
+     *                 thread; ignored if the warm-up has already started
+     * @return completes when all warm-up tasks have finished, failed or not
+     */
+    public static synchronized CompletableFuture<Void> warmUp(Consumer<String> progress) {
+        if (warmUp != null) {
+            return warmUp;
+        }
+        long start = System.nanoTime();
+
+        CompletableFuture<Boolean> database = AppExecutors.submit(TaskType.DB_IO, () -> {
+            long taskStart = System.nanoTime();
+            boolean ready = DatabaseManager.createTablesIfNotExist(progress);
+            PerformanceMetrics.recordLatency("startup.database", System.nanoTime() - taskStart, !ready);
+            return ready;
+        });
+        CompletableFuture<Void> hashing = PasswordHasher.warmUpAsync();
+        CompletableFuture<Void> classes = AppExecutors.submit(TaskType.CPU, () -> {
+            ClassLoader loader = AppStartup.class.getClassLoader();
+            for (String name : PRELOAD_CLASSES) {
+                Class.forName(name, true, loader);
+            }
+            return null;
+        });
+
+        warmUp = CompletableFuture.allOf(database, hashing, classes).handle((ignored, error) -> {
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            PerformanceMetrics.recordLatency("startup.warmUp", System.nanoTime() - start, error != null);
+            if (error != null) {
+                logger.log(Level.WARNING, "Startup warm-up incomplete after " + elapsedMs + " ms",
+                        AppExecutors.unwrap(error));
+            } else {
+                logger.info("Startup warm-up done in " + elapsedMs + " ms (database "
+                        + (database.join() ? "ready" : "offline") + ")");
+            }
+            return null;
+        });
+        return warmUp;
+    }
+
+    // ============= AFTER SIGN-IN =============
+
+    /**
+     * Load what the delivery grid shows first: its first page in the default
+     * order, the status counts and the identifier index, and reserve the
+     * first exportation ID block
+     */
+    public static synchronized void prefetch(int pageSize) {
+        long start = System.nanoTime();
+        firstPageSize = pageSize;
+        firstPageStart = start;
+        firstPage = AppExecutors.submit(TaskType.DB_IO, () -> {
+            DeliveryController controller = new DeliveryController();
+            Page<DeliveryListItem> page = controller.getDeliveryPage(0, pageSize,
+                    new DeliverySearchCriteria(), DeliverySort.BY_ID, null);
+            PerformanceMetrics.recordLatency("startup.prefetchPage", System.nanoTime() - start, false);
+            return page;
+        });
+        AppExecutors.submit(TaskType.DB_IO, () -> new DeliveryController().refreshStatusCounts());
+        DeliveryLookupIndex.warmUp();
+        IdAllocator.EXPORTATIONS.warmUp();
+    }
+
+    /**
+     * The prefetched first page, handed out once
+     *
+     * @return the page, or null if none was prefetched for this page size,
+     *         it failed or is stale, or it is still loading after a short wait
+     */
+    public static Page<DeliveryListItem> takeFirstPage(int pageSize) {
+        CompletableFuture<Page<DeliveryListItem>> future;
+        synchronized (AppStartup.class) {
+            future = firstPage;
+            firstPage = null;
+            long ageSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - firstPageStart);
+            if (future == null || firstPageSize != pageSize || ageSeconds > PREFETCH_MAX_AGE_SECONDS) {
+                return null;
+            }
+        }
+        try {
+            Page<DeliveryListItem> page = future.get(PREFETCH_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            PerformanceMetrics.incrementCounter("startup.prefetchHit");
+            return page;
+        } catch (TimeoutException e) {
+            logger.fine("Prefetched delivery page not ready, loading it again");
+            return null;
+        } catch (ExecutionException e) {
+            logger.log(Level.FINE, "Delivery prefetch failed", e.getCause());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
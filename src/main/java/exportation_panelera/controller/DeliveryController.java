@@ -1,13 +1,31 @@
 package exportation_panelera.controller;
 
+import exportation_panelera.Model.DeliveryListItem;
+import exportation_panelera.Model.DeliverySearchCriteria;
+import exportation_panelera.Model.DeliverySort;
+import exportation_panelera.Model.DeliveryStatus;
 import exportation_panelera.Model.Delivery_InfDTO;
 import exportation_panelera.Model.Exportation_InfDTO;
+import exportation_panelera.Model.Money;
+import exportation_panelera.Model.Page;
 import exportation_panelera.db.DatabaseManager;
+import exportation_panelera.db.SchemaMigrator;
+import exportation_panelera.metrics.PerformanceMetrics;
+import exportation_panelera.service.DeliveryArchiveService;
+import exportation_panelera.service.DeliveryLookupIndex;
+import exportation_panelera.service.DeliveryStatusCounter;
+import exportation_panelera.service.TrackingNumberService;
 
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -17,6 +35,46 @@ import java.util.logging.Logger;
 public class DeliveryController {
     private static final Logger logger = Logger.getLogger(DeliveryController.class.getName());
     
+    // Delivery list projection: only the columns the management grid shows
+    private static final String DELIVERY_LIST_COLUMNS =
+        "SELECT d.id, d.exportation_id, d.tracking_number, d.notes, d.delivery_date, d.status, " +
+        "d.created_at, d.updated_at, e.destination, e.customer_name, " +
+        "e.amount * e.unit_price AS total_value, e.currency ";
+    
+    // Same projection once notes have moved to delivery_texts (schema V3)
+    private static final String DELIVERY_LIST_TEXTS_COLUMNS =
+        "SELECT d.id, d.exportation_id, d.tracking_number, COALESCE(d.notes, t.notes) AS notes, " +
+        "d.delivery_date, d.status, d.created_at, d.updated_at, e.destination, e.customer_name, " +
+        "e.amount * e.unit_price AS total_value, e.currency ";
+    
+    // Exportation join on the integer foreign key (schema V2), or on the VARCHAR id before it
+    private static final String EXPORTATION_REF_JOIN = " LEFT JOIN exportations e ON e.id = d.exportation_ref";
+    private static final String EXPORTATION_ID_JOIN = " LEFT JOIN exportations e ON e.exportation_id = d.exportation_id";
+    private static final String DELIVERY_TEXTS_JOIN = " LEFT JOIN delivery_texts t ON t.delivery_id = d.id";
+    
+    private static final String DELIVERY_COUNT_SQL = "SELECT COUNT(*) FROM deliveries";
+    
+    private static final String ARCHIVE_SELECT_SQL = "SELECT * FROM deliveries_archive d";
+    
+    // Counts by stored text, so spellings written by older clients are folded in too
+    private static final String STATUS_COUNT_SQL = "SELECT status, COUNT(*) FROM deliveries GROUP BY status";
+    private static final String SELECT_STATUS_SQL = "SELECT status FROM deliveries WHERE id = ?";
+    
+    // Full delivery rows, with the side-table texts from schema V3
+    private static final String DELIVERY_SELECT_SQL = "SELECT * FROM deliveries d";
+    private static final String DELIVERY_SELECT_TEXTS_SQL =
+        "SELECT d.*, t.notes AS side_notes FROM deliveries d " +
+        "LEFT JOIN delivery_texts t ON t.delivery_id = d.id";
+    
+    private static final String SAVE_DELIVERY_TEXT_SQL =
+        "INSERT INTO delivery_texts (delivery_id, notes) VALUES (?, ?) " +
+        "ON DUPLICATE KEY UPDATE notes = VALUES(notes)";
+    
+    // Schema versions that changed the deliveries table
+    private static final int EXPORTATION_REF_VERSION = 2;
+    private static final int DELIVERY_TEXTS_VERSION = 3;
+    private static final int STATUS_CODE_VERSION = 5;
+    
     /**
      * Debug method to print all column names from the deliveries table
      */
@@ -149,6 +207,9 @@ public class DeliveryController {
         Connection conn = null;
         PreparedStatement stmt = null;
         
+        long queryStart = PerformanceMetrics.startQuery();
+        boolean queryFailed = false;
+        
         try {
             conn = getConnection();
             if (conn == null) {
@@ -203,12 +264,13 @@ public class DeliveryController {
             stmt.setDate(8, new java.sql.Date(exportDate.getTime()));
             logger.info("Parameter 8 (export_date): " + exportDate);
             
-            java.math.BigDecimal unitPrice = exportation.getUnitPrice() != null ? 
-                                           exportation.getUnitPrice() : new java.math.BigDecimal("12.00");
-            stmt.setBigDecimal(9, unitPrice);
+            String currency = exportation.getCurrency();
+            
+            Money unitPrice = exportation.getUnitPrice() != null ? 
+                              exportation.getUnitPrice() : Money.ofMinor(1200, currency != null ? currency : "MXN");
+            unitPrice.bind(stmt, 9);
             logger.info("Parameter 9 (unit_price): " + unitPrice);
             
-            String currency = exportation.getCurrency();
             stmt.setString(10, currency != null ? currency : "MXN");
             logger.info("Parameter 10 (currency): " + (currency != null ? currency : "MXN"));
             
@@ -274,6 +336,7 @@ public class DeliveryController {
             }
             
         } catch (SQLException e) {
+            queryFailed = true;
             logger.log(Level.SEVERE, "Error creating exportation: " + e.getMessage(), e);
             logger.severe("SQL State: " + e.getSQLState());
             logger.severe("Error Code: " + e.getErrorCode());
@@ -286,6 +349,7 @@ public class DeliveryController {
             
             return false;
         } finally {
+            PerformanceMetrics.endQuery("exportations.create", queryStart, queryFailed);
             closeResources(conn, stmt, null);
         }
     }
@@ -307,6 +371,9 @@ public class DeliveryController {
         PreparedStatement stmt = null;
         ResultSet rs = null;
         
+        long queryStart = PerformanceMetrics.startQuery();
+        boolean queryFailed = false;
+        
         try {
             conn = getConnection();
             if (conn == null) {
@@ -321,7 +388,7 @@ public class DeliveryController {
             
             logger.info("Database connection obtained successfully");
             
-            String sql = "SELECT * FROM deliveries ORDER BY id ASC";
+            String sql = deliverySelectSql() + " ORDER BY d.id ASC";
             logger.info("Executing SQL: " + sql);
             
             stmt = conn.prepareStatement(sql);
@@ -359,14 +426,573 @@ public class DeliveryController {
             return deliveries;
             
         } catch (SQLException e) {
+            queryFailed = true;
             logger.log(Level.SEVERE, "SQL Error in getAllDeliveries: " + e.getMessage(), e);
             return getSampleDeliveries();
             
         } finally {
+            PerformanceMetrics.endQuery("deliveries.getAll", queryStart, queryFailed);
+            closeResources(conn, stmt, rs);
+        }
+    }
+    
+    /**
+     * Get one page of the delivery list with exportation destination, customer
+     * and value, using a single JOIN instead of one lookup per row
+     *
+     * @param offset index of the first row
+     * @param limit maximum number of rows
+     * @return the page; sample rows in offline mode
+     */
+    public Page<DeliveryListItem> getDeliveryPage(int offset, int limit) {
+        if (DatabaseManager.isOfflineMode()) {
+            return getSampleDeliveryPage(offset, limit);
+        }
+        
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        
+        long queryStart = PerformanceMetrics.startQuery();
+        boolean queryFailed = false;
+        
+        try {
+            conn = getConnection();
+            if (conn == null || conn.isClosed()) {
+                logger.warning("Database connection is not available, returning sample delivery list");
+                return getSampleDeliveryPage(offset, limit);
+            }
+            
+            int totalCount = 0;
+            stmt = conn.prepareStatement(DELIVERY_COUNT_SQL);
+            rs = stmt.executeQuery();
+            if (rs.next()) {
+                totalCount = rs.getInt(1);
+            }
+            closeResources(null, stmt, rs);
+            
+            stmt = conn.prepareStatement(deliveryListFrom(false) + " ORDER BY d.id ASC LIMIT ? OFFSET ?");
+            stmt.setInt(1, limit);
+            stmt.setInt(2, offset);
+            rs = stmt.executeQuery();
+            
+            List<DeliveryListItem> items = new ArrayList<>(Math.min(limit, 1024));
+            while (rs.next()) {
+                items.add(DeliveryListItem.fromResultSet(rs));
+            }
+            
+            logger.fine("Loaded delivery list rows " + offset + "-" + (offset + items.size()) + " of " + totalCount);
+            return new Page<>(items, offset, limit, totalCount);
+            
+        } catch (SQLException e) {
+            queryFailed = true;
+            logger.log(Level.SEVERE, "SQL Error in getDeliveryPage: " + e.getMessage(), e);
+            return getSampleDeliveryPage(offset, limit);
+            
+        } finally {
+            PerformanceMetrics.endQuery("deliveries.listPage", queryStart, queryFailed);
+            closeResources(conn, stmt, rs);
+        }
+    }
+    
+    /**
+     * Get one page of all deliveries dated within a range, including archived
+     * ones when the range reaches back far enough
+     *
+     * @param from first delivery date, or null for no lower bound
+     * @param to last delivery date, or null for no upper bound
+     * @return the page, ordered by id; sample rows in offline mode
+     */
+    public Page<DeliveryListItem> getDeliveryPage(int offset, int limit, LocalDate from, LocalDate to) {
+        return getDeliveryPage(offset, limit, new DeliverySearchCriteria().withDateRange(from, to));
+    }
+    
+    /**
+     * Get one page of deliveries matching a search, ordered by id
+     *
+     * @return the page; sample rows in offline mode
+     */
+    public Page<DeliveryListItem> getDeliveryPage(int offset, int limit, DeliverySearchCriteria criteria) {
+        return getDeliveryPage(offset, limit, criteria, DeliverySort.BY_ID, null);
+    }
+    
+    /**
+     * Get one page of deliveries matching a search, sorted by the database.
+     * Delivery ID is matched exactly, export ID and tracking number as
+     * prefixes, destination and customer as contained text; date range and
+     * status filter as usual. The archive is only queried when the
+     * search has a date range starting on or before the newest archived
+     * delivery, and a status filter (if any) includes a status that gets
+     * archived.
+     *
+     * With a cursor taken from the neighbouring page the page is found by
+     * seeking on the sort keys instead of skipping {@code offset} rows, so
+     * deep pages cost the same as the first; offset is then only reported
+     * back in the page. Archive searches always page by offset.
+     *
+     * @param sort sort order
+     * @param cursor position after (or before) which the page starts, or null to page by offset
+     * @return the page; sample rows in offline mode
+     */
+    public Page<DeliveryListItem> getDeliveryPage(int offset, int limit, DeliverySearchCriteria criteria,
+                                                  DeliverySort sort, DeliverySort.Cursor cursor) {
+        if (DatabaseManager.isOfflineMode()) {
+            return getSampleDeliveryPage(offset, limit, criteria, sort);
+        }
+        
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        
+        long queryStart = PerformanceMetrics.startQuery();
+        boolean queryFailed = false;
+        EnumSet<DeliveryStatus> statuses = criteria.getStatusFilter();
+        boolean includeArchive = criteria.hasDateRange()
+                && (statuses.isEmpty() || !Collections.disjoint(statuses, DeliveryStatus.terminalStatuses()))
+                && DeliveryArchiveService.mayContain(criteria.getStartDate());
+        boolean keyset = cursor != null && !includeArchive && cursor.getSort().equals(sort)
+                && canSeek(sort);
+        
+        try {
+            conn = getConnection();
+            if (conn == null || conn.isClosed()) {
+                logger.warning("Database connection is not available, returning sample delivery list");
+                return getSampleDeliveryPage(offset, limit, criteria, sort);
+            }
+            
+            List<Object> params = new ArrayList<>();
+            String where = searchWhere(criteria, statuses, false, params);
+            String countJoin = criteria.hasExportationFilter() ? exportationJoin(false) : "";
+            String countSql = "SELECT COUNT(*) FROM deliveries d" + countJoin + where;
+            // Date-range listing: hot rows, plus archived rows when the range reaches back that far
+            String listSql = deliveryListFrom(false) + where;
+            List<Object> listParams = new ArrayList<>(params);
+            if (includeArchive) {
+                String archiveWhere = searchWhere(criteria, statuses, true, params);
+                listParams = params;
+                countSql = "SELECT (" + countSql + ") + (SELECT COUNT(*) FROM deliveries_archive d"
+                        + (criteria.hasExportationFilter() ? exportationJoin(true) : "") + archiveWhere + ")";
+                listSql = "SELECT * FROM (" + listSql + " UNION ALL " + deliveryListFrom(true) + archiveWhere + ") u" +
+                        orderBy(sort, true, true) + " LIMIT ? OFFSET ?";
+            } else if (keyset) {
+                listSql += (where.isEmpty() ? " WHERE " : " AND ")
+                        + seekCondition(sort, cursor, listParams) + orderBy(sort, cursor.isForward(), false) + " LIMIT ?";
+            } else {
+                listSql += orderBy(sort, true, false) + " LIMIT ? OFFSET ?";
+            }
+            
+            int totalCount = 0;
+            stmt = conn.prepareStatement(countSql);
+            bindAll(stmt, params);
+            rs = stmt.executeQuery();
+            if (rs.next()) {
+                totalCount = rs.getInt(1);
+            }
+            closeResources(null, stmt, rs);
+            
+            stmt = conn.prepareStatement(listSql);
+            int index = bindAll(stmt, listParams);
+            stmt.setInt(index++, limit);
+            if (!keyset) {
+                stmt.setInt(index, offset);
+            }
+            rs = stmt.executeQuery();
+            
+            List<DeliveryListItem> items = new ArrayList<>(Math.min(limit, 1024));
+            while (rs.next()) {
+                items.add(DeliveryListItem.fromResultSet(rs));
+            }
+            if (keyset && !cursor.isForward()) {
+                // Read backwards from the cursor; show in sort order
+                Collections.reverse(items);
+            }
+            
+            logger.fine("Loaded " + items.size() + " deliveries for " + criteria + " by " + sort
+                    + (includeArchive ? " (with archive)" : ""));
+            return new Page<>(items, offset, limit, totalCount);
+            
+        } catch (SQLException e) {
+            queryFailed = true;
+            logger.log(Level.SEVERE, "SQL Error in getDeliveryPage: " + e.getMessage(), e);
+            return getSampleDeliveryPage(offset, limit, criteria, sort);
+            
+        } finally {
+            PerformanceMetrics.endQuery(includeArchive ? "deliveries.searchPage.archive"
+                    : keyset ? "deliveries.searchPage.seek" : "deliveries.searchPage", queryStart, queryFailed);
+            closeResources(conn, stmt, rs);
+        }
+    }
+    
+    /**
+     * Count active deliveries per status with one GROUP BY and load the
+     * counts into {@link DeliveryStatusCounter}, which create, update and
+     * delete then keep current
+     *
+     * @return counts per status; deliveries with an unrecognised status are left out
+     */
+    public EnumMap<DeliveryStatus, Long> refreshStatusCounts() {
+        EnumMap<DeliveryStatus, Long> counts = new EnumMap<>(DeliveryStatus.class);
+        long other = 0;
+        
+        if (DatabaseManager.isOfflineMode()) {
+            for (Delivery_InfDTO sample : getSampleDeliveries()) {
+                DeliveryStatus status = DeliveryStatus.parse(sample.getStatus());
+                if (status != null) {
+                    counts.merge(status, 1L, Long::sum);
+                } else {
+                    other++;
+                }
+            }
+            DeliveryStatusCounter.reset(counts, other);
+            return counts;
+        }
+        
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        
+        long queryStart = PerformanceMetrics.startQuery();
+        boolean queryFailed = false;
+        
+        try {
+            conn = getConnection();
+            if (conn == null) {
+                return DeliveryStatusCounter.snapshot();
+            }
+            
+            stmt = conn.prepareStatement(STATUS_COUNT_SQL);
+            rs = stmt.executeQuery();
+            while (rs.next()) {
+                DeliveryStatus status = DeliveryStatus.parse(rs.getString(1));
+                if (status != null) {
+                    counts.merge(status, rs.getLong(2), Long::sum);
+                } else {
+                    other += rs.getLong(2);
+                }
+            }
+            
+            DeliveryStatusCounter.reset(counts, other);
+            return counts;
+            
+        } catch (SQLException e) {
+            queryFailed = true;
+            logger.log(Level.SEVERE, "SQL Error in refreshStatusCounts: " + e.getMessage(), e);
+            return DeliveryStatusCounter.snapshot();
+        } finally {
+            PerformanceMetrics.endQuery("deliveries.statusCounts", queryStart, queryFailed);
+            closeResources(conn, stmt, rs);
+        }
+    }
+    
+    /**
+     * Get the list rows of deliveries by database id, e.g. the matches of
+     * {@link DeliveryLookupIndex#findDeliveryIds}
+     *
+     * @return the rows in id order; empty in offline mode or on error
+     */
+    public List<DeliveryListItem> getDeliveriesByIds(int[] ids) {
+        List<DeliveryListItem> items = new ArrayList<>(ids.length);
+        if (ids.length == 0 || DatabaseManager.isOfflineMode()) {
+            return items;
+        }
+        
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        
+        long queryStart = PerformanceMetrics.startQuery();
+        boolean queryFailed = false;
+        
+        try {
+            conn = getConnection();
+            if (conn == null || conn.isClosed()) {
+                logger.warning("Database connection is not available, no deliveries loaded by id");
+                return items;
+            }
+            
+            StringBuilder sql = new StringBuilder(deliveryListFrom(false)).append(" WHERE d.id IN (");
+            for (int i = 0; i < ids.length; i++) {
+                sql.append(i > 0 ? ", ?" : "?");
+            }
+            sql.append(") ORDER BY d.id ASC");
+            
+            stmt = conn.prepareStatement(sql.toString());
+            for (int i = 0; i < ids.length; i++) {
+                stmt.setInt(i + 1, ids[i]);
+            }
+            rs = stmt.executeQuery();
+            while (rs.next()) {
+                items.add(DeliveryListItem.fromResultSet(rs));
+            }
+            return items;
+            
+        } catch (SQLException e) {
+            queryFailed = true;
+            logger.log(Level.SEVERE, "SQL Error in getDeliveriesByIds: " + e.getMessage(), e);
+            return new ArrayList<>();
+        } finally {
+            PerformanceMetrics.endQuery("deliveries.byIds", queryStart, queryFailed);
             closeResources(conn, stmt, rs);
         }
     }
     
+    /**
+     * SELECT ... FROM of the delivery list projection on alias d, joined to
+     * exportations (and delivery_texts) as the current schema allows
+     *
+     * @param archive true for deliveries_archive, which keeps its texts inline
+     */
+    private String deliveryListFrom(boolean archive) {
+        boolean texts = !archive && SchemaMigrator.isAtLeast(DELIVERY_TEXTS_VERSION);
+        return (texts ? DELIVERY_LIST_TEXTS_COLUMNS : DELIVERY_LIST_COLUMNS)
+                + "FROM " + (archive ? "deliveries_archive" : "deliveries") + " d"
+                + exportationJoin(archive)
+                + (texts ? DELIVERY_TEXTS_JOIN : "");
+    }
+    
+    /**
+     * Join from alias d to its exportation, alias e
+     */
+    private String exportationJoin(boolean archive) {
+        // Archived rows always carry exportation_ref (V4 came after V2)
+        boolean ref = archive || SchemaMigrator.isAtLeast(EXPORTATION_REF_VERSION);
+        return ref ? EXPORTATION_REF_JOIN : EXPORTATION_ID_JOIN;
+    }
+    
+    /**
+     * WHERE clause on alias d (and e, for exportation fields) for a search,
+     * adding its parameters to params
+     *
+     * @param archive true for deliveries_archive, which has no status_code
+     */
+    private String searchWhere(DeliverySearchCriteria criteria, EnumSet<DeliveryStatus> statuses,
+                               boolean archive, List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+        if (criteria.getStartDate() != null) {
+            conditions.add("d.delivery_date >= ?");
+            params.add(java.sql.Date.valueOf(criteria.getStartDate()));
+        }
+        if (criteria.getEndDate() != null) {
+            conditions.add("d.delivery_date <= ?");
+            params.add(java.sql.Date.valueOf(criteria.getEndDate()));
+        }
+        if (!statuses.isEmpty()) {
+            StringBuilder in = new StringBuilder();
+            if (!archive && SchemaMigrator.isAtLeast(STATUS_CODE_VERSION)) {
+                in.append("d.status_code IN (");
+                for (DeliveryStatus status : statuses) {
+                    in.append(in.charAt(in.length() - 1) != '(' ? ", ?" : "?");
+                    params.add(status.getCode());
+                }
+            } else {
+                // Both spellings; the column collation ignores case
+                in.append("d.status IN (");
+                for (DeliveryStatus status : statuses) {
+                    in.append(in.charAt(in.length() - 1) != '(' ? ", ?, ?" : "?, ?");
+                    params.add(status.getDisplayName());
+                    params.add(status.name());
+                }
+            }
+            conditions.add(in.append(')').toString());
+        }
+        if (criteria.getDeliveryId() != null) {
+            // 0 for text that is no delivery ID, which matches nothing
+            conditions.add("d.id = ?");
+            params.add(parseDeliveryId(criteria.getDeliveryId().toUpperCase(Locale.ROOT)));
+        }
+        // Prefixes, so the indexes on these columns are used
+        if (criteria.getExportId() != null) {
+            String exportId = criteria.getExportId();
+            if (exportId.regionMatches(true, 0, "EXP", 0, 3)) {
+                exportId = exportId.substring(3);
+            }
+            conditions.add("d.exportation_id LIKE ?");
+            params.add(escapeLike(exportId) + "%");
+        }
+        if (criteria.getTrackingNumber() != null) {
+            conditions.add("d.tracking_number LIKE ?");
+            params.add(escapeLike(criteria.getTrackingNumber()) + "%");
+        }
+        if (criteria.getDestination() != null) {
+            conditions.add("e.destination LIKE ?");
+            params.add("%" + escapeLike(criteria.getDestination()) + "%");
+        }
+        if (criteria.getCustomerName() != null) {
+            conditions.add("e.customer_name LIKE ?");
+            params.add("%" + escapeLike(criteria.getCustomerName()) + "%");
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+    
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
+    /**
+     * ORDER BY clause for a sort, on alias d or on the union alias u
+     *
+     * @param forward false to read the list backwards from the end
+     */
+    private String orderBy(DeliverySort sort, boolean forward, boolean union) {
+        StringBuilder sql = new StringBuilder(" ORDER BY ");
+        for (DeliverySort.Key key : sort.getKeys()) {
+            if (sql.length() > 10) {
+                sql.append(", ");
+            }
+            sql.append(sortExpression(key.getColumn(), union))
+               .append(key.isAscending() == forward ? " ASC" : " DESC");
+        }
+        return sql.toString();
+    }
+    
+    /**
+     * Condition selecting the rows after (or before) a cursor in sort order,
+     * adding its parameters to params. MySQL sorts NULL first ascending and
+     * last descending, which the comparisons below follow.
+     */
+    private String seekCondition(DeliverySort sort, DeliverySort.Cursor cursor, List<Object> params) {
+        List<DeliverySort.Key> keys = sort.getKeys();
+        List<Object> values = cursor.getValues();
+        List<String> alternatives = new ArrayList<>();
+        List<Object> equalParams = new ArrayList<>();
+        StringBuilder equal = new StringBuilder();
+        for (int i = 0; i < keys.size(); i++) {
+            String column = sortExpression(keys.get(i).getColumn(), false);
+            Object value = values.get(i);
+            boolean ascending = keys.get(i).isAscending() == cursor.isForward();
+            
+            String beyond;
+            if (value == null) {
+                // Ascending, everything non-null follows NULL; descending, nothing does
+                beyond = ascending ? column + " IS NOT NULL" : null;
+            } else {
+                boolean nullable = keys.get(i).getColumn() != DeliverySort.Column.ID;
+                beyond = ascending ? column + " > ?"
+                        : nullable ? "(" + column + " < ? OR " + column + " IS NULL)" : column + " < ?";
+            }
+            if (beyond != null) {
+                alternatives.add("(" + equal + beyond + ")");
+                params.addAll(equalParams);
+                if (value != null) {
+                    params.add(value);
+                }
+            }
+            
+            if (value == null) {
+                equal.append(column).append(" IS NULL AND ");
+            } else {
+                equal.append(column).append(" = ? AND ");
+                equalParams.add(value);
+            }
+        }
+        return alternatives.isEmpty() ? "1 = 0" : "(" + String.join(" OR ", alternatives) + ")";
+    }
+    
+    /**
+     * Whether the list can seek on every key of a sort; status keys need the
+     * status_code column, since the text column holds several spellings
+     */
+    private boolean canSeek(DeliverySort sort) {
+        if (SchemaMigrator.isAtLeast(STATUS_CODE_VERSION)) {
+            return true;
+        }
+        for (DeliverySort.Key key : sort.getKeys()) {
+            if (key.getColumn() == DeliverySort.Column.STATUS) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * SQL expression a sort column orders by. Every deliveries column used
+     * here is indexed.
+     */
+    private String sortExpression(DeliverySort.Column column, boolean union) {
+        String alias = union ? "u." : "d.";
+        switch (column) {
+            case ID:
+                return alias + "id";
+            case EXPORT_ID:
+                return alias + "exportation_id";
+            case TRACKING_NUMBER:
+                return alias + "tracking_number";
+            case DELIVERY_DATE:
+                return alias + "delivery_date";
+            case STATUS:
+                // deliveries_archive has no status_code
+                return !union && SchemaMigrator.isAtLeast(STATUS_CODE_VERSION) ? "d.status_code" : alias + "status";
+            case CREATED_AT:
+                return alias + "created_at";
+            case UPDATED_AT:
+                return alias + "updated_at";
+            default:
+                throw new IllegalArgumentException("Unknown sort column " + column);
+        }
+    }
+    
+    /**
+     * Bind parameters in order
+     *
+     * @return next parameter index
+     */
+    private int bindAll(PreparedStatement stmt, List<Object> params) throws SQLException {
+        int index = 1;
+        for (Object param : params) {
+            stmt.setObject(index++, param);
+        }
+        return index;
+    }
+    
+    /**
+     * Sample deliveries as a list page, for offline mode
+     */
+    private Page<DeliveryListItem> getSampleDeliveryPage(int offset, int limit) {
+        return getSampleDeliveryPage(offset, limit, new DeliverySearchCriteria(), DeliverySort.BY_ID);
+    }
+    
+    /**
+     * Sample deliveries passing the status filter of a search, for offline mode
+     */
+    private Page<DeliveryListItem> getSampleDeliveryPage(int offset, int limit, DeliverySearchCriteria criteria,
+                                                         DeliverySort sort) {
+        List<Delivery_InfDTO> samples = getSampleDeliveries();
+        String[] destinations = {"United States", "Germany", "Japan", "Canada", "Spain"};
+        List<DeliveryListItem> matches = new ArrayList<>();
+        for (int i = 0; i < samples.size(); i++) {
+            Delivery_InfDTO sample = samples.get(i);
+            DeliveryStatus status = DeliveryStatus.parse(sample.getStatus());
+            if (!criteria.matchesStatus(status)) {
+                continue;
+            }
+            matches.add(new DeliveryListItem(sample.getId(), sample.getExportationId(),
+                    sample.getTrackingNumber(), sample.getNotes(), DeliveryListItem.millis(sample.getDeliveryDate()),
+                    sample.getStatus(), DeliveryListItem.millis(sample.getCreatedAt()),
+                    DeliveryListItem.millis(sample.getUpdatedAt()), destinations[i % destinations.length],
+                    "Sample Customer " + (i + 1), Money.ofMinor(120000 + i * 25000, "USD")));
+        }
+        matches.sort(sampleComparator(sort));
+        List<DeliveryListItem> items = offset < matches.size()
+                ? matches.subList(offset, (int) Math.min(matches.size(), (long) offset + limit))
+                : Collections.emptyList();
+        return new Page<>(new ArrayList<>(items), offset, limit, matches.size());
+    }
+    
+    /**
+     * In-memory equivalent of {@link #orderBy} for the few sample rows
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<DeliveryListItem> sampleComparator(DeliverySort sort) {
+        Comparator<DeliveryListItem> comparator = null;
+        for (DeliverySort.Key key : sort.getKeys()) {
+            Comparator<Comparable> values = Comparator.nullsFirst(Comparator.naturalOrder());
+            Comparator<DeliveryListItem> next = Comparator.comparing(
+                    item -> (Comparable) key.getColumn().valueOf(item), key.isAscending() ? values : values.reversed());
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+    
     /**
      * Create a new delivery record - FIXED to handle large export IDs
      */
@@ -391,12 +1017,14 @@ public class DeliveryController {
         Connection conn = null;
         PreparedStatement stmt = null;
         
+        long queryStart = PerformanceMetrics.startQuery();
+        boolean queryFailed = false;
+        
         try {
-            conn = getConnection();
-            if (conn == null) {
-                logger.warning("Database connection is null");
-                return false;
-            }
+            // The row and its delivery_texts entry are written in one
+            // transaction, which must not share the managed connection
+            conn = DatabaseManager.openDedicatedConnection();
+            conn.setAutoCommit(false);
             
             // Extract and validate export ID
             String exportId = extractExportId(delivery.getExportId());
@@ -408,8 +1036,16 @@ public class DeliveryController {
             logger.info("Managed Export ID for database: " + managedExportId);
             
             // SQL that matches your exact table structure
-            String sql = "INSERT INTO deliveries (exportation_id, delivery_date, tracking_number, status, notes, created_at, updated_at) " +
-                        "VALUES (?, ?, ?, ?, ?, NOW(), NOW())";
+            boolean hasExportationRef = SchemaMigrator.isAtLeast(EXPORTATION_REF_VERSION);
+            boolean hasDeliveryTexts = SchemaMigrator.isAtLeast(DELIVERY_TEXTS_VERSION);
+            boolean hasStatusCode = SchemaMigrator.isAtLeast(STATUS_CODE_VERSION);
+            String sql = "INSERT INTO deliveries (exportation_id, delivery_date, tracking_number, status, notes, " +
+                        (hasExportationRef ? "exportation_ref, " : "") +
+                        (hasStatusCode ? "status_code, " : "") + "created_at, updated_at) " +
+                        "VALUES (?, ?, ?, ?, ?, " +
+                        (hasExportationRef ? "(SELECT id FROM exportations WHERE exportation_id = ?), " : "") +
+                        (hasStatusCode ? "?, " : "") +
+                        "NOW(), NOW())";
             
             logger.info("Generated SQL: " + sql);
             
@@ -426,48 +1062,72 @@ public class DeliveryController {
             stmt.setDate(2, new java.sql.Date(deliveryDate.getTime()));
             logger.info("Parameter 2 (delivery_date): " + deliveryDate);
             
-            // 3. tracking_number
-            String trackingNumber = delivery.getTrackingNumber() != null ? delivery.getTrackingNumber() : "";
+            // 3. tracking_number - NULL when empty, the column is UNIQUE from schema V9
+            String trackingNumber = TrackingNumberService.toStored(delivery.getTrackingNumber());
             stmt.setString(3, trackingNumber);
             logger.info("Parameter 3 (tracking_number): " + trackingNumber);
             
-            // 4. status
+            // 4. status - normalized, new deliveries without a known status are pending
             String status = delivery.getStatus();
             if (status == null || status.trim().isEmpty()) {
                 status = delivery.getDeliveryStatus();
             }
-            if (status == null || status.trim().isEmpty()) {
-                status = "Pending";
-            }
-            stmt.setString(4, status);
-            logger.info("Parameter 4 (status): " + status);
+            DeliveryStatus deliveryStatus = DeliveryStatus.parse(status, DeliveryStatus.PENDING);
+            stmt.setString(4, deliveryStatus.getDisplayName());
+            logger.info("Parameter 4 (status): " + deliveryStatus.getDisplayName());
             
-            // 5. notes
+            // 5. notes - kept out of the hot row once delivery_texts exists
             String notes = delivery.getNotes() != null ? delivery.getNotes() : "";
-            stmt.setString(5, notes);
+            stmt.setString(5, hasDeliveryTexts ? null : notes);
             logger.info("Parameter 5 (notes): " + notes);
             
+            // 6. exportation_ref - integer key of the exportation
+            int index = 6;
+            if (hasExportationRef) {
+                stmt.setString(index++, managedExportId);
+            }
+            
+            // 7. status_code
+            if (hasStatusCode) {
+                stmt.setInt(index, deliveryStatus.getCode());
+            }
+            
             int rowsAffected = stmt.executeUpdate();
             logger.info("Rows affected: " + rowsAffected);
             
-            if (rowsAffected > 0) {
-                // Get generated ID
-                ResultSet generatedKeys = stmt.getGeneratedKeys();
-                if (generatedKeys.next()) {
-                    int generatedId = generatedKeys.getInt(1);
-                    delivery.setId(generatedId);
-                    logger.info("Created delivery with database ID: " + generatedId);
-                }
-                generatedKeys.close();
-                
-                logger.info("Successfully created delivery");
-                return true;
-            } else {
+            if (rowsAffected <= 0) {
                 logger.warning("No rows affected when creating delivery");
                 return false;
             }
             
+            // Get generated ID
+            int generatedId = 0;
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    generatedId = generatedKeys.getInt(1);
+                }
+            }
+            if (generatedId <= 0) {
+                throw new SQLException("No generated ID returned for the new delivery");
+            }
+            if (hasDeliveryTexts) {
+                saveDeliveryText(conn, generatedId, notes);
+            }
+            conn.commit();
+            
+            // Shared state changes only once the delivery is really stored
+            delivery.setId(generatedId);
+            delivery.setDeliveryId("DEL" + String.format("%06d", generatedId));
+            delivery.setStatus(deliveryStatus.getDisplayName());
+            delivery.setDeliveryStatus(deliveryStatus.getDisplayName());
+            DeliveryStatusCounter.created(deliveryStatus);
+            DeliveryLookupIndex.put(generatedId, managedExportId, trackingNumber);
+            logger.info("Created delivery with database ID: " + generatedId);
+            return true;
+            
         } catch (SQLException e) {
+            queryFailed = true;
+            rollback(conn);
             logger.log(Level.SEVERE, "Error creating delivery: " + e.getMessage(), e);
             logger.severe("SQL State: " + e.getSQLState());
             logger.severe("Error Code: " + e.getErrorCode());
@@ -480,7 +1140,9 @@ public class DeliveryController {
             
             return false;
         } finally {
-            closeResources(conn, stmt, null);
+            PerformanceMetrics.endQuery("deliveries.create", queryStart, queryFailed);
+            closeResources(null, stmt, null);
+            closeDedicated(conn);
         }
     }
     
@@ -519,6 +1181,9 @@ public class DeliveryController {
         PreparedStatement stmt = null;
         ResultSet rs = null;
         
+        long queryStart = PerformanceMetrics.startQuery();
+        boolean queryFailed = false;
+        
         try {
             conn = getConnection();
             if (conn == null) {
@@ -542,9 +1207,11 @@ public class DeliveryController {
             return null;
             
         } catch (SQLException e) {
+            queryFailed = true;
             logger.log(Level.SEVERE, "Error retrieving exportation by ID: " + e.getMessage(), e);
             return createSampleExportation(exportationId);
         } finally {
+            PerformanceMetrics.endQuery("exportations.getById", queryStart, queryFailed);
             closeResources(conn, stmt, rs);
         }
     }
@@ -585,14 +1252,15 @@ public class DeliveryController {
                 exportation.setExportDate(exportDate);
             }
             
+            exportation.setCurrency(getStringOrNull(rs, "currency"));
+            
             try {
-                exportation.setUnitPrice(rs.getBigDecimal("unit_price"));
+                String priceCurrency = exportation.getCurrency() != null ? exportation.getCurrency() : "USD";
+                exportation.setUnitPrice(Money.fromResultSet(rs, "unit_price", priceCurrency));
             } catch (SQLException e) {
                 // Column doesn't exist, ignore
             }
             
-            exportation.setCurrency(getStringOrNull(rs, "currency"));
-            
             try {
                 exportation.setHasDelivery(rs.getBoolean("has_delivery"));
             } catch (SQLException e) {
@@ -675,17 +1343,19 @@ public class DeliveryController {
         Connection conn = null;
         PreparedStatement stmt = null;
         
+        long queryStart = PerformanceMetrics.startQuery();
+        boolean queryFailed = false;
+        
+        if (delivery.getId() <= 0) {
+            logger.severe("Cannot update delivery: Invalid ID - " + delivery.getId());
+            return false;
+        }
+        
         try {
-            conn = getConnection();
-            if (conn == null) {
-                logger.warning("Database connection is null");
-                return false;
-            }
-            
-            if (delivery.getId() <= 0) {
-                logger.severe("Cannot update delivery: Invalid ID - " + delivery.getId());
-                return false;
-            }
+            // The row and its delivery_texts entry are written in one
+            // transaction, which must not share the managed connection
+            conn = DatabaseManager.openDedicatedConnection();
+            conn.setAutoCommit(false);
             
             // Handle export ID the same way as create
             String exportId = extractExportId(delivery.getExportId());
@@ -693,8 +1363,17 @@ public class DeliveryController {
             logger.info("Managed Export ID for update: " + managedExportId);
             
             // SQL that matches your exact table structure
+            boolean hasExportationRef = SchemaMigrator.isAtLeast(EXPORTATION_REF_VERSION);
+            boolean hasDeliveryTexts = SchemaMigrator.isAtLeast(DELIVERY_TEXTS_VERSION);
+            boolean hasStatusCode = SchemaMigrator.isAtLeast(STATUS_CODE_VERSION);
             String sql = "UPDATE deliveries SET exportation_id = ?, delivery_date = ?, tracking_number = ?, " +
-                        "status = ?, notes = ?, updated_at = NOW() WHERE id = ?";
+                        "status = ?, notes = ?, updated_at = NOW()" +
+                        (hasExportationRef ? ", exportation_ref = (SELECT id FROM exportations WHERE exportation_id = ?)" : "") +
+                        (hasStatusCode ? ", status_code = ?" : "") +
+                        " WHERE id = ?";
+            
+            // Previous status, to move the delivery between the status counts
+            DeliveryStatus previousStatus = readStatus(conn, delivery.getId());
             
             logger.info("Generated UPDATE SQL: " + sql);
             
@@ -714,7 +1393,7 @@ public class DeliveryController {
                 logger.info("Parameter 2 (delivery_date): NULL");
             }
             
-            String trackingNumber = delivery.getTrackingNumber();
+            String trackingNumber = TrackingNumberService.toStored(delivery.getTrackingNumber());
             stmt.setString(3, trackingNumber);
             logger.info("Parameter 3 (tracking_number): " + trackingNumber);
             
@@ -722,34 +1401,57 @@ public class DeliveryController {
             if (status == null || status.trim().isEmpty()) {
                 status = delivery.getDeliveryStatus();
             }
+            // Unrecognised text is stored as given, with status_code 0
+            DeliveryStatus deliveryStatus = DeliveryStatus.parse(status);
+            if (deliveryStatus != null) {
+                status = deliveryStatus.getDisplayName();
+            }
             stmt.setString(4, status);
             logger.info("Parameter 4 (status): " + status);
             
             String notes = delivery.getNotes();
-            stmt.setString(5, notes);
+            stmt.setString(5, hasDeliveryTexts ? null : notes);
             logger.info("Parameter 5 (notes): " + notes);
             
-            stmt.setInt(6, delivery.getId());
-            logger.info("Parameter 6 (id): " + delivery.getId());
+            int idIndex = 6;
+            if (hasExportationRef) {
+                stmt.setString(idIndex++, managedExportId);
+            }
+            if (hasStatusCode) {
+                stmt.setInt(idIndex++, deliveryStatus != null ? deliveryStatus.getCode() : 0);
+            }
+            stmt.setInt(idIndex, delivery.getId());
+            logger.info("Parameter " + idIndex + " (id): " + delivery.getId());
             
             int rowsAffected = stmt.executeUpdate();
             logger.info("Update rows affected: " + rowsAffected);
             
-            if (rowsAffected > 0) {
-                logger.info("Successfully updated delivery");
-                return true;
-            } else {
+            if (rowsAffected <= 0) {
                 logger.warning("No rows affected when updating delivery with ID: " + delivery.getId());
                 return false;
             }
+            if (hasDeliveryTexts) {
+                saveDeliveryText(conn, delivery.getId(), notes);
+            }
+            conn.commit();
+            
+            // Shared state changes only once the update is really stored
+            DeliveryStatusCounter.changed(previousStatus, deliveryStatus);
+            DeliveryLookupIndex.put(delivery.getId(), managedExportId, trackingNumber);
+            logger.info("Successfully updated delivery");
+            return true;
             
         } catch (SQLException e) {
+            queryFailed = true;
+            rollback(conn);
             logger.log(Level.SEVERE, "Error updating delivery: " + e.getMessage(), e);
             logger.severe("SQL State: " + e.getSQLState());
             logger.severe("Error Code: " + e.getErrorCode());
             return false;
         } finally {
-            closeResources(conn, stmt, null);
+            PerformanceMetrics.endQuery("deliveries.update", queryStart, queryFailed);
+            closeResources(null, stmt, null);
+            closeDedicated(conn);
         }
     }
     
@@ -765,6 +1467,9 @@ public class DeliveryController {
         Connection conn = null;
         PreparedStatement stmt = null;
         
+        long queryStart = PerformanceMetrics.startQuery();
+        boolean queryFailed = false;
+        
         try {
             conn = getConnection();
             if (conn == null) {
@@ -777,19 +1482,27 @@ public class DeliveryController {
                 return false;
             }
             
+            DeliveryStatus previousStatus = readStatus(conn, id);
+            
             String sql = "DELETE FROM deliveries WHERE id = ?";
             stmt = conn.prepareStatement(sql);
             stmt.setInt(1, id);
             
             int rowsAffected = stmt.executeUpdate();
+            if (rowsAffected > 0) {
+                DeliveryStatusCounter.deleted(previousStatus);
+                DeliveryLookupIndex.remove(id);
+            }
             
             logger.info("Deleted delivery, rows affected: " + rowsAffected);
             return rowsAffected > 0;
             
         } catch (SQLException e) {
+            queryFailed = true;
             logger.log(Level.SEVERE, "Error deleting delivery: " + e.getMessage(), e);
             return false;
         } finally {
+            PerformanceMetrics.endQuery("deliveries.delete", queryStart, queryFailed);
             closeResources(conn, stmt, null);
         }
     }
@@ -806,6 +1519,9 @@ public class DeliveryController {
         PreparedStatement stmt = null;
         ResultSet rs = null;
         
+        long queryStart = PerformanceMetrics.startQuery();
+        boolean queryFailed = false;
+        
         try {
             conn = getConnection();
             if (conn == null) {
@@ -818,7 +1534,7 @@ public class DeliveryController {
                 return null;
             }
             
-            String sql = "SELECT * FROM deliveries WHERE id = ?";
+            String sql = deliverySelectSql() + " WHERE d.id = ?";
             stmt = conn.prepareStatement(sql);
             stmt.setInt(1, id);
             
@@ -830,13 +1546,22 @@ public class DeliveryController {
                 return delivery;
             }
             
+            // Not in the hot table: it may have been archived
+            Delivery_InfDTO archived = findArchivedDelivery(conn, "d.id = ?", id);
+            if (archived != null) {
+                logger.info("Found archived delivery by ID: " + deliveryId);
+                return archived;
+            }
+            
             logger.warning("No delivery found with ID: " + deliveryId);
             return null;
             
         } catch (SQLException e) {
+            queryFailed = true;
             logger.log(Level.SEVERE, "Error retrieving delivery: " + e.getMessage(), e);
             return createSampleDelivery(deliveryId, "EXP001");
         } finally {
+            PerformanceMetrics.endQuery("deliveries.getById", queryStart, queryFailed);
             closeResources(conn, stmt, rs);
         }
     }
@@ -854,6 +1579,9 @@ public class DeliveryController {
         PreparedStatement stmt = null;
         ResultSet rs = null;
         
+        long queryStart = PerformanceMetrics.startQuery();
+        boolean queryFailed = false;
+        
         try {
             conn = getConnection();
             if (conn == null) {
@@ -864,7 +1592,7 @@ public class DeliveryController {
             // Use the extracted export ID for searching
             String cleanExportId = extractExportId(exportId);
             
-            String sql = "SELECT * FROM deliveries WHERE exportation_id = ? LIMIT 1";
+            String sql = deliverySelectSql() + " WHERE d.exportation_id = ? LIMIT 1";
             stmt = conn.prepareStatement(sql);
             stmt.setString(1, cleanExportId);
             
@@ -876,13 +1604,21 @@ public class DeliveryController {
                 return delivery;
             }
             
+            Delivery_InfDTO archived = findArchivedDelivery(conn, "d.exportation_id = ?", cleanExportId);
+            if (archived != null) {
+                logger.info("Found archived delivery for export ID: " + exportId);
+                return archived;
+            }
+            
             logger.warning("No delivery found for export ID: " + exportId);
             return null;
             
         } catch (SQLException e) {
+            queryFailed = true;
             logger.log(Level.SEVERE, "Error retrieving delivery by export ID: " + e.getMessage(), e);
             return createSampleDelivery("DEL" + System.currentTimeMillis(), exportId);
         } finally {
+            PerformanceMetrics.endQuery("deliveries.getByExportId", queryStart, queryFailed);
             closeResources(conn, stmt, rs);
         }
     }
@@ -919,37 +1655,25 @@ public class DeliveryController {
             delivery.setTrackingNumber(getStringOrNull(rs, "tracking_number"));
             
             // status
-            String status = getStringOrNull(rs, "status");
+            String status = displayStatus(getStringOrNull(rs, "status"));
             delivery.setStatus(status);
             delivery.setDeliveryStatus(status);
             
-            // notes
-            delivery.setNotes(getStringOrNull(rs, "notes"));
+            // notes - inline for rows written by older clients, otherwise from delivery_texts
+            String notes = getStringOrNull(rs, "notes");
+            delivery.setNotes(notes != null ? notes : getStringOrNull(rs, "side_notes"));
             
-            // timestamps
+            // timestamps; the DTO defaults to now, as it does for the fields not in the table
             Date createdAt = getTimestampOrNull(rs, "created_at");
             if (createdAt != null) {
                 delivery.setCreatedAt(createdAt);
-            } else {
-                delivery.setCreatedAt(new Date());
             }
             
             Date updatedAt = getTimestampOrNull(rs, "updated_at");
             if (updatedAt != null) {
                 delivery.setUpdatedAt(updatedAt);
-            } else {
-                delivery.setUpdatedAt(new Date());
             }
             
-            // Set default values for fields not in your table
-            delivery.setCarrierName("Not specified");
-            delivery.setDeliveryAddress("Not specified");
-            delivery.setContactPerson("Not specified");
-            delivery.setContactPhone("Not specified");
-            delivery.setShippingMethod("Standard");
-            delivery.setShippingCost(0.0);
-            delivery.setShippingCurrency("USD");
-            
             return delivery;
             
         } catch (SQLException e) {
@@ -958,6 +1682,61 @@ public class DeliveryController {
         }
     }
     
+    /**
+     * Select for full delivery rows matching the current schema, aliased as d
+     */
+    private String deliverySelectSql() {
+        return SchemaMigrator.isAtLeast(DELIVERY_TEXTS_VERSION) ? DELIVERY_SELECT_TEXTS_SQL : DELIVERY_SELECT_SQL;
+    }
+    
+    /**
+     * Status of a delivery as stored, or null if unknown or not found
+     */
+    private DeliveryStatus readStatus(Connection conn, int id) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_STATUS_SQL)) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? DeliveryStatus.parse(rs.getString(1)) : null;
+            }
+        }
+    }
+    
+    /**
+     * Display name of a stored status; unrecognised text is shown as stored
+     */
+    private static String displayStatus(String status) {
+        DeliveryStatus parsed = DeliveryStatus.parse(status);
+        return parsed != null ? parsed.getDisplayName() : status;
+    }
+    
+    /**
+     * Look a delivery up in deliveries_archive, if the schema has one
+     *
+     * @param condition WHERE condition on alias d with one parameter
+     */
+    private Delivery_InfDTO findArchivedDelivery(Connection conn, String condition, Object value) throws SQLException {
+        if (!SchemaMigrator.isAtLeast(DeliveryArchiveService.ARCHIVE_VERSION)) {
+            return null;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(ARCHIVE_SELECT_SQL + " WHERE " + condition + " LIMIT 1")) {
+            stmt.setObject(1, value);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? mapResultSetToDelivery(rs) : null;
+            }
+        }
+    }
+    
+    /**
+     * Store delivery notes in the delivery_texts side table
+     */
+    private void saveDeliveryText(Connection conn, int deliveryId, String notes) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SAVE_DELIVERY_TEXT_SQL)) {
+            stmt.setInt(1, deliveryId);
+            stmt.setString(2, notes);
+            stmt.executeUpdate();
+        }
+    }
+    
     // Helper methods for safe field extraction
     
     private String getStringOrNull(ResultSet rs, String columnName) {
@@ -1013,6 +1792,38 @@ public class DeliveryController {
         }
     }
     
+    /**
+     * Roll back the open transaction of a dedicated connection, if any
+     */
+    private void rollback(Connection conn) {
+        if (conn == null) {
+            return;
+        }
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Error rolling back delivery write", e);
+        }
+    }
+    
+    /**
+     * Close a connection from {@link DatabaseManager#openDedicatedConnection()};
+     * uncommitted work is rolled back
+     */
+    private void closeDedicated(Connection conn) {
+        if (conn == null) {
+            return;
+        }
+        try {
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+            }
+            conn.close();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Error closing delivery connection", e);
+        }
+    }
+    
     /**
      * Close database resources safely
      */
@@ -1047,7 +1858,7 @@ public class DeliveryController {
         sample.setDeliveryStatus("PENDING");
         sample.setNotes("Sample delivery");
         sample.setShippingMethod("Standard");
-        sample.setShippingCost(25.00);
+        sample.setShippingCost(Money.ofMinor(2500, "USD"));
         sample.setShippingCurrency("USD");
         sample.setCreatedAt(currentDate);
         sample.setUpdatedAt(currentDate);
@@ -1090,7 +1901,7 @@ public class DeliveryController {
             sample.setDeliveryDate(currentDate);
             sample.setDate(currentDate);
             sample.setShippingMethod("Standard");
-            sample.setShippingCost(25.00 + (i * 5));
+            sample.setShippingCost(Money.ofMinor(2500 + i * 500, "USD"));
             sample.setShippingCurrency("USD");
             sample.setCreatedAt(currentDate);
             sample.setUpdatedAt(currentDate);
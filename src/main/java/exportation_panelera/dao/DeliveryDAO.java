@@ -1,16 +1,87 @@
 package exportation_panelera.dao;
 
+import exportation_panelera.Model.DeliveryListItem;
+import exportation_panelera.Model.DeliveryStatus;
 import exportation_panelera.Model.Delivery_InfDTO;
+import exportation_panelera.Model.Page;
 import exportation_panelera.db.DatabaseManager;
+import exportation_panelera.db.SchemaMigrator;
+import exportation_panelera.metrics.PerformanceMetrics;
+import exportation_panelera.service.TrackingNumberService;
 import java.sql.*;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class DeliveryDAO {
     private static final Logger logger = Logger.getLogger(DeliveryDAO.class.getName());
+    
+    // Schema versions the text search relies on
+    private static final int DELIVERY_TEXTS_VERSION = 3;
+    private static final int FULLTEXT_VERSION = 7;
+    
+    // InnoDB ignores shorter words (innodb_ft_min_token_size)
+    private static final int MIN_WORD_LENGTH = 3;
+    
+    private static final String TEXT_SEARCH_COLUMNS =
+        "SELECT d.id, d.exportation_id, d.tracking_number, COALESCE(d.notes, t.notes) AS notes, " +
+        "d.delivery_date, d.status, d.created_at, d.updated_at, e.destination, e.customer_name, " +
+        "e.amount * e.unit_price AS total_value, e.currency";
+    
+    // Texts an older client wrote inline since V3 take precedence over
+    // delivery_texts and are not in the full-text index
+    private static final String INLINE_TEXTS = "(d.notes IS NOT NULL OR d.delivery_address IS NOT NULL)";
+    private static final String NO_INLINE_TEXTS = "d.notes IS NULL AND d.delivery_address IS NULL";
+    private static final String TEXT_LIKE_CONDITION =
+        "(COALESCE(d.notes, t.notes) LIKE ? OR COALESCE(d.delivery_address, t.delivery_address) LIKE ?)";
+    private static final String TEXT_MATCH = "MATCH (t.notes, t.delivery_address) AGAINST (? IN BOOLEAN MODE)";
+    
+    // Ranked by MySQL's relevance score, newest first on ties; rows with
+    // inline texts are found with LIKE and come after the ranked ones
+    private static final String TEXT_SEARCH_SQL =
+        "(" + TEXT_SEARCH_COLUMNS + ", " + TEXT_MATCH + " AS relevance " +
+        "FROM delivery_texts t JOIN deliveries d ON d.id = t.delivery_id " +
+        "LEFT JOIN exportations e ON e.id = d.exportation_ref " +
+        "WHERE " + TEXT_MATCH + " AND " + NO_INLINE_TEXTS + ") " +
+        "UNION ALL (" + TEXT_SEARCH_COLUMNS + ", 0 AS relevance FROM deliveries d " +
+        "LEFT JOIN delivery_texts t ON t.delivery_id = d.id " +
+        "LEFT JOIN exportations e ON e.id = d.exportation_ref " +
+        "WHERE " + INLINE_TEXTS + " AND " + TEXT_LIKE_CONDITION + ") " +
+        "ORDER BY relevance DESC, id DESC LIMIT ? OFFSET ?";
+    private static final String TEXT_COUNT_SQL =
+        "SELECT (SELECT COUNT(*) FROM delivery_texts t JOIN deliveries d ON d.id = t.delivery_id " +
+        "WHERE " + TEXT_MATCH + " AND " + NO_INLINE_TEXTS + ") + " +
+        "(SELECT COUNT(*) FROM deliveries d LEFT JOIN delivery_texts t ON t.delivery_id = d.id " +
+        "WHERE " + INLINE_TEXTS + " AND " + TEXT_LIKE_CONDITION + ")";
+    
+    // Before the full-text index exists: a scan, but still on the server
+    private static final String TEXT_LIKE_SQL =
+        TEXT_SEARCH_COLUMNS + " FROM deliveries d " +
+        "LEFT JOIN delivery_texts t ON t.delivery_id = d.id " +
+        "LEFT JOIN exportations e ON e.id = d.exportation_ref " +
+        "WHERE " + TEXT_LIKE_CONDITION + " " +
+        "ORDER BY d.id DESC LIMIT ? OFFSET ?";
+    private static final String TEXT_LIKE_COUNT_SQL =
+        "SELECT COUNT(*) FROM deliveries d LEFT JOIN delivery_texts t ON t.delivery_id = d.id " +
+        "WHERE " + TEXT_LIKE_CONDITION;
+    
+    // Full delivery rows, with the side-table texts from schema V3
+    private static final String DELIVERY_SELECT_SQL = "SELECT * FROM deliveries d";
+    private static final String DELIVERY_SELECT_TEXTS_SQL =
+        "SELECT d.*, t.notes AS side_notes FROM deliveries d " +
+        "LEFT JOIN delivery_texts t ON t.delivery_id = d.id";
+    
+    private static final String INSERT_DELIVERY_SQL =
+        "INSERT INTO deliveries (exportation_id, delivery_date, tracking_number, status, notes) VALUES (?, ?, ?, ?, ?)";
+    private static final String UPDATE_DELIVERY_SQL =
+        "UPDATE deliveries SET exportation_id = ?, delivery_date = ?, tracking_number = ?, status = ?, notes = ? WHERE id = ?";
+    private static final String SAVE_DELIVERY_TEXT_SQL =
+        "INSERT INTO delivery_texts (delivery_id, notes) VALUES (?, ?) " +
+        "ON DUPLICATE KEY UPDATE notes = VALUES(notes)";
+    
     private Connection connection;
     private SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
     
@@ -38,14 +109,15 @@ public class DeliveryDAO {
                 }
             }
             
-            String query = "SELECT * FROM deliveries ORDER BY id ASC";
+            boolean hasDeliveryTexts = SchemaMigrator.isAtLeast(DELIVERY_TEXTS_VERSION);
+            String query = (hasDeliveryTexts ? DELIVERY_SELECT_TEXTS_SQL : DELIVERY_SELECT_SQL) + " ORDER BY d.id ASC";
             PreparedStatement statement = connection.prepareStatement(query);
             ResultSet rs = statement.executeQuery();
             
             logger.info("Executing query: " + query);
             
             while (rs.next()) {
-                Delivery_InfDTO delivery = mapResultSetToDTO(rs);
+                Delivery_InfDTO delivery = mapResultSetToDTO(rs, hasDeliveryTexts);
                 deliveries.add(delivery);
             }
             
@@ -76,7 +148,8 @@ public class DeliveryDAO {
                 }
             }
             
-            String query = "SELECT * FROM deliveries WHERE id = ?";
+            boolean hasDeliveryTexts = SchemaMigrator.isAtLeast(DELIVERY_TEXTS_VERSION);
+            String query = (hasDeliveryTexts ? DELIVERY_SELECT_TEXTS_SQL : DELIVERY_SELECT_SQL) + " WHERE d.id = ?";
             PreparedStatement statement = connection.prepareStatement(query);
             statement.setInt(1, id);
             
@@ -85,7 +158,7 @@ public class DeliveryDAO {
             ResultSet rs = statement.executeQuery();
             
             if (rs.next()) {
-                delivery = mapResultSetToDTO(rs);
+                delivery = mapResultSetToDTO(rs, hasDeliveryTexts);
                 logger.info("Found delivery with ID: " + id);
             } else {
                 logger.warning("No delivery found with ID: " + id);
@@ -101,46 +174,40 @@ public class DeliveryDAO {
     }
     
     /**
-     * Insert a new delivery
+     * Insert a new delivery. From schema V3 the notes go to delivery_texts,
+     * in the same transaction as the row.
      */
     public boolean insertDelivery(Delivery_InfDTO delivery) {
-        try {
-            // Make sure we have a connection
-            if (connection == null || connection.isClosed()) {
-                connection = DatabaseManager.getConnection();
-                if (connection == null) {
-                    logger.warning("Could not establish database connection");
+        boolean hasDeliveryTexts = SchemaMigrator.isAtLeast(DELIVERY_TEXTS_VERSION);
+        
+        try (Connection conn = DatabaseManager.openDedicatedConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int id = 0;
+                try (PreparedStatement statement = conn.prepareStatement(INSERT_DELIVERY_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                    bindDelivery(statement, delivery, hasDeliveryTexts);
+                    int result = statement.executeUpdate();
+                    logger.info("Insert result: " + result + " rows affected");
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        if (keys.next()) {
+                            id = keys.getInt(1);
+                        }
+                    }
+                }
+                if (id <= 0) {
+                    conn.rollback();
                     return false;
                 }
+                if (hasDeliveryTexts) {
+                    saveDeliveryText(conn, id, delivery.getNotes());
+                }
+                conn.commit();
+                delivery.setId(id);
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
-            
-            String query = "INSERT INTO deliveries (exportation_id, delivery_date, tracking_number, status, notes) VALUES (?, ?, ?, ?, ?)";
-            PreparedStatement statement = connection.prepareStatement(query);
-            
-            // Get export ID without "EXP" prefix if present
-            String exportId = delivery.getExportId();
-            if (exportId != null && exportId.startsWith("EXP")) {
-                exportId = exportId.substring(3);
-            }
-            
-            statement.setString(1, exportId);
-            
-            // Convert delivery date to string
-            if (delivery.getDeliveryDate() != null) {
-                statement.setString(2, dateFormat.format(delivery.getDeliveryDate()));
-            } else {
-                statement.setNull(2, java.sql.Types.DATE);
-            }
-            
-            statement.setString(3, delivery.getTrackingNumber());
-            statement.setString(4, delivery.getStatus() != null ? delivery.getStatus() : delivery.getDeliveryStatus());
-            statement.setString(5, delivery.getNotes());
-            
-            int result = statement.executeUpdate();
-            statement.close();
-            
-            logger.info("Insert result: " + result + " rows affected");
-            return result > 0;
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error inserting delivery: " + e.getMessage(), e);
             return false;
@@ -148,53 +215,78 @@ public class DeliveryDAO {
     }
     
     /**
-     * Update an existing delivery
+     * Update an existing delivery. From schema V3 the notes go to
+     * delivery_texts, in the same transaction as the row.
      */
     public boolean updateDelivery(Delivery_InfDTO delivery) {
-        try {
-            // Make sure we have a connection
-            if (connection == null || connection.isClosed()) {
-                connection = DatabaseManager.getConnection();
-                if (connection == null) {
-                    logger.warning("Could not establish database connection");
+        boolean hasDeliveryTexts = SchemaMigrator.isAtLeast(DELIVERY_TEXTS_VERSION);
+        
+        try (Connection conn = DatabaseManager.openDedicatedConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int result;
+                try (PreparedStatement statement = conn.prepareStatement(UPDATE_DELIVERY_SQL)) {
+                    bindDelivery(statement, delivery, hasDeliveryTexts);
+                    statement.setInt(6, delivery.getId());
+                    result = statement.executeUpdate();
+                }
+                logger.info("Update result: " + result + " rows affected");
+                if (result == 0) {
+                    conn.rollback();
                     return false;
                 }
+                if (hasDeliveryTexts) {
+                    saveDeliveryText(conn, delivery.getId(), delivery.getNotes());
+                }
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
-            
-            String query = "UPDATE deliveries SET exportation_id = ?, delivery_date = ?, tracking_number = ?, status = ?, notes = ? WHERE id = ?";
-            PreparedStatement statement = connection.prepareStatement(query);
-            
-            // Get export ID without "EXP" prefix if present
-            String exportId = delivery.getExportId();
-            if (exportId != null && exportId.startsWith("EXP")) {
-                exportId = exportId.substring(3);
-            }
-            
-            statement.setString(1, exportId);
-            
-            // Convert delivery date to string
-            if (delivery.getDeliveryDate() != null) {
-                statement.setString(2, dateFormat.format(delivery.getDeliveryDate()));
-            } else {
-                statement.setNull(2, java.sql.Types.DATE);
-            }
-            
-            statement.setString(3, delivery.getTrackingNumber());
-            statement.setString(4, delivery.getStatus() != null ? delivery.getStatus() : delivery.getDeliveryStatus());
-            statement.setString(5, delivery.getNotes());
-            statement.setInt(6, delivery.getId());
-            
-            int result = statement.executeUpdate();
-            statement.close();
-            
-            logger.info("Update result: " + result + " rows affected");
-            return result > 0;
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error updating delivery: " + e.getMessage(), e);
             return false;
         }
     }
     
+    /**
+     * Bind the five columns shared by the insert and the update
+     */
+    private void bindDelivery(PreparedStatement statement, Delivery_InfDTO delivery, boolean hasDeliveryTexts)
+            throws SQLException {
+        // Get export ID without "EXP" prefix if present
+        String exportId = delivery.getExportId();
+        if (exportId != null && exportId.startsWith("EXP")) {
+            exportId = exportId.substring(3);
+        }
+        
+        statement.setString(1, exportId);
+        
+        // Convert delivery date to string
+        if (delivery.getDeliveryDate() != null) {
+            statement.setString(2, dateFormat.format(delivery.getDeliveryDate()));
+        } else {
+            statement.setNull(2, java.sql.Types.DATE);
+        }
+        
+        statement.setString(3, TrackingNumberService.toStored(delivery.getTrackingNumber()));
+        statement.setString(4, delivery.getStatus() != null ? delivery.getStatus() : delivery.getDeliveryStatus());
+        // Kept out of the hot row once delivery_texts exists
+        statement.setString(5, hasDeliveryTexts ? null : delivery.getNotes());
+    }
+    
+    /**
+     * Store delivery notes in the delivery_texts side table
+     */
+    private void saveDeliveryText(Connection conn, int deliveryId, String notes) throws SQLException {
+        try (PreparedStatement statement = conn.prepareStatement(SAVE_DELIVERY_TEXT_SQL)) {
+            statement.setInt(1, deliveryId);
+            statement.setString(2, notes);
+            statement.executeUpdate();
+        }
+    }
+    
     /**
      * Delete a delivery by its ID
      */
@@ -224,10 +316,138 @@ public class DeliveryDAO {
         }
     }
     
+    /**
+     * Search delivery notes and addresses for words, most relevant first.
+     *
+     * Every word of the query must occur, as a whole word or a word prefix
+     * ("refrig" finds "refrigerated"); text in double quotes is matched as a
+     * phrase. Words shorter than three characters are ignored. Uses the
+     * FULLTEXT index of schema V7, or LIKE on older schemas. Texts an older
+     * client wrote inline in deliveries are matched with LIKE on the whole
+     * query and listed after the ranked matches.
+     *
+     * @param query words to find
+     * @param offset index of the first match
+     * @param limit maximum number of matches
+     * @return the page of matches; empty if there is nothing to search for or no connection
+     */
+    public Page<DeliveryListItem> searchText(String query, int offset, int limit) {
+        String booleanQuery = toBooleanQuery(query);
+        if (booleanQuery.isEmpty() || !SchemaMigrator.isAtLeast(DELIVERY_TEXTS_VERSION)) {
+            return new Page<>(Collections.emptyList(), offset, limit, 0);
+        }
+        boolean fullText = SchemaMigrator.isAtLeast(FULLTEXT_VERSION);
+        
+        long queryStart = PerformanceMetrics.startQuery();
+        boolean queryFailed = false;
+        try {
+            if (connection == null || connection.isClosed()) {
+                connection = DatabaseManager.getConnection();
+                if (connection == null) {
+                    logger.warning("Could not establish database connection");
+                    return new Page<>(Collections.emptyList(), offset, limit, 0);
+                }
+            }
+            
+            String like = "%" + escapeLike(query.trim()) + "%";
+            int totalCount = 0;
+            try (PreparedStatement statement = connection.prepareStatement(fullText ? TEXT_COUNT_SQL : TEXT_LIKE_COUNT_SQL)) {
+                int index = 1;
+                if (fullText) {
+                    statement.setString(index++, booleanQuery);
+                }
+                statement.setString(index++, like);
+                statement.setString(index, like);
+                try (ResultSet rs = statement.executeQuery()) {
+                    if (rs.next()) {
+                        totalCount = rs.getInt(1);
+                    }
+                }
+            }
+            
+            List<DeliveryListItem> items = new ArrayList<>(Math.min(limit, 1024));
+            try (PreparedStatement statement = connection.prepareStatement(fullText ? TEXT_SEARCH_SQL : TEXT_LIKE_SQL)) {
+                int index = 1;
+                if (fullText) {
+                    statement.setString(index++, booleanQuery);
+                    statement.setString(index++, booleanQuery);
+                }
+                statement.setString(index++, like);
+                statement.setString(index++, like);
+                statement.setInt(index++, limit);
+                statement.setInt(index, offset);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        items.add(DeliveryListItem.fromResultSet(rs));
+                    }
+                }
+            }
+            
+            logger.fine("Text search for '" + booleanQuery + "' found " + totalCount + " deliveries");
+            return new Page<>(items, offset, limit, totalCount);
+            
+        } catch (SQLException e) {
+            queryFailed = true;
+            logger.log(Level.SEVERE, "Error searching delivery texts: " + e.getMessage(), e);
+            return new Page<>(Collections.emptyList(), offset, limit, 0);
+        } finally {
+            PerformanceMetrics.endQuery(fullText ? "deliveries.textSearch" : "deliveries.textSearch.like",
+                    queryStart, queryFailed);
+        }
+    }
+    
+    /**
+     * Whether a query has any word {@link #searchText} can look for
+     */
+    public static boolean isTextSearchable(String query) {
+        return !toBooleanQuery(query).isEmpty();
+    }
+    
+    /**
+     * Boolean-mode query requiring every word (as a prefix) and phrase of
+     * the user's text. Operator characters typed by the user are dropped, so
+     * any input gives a valid query.
+     */
+    static String toBooleanQuery(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder query = new StringBuilder();
+        String[] parts = text.split("\"", -1);
+        for (int i = 0; i < parts.length; i++) {
+            // Odd parts were inside quotes; an unclosed quote counts as plain words
+            boolean phrase = i % 2 == 1 && i < parts.length - 1;
+            List<String> words = new ArrayList<>();
+            for (String word : parts[i].split("[^\\p{L}\\p{N}]+")) {
+                if (word.length() >= MIN_WORD_LENGTH) {
+                    words.add(word);
+                }
+            }
+            if (words.isEmpty()) {
+                continue;
+            }
+            if (query.length() > 0) {
+                query.append(' ');
+            }
+            if (phrase) {
+                query.append("+\"").append(String.join(" ", words)).append('"');
+            } else {
+                for (int w = 0; w < words.size(); w++) {
+                    query.append(w > 0 ? " +" : "+").append(words.get(w)).append('*');
+                }
+            }
+        }
+        return query.toString();
+    }
+    
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
     /**
      * Map ResultSet to DTO
      */
-    private Delivery_InfDTO mapResultSetToDTO(ResultSet rs) throws SQLException {
+    private Delivery_InfDTO mapResultSetToDTO(ResultSet rs, boolean hasDeliveryTexts) throws SQLException {
         Delivery_InfDTO delivery = new Delivery_InfDTO();
         
         try {
@@ -249,8 +469,9 @@ public class DeliveryDAO {
             delivery.setStatus(status);
             delivery.setDeliveryStatus(status); // For compatibility
             
-            // Notes
-            delivery.setNotes(rs.getString("notes"));
+            // Notes - inline for rows written by older clients, otherwise from delivery_texts
+            String notes = rs.getString("notes");
+            delivery.setNotes(notes != null || !hasDeliveryTexts ? notes : rs.getString("side_notes"));
             
             // Handle date fields
             String deliveryDateStr = rs.getString("delivery_date");
@@ -1,10 +1,16 @@
 package exportation_panelera.dao;
 
 import exportation_panelera.Model.LoginDTO;
+import exportation_panelera.concurrent.AppExecutors;
+import exportation_panelera.concurrent.TaskType;
 import exportation_panelera.db.DatabaseManager;
+import exportation_panelera.metrics.PerformanceMetrics;
+import exportation_panelera.service.AuthenticationService;
+import exportation_panelera.service.PasswordHasher;
 
 import java.sql.*;
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -33,11 +39,17 @@ public class UserDAO {
     private static final String UPDATE_PASSWORD_SQL = 
         "UPDATE users SET password_hash = ?, updated_at = ? WHERE username = ?";
     
+    // Only replaces the hash that was verified, so a concurrent password change wins
+    private static final String REHASH_PASSWORD_SQL = 
+        "UPDATE users SET password_hash = ? WHERE username = ? AND password_hash = ?";
+    
     private static final String DEACTIVATE_USER_SQL = 
         "UPDATE users SET is_active = 0, updated_at = ? WHERE username = ?";
     
     /**
-     * Authenticate a user with username and password
+     * Authenticate a user with username and password.
+     * Does not record the login; see AuthenticationService for caching,
+     * lockout and batched last_login updates.
      * 
      * @param username The username
      * @param password The plain text password
@@ -59,6 +71,9 @@ public class UserDAO {
         PreparedStatement stmt = null;
         ResultSet rs = null;
         
+        long queryStart = PerformanceMetrics.startQuery();
+        boolean queryFailed = false;
+        
         try {
             conn = DatabaseManager.getConnection();
             
@@ -82,13 +97,13 @@ public class UserDAO {
                     return false;
                 }
                 
-                // Verify password (in real app, use proper password hashing)
                 boolean passwordValid = verifyPassword(password, storedHash);
                 
                 if (passwordValid) {
-                    // Update last login time
-                    updateLastLogin(username);
                     logger.info("User authenticated successfully: " + username);
+                    if (PasswordHasher.needsRehash(storedHash)) {
+                        rehashPassword(username.trim(), password, storedHash);
+                    }
                     return true;
                 } else {
                     logger.warning("Authentication failed for user: " + username + " (invalid password)");
@@ -100,11 +115,13 @@ public class UserDAO {
             }
             
         } catch (SQLException e) {
+            queryFailed = true;
             logger.log(Level.SEVERE, "Database error during authentication for user: " + username, e);
             // Fallback to offline authentication
             return authenticateOffline(username, password);
             
         } finally {
+            PerformanceMetrics.endQuery("users.authenticate", queryStart, queryFailed);
             closeResources(conn, stmt, rs);
         }
     }
@@ -163,7 +180,11 @@ public class UserDAO {
             
             stmt = conn.prepareStatement(CREATE_USER_SQL);
             stmt.setString(1, loginDTO.getUsername());
-            stmt.setString(2, hashPassword(loginDTO.getPassword()));
+            String passwordHash = hashPassword(loginDTO.getPassword());
+            if (passwordHash == null) {
+                return false;
+            }
+            stmt.setString(2, passwordHash);
             stmt.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
             
             int affectedRows = stmt.executeUpdate();
@@ -203,6 +224,11 @@ public class UserDAO {
             return false;
         }
         
+        String passwordHash = hashPassword(newPassword);
+        if (passwordHash == null) {
+            return false;
+        }
+        
         Connection conn = null;
         PreparedStatement stmt = null;
         
@@ -215,11 +241,13 @@ public class UserDAO {
             }
             
             stmt = conn.prepareStatement(UPDATE_PASSWORD_SQL);
-            stmt.setString(1, hashPassword(newPassword));
+            stmt.setString(1, passwordHash);
             stmt.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
             stmt.setString(3, username.trim());
             
             int affectedRows = stmt.executeUpdate();
+            // The old password must not sign in from the cache any more
+            AuthenticationService.invalidate(username);
             
             if (affectedRows > 0) {
                 logger.info("Password updated successfully for user: " + username);
@@ -266,6 +294,7 @@ public class UserDAO {
             stmt.setString(2, username.trim());
             
             int affectedRows = stmt.executeUpdate();
+            AuthenticationService.invalidate(username);
             
             if (affectedRows > 0) {
                 logger.info("User deactivated successfully: " + username);
@@ -317,45 +346,108 @@ public class UserDAO {
     }
     
     /**
-     * Update the last login time for a user
+     * Update the last login time of several users in one JDBC batch
+     * 
+     * @param lastLogins login time per username
+     * @return number of users updated
      */
-    private void updateLastLogin(String username) {
+    public int updateLastLogins(Map<String, Timestamp> lastLogins) {
+        if (lastLogins == null || lastLogins.isEmpty()) {
+            return 0;
+        }
+        
         Connection conn = null;
         PreparedStatement stmt = null;
         
+        long queryStart = PerformanceMetrics.startQuery();
+        boolean queryFailed = false;
+        
         try {
             conn = DatabaseManager.getConnection();
-            if (conn == null) return;
+            if (conn == null) return 0;
             
             stmt = conn.prepareStatement(UPDATE_LAST_LOGIN_SQL);
-            stmt.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
-            stmt.setString(2, username);
+            for (Map.Entry<String, Timestamp> entry : lastLogins.entrySet()) {
+                stmt.setTimestamp(1, entry.getValue());
+                stmt.setString(2, entry.getKey());
+                stmt.addBatch();
+            }
             
-            stmt.executeUpdate();
+            int updated = 0;
+            for (int count : stmt.executeBatch()) {
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    updated++;
+                }
+            }
+            return updated;
             
         } catch (SQLException e) {
-            logger.log(Level.WARNING, "Error updating last login for user: " + username, e);
+            queryFailed = true;
+            logger.log(Level.WARNING, "Error updating last login for users: " + lastLogins.keySet(), e);
+            return 0;
         } finally {
+            PerformanceMetrics.endQuery("users.updateLastLogins", queryStart, queryFailed);
             closeResources(conn, stmt, null);
         }
     }
     
     /**
-     * Hash a password (simplified - use BCrypt or similar in production)
+     * Store a hash with the current work factor after a successful login
+     * with a legacy or weaker one. Runs in the background; a failure only
+     * means the upgrade is retried at the next login.
+     */
+    private void rehashPassword(String username, String password, String oldHash) {
+        PasswordHasher.hashAsync(password)
+            .thenCompose(newHash -> AppExecutors.submit(TaskType.DB_IO, () -> {
+                Connection conn = DatabaseManager.getConnection();
+                if (conn == null) {
+                    return false;
+                }
+                PreparedStatement stmt = null;
+                try {
+                    stmt = conn.prepareStatement(REHASH_PASSWORD_SQL);
+                    stmt.setString(1, newHash);
+                    stmt.setString(2, username);
+                    stmt.setString(3, oldHash);
+                    return stmt.executeUpdate() > 0;
+                } finally {
+                    closeResources(conn, stmt, null);
+                }
+            }))
+            .whenComplete((updated, e) -> {
+                if (e != null) {
+                    logger.log(Level.WARNING, "Could not upgrade password hash for user: " + username, e);
+                } else if (updated) {
+                    PerformanceMetrics.incrementCounter("auth.rehash");
+                    logger.info("Upgraded password hash for user: " + username);
+                }
+            });
+    }
+    
+    /**
+     * Hash a password on the hashing executor
+     * 
+     * @return the hash, or null if hashing failed
      */
     private String hashPassword(String password) {
-        // In a real application, use BCrypt, Argon2, or similar
-        // This is just a simple example
-        return password + "_hashed"; // Replace with proper hashing
+        try {
+            return PasswordHasher.hash(password);
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Error hashing password", e);
+            return null;
+        }
     }
     
     /**
-     * Verify a password against its hash
+     * Verify a password against its hash on the hashing executor
      */
     private boolean verifyPassword(String password, String hash) {
-        // In a real application, use proper password verification
-        // This is just a simple example
-        return (password + "_hashed").equals(hash);
+        try {
+            return PasswordHasher.verify(password, hash);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Error verifying password", e);
+            return false;
+        }
     }
     
     /**
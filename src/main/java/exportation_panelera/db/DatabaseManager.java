@@ -1,10 +1,13 @@
 package exportation_panelera.db;
 
+import exportation_panelera.service.PasswordHasher;
+
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -71,6 +74,14 @@ public class DatabaseManager {
                 
                 logger.info("Database connection initialized successfully");
                 logger.info("Connected to: " + connection.getMetaData().getDatabaseProductName());
+                
+                // Only read the schema version here; createTablesIfNotExist migrates
+                // on its own connection, outside this lock
+                try {
+                    SchemaMigrator.readVersion(connection);
+                } catch (SQLException e) {
+                    logger.log(Level.WARNING, "Could not read the schema version", e);
+                }
                 return true;
             } else {
                 throw new SQLException("Connection validation failed");
@@ -131,6 +142,32 @@ public class DatabaseManager {
         return connection;
     }
     
+    /**
+     * Open a separate connection for work that must not share the managed
+     * connection, such as multi-statement transactions. Every statement on the
+     * managed connection runs in whatever transaction is open on it, so a
+     * transaction there would swallow (and could roll back) other callers'
+     * writes.
+     *
+     * @return a new connection; the caller must close it
+     * @throws SQLException if offline or the connection cannot be opened
+     */
+    public static Connection openDedicatedConnection() throws SQLException {
+        if (offlineMode.get()) {
+            throw new SQLException("Cannot open a database connection - system is in offline mode");
+        }
+        try {
+            Class.forName(JDBC_DRIVER);
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("MySQL JDBC driver not found", e);
+        }
+        return DriverManager.getConnection(
+            DB_URL + "?connectTimeout=5000&socketTimeout=10000",
+            DB_USER,
+            DB_PASSWORD
+        );
+    }
+    
     /**
      * Check if the connection needs to be tested based on time interval
      * 
@@ -303,6 +340,24 @@ public class DatabaseManager {
         }
     }
     
+    /**
+     * Number of open managed connections, without touching the network.
+     * Used by the diagnostics sampler, which must stay cheap.
+     *
+     * @return 1 if the shared connection is open, 0 otherwise
+     */
+    public static int getOpenConnectionCount() {
+        Connection current = connection;
+        if (offlineMode.get() || !initialized.get() || current == null) {
+            return 0;
+        }
+        try {
+            return current.isClosed() ? 0 : 1;
+        } catch (SQLException e) {
+            return 0;
+        }
+    }
+
     /**
      * Get database connection status information
      * 
@@ -384,83 +439,44 @@ public class DatabaseManager {
      * @return true if tables were created or already exist
      */
     public static boolean createTablesIfNotExist() {
+        return createTablesIfNotExist(message -> { });
+    }
+    
+    /**
+     * Create database tables if they don't exist and apply pending schema
+     * migrations. The migration runs on a connection of its own and does not
+     * hold this class's lock, so other database work goes on between its
+     * backfill batches.
+     * 
+     * @param progress receives migration progress messages on the calling thread
+     * @return true if tables were created or already exist
+     */
+    public static boolean createTablesIfNotExist(Consumer<String> progress) {
         if (offlineMode.get()) {
             logger.info("In offline mode - skipping table creation");
             return true;
         }
         
         try {
-            Connection conn = getConnection();
-            if (conn == null) {
+            // Connect the shared connection first, so an unreachable server
+            // puts the application in offline mode as before
+            if (getConnection() == null) {
                 logger.warning("Cannot create tables - no database connection");
                 return false;
             }
             
-            // Create deliveries table using traditional string concatenation
-            String createDeliveriesTable = "CREATE TABLE IF NOT EXISTS deliveries (" +
-                "id INT AUTO_INCREMENT PRIMARY KEY," +
-                "delivery_id VARCHAR(50) UNIQUE," +
-                "exportation_id VARCHAR(50)," +
-                "carrier_name VARCHAR(100)," +
-                "tracking_number VARCHAR(100)," +
-                "delivery_address TEXT," +
-                "contact_person VARCHAR(100)," +
-                "contact_phone VARCHAR(20)," +
-                "delivery_date DATE," +
-                "status VARCHAR(50)," +
-                "notes TEXT," +
-                "shipping_method VARCHAR(50)," +
-                "shipping_cost DECIMAL(10,2)," +
-                "shipping_currency VARCHAR(3)," +
-                "reference_number VARCHAR(100)," +
-                "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
-                "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP" +
-                ")";
-            
-            // Create users table
-            String createUsersTable = "CREATE TABLE IF NOT EXISTS users (" +
-                "id INT AUTO_INCREMENT PRIMARY KEY," +
-                "username VARCHAR(50) UNIQUE NOT NULL," +
-                "password_hash VARCHAR(255) NOT NULL," +
-                "is_active BOOLEAN DEFAULT TRUE," +
-                "last_login TIMESTAMP NULL," +
-                "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
-                "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP" +
-                ")";
-            
-            // Create exportations table
-            String createExportationsTable = "CREATE TABLE IF NOT EXISTS exportations (" +
-                "id INT AUTO_INCREMENT PRIMARY KEY," +
-                "exportation_id VARCHAR(50) UNIQUE," +
-                "product_type VARCHAR(100)," +
-                "amount DECIMAL(10,2)," +
-                "destination VARCHAR(100)," +
-                "exportation_date DATE," +
-                "unit_price DECIMAL(10,2)," +
-                "currency VARCHAR(3)," +
-                "has_delivery BOOLEAN DEFAULT FALSE," +
-                "status VARCHAR(50)," +
-                "notes TEXT," +
-                "customer_name VARCHAR(100)," +
-                "customer_email VARCHAR(100)," +
-                "customer_phone VARCHAR(20)," +
-                "document_number VARCHAR(50)," +
-                "export_license VARCHAR(50)," +
-                "employee_id VARCHAR(50)," +
-                "transport_method VARCHAR(50)," +
-                "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
-                "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP" +
-                ")";
-            
-            // Execute table creation
-            conn.createStatement().execute(createDeliveriesTable);
-            conn.createStatement().execute(createUsersTable);
-            conn.createStatement().execute(createExportationsTable);
-            
-            logger.info("Database tables created or verified successfully");
-            
-            // Create default admin user if users table is empty
-            createDefaultAdminUser(conn);
+            try (Connection conn = openDedicatedConnection()) {
+                // Tables, indexes and later schema changes come from the versioned migrations
+                if (!SchemaMigrator.migrate(conn, progress)) {
+                    logger.warning("Database schema could not be fully migrated");
+                    return false;
+                }
+                
+                logger.info("Database tables created or verified successfully");
+                
+                // Create default admin user if users table is empty
+                createDefaultAdminUser(conn);
+            }
             
             return true;
             
@@ -482,7 +498,7 @@ public class DatabaseManager {
                 String insertAdmin = "INSERT INTO users (username, password_hash, is_active) VALUES (?, ?, ?)";
                 var stmt = conn.prepareStatement(insertAdmin);
                 stmt.setString(1, "admin");
-                stmt.setString(2, "admin123_hashed"); // In production, use proper password hashing
+                stmt.setString(2, PasswordHasher.hash("admin123"));
                 stmt.setBoolean(3, true);
                 stmt.executeUpdate();
                 
@@ -490,7 +506,7 @@ public class DatabaseManager {
                 stmt.close();
             }
             rs.close();
-        } catch (SQLException e) {
+        } catch (SQLException | RuntimeException e) {
             logger.log(Level.WARNING, "Error creating default admin user", e);
         }
     }
@@ -0,0 +1,373 @@
+package exportation_panelera.db;
+
+import exportation_panelera.metrics.PerformanceMetrics;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Versioned schema migrations.
+ *
+ * Scripts live in {@code db/migration} on the classpath, are named
+ * {@code V<version>__<description>.sql} and listed in order in
+ * {@code db/migration/index.txt}. Applied versions are recorded with a CRC32
+ * checksum in the {@code schema_version} table; a changed script is reported
+ * and stops further migrations.
+ *
+ * Scripts must be safe to re-run and safe online: "already exists" errors for
+ * tables, columns, indexes and foreign keys, and "does not exist" errors for
+ * dropped ones, are ignored, and a statement
+ * preceded by a {@code -- @repeat} line is run again until it changes no rows,
+ * so backfills can work in small LIMIT batches. A named database lock keeps
+ * two clients from migrating at the same time.
+ *
+ * Run migrations on a connection of their own: other threads keep using the
+ * shared connection between backfill batches, and see the new schema through
+ * {@link #isAtLeast} once a script is recorded.
+ */
+public class SchemaMigrator {
+
+    private static final Logger logger = Logger.getLogger(SchemaMigrator.class.getName());
+
+    private static final String LOCATION = "db/migration/";
+    private static final String INDEX = LOCATION + "index.txt";
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final String REPEAT_DIRECTIVE = "-- @repeat";
+
+    private static final String LOCK_NAME = "exportation_panelera.schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    // MySQL errors meaning the change is already in place
+    private static final int TABLE_EXISTS = 1050;
+    private static final int DUPLICATE_COLUMN = 1060;
+    private static final int DUPLICATE_KEY_NAME = 1061;
+    private static final int DUPLICATE_FOREIGN_KEY = 1826;
+    private static final int CANT_DROP_FIELD_OR_KEY = 1091;
+
+    private static final String CREATE_VERSION_TABLE_SQL =
+        "CREATE TABLE IF NOT EXISTS schema_version (" +
+        "version INT PRIMARY KEY," +
+        "description VARCHAR(200) NOT NULL," +
+        "checksum BIGINT NOT NULL," +
+        "execution_ms INT NOT NULL," +
+        "installed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+        ")";
+
+    private static volatile int currentVersion = 0;
+
+    // Prevent instantiation of utility class
+    private SchemaMigrator() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated");
+    }
+
+    /**
+     * Latest schema version applied, as seen by the last {@link #migrate};
+     * 0 before migrations ran or when offline
+     */
+    public static int getCurrentVersion() {
+        return currentVersion;
+    }
+
+    /**
+     * Whether the schema includes the given migration
+     */
+    public static boolean isAtLeast(int version) {
+        return currentVersion >= version;
+    }
+
+    /**
+     * Read the schema version from the database without migrating, so
+     * readers use the current schema while migrations are still pending
+     *
+     * @param conn open connection, not closed by this method
+     */
+    public static void readVersion(Connection conn) throws SQLException {
+        currentVersion = readAppliedVersions(conn).keySet().stream().max(Integer::compare).orElse(0);
+    }
+
+    /**
+     * Apply all pending migrations
+     *
+     * @param conn open connection, not closed by this method
+     * @return true if the schema is up to date
+     */
+    public static boolean migrate(Connection conn) {
+        return migrate(conn, message -> { });
+    }
+
+    /**
+     * Apply all pending migrations, reporting each script and each backfill
+     * batch as it completes
+     *
+     * @param conn open connection used by the migration alone, not closed by this method
+     * @param progress receives progress messages on the migrating thread
+     * @return true if the schema is up to date
+     */
+    public static synchronized boolean migrate(Connection conn, Consumer<String> progress) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            List<Script> scripts = loadScripts();
+            if (!acquireLock(conn)) {
+                logger.warning("Another client is migrating the schema; skipping migrations");
+                readVersion(conn);
+                return false;
+            }
+            try {
+                return applyPending(conn, scripts, progress);
+            } finally {
+                releaseLock(conn);
+            }
+        } catch (IOException | SQLException e) {
+            failed = true;
+            logger.log(Level.SEVERE, "Schema migration failed", e);
+            return false;
+        } finally {
+            PerformanceMetrics.recordLatency("schema.migrate", System.nanoTime() - start, failed);
+        }
+    }
+
+    private static boolean applyPending(Connection conn, List<Script> scripts, Consumer<String> progress)
+            throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(CREATE_VERSION_TABLE_SQL);
+        }
+        Map<Integer, Long> applied = readAppliedVersions(conn);
+
+        int version = 0;
+        for (Script script : scripts) {
+            Long checksum = applied.get(script.version);
+            if (checksum != null) {
+                if (checksum != script.checksum) {
+                    logger.severe("Migration V" + script.version + " was changed after it was applied "
+                            + "(checksum " + checksum + " in database, " + script.checksum + " in script); "
+                            + "no further migrations will run");
+                    currentVersion = version;
+                    return false;
+                }
+                version = script.version;
+                continue;
+            }
+
+            long scriptStart = System.nanoTime();
+            String name = "V" + script.version + " " + script.description;
+            logger.info("Applying migration " + name);
+            progress.accept("Applying migration " + name);
+            try {
+                for (SqlStatement statement : script.statements) {
+                    execute(conn, statement, name, progress);
+                }
+            } finally {
+                resetSession(conn);
+            }
+            int elapsedMs = (int) ((System.nanoTime() - scriptStart) / 1_000_000);
+            recordVersion(conn, script, elapsedMs);
+            PerformanceMetrics.incrementCounter("schema.migrations");
+            logger.info("Applied migration V" + script.version + " in " + elapsedMs + " ms");
+            version = script.version;
+        }
+        currentVersion = version;
+        logger.info("Schema is at version " + version);
+        return true;
+    }
+
+    private static void execute(Connection conn, SqlStatement statement, String name,
+                                Consumer<String> progress) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            if (!statement.repeat) {
+                stmt.execute(statement.sql);
+                return;
+            }
+            long total = 0;
+            int changed;
+            do {
+                changed = stmt.executeUpdate(statement.sql);
+                total += changed;
+                if (changed > 0) {
+                    progress.accept("Migration " + name + ": " + total + " rows");
+                }
+            } while (changed > 0);
+            if (total > 0) {
+                logger.info("Migrated " + total + " rows");
+            }
+        } catch (SQLException e) {
+            switch (e.getErrorCode()) {
+                case TABLE_EXISTS:
+                case DUPLICATE_COLUMN:
+                case DUPLICATE_KEY_NAME:
+                case DUPLICATE_FOREIGN_KEY:
+                case CANT_DROP_FIELD_OR_KEY:
+                    logger.fine("Already applied: " + e.getMessage());
+                    return;
+                default:
+                    throw e;
+            }
+        }
+    }
+
+    /**
+     * Undo session settings a failed script may have left behind
+     */
+    private static void resetSession(Connection conn) {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("SET foreign_key_checks = 1");
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Could not reset session after migration", e);
+        }
+    }
+
+    private static Map<Integer, Long> readAppliedVersions(Connection conn) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt(1), rs.getLong(2));
+            }
+        } catch (SQLException e) {
+            if (e.getErrorCode() != 1146) { // table doesn't exist yet
+                throw e;
+            }
+        }
+        return applied;
+    }
+
+    private static void recordVersion(Connection conn, Script script, int elapsedMs) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO schema_version (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)")) {
+            stmt.setInt(1, script.version);
+            stmt.setString(2, script.description);
+            stmt.setLong(3, script.checksum);
+            stmt.setInt(4, elapsedMs);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static boolean acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void releaseLock(Connection conn) {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.executeQuery().close();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Could not release schema migration lock", e);
+        }
+    }
+
+    // ============= SCRIPT LOADING =============
+
+    private static List<Script> loadScripts() throws IOException {
+        List<Script> scripts = new ArrayList<>();
+        int previous = 0;
+        for (String name : readLines(INDEX)) {
+            name = name.trim();
+            if (name.isEmpty() || name.startsWith("#")) {
+                continue;
+            }
+            Matcher matcher = SCRIPT_NAME.matcher(name);
+            if (!matcher.matches()) {
+                throw new IOException("Invalid migration name: " + name);
+            }
+            int version = Integer.parseInt(matcher.group(1));
+            if (version <= previous) {
+                throw new IOException("Migration " + name + " is out of order");
+            }
+            previous = version;
+            scripts.add(new Script(version, matcher.group(2).replace('_', ' '), readLines(LOCATION + name)));
+        }
+        return scripts;
+    }
+
+    private static List<String> readLines(String resource) throws IOException {
+        InputStream input = SchemaMigrator.class.getClassLoader().getResourceAsStream(resource);
+        if (input == null) {
+            throw new IOException("Resource not found: " + resource);
+        }
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * One migration script, split into statements at lines ending in ';'
+     */
+    private static final class Script {
+        final int version;
+        final String description;
+        final long checksum;
+        final List<SqlStatement> statements = new ArrayList<>();
+
+        Script(int version, String description, List<String> lines) {
+            this.version = version;
+            this.description = description;
+
+            CRC32 crc = new CRC32();
+            StringBuilder sql = new StringBuilder();
+            boolean repeat = false;
+            for (String line : lines) {
+                // Checksum ignores line endings, so a checkout with CRLF matches
+                crc.update(line.getBytes(StandardCharsets.UTF_8));
+                crc.update('\n');
+                String trimmed = line.trim();
+                if (trimmed.equals(REPEAT_DIRECTIVE)) {
+                    repeat = true;
+                    continue;
+                }
+                if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                    continue;
+                }
+                sql.append(sql.length() > 0 ? " " : "").append(trimmed);
+                if (trimmed.endsWith(";")) {
+                    sql.setLength(sql.length() - 1);
+                    statements.add(new SqlStatement(sql.toString(), repeat));
+                    sql.setLength(0);
+                    repeat = false;
+                }
+            }
+            if (sql.length() > 0) {
+                statements.add(new SqlStatement(sql.toString(), repeat));
+            }
+            this.checksum = crc.getValue();
+        }
+    }
+
+    private static final class SqlStatement {
+        final String sql;
+        final boolean repeat;
+
+        SqlStatement(String sql, boolean repeat) {
+            this.sql = sql;
+            this.repeat = repeat;
+        }
+    }
+}
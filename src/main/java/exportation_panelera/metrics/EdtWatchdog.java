@@ -0,0 +1,224 @@
+package exportation_panelera.metrics;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.awt.event.ActionEvent;
+import java.awt.event.InvocationEvent;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.swing.AbstractButton;
+
+/**
+ * Detects Event Dispatch Thread stalls.
+ * Installs a monitoring {@link EventQueue} that records which event is being
+ * dispatched and a watchdog thread that checks how long the EDT has been busy.
+ * When a dispatch exceeds the threshold the EDT stack trace is captured and
+ * logged together with the triggering event, and the stall is counted per
+ * action in {@link PerformanceMetrics} ("edt.stall.*" counters).
+ *
+ * The threshold defaults to 250 ms and can be changed with the
+ * {@code edt.stall.threshold.ms} system property.
+ */
+public class EdtWatchdog {
+
+    private static final Logger logger = Logger.getLogger(EdtWatchdog.class.getName());
+
+    private static final long THRESHOLD_MILLIS = Long.getLong("edt.stall.threshold.ms", 250);
+    private static final long CHECK_INTERVAL_MILLIS = 50;
+    private static final String APP_PACKAGE = "exportation_panelera.";
+
+    private static boolean installed = false;
+
+    // Prevent instantiation of utility class
+    private EdtWatchdog() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated");
+    }
+
+    /**
+     * Install the monitoring event queue and start the watchdog thread.
+     * Safe to call more than once; only the first call has an effect.
+     */
+    public static synchronized void install() {
+        if (installed) {
+            return;
+        }
+        installed = true;
+
+        MonitoredEventQueue queue = new MonitoredEventQueue();
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(queue);
+        PerformanceMetrics.setEdtWatchdogActive(true);
+
+        Thread watchdog = new Thread(() -> watch(queue), "edt-watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+
+        logger.info("EDT watchdog installed (threshold " + THRESHOLD_MILLIS + " ms)");
+    }
+
+    private static void watch(MonitoredEventQueue queue) {
+        long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(THRESHOLD_MILLIS);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(CHECK_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            Dispatch dispatch = queue.current;
+            long busySince = queue.busySince;
+            if (dispatch == null || busySince == 0 || dispatch.reported) {
+                continue;
+            }
+
+            long busyNanos = System.nanoTime() - busySince;
+            if (busyNanos >= thresholdNanos) {
+                dispatch.reported = true;
+                StackTraceElement[] stack = dispatch.thread.getStackTrace();
+                dispatch.action = findApplicationFrame(stack);
+                logStall(dispatch, busyNanos, stack);
+            }
+        }
+    }
+
+    private static void logStall(Dispatch dispatch, long busyNanos, StackTraceElement[] stack) {
+        StringBuilder message = new StringBuilder();
+        message.append("EDT stall detected: busy for ")
+               .append(TimeUnit.NANOSECONDS.toMillis(busyNanos))
+               .append(" ms handling ").append(describe(dispatch.event));
+        if (dispatch.action != null) {
+            message.append(" in ").append(dispatch.action);
+        }
+        message.append("\nEDT stack trace:");
+        for (StackTraceElement element : stack) {
+            message.append("\n    at ").append(element);
+        }
+        logger.warning(message.toString());
+    }
+
+    /**
+     * First stack frame belonging to application code, used as the action name
+     */
+    private static String findApplicationFrame(StackTraceElement[] stack) {
+        for (StackTraceElement element : stack) {
+            String className = element.getClassName();
+            if (className.startsWith(APP_PACKAGE) && !className.startsWith(EdtWatchdog.class.getName())) {
+                String simpleName = className.substring(className.lastIndexOf('.') + 1);
+                int inner = simpleName.indexOf('$');
+                if (inner > 0) {
+                    simpleName = simpleName.substring(0, inner);
+                }
+                return simpleName + "." + element.getMethodName();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Short description of an event for logging and counter names
+     */
+    static String describe(AWTEvent event) {
+        if (event instanceof ActionEvent) {
+            ActionEvent action = (ActionEvent) event;
+            String command = action.getActionCommand();
+            return "ActionEvent[" + event.getSource().getClass().getSimpleName()
+                    + (command != null ? ": " + command : "") + "]";
+        }
+        if (event instanceof InvocationEvent) {
+            return "InvocationEvent";
+        }
+        Object source = event.getSource();
+        String label = source instanceof AbstractButton ? ": " + ((AbstractButton) source).getText() : "";
+        return event.getClass().getSimpleName() + "[id=" + event.getID()
+                + ", source=" + source.getClass().getSimpleName() + label + "]";
+    }
+
+    /**
+     * One event dispatch in progress. Fields written by the EDT and read by the watchdog.
+     */
+    private static final class Dispatch {
+        private final AWTEvent event;
+        private final Dispatch parent;
+        private final Thread thread;
+        private final long start;
+        private long idleNanos = 0;     // time spent waiting inside nested (modal) event loops
+        private long nestedNanos = 0;   // busy time of nested dispatches, counted separately
+        private volatile boolean reported = false;
+        private volatile String action;
+
+        Dispatch(AWTEvent event, Dispatch parent) {
+            this.event = event;
+            this.parent = parent;
+            this.thread = Thread.currentThread();
+            this.start = System.nanoTime();
+        }
+    }
+
+    /**
+     * Event queue that tracks the dispatch in progress and when the EDT became busy.
+     * Modal dialogs run nested event loops; time the EDT spends waiting for events
+     * inside them is idle time, not a stall.
+     */
+    private static final class MonitoredEventQueue extends EventQueue {
+        private volatile Dispatch current;
+        private volatile long busySince = 0;
+
+        @Override
+        protected void dispatchEvent(AWTEvent event) {
+            Dispatch dispatch = new Dispatch(event, current);
+            current = dispatch;
+            busySince = dispatch.start;
+            try {
+                super.dispatchEvent(event);
+            } finally {
+                long end = System.nanoTime();
+                current = dispatch.parent;
+                busySince = end;
+                finish(dispatch, end);
+            }
+        }
+
+        @Override
+        public AWTEvent getNextEvent() throws InterruptedException {
+            Dispatch waiting = current;
+            long waitStart = System.nanoTime();
+            busySince = 0;
+            try {
+                return super.getNextEvent();
+            } finally {
+                long now = System.nanoTime();
+                busySince = now;
+                if (waiting != null) {
+                    waiting.idleNanos += now - waitStart;
+                }
+            }
+        }
+
+        private void finish(Dispatch dispatch, long end) {
+            long busyNanos = end - dispatch.start - dispatch.idleNanos;
+            if (dispatch.parent != null) {
+                dispatch.parent.nestedNanos += busyNanos;
+            }
+            long ownMillis = TimeUnit.NANOSECONDS.toMillis(busyNanos - dispatch.nestedNanos);
+            long busyMillis = TimeUnit.NANOSECONDS.toMillis(busyNanos);
+            if (busyMillis < THRESHOLD_MILLIS && !dispatch.reported) {
+                return;
+            }
+
+            String action = dispatch.action != null ? dispatch.action : describe(dispatch.event);
+            PerformanceMetrics.incrementCounter("edt.stall." + action);
+            PerformanceMetrics.recordEdtBlocked(ownMillis);
+            PerformanceMetrics.recordLatency("edt." + action, busyNanos, false);
+
+            if (dispatch.reported) {
+                logger.log(Level.INFO, "EDT stall ended after " + busyMillis + " ms (" + action + ")");
+            } else {
+                logger.warning("EDT stall of " + busyMillis + " ms handling " + describe(dispatch.event)
+                        + " (finished before a stack trace could be captured)");
+            }
+        }
+    }
+}
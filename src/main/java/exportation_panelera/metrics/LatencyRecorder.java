@@ -0,0 +1,137 @@
+package exportation_panelera.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Records latency samples for a single operation.
+ * Keeps lifetime count/total/max plus a bounded window of recent samples
+ * used to compute percentiles.
+ */
+public class LatencyRecorder {
+
+    private static final int WINDOW_SIZE = 1024;
+
+    private final String operation;
+    private final long[] window = new long[WINDOW_SIZE];
+    private int next = 0;
+    private int filled = 0;
+    private long count = 0;
+    private long totalNanos = 0;
+    private long maxNanos = 0;
+    private long errors = 0;
+
+    public LatencyRecorder(String operation) {
+        this.operation = operation;
+    }
+
+    /**
+     * Record one sample
+     *
+     * @param nanos elapsed time in nanoseconds
+     * @param failed true if the operation ended with an error
+     */
+    public synchronized void record(long nanos, boolean failed) {
+        window[next] = nanos;
+        next = (next + 1) % WINDOW_SIZE;
+        if (filled < WINDOW_SIZE) {
+            filled++;
+        }
+        count++;
+        totalNanos += nanos;
+        if (nanos > maxNanos) {
+            maxNanos = nanos;
+        }
+        if (failed) {
+            errors++;
+        }
+    }
+
+    /**
+     * Take an immutable snapshot with percentiles over the recent window
+     */
+    public Stats snapshot() {
+        long[] sorted;
+        long snapshotCount;
+        long snapshotTotal;
+        long snapshotMax;
+        long snapshotErrors;
+        synchronized (this) {
+            sorted = Arrays.copyOf(window, filled);
+            snapshotCount = count;
+            snapshotTotal = totalNanos;
+            snapshotMax = maxNanos;
+            snapshotErrors = errors;
+        }
+        Arrays.sort(sorted);
+        return new Stats(operation, snapshotCount, snapshotErrors,
+                snapshotCount > 0 ? snapshotTotal / snapshotCount : 0,
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                snapshotMax);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /**
+     * Latency statistics for one operation (all times in nanoseconds)
+     */
+    public static final class Stats {
+        private final String operation;
+        private final long count;
+        private final long errors;
+        private final long meanNanos;
+        private final long p50Nanos;
+        private final long p95Nanos;
+        private final long p99Nanos;
+        private final long maxNanos;
+
+        Stats(String operation, long count, long errors, long meanNanos,
+              long p50Nanos, long p95Nanos, long p99Nanos, long maxNanos) {
+            this.operation = operation;
+            this.count = count;
+            this.errors = errors;
+            this.meanNanos = meanNanos;
+            this.p50Nanos = p50Nanos;
+            this.p95Nanos = p95Nanos;
+            this.p99Nanos = p99Nanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public long getMeanNanos() {
+            return meanNanos;
+        }
+
+        public long getP50Nanos() {
+            return p50Nanos;
+        }
+
+        public long getP95Nanos() {
+            return p95Nanos;
+        }
+
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+    }
+}
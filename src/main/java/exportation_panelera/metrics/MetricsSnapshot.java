@@ -0,0 +1,102 @@
+package exportation_panelera.metrics;
+
+/**
+ * Immutable point-in-time sample of runtime health figures.
+ * Collected periodically by {@link PerformanceMetrics} and kept in a ring buffer.
+ */
+public final class MetricsSnapshot {
+
+    private final long timestamp;
+    private final int poolTotal;
+    private final int poolActive;
+    private final int poolIdle;
+    private final int poolWaiting;
+    private final long heapUsed;
+    private final long heapCommitted;
+    private final long heapMax;
+    private final long gcCount;
+    private final long gcTimeMillis;
+    private final long gcPauseMillisSinceLast;
+    private final long edtLagMillis;
+    private final long edtBlockedMillis;
+
+    MetricsSnapshot(long timestamp, int poolTotal, int poolActive, int poolIdle, int poolWaiting,
+                    long heapUsed, long heapCommitted, long heapMax,
+                    long gcCount, long gcTimeMillis, long gcPauseMillisSinceLast,
+                    long edtLagMillis, long edtBlockedMillis) {
+        this.timestamp = timestamp;
+        this.poolTotal = poolTotal;
+        this.poolActive = poolActive;
+        this.poolIdle = poolIdle;
+        this.poolWaiting = poolWaiting;
+        this.heapUsed = heapUsed;
+        this.heapCommitted = heapCommitted;
+        this.heapMax = heapMax;
+        this.gcCount = gcCount;
+        this.gcTimeMillis = gcTimeMillis;
+        this.gcPauseMillisSinceLast = gcPauseMillisSinceLast;
+        this.edtLagMillis = edtLagMillis;
+        this.edtBlockedMillis = edtBlockedMillis;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public int getPoolTotal() {
+        return poolTotal;
+    }
+
+    public int getPoolActive() {
+        return poolActive;
+    }
+
+    public int getPoolIdle() {
+        return poolIdle;
+    }
+
+    public int getPoolWaiting() {
+        return poolWaiting;
+    }
+
+    public long getHeapUsed() {
+        return heapUsed;
+    }
+
+    public long getHeapCommitted() {
+        return heapCommitted;
+    }
+
+    public long getHeapMax() {
+        return heapMax;
+    }
+
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    public long getGcTimeMillis() {
+        return gcTimeMillis;
+    }
+
+    /**
+     * Time spent in garbage collection since the previous sample
+     */
+    public long getGcPauseMillisSinceLast() {
+        return gcPauseMillisSinceLast;
+    }
+
+    /**
+     * How long the most recent EDT probe waited before it was dispatched
+     */
+    public long getEdtLagMillis() {
+        return edtLagMillis;
+    }
+
+    /**
+     * Accumulated time the EDT was observed blocked since startup
+     */
+    public long getEdtBlockedMillis() {
+        return edtBlockedMillis;
+    }
+}
@@ -0,0 +1,390 @@
+package exportation_panelera.metrics;
+
+import exportation_panelera.db.DatabaseManager;
+
+import javax.swing.SwingUtilities;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Central registry for application performance metrics.
+ * Collects query latencies per operation, cache hit/miss counts, named counters
+ * and periodic runtime samples (connection usage, heap, GC, EDT responsiveness).
+ * Samples are kept in a bounded ring buffer so the diagnostics window can show
+ * recent history without unbounded memory growth.
+ */
+public class PerformanceMetrics {
+
+    private static final Logger logger = Logger.getLogger(PerformanceMetrics.class.getName());
+
+    // Sampling configuration
+    private static final long SAMPLE_INTERVAL_MILLIS = 1000;
+    private static final int HISTORY_SIZE = 300; // 5 minutes at one sample per second
+    private static final long EDT_BLOCKED_THRESHOLD_MILLIS = 100;
+
+    // Registries
+    private static final Map<String, LatencyRecorder> latencies = new ConcurrentHashMap<>();
+    private static final Map<String, CacheStats> caches = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    // Database usage
+    private static final AtomicInteger inFlightQueries = new AtomicInteger(0);
+
+    // EDT responsiveness
+    private static final AtomicLong edtLagMillis = new AtomicLong(0);
+    private static final LongAdder edtBlockedMillis = new LongAdder();
+    private static volatile boolean edtProbePending = false;
+    private static volatile long edtProbePosted = 0;
+    private static volatile int edtPendingTicks = 0;
+    private static volatile boolean edtWatchdogActive = false;
+
+    // Sampling state
+    private static final RingBuffer<MetricsSnapshot> history = new RingBuffer<>(HISTORY_SIZE);
+    private static final List<Consumer<MetricsSnapshot>> listeners = new CopyOnWriteArrayList<>();
+    private static ScheduledExecutorService sampler = null;
+    private static long lastGcTimeMillis = -1;
+
+    // Prevent instantiation of utility class
+    private PerformanceMetrics() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated");
+    }
+
+    // ============= QUERY LATENCY =============
+
+    /**
+     * Mark the start of a database operation
+     *
+     * @return start timestamp to pass to {@link #endQuery}
+     */
+    public static long startQuery() {
+        inFlightQueries.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * Mark the end of a database operation started with {@link #startQuery()}
+     *
+     * @param operation operation name shown in the dashboard
+     * @param startNanos value returned by startQuery
+     * @param failed true if the operation threw or reported failure
+     */
+    public static void endQuery(String operation, long startNanos, boolean failed) {
+        inFlightQueries.decrementAndGet();
+        recordLatency(operation, System.nanoTime() - startNanos, failed);
+    }
+
+    /**
+     * Record a latency sample for an operation
+     */
+    public static void recordLatency(String operation, long nanos, boolean failed) {
+        latencies.computeIfAbsent(operation, LatencyRecorder::new).record(nanos, failed);
+    }
+
+    /**
+     * Get latency statistics for all recorded operations, sorted by name
+     */
+    public static List<LatencyRecorder.Stats> getLatencyStats() {
+        List<LatencyRecorder.Stats> stats = new ArrayList<>();
+        for (LatencyRecorder recorder : latencies.values()) {
+            stats.add(recorder.snapshot());
+        }
+        stats.sort(Comparator.comparing(LatencyRecorder.Stats::getOperation));
+        return stats;
+    }
+
+    // ============= CACHES AND COUNTERS =============
+
+    public static void recordCacheHit(String cache) {
+        caches.computeIfAbsent(cache, k -> new CacheStats()).hits.increment();
+    }
+
+    public static void recordCacheMiss(String cache) {
+        caches.computeIfAbsent(cache, k -> new CacheStats()).misses.increment();
+    }
+
+    /**
+     * Get hit/miss counts per cache as {hits, misses}, sorted by cache name
+     */
+    public static Map<String, long[]> getCacheStats() {
+        Map<String, long[]> result = new TreeMap<>();
+        for (Map.Entry<String, CacheStats> entry : caches.entrySet()) {
+            result.put(entry.getKey(), new long[] {
+                entry.getValue().hits.sum(), entry.getValue().misses.sum()
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Overall cache hit ratio across all caches
+     *
+     * @return ratio between 0 and 1, or -1 if no cache lookups were recorded
+     */
+    public static double getCacheHitRatio() {
+        long hits = 0;
+        long total = 0;
+        for (CacheStats stats : caches.values()) {
+            long h = stats.hits.sum();
+            hits += h;
+            total += h + stats.misses.sum();
+        }
+        return total == 0 ? -1 : (double) hits / total;
+    }
+
+    public static void incrementCounter(String name) {
+        counters.computeIfAbsent(name, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Get all named counters, sorted by name
+     */
+    public static Map<String, Long> getCounters() {
+        Map<String, Long> result = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().sum());
+        }
+        return result;
+    }
+
+    /**
+     * Register a gauge whose current value is read each time metrics are displayed
+     */
+    public static void registerGauge(String name, LongSupplier supplier) {
+        gauges.put(name, supplier);
+    }
+
+    /**
+     * Get current values of all registered gauges, sorted by name
+     */
+    public static Map<String, Long> getGauges() {
+        Map<String, Long> result = new TreeMap<>();
+        for (Map.Entry<String, LongSupplier> entry : gauges.entrySet()) {
+            try {
+                result.put(entry.getKey(), entry.getValue().getAsLong());
+            } catch (RuntimeException e) {
+                logger.log(Level.FINE, "Error reading gauge " + entry.getKey(), e);
+            }
+        }
+        return result;
+    }
+
+    // ============= EDT =============
+
+    /**
+     * Record time the Event Dispatch Thread was blocked
+     */
+    public static void recordEdtBlocked(long millis) {
+        if (millis > 0) {
+            edtBlockedMillis.add(millis);
+        }
+    }
+
+    /**
+     * Once the EDT watchdog is installed it measures blocked time precisely
+     * from event dispatch durations; the sampler probe then only reports lag.
+     */
+    static void setEdtWatchdogActive(boolean active) {
+        edtWatchdogActive = active;
+    }
+
+    // ============= SAMPLING =============
+
+    /**
+     * Start background sampling. Safe to call more than once.
+     */
+    public static synchronized void startSampling() {
+        if (sampler != null) {
+            return;
+        }
+        sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleAtFixedRate(PerformanceMetrics::sample,
+                0, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        logger.info("Performance metrics sampling started");
+    }
+
+    /**
+     * Stop background sampling
+     */
+    public static synchronized void stopSampling() {
+        if (sampler != null) {
+            sampler.shutdownNow();
+            sampler = null;
+            logger.info("Performance metrics sampling stopped");
+        }
+    }
+
+    public static void addSampleListener(Consumer<MetricsSnapshot> listener) {
+        listeners.add(listener);
+    }
+
+    public static void removeSampleListener(Consumer<MetricsSnapshot> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Recent samples, oldest first
+     */
+    public static List<MetricsSnapshot> getHistory() {
+        return history.toList();
+    }
+
+    public static MetricsSnapshot getLatestSnapshot() {
+        return history.latest();
+    }
+
+    private static void sample() {
+        try {
+            probeEdt();
+
+            // The application shares a single managed connection; queries running
+            // concurrently beyond it are serialized by the driver and count as waiting
+            int total = DatabaseManager.getOpenConnectionCount();
+            int inFlight = Math.max(0, inFlightQueries.get());
+            int active = Math.min(inFlight, total);
+            int idle = total - active;
+            int waiting = Math.max(0, inFlight - total);
+
+            MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+
+            long gcCount = 0;
+            long gcTime = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                gcCount += Math.max(0, gc.getCollectionCount());
+                gcTime += Math.max(0, gc.getCollectionTime());
+            }
+            long gcPause = lastGcTimeMillis < 0 ? 0 : gcTime - lastGcTimeMillis;
+            lastGcTimeMillis = gcTime;
+
+            MetricsSnapshot snapshot = new MetricsSnapshot(System.currentTimeMillis(),
+                    total, active, idle, waiting,
+                    heap.getUsed(), heap.getCommitted(), heap.getMax(),
+                    gcCount, gcTime, gcPause,
+                    edtLagMillis.get(), edtBlockedMillis.sum());
+            history.add(snapshot);
+
+            for (Consumer<MetricsSnapshot> listener : listeners) {
+                listener.accept(snapshot);
+            }
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Error collecting performance sample", e);
+        }
+    }
+
+    /**
+     * Post a probe to the EDT and measure how long it waits to run.
+     * A probe still pending from the previous tick means the EDT is busy;
+     * the whole interval is counted as blocked.
+     */
+    private static void probeEdt() {
+        if (edtProbePending) {
+            long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - edtProbePosted);
+            edtLagMillis.set(waited);
+            edtPendingTicks++;
+            if (!edtWatchdogActive) {
+                recordEdtBlocked(SAMPLE_INTERVAL_MILLIS);
+            }
+            return;
+        }
+        edtProbePending = true;
+        edtPendingTicks = 0;
+        edtProbePosted = System.nanoTime();
+        SwingUtilities.invokeLater(() -> {
+            long lag = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - edtProbePosted);
+            edtLagMillis.set(lag);
+            if (!edtWatchdogActive && lag >= EDT_BLOCKED_THRESHOLD_MILLIS) {
+                // Intervals already counted while the probe was pending are not counted twice
+                recordEdtBlocked(lag - edtPendingTicks * SAMPLE_INTERVAL_MILLIS);
+            }
+            edtProbePending = false;
+        });
+    }
+
+    // ============= REPORTING =============
+
+    /**
+     * Build a plain-text report of the current metrics, suitable for pasting into a bug report
+     */
+    public static String formatReport() {
+        StringBuilder report = new StringBuilder();
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        report.append("Performance report - ").append(format.format(new Date())).append('\n');
+        report.append("Database: ").append(DatabaseManager.isOfflineMode() ? "OFFLINE" : "ONLINE").append('\n');
+
+        MetricsSnapshot latest = getLatestSnapshot();
+        if (latest != null) {
+            report.append(String.format("Connections: total=%d active=%d idle=%d waiting=%d%n",
+                    latest.getPoolTotal(), latest.getPoolActive(), latest.getPoolIdle(), latest.getPoolWaiting()));
+            report.append(String.format("Heap: %d MB used / %d MB committed / %s max%n",
+                    toMegabytes(latest.getHeapUsed()), toMegabytes(latest.getHeapCommitted()),
+                    latest.getHeapMax() < 0 ? "unbounded" : toMegabytes(latest.getHeapMax()) + " MB"));
+            report.append(String.format("GC: %d collections, %d ms total, %d ms in last interval%n",
+                    latest.getGcCount(), latest.getGcTimeMillis(), latest.getGcPauseMillisSinceLast()));
+            report.append(String.format("EDT: lag %d ms, blocked %d ms total%n",
+                    latest.getEdtLagMillis(), latest.getEdtBlockedMillis()));
+        }
+
+        double ratio = getCacheHitRatio();
+        report.append("Cache hit ratio: ").append(ratio < 0 ? "n/a" : String.format("%.1f%%", ratio * 100)).append('\n');
+
+        report.append(String.format("%-32s %8s %6s %9s %9s %9s %9s %9s%n",
+                "Operation", "Count", "Errors", "Mean ms", "p50 ms", "p95 ms", "p99 ms", "Max ms"));
+        for (LatencyRecorder.Stats stats : getLatencyStats()) {
+            report.append(String.format("%-32s %8d %6d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    stats.getOperation(), stats.getCount(), stats.getErrors(),
+                    toMillis(stats.getMeanNanos()), toMillis(stats.getP50Nanos()),
+                    toMillis(stats.getP95Nanos()), toMillis(stats.getP99Nanos()),
+                    toMillis(stats.getMaxNanos())));
+        }
+
+        Map<String, Long> counterValues = new TreeMap<>(getCounters());
+        counterValues.putAll(getGauges());
+        if (!counterValues.isEmpty()) {
+            report.append("Counters:\n");
+            for (Map.Entry<String, Long> entry : counterValues.entrySet()) {
+                report.append("  ").append(entry.getKey()).append(" = ").append(entry.getValue()).append('\n');
+            }
+        }
+        return report.toString();
+    }
+
+    public static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    public static long toMegabytes(long bytes) {
+        return bytes / (1024 * 1024);
+    }
+
+    /**
+     * Hit/miss counters for one cache
+     */
+    private static final class CacheStats {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+    }
+}
@@ -0,0 +1,75 @@
+package exportation_panelera.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-capacity circular buffer that keeps the most recent elements.
+ * Older elements are overwritten once the buffer is full, so memory use
+ * stays bounded no matter how long the application runs.
+ *
+ * @param <T> element type
+ */
+public class RingBuffer<T> {
+
+    private final Object[] elements;
+    private int next = 0;
+    private int size = 0;
+
+    /**
+     * Create a ring buffer
+     *
+     * @param capacity maximum number of elements kept
+     */
+    public RingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than 0");
+        }
+        this.elements = new Object[capacity];
+    }
+
+    /**
+     * Add an element, overwriting the oldest one when full
+     */
+    public synchronized void add(T element) {
+        elements[next] = element;
+        next = (next + 1) % elements.length;
+        if (size < elements.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Get the most recently added element
+     *
+     * @return latest element or null if empty
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized T latest() {
+        if (size == 0) {
+            return null;
+        }
+        return (T) elements[(next - 1 + elements.length) % elements.length];
+    }
+
+    /**
+     * Copy the contents in insertion order (oldest first)
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized List<T> toList() {
+        List<T> result = new ArrayList<>(size);
+        int start = (next - size + elements.length) % elements.length;
+        for (int i = 0; i < size; i++) {
+            result.add((T) elements[(start + i) % elements.length]);
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+}
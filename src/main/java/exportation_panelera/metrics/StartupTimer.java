@@ -0,0 +1,85 @@
+package exportation_panelera.metrics;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Startup phase timings, from JVM start to the first frame on screen.
+ *
+ * The launcher marks each phase as it completes; {@link #report()} logs all
+ * of them once, with the time of each phase and the total since the process
+ * started, and records the total as the "startup.firstFrame" latency. The
+ * JVM's own share (before main) comes from the process start time when the
+ * platform reports it.
+ */
+public class StartupTimer {
+
+    private static final Logger logger = Logger.getLogger(StartupTimer.class.getName());
+
+    // Guarded by the class lock
+    private static final List<String> phases = new ArrayList<>();
+    private static final List<Long> times = new ArrayList<>();
+    private static boolean reported = false;
+
+    // Prevent instantiation of utility class
+    private StartupTimer() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated");
+    }
+
+    /**
+     * Record that a startup phase has just finished
+     */
+    public static synchronized void mark(String phase) {
+        if (reported) {
+            return;
+        }
+        phases.add(phase);
+        times.add(System.nanoTime());
+    }
+
+    /**
+     * Log the phases marked so far; only the first call has an effect
+     */
+    public static synchronized void report() {
+        if (reported || phases.isEmpty()) {
+            return;
+        }
+        reported = true;
+
+        long first = times.get(0);
+        long beforeMainMillis = millisBeforeMain(first);
+        StringBuilder report = new StringBuilder("Startup timing:");
+        if (beforeMainMillis >= 0) {
+            report.append(String.format("%n  %-24s %6d ms", "JVM until main", beforeMainMillis));
+        }
+        long previous = first;
+        for (int i = 0; i < phases.size(); i++) {
+            long time = times.get(i);
+            report.append(String.format("%n  %-24s %6d ms  (at %d ms)", phases.get(i),
+                    TimeUnit.NANOSECONDS.toMillis(time - previous),
+                    TimeUnit.NANOSECONDS.toMillis(time - first)));
+            previous = time;
+        }
+        long totalNanos = previous - first + TimeUnit.MILLISECONDS.toNanos(Math.max(0, beforeMainMillis));
+        report.append(String.format("%n  %-24s %6d ms", "Total", TimeUnit.NANOSECONDS.toMillis(totalNanos)));
+        logger.info(report.toString());
+        PerformanceMetrics.recordLatency("startup.firstFrame", totalNanos, false);
+    }
+
+    /**
+     * Milliseconds between process start and the first mark, or -1 if the
+     * platform does not report the start time
+     */
+    private static long millisBeforeMain(long firstMarkNanos) {
+        Instant start = ProcessHandle.current().info().startInstant().orElse(null);
+        if (start == null) {
+            return -1;
+        }
+        long firstMarkMillis = System.currentTimeMillis()
+                - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - firstMarkNanos);
+        return Math.max(0, firstMarkMillis - start.toEpochMilli());
+    }
+}
@@ -0,0 +1,289 @@
+package exportation_panelera.service;
+
+import exportation_panelera.concurrent.AppExecutors;
+import exportation_panelera.concurrent.TaskType;
+import exportation_panelera.dao.UserDAO;
+import exportation_panelera.metrics.PerformanceMetrics;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Authentication front end for {@link UserDAO}.
+ *
+ * - Recently verified credentials are kept for a short time as a salted
+ *   SHA-256 digest, so repeated sign-ins (e.g. after sign-out) skip the database.
+ * - Failed attempts are counted per username; after too many the username is
+ *   locked for a while and rejected without touching the database. Failures
+ *   older than the lockout period are forgotten, and at most
+ *   {@code -Dauth.lockout.max.tracked} usernames are tracked, so guessing
+ *   random usernames cannot grow the table without limit.
+ * - last_login updates are queued and written in one JDBC batch a few seconds
+ *   later, so sign-in costs a single indexed lookup.
+ *
+ * Tunable with {@code -Dauth.cache.ttl.seconds}, {@code -Dauth.lockout.failures}
+ * and {@code -Dauth.lockout.seconds}.
+ */
+public class AuthenticationService {
+
+    private static final Logger logger = Logger.getLogger(AuthenticationService.class.getName());
+
+    /**
+     * Outcome of a sign-in attempt
+     */
+    public enum Result {
+        SUCCESS,
+        INVALID_CREDENTIALS,
+        LOCKED_OUT
+    }
+
+    private static final String CACHE_NAME = "auth.credentials";
+    private static final long CACHE_TTL_NANOS =
+            TimeUnit.SECONDS.toNanos(Long.getLong("auth.cache.ttl.seconds", 120));
+    private static final int MAX_FAILURES = Integer.getInteger("auth.lockout.failures", 5);
+    private static final long LOCKOUT_NANOS =
+            TimeUnit.SECONDS.toNanos(Long.getLong("auth.lockout.seconds", 60));
+    private static final int MAX_TRACKED_USERNAMES = Math.max(1, Integer.getInteger("auth.lockout.max.tracked", 1000));
+    private static final long LAST_LOGIN_FLUSH_DELAY_SECONDS = 3;
+
+    private static final UserDAO userDAO = new UserDAO();
+    private static final SecureRandom random = new SecureRandom();
+
+    private static final Map<String, VerifiedCredential> verifiedCredentials = new ConcurrentHashMap<>();
+    private static final Map<String, FailedAttempts> failedAttempts = new ConcurrentHashMap<>();
+    private static final Map<String, Timestamp> pendingLastLogins = new ConcurrentHashMap<>();
+    private static final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    // Prevent instantiation of utility class
+    private AuthenticationService() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated");
+    }
+
+    // ============= AUTHENTICATION =============
+
+    /**
+     * Authenticate a user. Blocks on the database on a cache miss, so call it
+     * from a background thread.
+     *
+     * @param username The username
+     * @param password The plain text password
+     * @return outcome of the attempt
+     */
+    public static Result authenticate(String username, String password) {
+        if (username == null || username.trim().isEmpty() || password == null || password.isEmpty()) {
+            return Result.INVALID_CREDENTIALS;
+        }
+        String key = username.trim();
+
+        if (getLockoutRemainingSeconds(key) > 0) {
+            PerformanceMetrics.incrementCounter("auth.rejectedWhileLocked");
+            logger.warning("Sign-in rejected for locked username: " + key);
+            return Result.LOCKED_OUT;
+        }
+
+        boolean authenticated;
+        boolean fromCache;
+        VerifiedCredential cached = verifiedCredentials.get(key);
+        if (cached != null && cached.matches(password)) {
+            PerformanceMetrics.recordCacheHit(CACHE_NAME);
+            authenticated = true;
+            fromCache = true;
+        } else {
+            PerformanceMetrics.recordCacheMiss(CACHE_NAME);
+            authenticated = userDAO.authenticateUser(key, password);
+            fromCache = false;
+        }
+
+        if (!authenticated) {
+            verifiedCredentials.remove(key);
+            return recordFailure(key);
+        }
+
+        failedAttempts.remove(key);
+        // Only a database check starts a new TTL; re-putting on cache hits
+        // would keep a credential alive forever
+        if (!fromCache) {
+            verifiedCredentials.put(key, VerifiedCredential.of(password));
+        }
+        queueLastLogin(key);
+        return Result.SUCCESS;
+    }
+
+    /**
+     * Seconds until a locked username may try again
+     *
+     * @return remaining lockout in seconds, 0 if not locked
+     */
+    public static long getLockoutRemainingSeconds(String username) {
+        if (username == null) {
+            return 0;
+        }
+        FailedAttempts attempts = failedAttempts.get(username.trim());
+        if (attempts == null) {
+            return 0;
+        }
+        long remaining = attempts.lockedUntil - System.nanoTime();
+        return remaining > 0 ? TimeUnit.NANOSECONDS.toSeconds(remaining) + 1 : 0;
+    }
+
+    /**
+     * Forget the cached credential of a user, e.g. after a password change
+     * or deactivation
+     */
+    public static void invalidate(String username) {
+        if (username != null) {
+            verifiedCredentials.remove(username.trim());
+        }
+    }
+
+    private static Result recordFailure(String username) {
+        if (!failedAttempts.containsKey(username) && failedAttempts.size() >= MAX_TRACKED_USERNAMES) {
+            pruneFailedAttempts();
+        }
+        FailedAttempts attempts = failedAttempts.computeIfAbsent(username, k -> new FailedAttempts());
+        synchronized (attempts) {
+            long now = System.nanoTime();
+            if (now - attempts.lastFailure > LOCKOUT_NANOS) {
+                attempts.count = 0; // earlier failures are too old to count
+            }
+            attempts.lastFailure = now;
+            attempts.count++;
+            if (attempts.count >= MAX_FAILURES) {
+                attempts.count = 0;
+                attempts.lockedUntil = System.nanoTime() + LOCKOUT_NANOS;
+                PerformanceMetrics.incrementCounter("auth.lockouts");
+                logger.warning("Username locked after " + MAX_FAILURES + " failed attempts: " + username);
+                return Result.LOCKED_OUT;
+            }
+        }
+        return Result.INVALID_CREDENTIALS;
+    }
+
+    /**
+     * Make room in the failure table: drop expired entries, then, if it is
+     * still full, the least recently failed usernames that are not locked
+     */
+    private static synchronized void pruneFailedAttempts() {
+        long now = System.nanoTime();
+        failedAttempts.values().removeIf(attempts -> attempts.isExpired(now));
+        if (failedAttempts.size() < MAX_TRACKED_USERNAMES) {
+            return;
+        }
+
+        List<Map.Entry<String, FailedAttempts>> unlocked = new ArrayList<>();
+        for (Map.Entry<String, FailedAttempts> entry : failedAttempts.entrySet()) {
+            if (!entry.getValue().isLocked(now)) {
+                unlocked.add(entry);
+            }
+        }
+        unlocked.sort(Comparator.comparingLong(entry -> entry.getValue().lastFailure - now));
+        int excess = failedAttempts.size() - MAX_TRACKED_USERNAMES * 3 / 4;
+        for (int i = 0; i < unlocked.size() && i < excess; i++) {
+            failedAttempts.remove(unlocked.get(i).getKey(), unlocked.get(i).getValue());
+        }
+        PerformanceMetrics.incrementCounter("auth.failuresPruned");
+    }
+
+    // ============= LAST LOGIN =============
+
+    private static void queueLastLogin(String username) {
+        pendingLastLogins.put(username, Timestamp.valueOf(LocalDateTime.now()));
+        if (flushScheduled.compareAndSet(false, true)) {
+            AppExecutors.schedule(TaskType.DB_IO, AuthenticationService::flushLastLogins,
+                    LAST_LOGIN_FLUSH_DELAY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Write queued last_login updates to the database in one batch.
+     * Called automatically a few seconds after sign-in; call it directly
+     * before shutting the executors down.
+     */
+    public static void flushLastLogins() {
+        flushScheduled.set(false);
+        if (pendingLastLogins.isEmpty()) {
+            return;
+        }
+
+        Map<String, Timestamp> batch = new HashMap<>();
+        for (String username : pendingLastLogins.keySet()) {
+            Timestamp loginTime = pendingLastLogins.remove(username);
+            if (loginTime != null) {
+                batch.put(username, loginTime);
+            }
+        }
+        if (!batch.isEmpty()) {
+            userDAO.updateLastLogins(batch);
+        }
+    }
+
+    // ============= HELPERS =============
+
+    /**
+     * Salted digest of a password that was verified against the database
+     */
+    private static final class VerifiedCredential {
+        private final byte[] salt;
+        private final byte[] digest;
+        private final long expiresAt;
+
+        private VerifiedCredential(byte[] salt, byte[] digest, long expiresAt) {
+            this.salt = salt;
+            this.digest = digest;
+            this.expiresAt = expiresAt;
+        }
+
+        static VerifiedCredential of(String password) {
+            byte[] salt = new byte[16];
+            random.nextBytes(salt);
+            return new VerifiedCredential(salt, digest(salt, password), System.nanoTime() + CACHE_TTL_NANOS);
+        }
+
+        boolean matches(String password) {
+            return System.nanoTime() - expiresAt < 0
+                    && MessageDigest.isEqual(digest, digest(salt, password));
+        }
+
+        private static byte[] digest(byte[] salt, String password) {
+            try {
+                MessageDigest sha = MessageDigest.getInstance("SHA-256");
+                sha.update(salt);
+                return sha.digest(password.getBytes(StandardCharsets.UTF_8));
+            } catch (NoSuchAlgorithmException e) {
+                // Every Java platform is required to support SHA-256
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+
+    /**
+     * Consecutive failures of one username
+     */
+    private static final class FailedAttempts {
+        private int count;
+        private volatile long lastFailure = System.nanoTime();
+        private volatile long lockedUntil = System.nanoTime();
+
+        boolean isLocked(long now) {
+            return lockedUntil - now > 0;
+        }
+
+        /** Not locked and the last failure is older than the lockout period */
+        boolean isExpired(long now) {
+            return !isLocked(now) && now - lastFailure > LOCKOUT_NANOS;
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package exportation_panelera.service;
+
+import exportation_panelera.Model.DeliveryStatus;
+import exportation_panelera.concurrent.AppExecutors;
+import exportation_panelera.concurrent.TaskType;
+import exportation_panelera.db.DatabaseManager;
+import exportation_panelera.db.SchemaMigrator;
+import exportation_panelera.metrics.PerformanceMetrics;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Moves finished deliveries out of the hot {@code deliveries} table.
+ *
+ * Deliveries with a terminal status whose delivery date is older than
+ * {@code -Dapp.deliveries.archive.age.days} (default 365) are copied to the
+ * month-partitioned {@code deliveries_archive} table and deleted from
+ * {@code deliveries}, in short transactions of
+ * {@code -Dapp.deliveries.archive.batch.size} rows so the job never holds
+ * locks for long. The job uses its own connection, never the shared one.
+ * Readers ask {@link #mayContain(LocalDate)} whether a date range reaches
+ * into the archive at all.
+ */
+public class DeliveryArchiveService {
+
+    private static final Logger logger = Logger.getLogger(DeliveryArchiveService.class.getName());
+
+    /** Schema version that created deliveries_archive */
+    public static final int ARCHIVE_VERSION = 4;
+
+    // Stored spellings of terminal statuses; the column collation ignores case
+    private static final List<String> TERMINAL_STATUSES = terminalSpellings();
+
+    private static final int AGE_DAYS = Math.max(1, Integer.getInteger("app.deliveries.archive.age.days", 365));
+    private static final int BATCH_SIZE = Math.max(1, Integer.getInteger("app.deliveries.archive.batch.size", 500));
+    private static final long INTERVAL_HOURS = Math.max(1, Long.getLong("app.deliveries.archive.interval.hours", 24));
+    private static final long INITIAL_DELAY_MINUTES = 5;
+    // Other clients archive too, so the newest archived date is read again after this
+    private static final long NEWEST_TTL_NANOS =
+            TimeUnit.SECONDS.toNanos(Math.max(1, Long.getLong("app.deliveries.archive.newest.ttl.seconds", 300)));
+
+    // Months before this share the p_history partition
+    private static final YearMonth FIRST_PARTITION_MONTH = YearMonth.of(2020, 1);
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'uuuuMM");
+
+    private static final String SELECT_BATCH_SQL =
+        "SELECT d.id, d.status FROM deliveries d WHERE d.status IN " + placeholders(TERMINAL_STATUSES.size()) +
+        " AND d.delivery_date < ? ORDER BY d.delivery_date, d.id LIMIT ? FOR UPDATE";
+
+    private static final String COPY_SQL =
+        "INSERT INTO deliveries_archive (id, exportation_id, exportation_ref, delivery_date, tracking_number, " +
+        "status, notes, delivery_address, created_at, updated_at) " +
+        "SELECT d.id, d.exportation_id, d.exportation_ref, d.delivery_date, d.tracking_number, d.status, " +
+        "COALESCE(d.notes, t.notes), COALESCE(d.delivery_address, t.delivery_address), d.created_at, d.updated_at " +
+        "FROM deliveries d LEFT JOIN delivery_texts t ON t.delivery_id = d.id WHERE d.id IN ";
+
+    // delivery_texts rows go with their delivery (ON DELETE CASCADE)
+    private static final String DELETE_SQL = "DELETE FROM deliveries WHERE id IN ";
+
+    private static final Object lock = new Object();
+    private static ScheduledFuture<?> scheduled;
+
+    // Newest delivery date in the archive; null if empty, unknown until first read
+    private static volatile LocalDate newestArchived;
+    private static volatile boolean newestArchivedLoaded = false;
+    private static volatile long newestArchivedReadAt;
+
+    // Prevent instantiation of utility class
+    private DeliveryArchiveService() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated");
+    }
+
+    // ============= SCHEDULING =============
+
+    /**
+     * Run the archiver in the background a few minutes from now and then
+     * periodically. Does nothing if it is already scheduled; a schedule
+     * cancelled by {@link AppExecutors#shutdown()} is replaced.
+     */
+    public static void scheduleArchiving() {
+        synchronized (lock) {
+            if (scheduled != null && !scheduled.isDone() && !scheduled.isCancelled()) {
+                return;
+            }
+            scheduled = AppExecutors.scheduleAtFixedRate(TaskType.DB_IO, DeliveryArchiveService::archiveOldDeliveries,
+                    INITIAL_DELAY_MINUTES, TimeUnit.HOURS.toMinutes(INTERVAL_HOURS), TimeUnit.MINUTES);
+        }
+    }
+
+    // ============= ARCHIVING =============
+
+    /**
+     * Move all deliveries due for archiving. Blocks on the database, so call
+     * it from a background thread.
+     *
+     * @return number of deliveries moved
+     */
+    public static int archiveOldDeliveries() {
+        if (DatabaseManager.isOfflineMode() || !SchemaMigrator.isAtLeast(ARCHIVE_VERSION)) {
+            return 0;
+        }
+
+        LocalDate cutoff = LocalDate.now().minusDays(AGE_DAYS);
+        long start = System.nanoTime();
+        boolean failed = false;
+        int moved = 0;
+        // Own connection: the batches are transactions, which must not
+        // capture statements other threads run on the shared connection
+        try (Connection conn = DatabaseManager.openDedicatedConnection()) {
+            ensurePartitions(conn, YearMonth.from(cutoff));
+
+            int batch;
+            do {
+                batch = archiveBatch(conn, cutoff);
+                moved += batch;
+            } while (batch == BATCH_SIZE);
+
+            if (moved > 0) {
+                logger.info("Archived " + moved + " deliveries delivered before " + cutoff);
+                newestArchivedLoaded = false;
+            }
+            return moved;
+
+        } catch (SQLException e) {
+            failed = true;
+            logger.log(Level.SEVERE, "Delivery archiving stopped after " + moved + " deliveries", e);
+            return moved;
+        } finally {
+            PerformanceMetrics.recordLatency("deliveries.archive", System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * Move one batch in its own transaction
+     *
+     * @param conn connection used by the archiver alone
+     */
+    private static int archiveBatch(Connection conn, LocalDate cutoff) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            List<Integer> ids = new ArrayList<>(BATCH_SIZE);
+            List<DeliveryStatus> statuses = new ArrayList<>(BATCH_SIZE);
+            try (PreparedStatement stmt = conn.prepareStatement(SELECT_BATCH_SQL)) {
+                int index = 1;
+                for (String status : TERMINAL_STATUSES) {
+                    stmt.setString(index++, status);
+                }
+                stmt.setDate(index++, Date.valueOf(cutoff));
+                stmt.setInt(index, BATCH_SIZE);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getInt(1));
+                        statuses.add(DeliveryStatus.parse(rs.getString(2)));
+                    }
+                }
+            }
+            if (ids.isEmpty()) {
+                conn.commit();
+                return 0;
+            }
+
+            String idList = placeholders(ids.size());
+            int copied = executeForIds(conn, COPY_SQL + idList, ids);
+            int deleted = executeForIds(conn, DELETE_SQL + idList, ids);
+            if (copied != ids.size() || deleted != ids.size()) {
+                throw new SQLException("Archive batch copied " + copied + " and deleted " + deleted
+                        + " of " + ids.size() + " deliveries");
+            }
+            conn.commit();
+            DeliveryStatusCounter.deleted(statuses);
+            DeliveryLookupIndex.removeAll(ids);
+            PerformanceMetrics.incrementCounter("deliveries.archive.batches");
+            return ids.size();
+
+        } catch (SQLException e) {
+            try {
+                conn.rollback();
+            } catch (SQLException rollbackEx) {
+                logger.log(Level.SEVERE, "Error rolling back archive batch", rollbackEx);
+            }
+            throw e;
+        } finally {
+            try {
+                conn.setAutoCommit(autoCommit);
+            } catch (SQLException resetEx) {
+                logger.log(Level.WARNING, "Error resetting auto-commit", resetEx);
+            }
+        }
+    }
+
+    /**
+     * Split monthly partitions off p_future up to and including the given
+     * month, so archived rows never land in the catch-all partition
+     */
+    private static void ensurePartitions(Connection conn, YearMonth lastMonth) throws SQLException {
+        YearMonth next = FIRST_PARTITION_MONTH;
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'deliveries_archive' " +
+                "AND PARTITION_NAME LIKE 'p2%' ORDER BY PARTITION_ORDINAL_POSITION DESC LIMIT 1");
+             ResultSet rs = stmt.executeQuery()) {
+            if (rs.next()) {
+                next = YearMonth.parse(rs.getString(1), PARTITION_NAME).plusMonths(1);
+            }
+        }
+        if (next.isAfter(lastMonth)) {
+            return;
+        }
+
+        StringBuilder sql = new StringBuilder("ALTER TABLE deliveries_archive REORGANIZE PARTITION p_future INTO (");
+        for (YearMonth month = next; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            sql.append("PARTITION ").append(month.format(PARTITION_NAME))
+               .append(" VALUES LESS THAN (TO_DAYS('").append(month.plusMonths(1).atDay(1)).append("')), ");
+        }
+        sql.append("PARTITION p_future VALUES LESS THAN MAXVALUE)");
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql.toString());
+        }
+        logger.info("Added deliveries_archive partitions " + next + " to " + lastMonth);
+    }
+
+    // ============= READ SUPPORT =============
+
+    /**
+     * Whether archived deliveries may fall in a date range starting at
+     * {@code from} (null for no lower bound)
+     */
+    public static boolean mayContain(LocalDate from) {
+        if (!SchemaMigrator.isAtLeast(ARCHIVE_VERSION)) {
+            return false;
+        }
+        LocalDate newest = getNewestArchivedDate();
+        return newest != null && (from == null || !from.isAfter(newest));
+    }
+
+    /**
+     * Newest delivery date in the archive, or null if it is empty. Cached for
+     * {@code -Dapp.deliveries.archive.newest.ttl.seconds} (default 300), or
+     * until this process archives
+     */
+    private static LocalDate getNewestArchivedDate() {
+        if (newestArchivedLoaded && System.nanoTime() - newestArchivedReadAt < NEWEST_TTL_NANOS) {
+            return newestArchived;
+        }
+        try {
+            Connection conn = DatabaseManager.getConnection();
+            if (conn == null) {
+                return null;
+            }
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT MAX(delivery_date) FROM deliveries_archive")) {
+                Date newest = rs.next() ? rs.getDate(1) : null;
+                newestArchived = newest != null ? newest.toLocalDate() : null;
+                newestArchivedReadAt = System.nanoTime();
+                newestArchivedLoaded = true;
+            }
+        } catch (SQLException e) {
+            // Assume the worst so callers still find archived rows
+            logger.log(Level.WARNING, "Could not read the newest archived delivery date", e);
+            return LocalDate.MAX;
+        }
+        return newestArchived;
+    }
+
+    // ============= HELPERS =============
+
+    private static int executeForIds(Connection conn, String sql, List<Integer> ids) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < ids.size(); i++) {
+                stmt.setInt(i + 1, ids.get(i));
+            }
+            return stmt.executeUpdate();
+        }
+    }
+
+    private static List<String> terminalSpellings() {
+        Set<String> spellings = new LinkedHashSet<>();
+        for (DeliveryStatus status : DeliveryStatus.terminalStatuses()) {
+            spellings.add(status.getDisplayName());
+            spellings.add(status.name());
+        }
+        spellings.add("Canceled");
+        spellings.add("Completed");
+        return new ArrayList<>(spellings);
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 3 + 2).append('(');
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "?" : ", ?");
+        }
+        return sb.append(')').toString();
+    }
+}
@@ -0,0 +1,212 @@
+package exportation_panelera.service;
+
+import exportation_panelera.concurrent.AppExecutors;
+import exportation_panelera.concurrent.TaskType;
+import exportation_panelera.db.DatabaseManager;
+import exportation_panelera.metrics.PerformanceMetrics;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-memory prefix index over the identifiers users type: delivery IDs
+ * ("DEL000123"), export IDs ("EXP000123") and tracking numbers. Built once
+ * from the deliveries table and then kept current by the controller on every
+ * create, update, delete and archive. Lookups ignore case and never touch
+ * the database, so they are cheap enough for the EDT.
+ */
+public class DeliveryLookupIndex {
+
+    private static final Logger logger = Logger.getLogger(DeliveryLookupIndex.class.getName());
+
+    private static final String LOAD_SQL = "SELECT id, exportation_id, tracking_number FROM deliveries";
+
+    // Guarded by the class lock
+    private static final PrefixIndex index = new PrefixIndex();
+    private static volatile boolean loaded = false;
+
+    // Prevent instantiation of utility class
+    private DeliveryLookupIndex() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated");
+    }
+
+    // ============= LOADING =============
+
+    /**
+     * Build the index in the background, e.g. when a form opens
+     */
+    public static void warmUp() {
+        if (loaded) {
+            return;
+        }
+        AppExecutors.submit(TaskType.DB_IO, () -> {
+            ensureLoaded();
+            return null;
+        });
+    }
+
+    public static boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Build the index from the deliveries table (once). Writes wait until
+     * the load is done, lookups return nothing meanwhile.
+     */
+    private static synchronized void ensureLoaded() {
+        if (loaded || DatabaseManager.isOfflineMode()) {
+            return;
+        }
+        long queryStart = PerformanceMetrics.startQuery();
+        boolean queryFailed = false;
+        try {
+            Connection conn = DatabaseManager.getConnection();
+            if (conn == null) {
+                return;
+            }
+            List<String> keys = new ArrayList<>();
+            IntList ids = new IntList();
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(LOAD_SQL)) {
+                while (rs.next()) {
+                    int id = rs.getInt(1);
+                    for (String key : keysOf(id, rs.getString(2), rs.getString(3))) {
+                        keys.add(key);
+                        ids.add(id);
+                    }
+                }
+            }
+            index.load(keys, ids.toArray());
+            loaded = true;
+            logger.info("Indexed " + keys.size() + " delivery identifiers");
+
+        } catch (SQLException e) {
+            queryFailed = true;
+            logger.log(Level.WARNING, "Could not load the delivery lookup index", e);
+        } finally {
+            PerformanceMetrics.endQuery("deliveries.loadLookupIndex", queryStart, queryFailed);
+        }
+    }
+
+    // ============= LOOKUPS =============
+
+    /**
+     * Identifiers starting with a prefix, for autocomplete
+     *
+     * @return up to limit identifiers in sorted order; empty until loaded
+     */
+    public static List<String> complete(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (!loaded || key == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        long start = System.nanoTime();
+        synchronized (DeliveryLookupIndex.class) {
+            List<String> result = index.complete(key, limit);
+            PerformanceMetrics.recordLatency("lookup.complete", System.nanoTime() - start, false);
+            return result;
+        }
+    }
+
+    /**
+     * Database ids of deliveries with an identifier starting with a prefix
+     *
+     * @return up to limit ids in ascending order; empty until loaded
+     */
+    public static int[] findDeliveryIds(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (!loaded || key == null || limit <= 0) {
+            return new int[0];
+        }
+        synchronized (DeliveryLookupIndex.class) {
+            return index.lookup(key, limit);
+        }
+    }
+
+    // ============= UPDATES =============
+
+    /**
+     * Record the identifiers of a created or updated delivery
+     *
+     * @param exportationId exportation_id as stored, without the EXP prefix
+     */
+    public static synchronized void put(int id, String exportationId, String trackingNumber) {
+        if (!loaded) {
+            return;
+        }
+        index.remove(id);
+        for (String key : keysOf(id, exportationId, trackingNumber)) {
+            index.add(key, id);
+        }
+    }
+
+    public static synchronized void remove(int id) {
+        if (loaded) {
+            index.remove(id);
+        }
+    }
+
+    /**
+     * Several deliveries removed at once, e.g. by the archiver
+     */
+    public static synchronized void removeAll(Collection<Integer> ids) {
+        if (loaded) {
+            for (int id : ids) {
+                index.remove(id);
+            }
+        }
+    }
+
+    // ============= HELPERS =============
+
+    private static List<String> keysOf(int id, String exportationId, String trackingNumber) {
+        List<String> keys = new ArrayList<>(3);
+        keys.add("DEL" + String.format("%06d", id));
+        String exportKey = normalize(exportationId);
+        if (exportKey != null) {
+            keys.add("EXP" + exportKey);
+        }
+        String trackingKey = normalize(trackingNumber);
+        if (trackingKey != null) {
+            keys.add(trackingKey);
+        }
+        return keys;
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return null;
+        }
+        String trimmed = text.trim();
+        return trimmed.isEmpty() ? null : trimmed.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Growable int array, to load ids without boxing
+     */
+    private static final class IntList {
+        private int[] values = new int[1024];
+        private int size = 0;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package exportation_panelera.service;
+
+import exportation_panelera.Model.DeliveryStatus;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Number of active deliveries per status.
+ *
+ * Loaded from one GROUP BY query and then kept current by the controller on
+ * every create, update, delete and archive, so the status summary never
+ * needs another scan. Deliveries with a missing or unrecognised status are
+ * counted as "other". Listeners run on the thread that changed the counts.
+ */
+public class DeliveryStatusCounter {
+
+    private static final Logger logger = Logger.getLogger(DeliveryStatusCounter.class.getName());
+
+    private static final DeliveryStatus[] STATUSES = DeliveryStatus.values();
+    private static final int OTHER = STATUSES.length;
+
+    private static final AtomicLongArray counts = new AtomicLongArray(STATUSES.length + 1);
+    private static final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private static volatile boolean loaded = false;
+
+    // Prevent instantiation of utility class
+    private DeliveryStatusCounter() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated");
+    }
+
+    // ============= UPDATES =============
+
+    /**
+     * Replace all counts with freshly queried ones
+     */
+    public static void reset(Map<DeliveryStatus, Long> statusCounts, long other) {
+        for (DeliveryStatus status : STATUSES) {
+            Long count = statusCounts.get(status);
+            counts.set(status.ordinal(), count != null ? count : 0);
+        }
+        counts.set(OTHER, other);
+        loaded = true;
+        fireChanged();
+    }
+
+    public static void created(DeliveryStatus status) {
+        counts.incrementAndGet(slot(status));
+        fireChanged();
+    }
+
+    public static void deleted(DeliveryStatus status) {
+        decrement(slot(status));
+        fireChanged();
+    }
+
+    /**
+     * Several deliveries removed at once, e.g. by the archiver
+     */
+    public static void deleted(Collection<DeliveryStatus> statuses) {
+        for (DeliveryStatus status : statuses) {
+            decrement(slot(status));
+        }
+        fireChanged();
+    }
+
+    public static void changed(DeliveryStatus from, DeliveryStatus to) {
+        if (from == to) {
+            return;
+        }
+        decrement(slot(from));
+        counts.incrementAndGet(slot(to));
+        fireChanged();
+    }
+
+    // ============= QUERIES =============
+
+    /**
+     * Whether counts were loaded from the database at least once
+     */
+    public static boolean isLoaded() {
+        return loaded;
+    }
+
+    public static long get(DeliveryStatus status) {
+        return counts.get(slot(status));
+    }
+
+    /**
+     * Deliveries without a recognised status
+     */
+    public static long getOther() {
+        return counts.get(OTHER);
+    }
+
+    public static long getTotal() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    public static EnumMap<DeliveryStatus, Long> snapshot() {
+        EnumMap<DeliveryStatus, Long> snapshot = new EnumMap<>(DeliveryStatus.class);
+        for (DeliveryStatus status : STATUSES) {
+            snapshot.put(status, counts.get(status.ordinal()));
+        }
+        return snapshot;
+    }
+
+    // ============= LISTENERS =============
+
+    public static void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public static void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    private static void fireChanged() {
+        for (Runnable listener : listeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Error in status count listener", e);
+            }
+        }
+    }
+
+    // ============= HELPERS =============
+
+    private static int slot(DeliveryStatus status) {
+        return status != null ? status.ordinal() : OTHER;
+    }
+
+    /**
+     * Decrement without going below zero, e.g. for rows counted before
+     * another client changed them
+     */
+    private static void decrement(int slot) {
+        counts.getAndUpdate(slot, count -> count > 0 ? count - 1 : 0);
+    }
+}
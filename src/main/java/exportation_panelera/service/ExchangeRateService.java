@@ -0,0 +1,249 @@
+package exportation_panelera.service;
+
+import exportation_panelera.Model.Money;
+import exportation_panelera.metrics.PerformanceMetrics;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Versioned exchange rates.
+ *
+ * Rates are read from {@code rates/exchange-rates.csv} on the classpath, or
+ * from the file named by {@code -Dapp.exchange.rates.file}. Each effective
+ * date becomes an immutable {@link ExchangeRateTable} with precomputed cross
+ * rates; the set of versions is swapped atomically on {@link #reload()}, so
+ * readers never see a half-loaded table.
+ */
+public class ExchangeRateService {
+
+    private static final Logger logger = Logger.getLogger(ExchangeRateService.class.getName());
+
+    private static final String RESOURCE = "rates/exchange-rates.csv";
+    private static final String OVERRIDE_PROPERTY = "app.exchange.rates.file";
+
+    private static final AtomicReference<Versions> versions = new AtomicReference<>();
+
+    static {
+        reload();
+    }
+
+    // Prevent instantiation of utility class
+    private ExchangeRateService() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated");
+    }
+
+    // ============= CONVERSION =============
+
+    /**
+     * Convert an amount at today's rates
+     *
+     * @throws IllegalArgumentException if a currency is not supported
+     */
+    public static BigDecimal convert(BigDecimal amount, String fromCurrency, String toCurrency) {
+        return current().convert(amount, fromCurrency, toCurrency);
+    }
+
+    /**
+     * Convert money at today's rates, rounded to the cent
+     *
+     * @throws IllegalArgumentException if a currency is not supported
+     */
+    public static Money convert(Money amount, String toCurrency) {
+        if (amount.getCurrency().equals(toCurrency)) {
+            return amount;
+        }
+        return Money.of(convert(amount.toBigDecimal(), amount.getCurrency(), toCurrency), toCurrency);
+    }
+
+    /**
+     * Convert an amount at the rates effective on a given date,
+     * e.g. the exportation date
+     *
+     * @throws IllegalArgumentException if a currency is not supported
+     */
+    public static BigDecimal convert(BigDecimal amount, String fromCurrency, String toCurrency, Date date) {
+        return asOf(date).convert(amount, fromCurrency, toCurrency);
+    }
+
+    /**
+     * Units of {@code toCurrency} per unit of {@code fromCurrency} at today's rates
+     */
+    public static BigDecimal getRate(String fromCurrency, String toCurrency) {
+        return current().getRate(fromCurrency, toCurrency);
+    }
+
+    /**
+     * Currencies supported by today's rates
+     */
+    public static List<String> getCurrencies() {
+        return current().getCurrencies();
+    }
+
+    /**
+     * Rates in effect today
+     */
+    public static ExchangeRateTable current() {
+        return versions.get().current();
+    }
+
+    /**
+     * Rates in effect on a date. Dates before the first version use the first
+     * version. For reports, fetch the table once per date and reuse it.
+     */
+    public static ExchangeRateTable asOf(LocalDate date) {
+        return versions.get().asOf(date);
+    }
+
+    public static ExchangeRateTable asOf(Date date) {
+        if (date == null) {
+            return current();
+        }
+        LocalDate localDate = date instanceof java.sql.Date
+                ? ((java.sql.Date) date).toLocalDate()
+                : date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        return asOf(localDate);
+    }
+
+    // ============= LOADING =============
+
+    /**
+     * Re-read the rate file and swap in the new versions. If the file cannot
+     * be read, the previous versions stay in use.
+     *
+     * @return true if new rates were loaded
+     */
+    public static boolean reload() {
+        String override = System.getProperty(OVERRIDE_PROPERTY);
+        try {
+            NavigableMap<LocalDate, ExchangeRateTable> tables;
+            if (override != null && !override.trim().isEmpty()) {
+                Path path = Paths.get(override.trim());
+                try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                    tables = parse(reader, path.toString());
+                }
+            } else {
+                InputStream input = ExchangeRateService.class.getClassLoader().getResourceAsStream(RESOURCE);
+                if (input == null) {
+                    throw new IOException("Resource not found: " + RESOURCE);
+                }
+                try (Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8)) {
+                    tables = parse(reader, RESOURCE);
+                }
+            }
+            versions.set(new Versions(tables));
+            PerformanceMetrics.incrementCounter("exchangeRates.reloads");
+            logger.info("Loaded " + tables.size() + " exchange rate version(s), latest from "
+                    + tables.lastKey());
+            return true;
+
+        } catch (IOException | IllegalArgumentException e) {
+            logger.log(Level.SEVERE, "Could not load exchange rates", e);
+            if (versions.get() == null) {
+                // Nothing loaded yet: keep the application usable with USD only
+                LinkedHashMap<String, BigDecimal> usdOnly = new LinkedHashMap<>();
+                usdOnly.put("USD", BigDecimal.ONE);
+                NavigableMap<LocalDate, ExchangeRateTable> fallback = new TreeMap<>();
+                fallback.put(LocalDate.MIN, new ExchangeRateTable(LocalDate.MIN, usdOnly));
+                versions.set(new Versions(fallback));
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Parse "date,currency,units_per_usd" lines. Each date starts from the
+     * previous date's rates, so a block only needs the currencies that changed.
+     */
+    private static NavigableMap<LocalDate, ExchangeRateTable> parse(Reader source, String name) throws IOException {
+        TreeMap<LocalDate, Map<String, BigDecimal>> changes = new TreeMap<>();
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            if (fields.length != 3) {
+                throw new IllegalArgumentException(name + ":" + lineNumber + ": expected 3 fields");
+            }
+            try {
+                LocalDate date = LocalDate.parse(fields[0].trim());
+                String currency = fields[1].trim().toUpperCase();
+                BigDecimal rate = new BigDecimal(fields[2].trim());
+                if (rate.signum() <= 0) {
+                    throw new IllegalArgumentException(name + ":" + lineNumber + ": rate must be positive");
+                }
+                changes.computeIfAbsent(date, d -> new LinkedHashMap<>()).put(currency, rate);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException(name + ":" + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        if (changes.isEmpty()) {
+            throw new IllegalArgumentException(name + ": no rates found");
+        }
+
+        NavigableMap<LocalDate, ExchangeRateTable> tables = new TreeMap<>();
+        LinkedHashMap<String, BigDecimal> rates = new LinkedHashMap<>();
+        for (Map.Entry<LocalDate, Map<String, BigDecimal>> entry : changes.entrySet()) {
+            rates.putAll(entry.getValue());
+            if (!rates.containsKey("USD")) {
+                throw new IllegalArgumentException(name + ": USD rate missing for " + entry.getKey());
+            }
+            tables.put(entry.getKey(), new ExchangeRateTable(entry.getKey(), new LinkedHashMap<>(rates)));
+        }
+        return tables;
+    }
+
+    /**
+     * All loaded versions, plus the one in effect today
+     */
+    private static final class Versions {
+        private final NavigableMap<LocalDate, ExchangeRateTable> tables;
+        private volatile Map.Entry<LocalDate, ExchangeRateTable> today;
+
+        Versions(NavigableMap<LocalDate, ExchangeRateTable> tables) {
+            this.tables = Collections.unmodifiableNavigableMap(tables);
+        }
+
+        ExchangeRateTable current() {
+            LocalDate date = LocalDate.now();
+            Map.Entry<LocalDate, ExchangeRateTable> cached = today;
+            if (cached == null || !cached.getKey().equals(date)) {
+                cached = new AbstractMap.SimpleImmutableEntry<>(date, asOf(date));
+                today = cached;
+            }
+            return cached.getValue();
+        }
+
+        ExchangeRateTable asOf(LocalDate date) {
+            Map.Entry<LocalDate, ExchangeRateTable> entry = tables.floorEntry(date);
+            return entry != null ? entry.getValue() : tables.firstEntry().getValue();
+        }
+    }
+}
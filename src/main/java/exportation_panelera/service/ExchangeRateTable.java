@@ -0,0 +1,95 @@
+package exportation_panelera.service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable set of exchange rates effective from one date.
+ * All N x N cross rates are computed up front, so a conversion is
+ * two map lookups and one multiplication.
+ */
+public final class ExchangeRateTable {
+
+    /** Precision used for all rate arithmetic */
+    public static final MathContext MATH_CONTEXT = MathContext.DECIMAL64;
+
+    private final LocalDate effectiveDate;
+    private final List<String> currencies;
+    private final Map<String, Integer> index;
+    private final BigDecimal[][] crossRates;
+
+    /**
+     * @param effectiveDate first day these rates apply
+     * @param unitsPerUsd rate of each currency against USD, in display order
+     */
+    ExchangeRateTable(LocalDate effectiveDate, LinkedHashMap<String, BigDecimal> unitsPerUsd) {
+        this.effectiveDate = effectiveDate;
+        int n = unitsPerUsd.size();
+        String[] codes = unitsPerUsd.keySet().toArray(new String[0]);
+        BigDecimal[] rates = unitsPerUsd.values().toArray(new BigDecimal[0]);
+
+        Map<String, Integer> positions = new HashMap<>();
+        BigDecimal[][] cross = new BigDecimal[n][n];
+        for (int from = 0; from < n; from++) {
+            positions.put(codes[from], from);
+            for (int to = 0; to < n; to++) {
+                cross[from][to] = from == to
+                        ? BigDecimal.ONE
+                        : rates[to].divide(rates[from], MATH_CONTEXT);
+            }
+        }
+        this.currencies = List.of(codes);
+        this.index = Collections.unmodifiableMap(positions);
+        this.crossRates = cross;
+    }
+
+    public LocalDate getEffectiveDate() {
+        return effectiveDate;
+    }
+
+    /**
+     * Supported currency codes, in the order of the rate file
+     */
+    public List<String> getCurrencies() {
+        return currencies;
+    }
+
+    public boolean supports(String currency) {
+        return index.containsKey(currency);
+    }
+
+    /**
+     * Units of {@code toCurrency} per unit of {@code fromCurrency}
+     *
+     * @throws IllegalArgumentException if a currency is not supported
+     */
+    public BigDecimal getRate(String fromCurrency, String toCurrency) {
+        return crossRates[position(fromCurrency)][position(toCurrency)];
+    }
+
+    /**
+     * Convert an amount between two currencies
+     *
+     * @throws IllegalArgumentException if a currency is not supported
+     */
+    public BigDecimal convert(BigDecimal amount, String fromCurrency, String toCurrency) {
+        if (fromCurrency.equals(toCurrency)) {
+            return amount;
+        }
+        return amount.multiply(getRate(fromCurrency, toCurrency), MATH_CONTEXT);
+    }
+
+    private int position(String currency) {
+        Integer position = index.get(currency);
+        if (position == null) {
+            throw new IllegalArgumentException("Unsupported currency: " + currency);
+        }
+        return position;
+    }
+}
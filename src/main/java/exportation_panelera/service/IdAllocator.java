@@ -0,0 +1,217 @@
+package exportation_panelera.service;
+
+import exportation_panelera.concurrent.AppExecutors;
+import exportation_panelera.concurrent.TaskType;
+import exportation_panelera.db.DatabaseManager;
+import exportation_panelera.metrics.PerformanceMetrics;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hi/lo ID allocator backed by the {@code sequences} table (schema V8).
+ *
+ * Each allocator reserves a block of IDs with a single UPDATE (the new high
+ * value comes back through LAST_INSERT_ID / generated keys, so no second
+ * query is needed) and then hands IDs out from an AtomicLong without touching
+ * the database. The row lock on the sequence makes blocks disjoint across all
+ * clients. When a block is 80% used the next one is reserved in the
+ * background, so callers on the EDT normally never wait for the database.
+ *
+ * IDs start at 1,000,000, above every ID the old timestamp-modulo scheme could
+ * produce. Unused IDs of a block are lost when the application exits; IDs are
+ * unique, not gap-free. Block size can be set with {@code -Dapp.id.block.size}.
+ *
+ * If the database cannot be reached, no ID is handed out (nextId throws)
+ * rather than one that might clash with a saved row. In offline mode, where
+ * nothing is saved, IDs come from a local range starting at 900,000,000.
+ */
+public class IdAllocator {
+
+    private static final Logger logger = Logger.getLogger(IdAllocator.class.getName());
+
+    private static final long INITIAL_VALUE = 1_000_000L;
+    private static final int BLOCK_SIZE = Math.max(1, Integer.getInteger("app.id.block.size", 50));
+
+    private static final String RESERVE_SQL =
+        "UPDATE sequences SET next_val = LAST_INSERT_ID(next_val + ?) WHERE name = ?";
+
+    private static final String INSERT_SEQUENCE_SQL =
+        "INSERT IGNORE INTO sequences (name, next_val) VALUES (?, ?)";
+
+    /**
+     * Exportation IDs (EXPnnnnnnn). Delivery IDs are not allocated here: they
+     * are the AUTO_INCREMENT key of the deliveries row (DELnnnnnn).
+     */
+    public static final IdAllocator EXPORTATIONS = new IdAllocator("exportations");
+
+    private static final long OFFLINE_INITIAL_VALUE = 900_000_000L;
+
+    private static final AtomicLong offlineCounter = new AtomicLong(OFFLINE_INITIAL_VALUE);
+
+    private final String sequence;
+    private volatile Block current = Block.EMPTY;
+    private volatile Block prefetched = null;
+    private final AtomicBoolean prefetching = new AtomicBoolean(false);
+
+    private IdAllocator(String sequence) {
+        this.sequence = sequence;
+    }
+
+    /**
+     * Get the next ID. Lock-free while the current block lasts; blocks for one
+     * database round trip only if the block ran out before the prefetch finished.
+     *
+     * @return a unique ID
+     * @throws IllegalStateException if no block could be reserved from the database
+     */
+    public long nextId() {
+        while (true) {
+            Block block = current;
+            long id = block.next.getAndIncrement();
+            if (id < block.limit) {
+                if (id == block.prefetchAt) {
+                    prefetchNextBlock();
+                }
+                return id;
+            }
+            refill(block);
+        }
+    }
+
+    /**
+     * Reserve the first block in the background, e.g. while a form is loading
+     */
+    public void warmUp() {
+        if (current == Block.EMPTY) {
+            prefetchNextBlock();
+        }
+    }
+
+    private synchronized void refill(Block exhausted) {
+        if (current != exhausted) {
+            return; // another thread already refilled
+        }
+        Block next = prefetched;
+        prefetched = null;
+        if (next == null) {
+            next = reserveBlock();
+        }
+        current = next;
+    }
+
+    private void prefetchNextBlock() {
+        if (!prefetching.compareAndSet(false, true)) {
+            return;
+        }
+        AppExecutors.submit(TaskType.DB_IO, () -> {
+            try {
+                Block block = reserveBlock();
+                synchronized (this) {
+                    if (current == Block.EMPTY) {
+                        current = block;
+                    } else if (prefetched == null) {
+                        prefetched = block;
+                    }
+                }
+            } finally {
+                prefetching.set(false);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Reserve the next block from the database, or a local block in offline
+     * mode (offline saves are not persisted).
+     *
+     * @throws IllegalStateException if the database is unavailable
+     */
+    private Block reserveBlock() {
+        if (DatabaseManager.isOfflineMode()) {
+            long start = offlineCounter.getAndAdd(BLOCK_SIZE);
+            logger.info("Offline mode - using local " + sequence + " IDs from " + start);
+            return new Block(start, start + BLOCK_SIZE);
+        }
+
+        Connection conn = null;
+        long queryStart = PerformanceMetrics.startQuery();
+        boolean queryFailed = false;
+
+        try {
+            conn = DatabaseManager.getConnection();
+            if (conn == null) {
+                queryFailed = true;
+                throw new IllegalStateException("Database unavailable - cannot reserve " + sequence + " IDs");
+            }
+            long high = reserve(conn);
+            if (high < 0) {
+                insertSequence(conn);
+                high = reserve(conn);
+            }
+            if (high < 0) {
+                throw new SQLException("Sequence " + sequence + " is missing");
+            }
+            PerformanceMetrics.incrementCounter("ids." + sequence + ".blocks");
+            logger.fine("Reserved " + sequence + " IDs " + (high - BLOCK_SIZE) + "-" + (high - 1));
+            return new Block(high - BLOCK_SIZE, high);
+        } catch (SQLException e) {
+            queryFailed = true;
+            logger.log(Level.WARNING, "Could not reserve " + sequence + " IDs", e);
+            throw new IllegalStateException("Could not reserve " + sequence + " IDs", e);
+        } finally {
+            PerformanceMetrics.endQuery("sequences.reserve", queryStart, queryFailed);
+        }
+    }
+
+    /**
+     * @return new high value of the sequence, or -1 if the sequence row is missing
+     */
+    private long reserve(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(RESERVE_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setInt(1, BLOCK_SIZE);
+            stmt.setString(2, sequence);
+            if (stmt.executeUpdate() == 0) {
+                return -1;
+            }
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    return keys.getLong(1);
+                }
+            }
+        }
+        throw new SQLException("No value returned when reserving " + sequence + " IDs");
+    }
+
+    private void insertSequence(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_SEQUENCE_SQL)) {
+            stmt.setString(1, sequence);
+            stmt.setLong(2, INITIAL_VALUE);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * A reserved range [next, limit)
+     */
+    private static final class Block {
+        static final Block EMPTY = new Block(0, 0);
+
+        final AtomicLong next;
+        final long limit;
+        final long prefetchAt;
+
+        Block(long start, long limit) {
+            this.next = new AtomicLong(start);
+            this.limit = limit;
+            this.prefetchAt = limit - Math.max(1, (limit - start) / 5);
+        }
+    }
+}
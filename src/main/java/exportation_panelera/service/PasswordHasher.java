@@ -0,0 +1,231 @@
+package exportation_panelera.service;
+
+import exportation_panelera.concurrent.AppExecutors;
+import exportation_panelera.concurrent.TaskType;
+import exportation_panelera.metrics.PerformanceMetrics;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Logger;
+
+/**
+ * Password hashing with PBKDF2-HMAC-SHA256.
+ *
+ * Hashes are stored as {@code pbkdf2-sha256$<iterations>$<salt>$<hash>}, so
+ * every hash carries its own work factor and the factor can be raised with
+ * {@code -Dauth.hash.iterations} without invalidating existing passwords;
+ * {@link #needsRehash(String)} tells the caller to store a new hash after the
+ * next successful login. Legacy {@code <password>_hashed} values still verify.
+ *
+ * All hashing runs on the {@link TaskType#HASHING} executor so a burst of
+ * logins queues there instead of taking the cores used by the UI and the
+ * database workers.
+ */
+public class PasswordHasher {
+
+    private static final Logger logger = Logger.getLogger(PasswordHasher.class.getName());
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2-sha256";
+    private static final String LEGACY_SUFFIX = "_hashed";
+
+    private static final int SALT_BYTES = 16;
+    private static final int KEY_BITS = 256;
+    private static final int MIN_ITERATIONS = 10_000;
+    private static final int DEFAULT_ITERATIONS = 210_000;
+
+    /** Work factor for new hashes; see {@link #calibrate(long)} */
+    private static final int ITERATIONS =
+            Math.max(MIN_ITERATIONS, Integer.getInteger("auth.hash.iterations", DEFAULT_ITERATIONS));
+
+    private static final SecureRandom random = new SecureRandom();
+
+    // Prevent instantiation of utility class
+    private PasswordHasher() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated");
+    }
+
+    public static int getIterations() {
+        return ITERATIONS;
+    }
+
+    // ============= HASHING =============
+
+    /**
+     * Hash a password with the current work factor
+     */
+    public static CompletableFuture<String> hashAsync(String password) {
+        return AppExecutors.submit(TaskType.HASHING, () -> hashNow(password, ITERATIONS));
+    }
+
+    /**
+     * Hash a password, waiting for the hashing executor
+     */
+    public static String hash(String password) {
+        return await(hashAsync(password));
+    }
+
+    /**
+     * Check a password against a stored hash in either format
+     */
+    public static CompletableFuture<Boolean> verifyAsync(String password, String storedHash) {
+        return AppExecutors.submit(TaskType.HASHING, () -> verifyNow(password, storedHash));
+    }
+
+    /**
+     * Check a password, waiting for the hashing executor
+     */
+    public static boolean verify(String password, String storedHash) {
+        return await(verifyAsync(password, storedHash));
+    }
+
+    /**
+     * Whether a stored hash is in the legacy format or uses a lower work
+     * factor than new hashes would
+     */
+    public static boolean needsRehash(String storedHash) {
+        String[] parts = split(storedHash);
+        return parts == null || parseIterations(parts[1]) < ITERATIONS;
+    }
+
+    /**
+     * Load the PBKDF2 provider and compile its hot loop before the first
+     * login needs them, e.g. while the sign-in form is shown
+     */
+    public static CompletableFuture<Void> warmUpAsync() {
+        return AppExecutors.submit(TaskType.HASHING, () -> {
+            derive("warm-up", new byte[SALT_BYTES], MIN_ITERATIONS);
+            return null;
+        });
+    }
+
+    // ============= CALIBRATION =============
+
+    /**
+     * Work factor that makes one hash take about {@code targetMillis} on this
+     * machine. Runs on the calling thread.
+     */
+    public static int calibrate(long targetMillis) {
+        int probe = 20_000;
+        // Warm up so the measurement sees compiled code
+        for (int i = 0; i < 5; i++) {
+            derive("calibration", new byte[SALT_BYTES], probe);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            derive("calibration", new byte[SALT_BYTES], probe);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        long iterations = probe * (targetMillis * 1_000_000L) / Math.max(1, best);
+        iterations = Math.round(iterations / 10_000.0) * 10_000;
+        return (int) Math.max(MIN_ITERATIONS, Math.min(Integer.MAX_VALUE, iterations));
+    }
+
+    /**
+     * Print the work factor for a target latency, e.g.
+     * {@code java -cp app.jar exportation_panelera.service.PasswordHasher 250}
+     */
+    public static void main(String[] args) {
+        long targetMillis = args.length > 0 ? Long.parseLong(args[0]) : 250;
+        int iterations = calibrate(targetMillis);
+        long start = System.nanoTime();
+        hashNow("calibration", iterations);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Target " + targetMillis + " ms: -Dauth.hash.iterations=" + iterations
+                + " (measured " + elapsedMs + " ms, " + TaskType.HASHING.getMaxConcurrency()
+                + " concurrent hashes)");
+    }
+
+    // ============= HELPERS =============
+
+    private static String hashNow(String password, int iterations) {
+        long start = System.nanoTime();
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] hash = derive(password, salt, iterations);
+        PerformanceMetrics.recordLatency("auth.hash", System.nanoTime() - start, false);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    private static boolean verifyNow(String password, String storedHash) {
+        if (password == null || storedHash == null) {
+            return false;
+        }
+        String[] parts = split(storedHash);
+        if (parts == null) {
+            // Legacy format, compared in constant time all the same
+            return storedHash.endsWith(LEGACY_SUFFIX) && MessageDigest.isEqual(
+                    (password + LEGACY_SUFFIX).getBytes(StandardCharsets.UTF_8),
+                    storedHash.getBytes(StandardCharsets.UTF_8));
+        }
+
+        long start = System.nanoTime();
+        try {
+            int iterations = parseIterations(parts[1]);
+            Base64.Decoder decoder = Base64.getDecoder();
+            byte[] salt = decoder.decode(parts[2]);
+            byte[] expected = decoder.decode(parts[3]);
+            if (iterations <= 0 || expected.length == 0) {
+                logger.warning("Malformed password hash");
+                return false;
+            }
+            return MessageDigest.isEqual(expected, derive(password, salt, iterations));
+        } catch (IllegalArgumentException e) {
+            logger.warning("Malformed password hash: " + e.getMessage());
+            return false;
+        } finally {
+            PerformanceMetrics.recordLatency("auth.verify", System.nanoTime() - start, false);
+        }
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, KEY_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    /**
+     * Fields of a hash in the current format, or null for anything else
+     */
+    private static String[] split(String storedHash) {
+        if (storedHash == null || !storedHash.startsWith(PREFIX + "$")) {
+            return null;
+        }
+        String[] parts = storedHash.split("\\$");
+        return parts.length == 4 ? parts : null;
+    }
+
+    private static int parseIterations(String text) {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+}
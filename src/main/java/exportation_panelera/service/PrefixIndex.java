@@ -0,0 +1,219 @@
+package exportation_panelera.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Prefix index from string keys to int ids, for autocomplete.
+ *
+ * Keys live in sorted primitive arrays: one byte array holding all keys as
+ * UTF-8, an offset array and an id array, so a prefix is found by binary
+ * search and its matches are adjacent. Changes go to a small sorted overlay
+ * (additions) and a set of hidden ids (removals) and are merged into the
+ * arrays once the overlay grows past an eighth of the index. Not thread-safe.
+ */
+final class PrefixIndex {
+
+    private static final int MIN_OVERLAY = 1024;
+
+    // Sorted by unsigned UTF-8 bytes, then id
+    private byte[] data = new byte[0];
+    private int[] offsets = {0};
+    private int[] ids = new int[0];
+
+    private final TreeMap<String, Set<Integer>> added = new TreeMap<>();
+    private final Set<Integer> hidden = new HashSet<>();
+    private int addedCount = 0;
+
+    /**
+     * Replace the whole index
+     *
+     * @param keys keys, already normalized
+     * @param keyIds id of each key
+     */
+    void load(List<String> keys, int[] keyIds) {
+        added.clear();
+        hidden.clear();
+        addedCount = 0;
+        List<Entry> entries = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            entries.add(new Entry(keys.get(i).getBytes(StandardCharsets.UTF_8), keyIds[i]));
+        }
+        build(entries);
+    }
+
+    void add(String key, int id) {
+        if (added.computeIfAbsent(key, k -> new HashSet<>()).add(id)) {
+            addedCount++;
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * Remove all keys of an id
+     */
+    void remove(int id) {
+        hidden.add(id);
+        Iterator<Map.Entry<String, Set<Integer>>> it = added.entrySet().iterator();
+        while (it.hasNext()) {
+            Set<Integer> keyIds = it.next().getValue();
+            if (keyIds.remove(id)) {
+                addedCount--;
+                if (keyIds.isEmpty()) {
+                    it.remove();
+                }
+            }
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * Number of (key, id) entries, including removed ones not yet compacted
+     */
+    int size() {
+        return ids.length + addedCount;
+    }
+
+    /**
+     * Distinct keys starting with a prefix, in sorted order
+     */
+    List<String> complete(String prefix, int limit) {
+        TreeSet<String> keys = new TreeSet<>();
+        byte[] p = prefix.getBytes(StandardCharsets.UTF_8);
+        for (int i = lowerBound(p); i < ids.length && startsWith(i, p) && keys.size() < limit; i++) {
+            if (!hidden.contains(ids[i])) {
+                keys.add(keyAt(i));
+            }
+        }
+        int fromOverlay = 0;
+        for (String key : added.tailMap(prefix, true).keySet()) {
+            if (!key.startsWith(prefix) || fromOverlay++ >= limit) {
+                break;
+            }
+            keys.add(key);
+        }
+        List<String> result = new ArrayList<>(Math.min(limit, keys.size()));
+        for (String key : keys) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(key);
+        }
+        return result;
+    }
+
+    /**
+     * Distinct ids with a key starting with a prefix
+     */
+    int[] lookup(String prefix, int limit) {
+        Set<Integer> found = new TreeSet<>();
+        byte[] p = prefix.getBytes(StandardCharsets.UTF_8);
+        for (int i = lowerBound(p); i < ids.length && startsWith(i, p) && found.size() < limit; i++) {
+            if (!hidden.contains(ids[i])) {
+                found.add(ids[i]);
+            }
+        }
+        for (Map.Entry<String, Set<Integer>> entry : added.tailMap(prefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(prefix) || found.size() >= limit) {
+                break;
+            }
+            found.addAll(entry.getValue());
+        }
+        return found.stream().mapToInt(Integer::intValue).limit(limit).toArray();
+    }
+
+    // ============= HELPERS =============
+
+    private void compactIfNeeded() {
+        if (addedCount + hidden.size() <= Math.max(MIN_OVERLAY, ids.length / 8)) {
+            return;
+        }
+        List<Entry> entries = new ArrayList<>(ids.length + addedCount);
+        for (int i = 0; i < ids.length; i++) {
+            if (!hidden.contains(ids[i])) {
+                entries.add(new Entry(Arrays.copyOfRange(data, offsets[i], offsets[i + 1]), ids[i]));
+            }
+        }
+        for (Map.Entry<String, Set<Integer>> entry : added.entrySet()) {
+            byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            for (int id : entry.getValue()) {
+                entries.add(new Entry(key, id));
+            }
+        }
+        added.clear();
+        hidden.clear();
+        addedCount = 0;
+        build(entries);
+    }
+
+    private void build(List<Entry> entries) {
+        entries.sort((a, b) -> {
+            int c = Arrays.compareUnsigned(a.key, b.key);
+            return c != 0 ? c : Integer.compare(a.id, b.id);
+        });
+        int bytes = 0;
+        for (Entry entry : entries) {
+            bytes += entry.key.length;
+        }
+        byte[] newData = new byte[bytes];
+        int[] newOffsets = new int[entries.size() + 1];
+        int[] newIds = new int[entries.size()];
+        int position = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            System.arraycopy(entry.key, 0, newData, position, entry.key.length);
+            newOffsets[i] = position;
+            newIds[i] = entry.id;
+            position += entry.key.length;
+        }
+        newOffsets[entries.size()] = position;
+        data = newData;
+        offsets = newOffsets;
+        ids = newIds;
+    }
+
+    /**
+     * First position whose key is not less than the prefix
+     */
+    private int lowerBound(byte[] prefix) {
+        int low = 0;
+        int high = ids.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Arrays.compareUnsigned(data, offsets[mid], offsets[mid + 1], prefix, 0, prefix.length) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private boolean startsWith(int position, byte[] prefix) {
+        int start = offsets[position];
+        return offsets[position + 1] - start >= prefix.length
+                && Arrays.equals(data, start, start + prefix.length, prefix, 0, prefix.length);
+    }
+
+    private String keyAt(int position) {
+        return new String(data, offsets[position], offsets[position + 1] - offsets[position], StandardCharsets.UTF_8);
+    }
+
+    private static final class Entry {
+        final byte[] key;
+        final int id;
+
+        Entry(byte[] key, int id) {
+            this.key = key;
+            this.id = id;
+        }
+    }
+}
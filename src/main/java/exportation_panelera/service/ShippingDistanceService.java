@@ -0,0 +1,184 @@
+package exportation_panelera.service;
+
+import exportation_panelera.Model.Destination;
+import exportation_panelera.Model.Money;
+import exportation_panelera.Model.ShipmentSpec;
+import exportation_panelera.Model.TransportMode;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Estimated route distances and transit times from our Colombian origins to
+ * every {@link Destination}.
+ *
+ * Distances are great-circle distances between the origin and the
+ * destination's capital, multiplied by the mode's route factor. They are
+ * computed once for every origin, mode and destination and kept in primitive
+ * arrays indexed by ordinal, so a lookup is a single array read. Routes a mode
+ * cannot serve (e.g. road to Japan) and {@link Destination#OTHER} have no
+ * distance.
+ */
+public class ShippingDistanceService {
+
+    /** Returned when a mode does not serve a destination */
+    public static final int NO_ROUTE = -1;
+
+    /**
+     * Colombian airports and seaports shipments leave from
+     */
+    public enum Origin {
+        BOGOTA("Bogotá", 4.7016, -74.1469, EnumSet.of(TransportMode.AIR, TransportMode.EXPRESS,
+                TransportMode.ROAD, TransportMode.RAIL)),
+        MEDELLIN("Medellín", 6.1645, -75.4231, EnumSet.of(TransportMode.AIR, TransportMode.EXPRESS,
+                TransportMode.ROAD)),
+        CARTAGENA("Cartagena", 10.3910, -75.4794, EnumSet.of(TransportMode.SEA)),
+        BARRANQUILLA("Barranquilla", 10.9685, -74.7813, EnumSet.of(TransportMode.SEA, TransportMode.AIR)),
+        BUENAVENTURA("Buenaventura", 3.8801, -77.0312, EnumSet.of(TransportMode.SEA));
+
+        private final String displayName;
+        private final double latitude;
+        private final double longitude;
+        private final Set<TransportMode> modes;
+
+        Origin(String displayName, double latitude, double longitude, Set<TransportMode> modes) {
+            this.displayName = displayName;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.modes = modes;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        public boolean serves(TransportMode mode) {
+            return modes.contains(mode);
+        }
+    }
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private static final Origin[] ORIGINS = Origin.values();
+    private static final int MODE_COUNT = TransportMode.values().length;
+    private static final int DESTINATION_COUNT = Destination.values().length;
+
+    // [origin][mode][destination], NO_ROUTE where the origin does not serve the route
+    private static final int[] originDistances = new int[ORIGINS.length * MODE_COUNT * DESTINATION_COUNT];
+    // [mode][destination] from the nearest origin serving the mode
+    private static final int[] distances = new int[MODE_COUNT * DESTINATION_COUNT];
+    private static final short[] transitDays = new short[MODE_COUNT * DESTINATION_COUNT];
+    private static final byte[] nearestOrigins = new byte[MODE_COUNT * DESTINATION_COUNT];
+
+    static {
+        for (TransportMode mode : TransportMode.values()) {
+            for (Destination destination : Destination.values()) {
+                int cell = mode.ordinal() * DESTINATION_COUNT + destination.ordinal();
+                int best = NO_ROUTE;
+                int bestOrigin = -1;
+                for (Origin origin : ORIGINS) {
+                    int distance = routeDistance(origin, mode, destination);
+                    originDistances[origin.ordinal() * MODE_COUNT * DESTINATION_COUNT + cell] = distance;
+                    if (distance != NO_ROUTE && (best == NO_ROUTE || distance < best)) {
+                        best = distance;
+                        bestOrigin = origin.ordinal();
+                    }
+                }
+                distances[cell] = best;
+                nearestOrigins[cell] = (byte) bestOrigin;
+                transitDays[cell] = (short) (best == NO_ROUTE ? NO_ROUTE
+                        : mode.getHandlingDays() + (best + mode.getKmPerDay() - 1) / mode.getKmPerDay());
+            }
+        }
+    }
+
+    // Prevent instantiation of utility class
+    private ShippingDistanceService() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated");
+    }
+
+    // ============= LOOKUPS =============
+
+    /**
+     * Route distance in km from the nearest origin serving the mode,
+     * or {@link #NO_ROUTE}
+     */
+    public static int distanceKm(Destination destination, TransportMode mode) {
+        return distances[mode.ordinal() * DESTINATION_COUNT + destination.ordinal()];
+    }
+
+    /**
+     * Route distance in km from a given origin, or {@link #NO_ROUTE}
+     */
+    public static int distanceKm(Origin origin, Destination destination, TransportMode mode) {
+        return originDistances[(origin.ordinal() * MODE_COUNT + mode.ordinal()) * DESTINATION_COUNT
+                + destination.ordinal()];
+    }
+
+    /**
+     * Estimated door-to-door days from the nearest origin, or {@link #NO_ROUTE}
+     */
+    public static int transitDays(Destination destination, TransportMode mode) {
+        return transitDays[mode.ordinal() * DESTINATION_COUNT + destination.ordinal()];
+    }
+
+    /**
+     * Origin the distance for a mode and destination is measured from,
+     * or null if there is no route
+     */
+    public static Origin nearestOrigin(Destination destination, TransportMode mode) {
+        int origin = nearestOrigins[mode.ordinal() * DESTINATION_COUNT + destination.ordinal()];
+        return origin < 0 ? null : ORIGINS[origin];
+    }
+
+    /**
+     * Distance for a shipping method name and destination name as used in
+     * the forms, or {@link #NO_ROUTE} if either is unknown
+     */
+    public static int distanceKm(String destination, String shippingMethod) {
+        TransportMode mode = TransportMode.fromShippingMethod(shippingMethod);
+        return mode != null ? distanceKm(Destination.fromName(destination), mode) : NO_ROUTE;
+    }
+
+    /**
+     * Build a shipment with its distance filled in from the matrix, e.g. for
+     * bulk quoting without user input
+     *
+     * @throws IllegalArgumentException if the method cannot reach the destination
+     */
+    public static ShipmentSpec shipment(String shippingMethod, BigDecimal weightKg, Destination destination,
+                                        Money additionalCosts) {
+        TransportMode mode = TransportMode.fromShippingMethod(shippingMethod);
+        int distance = mode != null ? distanceKm(destination, mode) : NO_ROUTE;
+        if (distance == NO_ROUTE) {
+            throw new IllegalArgumentException("No " + shippingMethod + " route to " + destination);
+        }
+        return new ShipmentSpec(shippingMethod, weightKg, BigDecimal.valueOf(distance),
+                destination.getDisplayName(), additionalCosts);
+    }
+
+    // ============= HELPERS =============
+
+    private static int routeDistance(Origin origin, TransportMode mode, Destination destination) {
+        if (!origin.serves(mode) || !destination.hasLocation()
+                || (mode.isOverland() && !destination.isOverland())) {
+            return NO_ROUTE;
+        }
+        double km = greatCircleKm(origin.latitude, origin.longitude,
+                destination.getLatitude(), destination.getLongitude());
+        return (int) Math.round(km * mode.getRouteFactor());
+    }
+
+    /**
+     * Haversine distance
+     */
+    private static double greatCircleKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+}
@@ -0,0 +1,420 @@
+package exportation_panelera.service;
+
+import exportation_panelera.Model.Money;
+import exportation_panelera.Model.ShipmentSpec;
+import exportation_panelera.Model.ShippingQuote;
+import exportation_panelera.concurrent.AppExecutors;
+import exportation_panelera.concurrent.TaskType;
+import exportation_panelera.metrics.PerformanceMetrics;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Shipping rate-card engine.
+ *
+ * Rate cards are read from {@code rates/shipping-rate-cards.csv} on the
+ * classpath, or from the file named by {@code -Dapp.shipping.rates.file}.
+ * Each shipping method is compiled into sorted weight-break and distance-band
+ * arrays plus a filled rate grid, and surcharges are pre-combined per
+ * destination, so a quote is two binary searches and a few multiplications.
+ * The compiled cards are immutable and swapped atomically on {@link #reload()}.
+ *
+ * All rates and quotes are in USD.
+ */
+public class ShippingRateService {
+
+    private static final Logger logger = Logger.getLogger(ShippingRateService.class.getName());
+
+    /** Currency of every rate and quote */
+    public static final String CURRENCY = "USD";
+
+    private static final String RESOURCE = "rates/shipping-rate-cards.csv";
+    private static final String OVERRIDE_PROPERTY = "app.shipping.rates.file";
+    private static final String ANY = "*";
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    // Bulk quotes are split into chunks of this size for the CPU executor
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final AtomicReference<Map<String, RateCard>> cards =
+        new AtomicReference<>(Collections.emptyMap());
+
+    static {
+        reload();
+    }
+
+    // Prevent instantiation of utility class
+    private ShippingRateService() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated");
+    }
+
+    // ============= QUOTING =============
+
+    /**
+     * Price one shipment
+     *
+     * @throws IllegalArgumentException if the shipping method has no rate card
+     */
+    public static ShippingQuote quote(ShipmentSpec shipment) {
+        return quote(cards.get(), shipment);
+    }
+
+    /**
+     * Price many shipments, e.g. candidate plans. Large lists are split into
+     * chunks priced in parallel on the CPU executor; all chunks use the same
+     * rate cards even if they are reloaded meanwhile.
+     *
+     * @return quotes in the same order as the shipments
+     * @throws IllegalArgumentException if a shipping method has no rate card
+     */
+    public static List<ShippingQuote> quote(List<ShipmentSpec> shipments) {
+        Map<String, RateCard> snapshot = cards.get();
+        int count = shipments.size();
+        ShippingQuote[] quotes = new ShippingQuote[count];
+        long start = System.nanoTime();
+
+        if (count <= CHUNK_SIZE) {
+            quoteRange(snapshot, shipments, quotes, 0, count);
+        } else {
+            List<CompletableFuture<Void>> chunks = new ArrayList<>();
+            for (int from = 0; from < count; from += CHUNK_SIZE) {
+                int chunkStart = from;
+                int chunkEnd = Math.min(count, from + CHUNK_SIZE);
+                chunks.add(AppExecutors.submit(TaskType.CPU, () -> {
+                    quoteRange(snapshot, shipments, quotes, chunkStart, chunkEnd);
+                    return null;
+                }));
+            }
+            try {
+                CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0])).join();
+            } catch (RuntimeException e) {
+                chunks.forEach(chunk -> chunk.cancel(true));
+                Throwable cause = AppExecutors.unwrap(e);
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IllegalStateException("Bulk shipping quote failed", cause);
+            }
+        }
+
+        PerformanceMetrics.recordLatency("shipping.bulkQuote", System.nanoTime() - start, false);
+        return Collections.unmodifiableList(Arrays.asList(quotes));
+    }
+
+    /**
+     * Shipping methods with a rate card, in file order
+     */
+    public static List<String> getMethods() {
+        List<String> methods = new ArrayList<>();
+        for (RateCard card : cards.get().values()) {
+            methods.add(card.method);
+        }
+        return methods;
+    }
+
+    public static boolean supports(String method) {
+        return method != null && cards.get().containsKey(key(method));
+    }
+
+    private static void quoteRange(Map<String, RateCard> snapshot, List<ShipmentSpec> shipments,
+                                   ShippingQuote[] quotes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            quotes[i] = quote(snapshot, shipments.get(i));
+        }
+    }
+
+    private static ShippingQuote quote(Map<String, RateCard> snapshot, ShipmentSpec shipment) {
+        RateCard card = snapshot.get(key(shipment.getShippingMethod()));
+        if (card == null) {
+            throw new IllegalArgumentException("No rate card for shipping method: " + shipment.getShippingMethod());
+        }
+        BigDecimal weight = shipment.getWeightKg();
+        BigDecimal distance = shipment.getDistanceKm();
+        int cell = card.cell(weight.doubleValue(), distance.doubleValue());
+
+        BigDecimal base = weight.multiply(card.perKg[cell]).add(distance.multiply(card.perKm[cell]));
+        Surcharge surcharge = card.surchargeFor(shipment.getDestination());
+        BigDecimal extra = surcharge.fixed.add(base.multiply(surcharge.percent).divide(HUNDRED));
+
+        Money baseCost = Money.of(base, CURRENCY);
+        Money surcharges = Money.of(extra, CURRENCY);
+        Money total = baseCost.plus(surcharges);
+        if (shipment.getAdditionalCosts() != null) {
+            total = total.plus(ExchangeRateService.convert(shipment.getAdditionalCosts(), CURRENCY));
+        }
+        return new ShippingQuote(shipment, baseCost, surcharges, total);
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // ============= LOADING =============
+
+    /**
+     * Re-read and recompile the rate cards. If the file cannot be read or is
+     * invalid, the previous cards stay in use.
+     *
+     * @return true if new cards were loaded
+     */
+    public static boolean reload() {
+        String override = System.getProperty(OVERRIDE_PROPERTY);
+        try {
+            Map<String, RateCard> compiled;
+            if (override != null && !override.trim().isEmpty()) {
+                Path path = Paths.get(override.trim());
+                try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                    compiled = parse(reader, path.toString());
+                }
+            } else {
+                InputStream input = ShippingRateService.class.getClassLoader().getResourceAsStream(RESOURCE);
+                if (input == null) {
+                    throw new IOException("Resource not found: " + RESOURCE);
+                }
+                try (Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8)) {
+                    compiled = parse(reader, RESOURCE);
+                }
+            }
+            cards.set(compiled);
+            PerformanceMetrics.incrementCounter("shipping.rateReloads");
+            logger.info("Loaded shipping rate cards for " + compiled.size() + " method(s)");
+            return true;
+
+        } catch (IOException | IllegalArgumentException e) {
+            logger.log(Level.SEVERE, "Could not load shipping rate cards", e);
+            return false;
+        }
+    }
+
+    /**
+     * Parse RATE and SURCHARGE lines and compile one card per method
+     */
+    private static Map<String, RateCard> parse(Reader source, String name) throws IOException {
+        Map<String, List<RateRow>> rates = new LinkedHashMap<>();
+        List<SurchargeRow> surcharges = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            for (int i = 0; i < fields.length; i++) {
+                fields[i] = fields[i].trim();
+            }
+            String where = name + ":" + lineNumber + ": ";
+            try {
+                if ("RATE".equalsIgnoreCase(fields[0]) && fields.length == 6) {
+                    RateRow row = new RateRow(nonNegative(fields[2], where), nonNegative(fields[3], where),
+                            nonNegative(fields[4], where), nonNegative(fields[5], where));
+                    rates.computeIfAbsent(fields[1], m -> new ArrayList<>()).add(row);
+                } else if ("SURCHARGE".equalsIgnoreCase(fields[0]) && fields.length == 5) {
+                    surcharges.add(new SurchargeRow(fields[1], fields[2],
+                            new BigDecimal(fields[3]), new BigDecimal(fields[4])));
+                } else {
+                    throw new IllegalArgumentException(where + "expected RATE with 6 fields or SURCHARGE with 5");
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(where + e.getMessage(), e);
+            }
+        }
+        if (rates.isEmpty()) {
+            throw new IllegalArgumentException(name + ": no rates found");
+        }
+
+        Map<String, RateCard> compiled = new LinkedHashMap<>();
+        for (Map.Entry<String, List<RateRow>> entry : rates.entrySet()) {
+            compiled.put(key(entry.getKey()), compile(entry.getKey(), entry.getValue(), surcharges, name));
+        }
+        return Collections.unmodifiableMap(compiled);
+    }
+
+    private static BigDecimal nonNegative(String text, String where) {
+        BigDecimal value = new BigDecimal(text);
+        if (value.signum() < 0) {
+            throw new IllegalArgumentException(where + "values must not be negative");
+        }
+        return value;
+    }
+
+    private static RateCard compile(String method, List<RateRow> rows, List<SurchargeRow> surcharges, String name) {
+        TreeSet<BigDecimal> weights = new TreeSet<>();
+        TreeSet<BigDecimal> distances = new TreeSet<>();
+        for (RateRow row : rows) {
+            weights.add(row.fromKg);
+            distances.add(row.fromKm);
+        }
+        if (weights.first().signum() != 0 || distances.first().signum() != 0) {
+            throw new IllegalArgumentException(name + ": " + method + " needs a rate from 0 kg and 0 km");
+        }
+        List<BigDecimal> weightList = new ArrayList<>(weights);
+        List<BigDecimal> distanceList = new ArrayList<>(distances);
+        int columns = distanceList.size();
+        BigDecimal[] perKg = new BigDecimal[weightList.size() * columns];
+        BigDecimal[] perKm = new BigDecimal[perKg.length];
+        for (RateRow row : rows) {
+            int cell = weightList.indexOf(row.fromKg) * columns + distanceList.indexOf(row.fromKm);
+            perKg[cell] = row.perKg;
+            perKm[cell] = row.perKm;
+        }
+        // Cells without a row take the rate of the next lower band, then the next lower break
+        for (int cell = 0; cell < perKg.length; cell++) {
+            if (perKg[cell] == null) {
+                int from = cell % columns > 0 ? cell - 1 : cell - columns;
+                perKg[cell] = perKg[from];
+                perKm[cell] = perKm[from];
+            }
+        }
+
+        // Pre-combine surcharges: every destination named anywhere gets its own total
+        Surcharge anyDestination = Surcharge.NONE;
+        Map<String, Surcharge> byDestination = new HashMap<>();
+        for (SurchargeRow row : surcharges) {
+            if (row.appliesTo(method) && ANY.equals(row.destination)) {
+                anyDestination = anyDestination.plus(row);
+            }
+        }
+        for (SurchargeRow row : surcharges) {
+            if (!ANY.equals(row.destination)) {
+                byDestination.putIfAbsent(key(row.destination), anyDestination);
+            }
+        }
+        for (SurchargeRow row : surcharges) {
+            if (row.appliesTo(method) && !ANY.equals(row.destination)) {
+                byDestination.merge(key(row.destination), Surcharge.NONE.plus(row), Surcharge::plus);
+            }
+        }
+
+        double[] weightBreaks = new double[weightList.size()];
+        for (int i = 0; i < weightBreaks.length; i++) {
+            weightBreaks[i] = weightList.get(i).doubleValue();
+        }
+        double[] distanceBands = new double[columns];
+        for (int i = 0; i < columns; i++) {
+            distanceBands[i] = distanceList.get(i).doubleValue();
+        }
+        return new RateCard(method, weightBreaks, distanceBands, perKg, perKm, anyDestination, byDestination);
+    }
+
+    /**
+     * Compiled rates of one shipping method
+     */
+    private static final class RateCard {
+        final String method;
+        final double[] weightBreaks;
+        final double[] distanceBands;
+        // Row-major [weight break][distance band]
+        final BigDecimal[] perKg;
+        final BigDecimal[] perKm;
+        final Surcharge anyDestination;
+        final Map<String, Surcharge> byDestination;
+
+        RateCard(String method, double[] weightBreaks, double[] distanceBands, BigDecimal[] perKg,
+                 BigDecimal[] perKm, Surcharge anyDestination, Map<String, Surcharge> byDestination) {
+            this.method = method;
+            this.weightBreaks = weightBreaks;
+            this.distanceBands = distanceBands;
+            this.perKg = perKg;
+            this.perKm = perKm;
+            this.anyDestination = anyDestination;
+            this.byDestination = byDestination;
+        }
+
+        int cell(double weight, double distance) {
+            return floorIndex(weightBreaks, weight) * distanceBands.length + floorIndex(distanceBands, distance);
+        }
+
+        Surcharge surchargeFor(String destination) {
+            if (destination == null || byDestination.isEmpty()) {
+                return anyDestination;
+            }
+            return byDestination.getOrDefault(key(destination), anyDestination);
+        }
+
+        private static int floorIndex(double[] bounds, double value) {
+            int index = Arrays.binarySearch(bounds, value);
+            return index >= 0 ? index : Math.max(0, -index - 2);
+        }
+    }
+
+    /**
+     * Combined fixed and percentage surcharge
+     */
+    private static final class Surcharge {
+        static final Surcharge NONE = new Surcharge(BigDecimal.ZERO, BigDecimal.ZERO);
+
+        final BigDecimal fixed;
+        final BigDecimal percent;
+
+        Surcharge(BigDecimal fixed, BigDecimal percent) {
+            this.fixed = fixed;
+            this.percent = percent;
+        }
+
+        Surcharge plus(SurchargeRow row) {
+            return new Surcharge(fixed.add(row.fixed), percent.add(row.percent));
+        }
+
+        Surcharge plus(Surcharge other) {
+            return new Surcharge(fixed.add(other.fixed), percent.add(other.percent));
+        }
+    }
+
+    private static final class RateRow {
+        final BigDecimal fromKg;
+        final BigDecimal fromKm;
+        final BigDecimal perKg;
+        final BigDecimal perKm;
+
+        RateRow(BigDecimal fromKg, BigDecimal fromKm, BigDecimal perKg, BigDecimal perKm) {
+            // Strip trailing zeros so "100" and "100.0" are the same break
+            this.fromKg = fromKg.stripTrailingZeros();
+            this.fromKm = fromKm.stripTrailingZeros();
+            this.perKg = perKg;
+            this.perKm = perKm;
+        }
+    }
+
+    private static final class SurchargeRow {
+        final String method;
+        final String destination;
+        final BigDecimal fixed;
+        final BigDecimal percent;
+
+        SurchargeRow(String method, String destination, BigDecimal fixed, BigDecimal percent) {
+            this.method = method;
+            this.destination = destination;
+            this.fixed = fixed;
+            this.percent = percent;
+        }
+
+        boolean appliesTo(String rateMethod) {
+            return ANY.equals(method) || key(method).equals(key(rateMethod));
+        }
+    }
+}
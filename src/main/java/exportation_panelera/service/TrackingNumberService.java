@@ -0,0 +1,331 @@
+package exportation_panelera.service;
+
+import exportation_panelera.concurrent.AppExecutors;
+import exportation_panelera.concurrent.TaskType;
+import exportation_panelera.db.DatabaseManager;
+import exportation_panelera.metrics.PerformanceMetrics;
+
+import java.security.SecureRandom;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Generates unique tracking numbers of the form TRK + 8 digits + check digit
+ * + country code, e.g. "TRK482139075US" (payload 48213907, check digit 5).
+ *
+ * The 8-digit payload is a counter passed through a fixed permutation of
+ * [10000000, 99999999] with a random per-process offset, so numbers never
+ * repeat within a process and look unrelated to each other. The check digit
+ * uses the UPU S10 mod-11 scheme, so typos are caught by {@link #isValid}.
+ *
+ * Uniqueness: numbers issued or seen in this session are kept in an exact set;
+ * numbers already saved when the service loaded are in a Bloom filter (about
+ * 10 bits each instead of a full String). The database is only queried for a
+ * candidate the Bloom filter reports as possibly taken; if that query fails,
+ * generation fails rather than risk a duplicate. The UNIQUE index of schema
+ * V9 rejects any duplicate that still reaches the table.
+ */
+public class TrackingNumberService {
+
+    private static final Logger logger = Logger.getLogger(TrackingNumberService.class.getName());
+
+    private static final String PREFIX = "TRK";
+    private static final String DEFAULT_COUNTRY = "XX";
+    private static final long PAYLOAD_MIN = 10_000_000L;
+    private static final long PAYLOAD_RANGE = 90_000_000L;
+    // Coprime with 90,000,000 (= 2^7 * 3^2 * 5^7), so the mapping is a permutation
+    private static final long PAYLOAD_MULTIPLIER = 61_803_401L;
+    private static final int[] S10_WEIGHTS = {8, 6, 4, 2, 3, 5, 9, 7};
+    private static final double BLOOM_FALSE_POSITIVE_RATE = 0.01;
+    private static final int MAX_ATTEMPTS = 100;
+    private static final int MAX_IN_LIST = 500;
+    private static final int DB_CHECK_ATTEMPTS = 2;
+
+    private static final String COUNT_SQL =
+        "SELECT COUNT(*) FROM deliveries WHERE tracking_number IS NOT NULL";
+    private static final String LOAD_SQL =
+        "SELECT tracking_number FROM deliveries WHERE tracking_number IS NOT NULL";
+
+    private static final AtomicLong counter = new AtomicLong();
+    private static final long payloadOffset;
+
+    // Guarded by the class lock
+    private static BloomFilter existingNumbers = null;
+    private static final Set<String> knownNumbers = new HashSet<>();
+
+    static {
+        SplittableRandom random = new SplittableRandom(new SecureRandom().nextLong());
+        payloadOffset = random.nextLong(PAYLOAD_RANGE);
+    }
+
+    // Prevent instantiation of utility class
+    private TrackingNumberService() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated");
+    }
+
+    // ============= GENERATION =============
+
+    /**
+     * Generate one unique tracking number
+     *
+     * @param countryCode two-letter destination code, "XX" if unknown
+     * @return the tracking number
+     * @throws IllegalStateException if no unique number was found or the
+     *         database could not be checked
+     */
+    public static synchronized String generate(String countryCode) {
+        ensureLoaded();
+        String country = normalizeCountry(countryCode);
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            String candidate = format(nextPayload(), country);
+            if (knownNumbers.contains(candidate)) {
+                PerformanceMetrics.incrementCounter("tracking.duplicates");
+                continue;
+            }
+            if (!existingNumbers.mightContain(candidate)) {
+                return accept(candidate);
+            }
+            PerformanceMetrics.incrementCounter("tracking.bloomHits");
+            if (existsInDatabase(List.of(candidate)).isEmpty()) {
+                return accept(candidate);
+            }
+            knownNumbers.add(candidate);
+            PerformanceMetrics.incrementCounter("tracking.duplicates");
+        }
+        throw new IllegalStateException("Could not generate a unique tracking number after "
+                + MAX_ATTEMPTS + " attempts");
+    }
+
+    /**
+     * Generate many unique tracking numbers at once, e.g. for a label run.
+     * Possible duplicates are checked against the database together, a few
+     * hundred per query.
+     *
+     * @param countryCode two-letter destination code
+     * @param count how many numbers to generate
+     * @return the tracking numbers in generation order
+     */
+    public static synchronized List<String> generateBatch(String countryCode, int count) {
+        ensureLoaded();
+        String country = normalizeCountry(countryCode);
+        List<String> result = new ArrayList<>(count);
+
+        int rounds = 0;
+        while (result.size() < count) {
+            if (rounds++ >= MAX_ATTEMPTS) {
+                throw new IllegalStateException("Could not generate " + count + " unique tracking numbers");
+            }
+            List<String> suspects = new ArrayList<>();
+            while (result.size() + suspects.size() < count) {
+                String candidate = format(nextPayload(), country);
+                if (knownNumbers.contains(candidate)) {
+                    continue;
+                }
+                if (!existingNumbers.mightContain(candidate)) {
+                    result.add(accept(candidate));
+                } else {
+                    PerformanceMetrics.incrementCounter("tracking.bloomHits");
+                    suspects.add(candidate);
+                }
+            }
+            if (!suspects.isEmpty()) {
+                Set<String> taken = new HashSet<>();
+                for (int from = 0; from < suspects.size(); from += MAX_IN_LIST) {
+                    taken.addAll(existsInDatabase(
+                            suspects.subList(from, Math.min(suspects.size(), from + MAX_IN_LIST))));
+                }
+                for (String suspect : suspects) {
+                    if (taken.contains(suspect)) {
+                        knownNumbers.add(suspect);
+                    } else {
+                        result.add(accept(suspect));
+                    }
+                }
+            }
+        }
+        logger.info("Generated " + count + " tracking numbers for " + country);
+        return result;
+    }
+
+    /**
+     * Tracking number as stored in deliveries: trimmed, and null instead of
+     * empty, so deliveries without one do not collide on the UNIQUE index
+     */
+    public static String toStored(String trackingNumber) {
+        if (trackingNumber == null || trackingNumber.trim().isEmpty()) {
+            return null;
+        }
+        return trackingNumber.trim();
+    }
+
+    /**
+     * Check the format and check digit of a tracking number
+     */
+    public static boolean isValid(String trackingNumber) {
+        if (trackingNumber == null || trackingNumber.length() != 14 || !trackingNumber.startsWith(PREFIX)) {
+            return false;
+        }
+        long payload = 0;
+        for (int i = 3; i < 11; i++) {
+            char c = trackingNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            payload = payload * 10 + (c - '0');
+        }
+        return trackingNumber.charAt(11) == (char) ('0' + checkDigit(payload))
+                && Character.isLetter(trackingNumber.charAt(12))
+                && Character.isLetter(trackingNumber.charAt(13));
+    }
+
+    /**
+     * Load existing tracking numbers in the background, e.g. when a form opens
+     */
+    public static void warmUp() {
+        AppExecutors.submit(TaskType.DB_IO, () -> {
+            ensureLoaded();
+            return null;
+        });
+    }
+
+    // ============= HELPERS =============
+
+    private static long nextPayload() {
+        long position = Math.floorMod(counter.getAndIncrement() + payloadOffset, PAYLOAD_RANGE);
+        return PAYLOAD_MIN + (position * PAYLOAD_MULTIPLIER) % PAYLOAD_RANGE;
+    }
+
+    private static String format(long payload, String country) {
+        return PREFIX + payload + checkDigit(payload) + country;
+    }
+
+    /**
+     * UPU S10 check digit over 8 digits
+     */
+    private static int checkDigit(long payload) {
+        int sum = 0;
+        for (int i = S10_WEIGHTS.length - 1; i >= 0; i--) {
+            sum += (int) (payload % 10) * S10_WEIGHTS[i];
+            payload /= 10;
+        }
+        int check = 11 - sum % 11;
+        return check == 10 ? 0 : check == 11 ? 5 : check;
+    }
+
+    private static String normalizeCountry(String countryCode) {
+        if (countryCode == null || countryCode.trim().length() != 2) {
+            return DEFAULT_COUNTRY;
+        }
+        return countryCode.trim().toUpperCase();
+    }
+
+    private static String accept(String trackingNumber) {
+        knownNumbers.add(trackingNumber);
+        return trackingNumber;
+    }
+
+    /**
+     * Build the Bloom filter from the deliveries table (once)
+     */
+    private static synchronized void ensureLoaded() {
+        if (existingNumbers != null) {
+            return;
+        }
+        long queryStart = PerformanceMetrics.startQuery();
+        boolean queryFailed = false;
+        try {
+            Connection conn = DatabaseManager.getConnection();
+            if (conn == null) {
+                existingNumbers = new BloomFilter(10_000, BLOOM_FALSE_POSITIVE_RATE);
+                return;
+            }
+            int existing = 0;
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(COUNT_SQL)) {
+                if (rs.next()) {
+                    existing = rs.getInt(1);
+                }
+            }
+            BloomFilter filter = new BloomFilter(existing * 2 + 10_000, BLOOM_FALSE_POSITIVE_RATE);
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(LOAD_SQL)) {
+                while (rs.next()) {
+                    filter.add(rs.getString(1));
+                }
+            }
+            existingNumbers = filter;
+            logger.info("Loaded " + existing + " existing tracking numbers");
+
+        } catch (SQLException e) {
+            queryFailed = true;
+            logger.log(Level.WARNING, "Could not load existing tracking numbers", e);
+            existingNumbers = new BloomFilter(10_000, BLOOM_FALSE_POSITIVE_RATE);
+        } finally {
+            PerformanceMetrics.endQuery("deliveries.loadTrackingNumbers", queryStart, queryFailed);
+        }
+    }
+
+    /**
+     * @return the given numbers that already exist in the deliveries table
+     * @throws IllegalStateException if the database could not be checked,
+     *         after one retry
+     */
+    private static Set<String> existsInDatabase(List<String> candidates) {
+        SQLException lastError = null;
+        for (int attempt = 0; attempt < DB_CHECK_ATTEMPTS; attempt++) {
+            try {
+                return queryExisting(candidates);
+            } catch (SQLException e) {
+                lastError = e;
+                logger.log(Level.WARNING, "Could not check tracking numbers against the database", e);
+            }
+        }
+        throw new IllegalStateException("Could not check tracking numbers against the database", lastError);
+    }
+
+    private static Set<String> queryExisting(List<String> candidates) throws SQLException {
+        PerformanceMetrics.incrementCounter("tracking.dbChecks");
+        Set<String> found = new HashSet<>();
+        long queryStart = PerformanceMetrics.startQuery();
+        boolean queryFailed = false;
+        try {
+            Connection conn = DatabaseManager.getConnection();
+            if (conn == null) {
+                throw new SQLException("No database connection");
+            }
+            StringBuilder sql = new StringBuilder("SELECT tracking_number FROM deliveries WHERE tracking_number IN (");
+            for (int i = 0; i < candidates.size(); i++) {
+                sql.append(i == 0 ? "?" : ",?");
+            }
+            sql.append(')');
+            try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+                for (int i = 0; i < candidates.size(); i++) {
+                    stmt.setString(i + 1, candidates.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        found.add(rs.getString(1));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            queryFailed = true;
+            throw e;
+        } finally {
+            PerformanceMetrics.endQuery("deliveries.checkTrackingNumbers", queryStart, queryFailed);
+        }
+        return found;
+    }
+}
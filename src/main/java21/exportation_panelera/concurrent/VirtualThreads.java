@@ -0,0 +1,28 @@
+package exportation_panelera.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Java 21 version of the virtual thread helper, packaged under
+ * {@code META-INF/versions/21}. Calls the API directly instead of
+ * through reflection.
+ */
+final class VirtualThreads {
+
+    // Prevent instantiation of utility class
+    private VirtualThreads() {
+        throw new UnsupportedOperationException("Utility class - cannot be instantiated");
+    }
+
+    /**
+     * Create a thread-per-task executor backed by virtual threads
+     * named "app-&lt;prefix&gt;-v&lt;n&gt;"
+     *
+     * @return the executor, never null on this JDK
+     */
+    static ExecutorService newThreadPerTaskExecutor(String prefix) {
+        return Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("app-" + prefix + "-v", 1L).factory());
+    }
+}
@@ -0,0 +1,69 @@
+-- Baseline schema: the tables the application has always created, plus the
+-- customers table and exportation columns the controller relies on.
+-- Safe on existing databases: existing tables and columns are skipped.
+
+CREATE TABLE IF NOT EXISTS users (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(50) UNIQUE NOT NULL,
+    password_hash VARCHAR(255) NOT NULL,
+    is_active BOOLEAN DEFAULT TRUE,
+    last_login TIMESTAMP NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS customers (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    email VARCHAR(100),
+    phone VARCHAR(20),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS exportations (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    exportation_id VARCHAR(50) UNIQUE,
+    product_type VARCHAR(100),
+    amount DECIMAL(10,2),
+    destination VARCHAR(100),
+    exportation_date DATE,
+    unit_price DECIMAL(10,2),
+    currency VARCHAR(3),
+    has_delivery BOOLEAN DEFAULT FALSE,
+    status VARCHAR(50),
+    notes TEXT,
+    customer_name VARCHAR(100),
+    customer_email VARCHAR(100),
+    customer_phone VARCHAR(20),
+    document_number VARCHAR(50),
+    export_license VARCHAR(50),
+    employee_id VARCHAR(50),
+    transport_method VARCHAR(50),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+ALTER TABLE exportations ADD COLUMN customer_id INT NULL, ALGORITHM=INPLACE, LOCK=NONE;
+ALTER TABLE exportations ADD COLUMN export_date DATE NULL, ALGORITHM=INPLACE, LOCK=NONE;
+ALTER TABLE exportations ADD COLUMN reference_number VARCHAR(100) NULL, ALGORITHM=INPLACE, LOCK=NONE;
+
+CREATE TABLE IF NOT EXISTS deliveries (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    delivery_id VARCHAR(50) UNIQUE,
+    exportation_id VARCHAR(50),
+    carrier_name VARCHAR(100),
+    tracking_number VARCHAR(100),
+    delivery_address TEXT,
+    contact_person VARCHAR(100),
+    contact_phone VARCHAR(20),
+    delivery_date DATE,
+    status VARCHAR(50),
+    notes TEXT,
+    shipping_method VARCHAR(50),
+    shipping_cost DECIMAL(10,2),
+    shipping_currency VARCHAR(3),
+    reference_number VARCHAR(100),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
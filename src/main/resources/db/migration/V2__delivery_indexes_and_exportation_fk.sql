@@ -0,0 +1,31 @@
+-- Indexes for the delivery list, status filters and the exportation join,
+-- and an integer foreign key from deliveries to exportations.
+-- Indexes and columns are added in place without blocking writes.
+
+ALTER TABLE deliveries ADD INDEX idx_deliveries_tracking_number (tracking_number), ALGORITHM=INPLACE, LOCK=NONE;
+ALTER TABLE deliveries ADD INDEX idx_deliveries_exportation_id (exportation_id), ALGORITHM=INPLACE, LOCK=NONE;
+ALTER TABLE deliveries ADD INDEX idx_deliveries_status_date (status, delivery_date), ALGORITHM=INPLACE, LOCK=NONE;
+ALTER TABLE deliveries ADD INDEX idx_deliveries_delivery_date (delivery_date), ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE exportations ADD INDEX idx_exportations_status_date (status, exportation_date), ALGORITHM=INPLACE, LOCK=NONE;
+ALTER TABLE exportations ADD INDEX idx_exportations_customer (customer_id), ALGORITHM=INPLACE, LOCK=NONE;
+ALTER TABLE exportations ADD INDEX idx_exportations_destination (destination), ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE deliveries ADD COLUMN exportation_ref INT NULL, ALGORITHM=INPLACE, LOCK=NONE;
+ALTER TABLE deliveries ADD INDEX idx_deliveries_exportation_ref (exportation_ref), ALGORITHM=INPLACE, LOCK=NONE;
+
+-- Backfill in small batches so no long row locks are held
+-- @repeat
+UPDATE deliveries d
+   SET d.exportation_ref = (SELECT e.id FROM exportations e WHERE e.exportation_id = d.exportation_id)
+ WHERE d.exportation_ref IS NULL
+   AND EXISTS (SELECT 1 FROM exportations e WHERE e.exportation_id = d.exportation_id)
+ LIMIT 1000;
+
+-- With foreign_key_checks off the constraint is added in place; the
+-- backfill above only stored IDs that exist
+SET foreign_key_checks = 0;
+ALTER TABLE deliveries ADD CONSTRAINT fk_deliveries_exportation
+    FOREIGN KEY (exportation_ref) REFERENCES exportations (id) ON DELETE SET NULL,
+    ALGORITHM=INPLACE, LOCK=NONE;
+SET foreign_key_checks = 1;
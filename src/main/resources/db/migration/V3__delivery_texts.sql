@@ -0,0 +1,34 @@
+-- Move the large delivery texts out of the hot deliveries rows into a side
+-- table keyed by delivery id. The inline columns are kept (and emptied) so
+-- older clients keep working; readers prefer an inline value if one is set.
+
+CREATE TABLE IF NOT EXISTS delivery_texts (
+    delivery_id INT PRIMARY KEY,
+    notes TEXT,
+    delivery_address TEXT,
+    CONSTRAINT fk_delivery_texts_delivery FOREIGN KEY (delivery_id) REFERENCES deliveries (id) ON DELETE CASCADE
+);
+
+-- Older installs were created without the address column
+ALTER TABLE deliveries ADD COLUMN delivery_address TEXT NULL, ALGORITHM=INPLACE, LOCK=NONE;
+
+-- @repeat
+INSERT INTO delivery_texts (delivery_id, notes, delivery_address)
+SELECT d.id, d.notes, d.delivery_address
+  FROM deliveries d
+ WHERE (d.notes IS NOT NULL OR d.delivery_address IS NOT NULL)
+   AND NOT EXISTS (SELECT 1 FROM delivery_texts t WHERE t.delivery_id = d.id)
+ ORDER BY d.id
+ LIMIT 1000;
+
+-- Only empty rows still holding exactly what was copied: an older client
+-- may have edited the inline texts since, and readers prefer those
+-- @repeat
+UPDATE deliveries d
+   SET d.notes = NULL, d.delivery_address = NULL
+ WHERE (d.notes IS NOT NULL OR d.delivery_address IS NOT NULL)
+   AND EXISTS (SELECT 1 FROM delivery_texts t
+                WHERE t.delivery_id = d.id
+                  AND t.notes <=> d.notes
+                  AND t.delivery_address <=> d.delivery_address)
+ LIMIT 1000;
@@ -0,0 +1,27 @@
+-- History table for delivered and cancelled deliveries, filled by
+-- DeliveryArchiveService. Partitioned by delivery month so date-range reads
+-- only touch the months they ask for; monthly partitions are split off
+-- p_future by the archiver as it reaches new months. Partitioned tables
+-- cannot take part in foreign keys, so exportation_ref is a plain column.
+
+CREATE TABLE IF NOT EXISTS deliveries_archive (
+    id INT NOT NULL,
+    exportation_id VARCHAR(50),
+    exportation_ref INT NULL,
+    delivery_date DATE NOT NULL,
+    tracking_number VARCHAR(100),
+    status VARCHAR(50),
+    notes TEXT,
+    delivery_address TEXT,
+    created_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL,
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, delivery_date),
+    INDEX idx_deliveries_archive_date (delivery_date),
+    INDEX idx_deliveries_archive_exportation_id (exportation_id),
+    INDEX idx_deliveries_archive_tracking_number (tracking_number)
+)
+PARTITION BY RANGE (TO_DAYS(delivery_date)) (
+    PARTITION p_history VALUES LESS THAN (TO_DAYS('2020-01-01')),
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
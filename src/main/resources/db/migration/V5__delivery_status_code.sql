@@ -0,0 +1,24 @@
+-- Typed delivery status: status_code holds DeliveryStatus.getCode()
+-- (1 Pending, 2 In Transit, 3 Delivered, 4 Cancelled, 0 unrecognised).
+-- The status text column stays for older clients and reports.
+
+ALTER TABLE deliveries ADD COLUMN status_code TINYINT UNSIGNED NULL, ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE deliveries ADD INDEX idx_deliveries_status_code_date (status_code, delivery_date), ALGORITHM=INPLACE, LOCK=NONE;
+
+-- Same normalisation as DeliveryStatus.parse: ignore case, spaces, '-' and '_'
+-- @repeat
+UPDATE deliveries
+   SET status_code = CASE UPPER(REPLACE(REPLACE(REPLACE(status, ' ', ''), '_', ''), '-', ''))
+           WHEN 'PENDING' THEN 1
+           WHEN 'INTRANSIT' THEN 2
+           WHEN 'TRANSIT' THEN 2
+           WHEN 'SHIPPED' THEN 2
+           WHEN 'DELIVERED' THEN 3
+           WHEN 'COMPLETED' THEN 3
+           WHEN 'CANCELLED' THEN 4
+           WHEN 'CANCELED' THEN 4
+           ELSE 0
+       END
+ WHERE status_code IS NULL AND status IS NOT NULL
+ LIMIT 1000;
@@ -0,0 +1,7 @@
+-- Indexes for the remaining sortable columns of the delivery grid. InnoDB
+-- appends the primary key to every secondary index, so each of these also
+-- serves the (column, id) order and keyset seeks of DeliverySort.
+
+ALTER TABLE deliveries ADD INDEX idx_deliveries_created_at (created_at), ALGORITHM=INPLACE, LOCK=NONE;
+ALTER TABLE deliveries ADD INDEX idx_deliveries_updated_at (updated_at), ALGORITHM=INPLACE, LOCK=NONE;
+ALTER TABLE deliveries ADD INDEX idx_deliveries_status_code (status_code), ALGORITHM=INPLACE, LOCK=NONE;
@@ -0,0 +1,6 @@
+-- Full-text index for searching delivery notes and addresses with
+-- MATCH ... AGAINST. The first FULLTEXT index on a table adds InnoDB's
+-- hidden FTS_DOC_ID column, so this rebuilds delivery_texts once; the table
+-- only holds the side texts and stays small next to deliveries.
+
+ALTER TABLE delivery_texts ADD FULLTEXT INDEX ft_delivery_texts_notes_address (notes, delivery_address);
@@ -0,0 +1,8 @@
+-- Hi/lo ID blocks for IdAllocator, one row per sequence. Rows are added by
+-- the allocator the first time it reserves a block of a sequence.
+-- (deliveries.tracking_number is indexed since V2.)
+
+CREATE TABLE IF NOT EXISTS sequences (
+    name VARCHAR(50) PRIMARY KEY,
+    next_val BIGINT NOT NULL
+);
@@ -0,0 +1,22 @@
+-- Let the database enforce unique tracking numbers. UNIQUE allows any
+-- number of NULLs, so deliveries without a tracking number store NULL
+-- instead of an empty string.
+
+-- @repeat
+UPDATE deliveries SET tracking_number = NULL WHERE TRIM(tracking_number) = '' LIMIT 1000;
+
+-- Existing duplicates: the first delivery keeps the number, later ones get a
+-- visible suffix instead of losing it
+UPDATE deliveries d
+  JOIN (SELECT tracking_number, MIN(id) AS first_id
+          FROM deliveries
+         WHERE tracking_number IS NOT NULL
+         GROUP BY tracking_number
+        HAVING COUNT(*) > 1) dup ON dup.tracking_number = d.tracking_number
+   SET d.tracking_number = CONCAT(d.tracking_number, '-DUP', d.id)
+ WHERE d.id > dup.first_id;
+
+ALTER TABLE deliveries ADD UNIQUE INDEX ux_deliveries_tracking_number (tracking_number), ALGORITHM=INPLACE, LOCK=NONE;
+
+-- The unique index serves every lookup the V2 index did
+ALTER TABLE deliveries DROP INDEX idx_deliveries_tracking_number, ALGORITHM=INPLACE, LOCK=NONE;